@@ -0,0 +1,67 @@
+package com.example.application.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de encode/matches dos candidatos para app.password.*.
+ * Rodar na mesma classe de CPU dos pods (1 vCPU):
+ *   mvn -Pbenchmark compile exec:exec
+ * Parâmetros extras do JMH podem ir em -Djmh.args="...", ex.: -Djmh.args="-p candidate=bcrypt-10,argon2-19m-2".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class PasswordEncoderBenchmark {
+
+    @Param({
+            "bcrypt-10", "bcrypt-11", "bcrypt-12",
+            "argon2-19m-2", "argon2-46m-1", "argon2-64m-3",
+            "pbkdf2-310000", "pbkdf2-600000"
+    })
+    public String candidate;
+
+    private PasswordEncoder encoder;
+    private String encoded;
+    private final String plain = "Senha-De-Teste-123";
+
+    @Setup
+    public void setUp() {
+        encoder = create(candidate);
+        encoded = encoder.encode(plain);
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(plain);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches(plain, encoded);
+    }
+
+    /** Mesmos construtores usados em PasswordHashPolicy, para o número medido valer para a configuração. */
+    static PasswordEncoder create(String candidate) {
+        String[] p = candidate.split("-");
+        return switch (p[0]) {
+            case "bcrypt" -> new BCryptPasswordEncoder(Integer.parseInt(p[1]));
+            case "argon2" -> {
+                int memoryKib = Integer.parseInt(p[1].replace("m", "")) * 1024;
+                yield new Argon2PasswordEncoder(16, 32, 1, memoryKib, Integer.parseInt(p[2]));
+            }
+            case "pbkdf2" -> new Pbkdf2PasswordEncoder("", 16, Integer.parseInt(p[1]),
+                    Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+            default -> throw new IllegalArgumentException("Candidato desconhecido: " + candidate);
+        };
+    }
+}
@@ -1,7 +1,5 @@
 package com.example.application.base.ui;
 
-import com.example.application.classes.model.AppUser;
-import com.example.application.classes.service.AppUserService;
 import com.example.application.classes.service.CurrentCompanyService;
 import com.example.application.classes.service.CurrentUserService;
 import com.vaadin.flow.component.UI;
@@ -25,7 +23,6 @@ import static com.vaadin.flow.theme.lumo.LumoUtility.*;
 public final class MainLayout extends AppLayout implements AfterNavigationObserver, BeforeEnterObserver {
 
     private final CurrentUserService currentUserService;
-    private final AppUserService appUserService;
     private final CurrentCompanyService currentCompanyService;
 
     private final DrawerToggle toggle;
@@ -38,10 +35,8 @@ public final class MainLayout extends AppLayout implements AfterNavigationObserv
 
 
     public MainLayout(CurrentUserService currentUserService,
-                      AppUserService appUserService,
                       CurrentCompanyService currentCompanyService) {
         this.currentUserService = currentUserService;
-        this.appUserService = appUserService;
         this.currentCompanyService = currentCompanyService;
 
         setPrimarySection(Section.DRAWER);
@@ -183,20 +178,17 @@ public final class MainLayout extends AppLayout implements AfterNavigationObserv
         manageCompanyUsersItem.setVisible(admin);
     }
 
+    /** Monta o texto só com os dados da sessão, sem consultar o banco. */
     private String buildCenterInfoText() {
         try {
             if (!currentUserService.isLoggedIn()) {
                 return "";
             }
 
-            long userId = currentUserService.requireUserId();
-            var userOpt = appUserService.findById(userId);
-            if (userOpt.isEmpty()) {
-                return "";
-            }
-            AppUser u = userOpt.get();
+            String email = currentUserService.requireEmail();
+            String name = currentUserService.nameOrEmpty().orElse(email);
 
-            String userPart = u.getName() + " (" + u.getEmail() + ")";
+            String userPart = name + " (" + email + ")";
             String companyName = currentCompanyService.activeCompanyNameOrNull();
 
             if (companyName == null || companyName.isBlank()) {
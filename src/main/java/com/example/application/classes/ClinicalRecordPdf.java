@@ -0,0 +1,153 @@
+package com.example.application.classes;
+
+import com.lowagie.text.*;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.ColumnText;
+import com.lowagie.text.pdf.PdfContentByte;
+import com.lowagie.text.pdf.PdfPageEventHelper;
+import com.lowagie.text.pdf.PdfWriter;
+import com.lowagie.text.pdf.draw.LineSeparator;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * PDF do prontuário de um pet, escrito em streaming: cada página vai para o stream assim que fecha,
+ * então a memória não cresce com o número de atendimentos. Não fecha o stream de saída.
+ * Uso: cabeçalho com field(...), depois attendance(...) por atendimento e close().
+ */
+public final class ClinicalRecordPdf implements AutoCloseable {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static final Font TITLE = font(BaseFont.HELVETICA_BOLD, 16, Color.BLACK);
+    private static final Font SUBTITLE = font(BaseFont.HELVETICA, 10, Color.DARK_GRAY);
+    private static final Font LABEL = font(BaseFont.HELVETICA_BOLD, 9, Color.DARK_GRAY);
+    private static final Font VALUE = font(BaseFont.HELVETICA, 9, Color.BLACK);
+    private static final Font ENTRY_TITLE = font(BaseFont.HELVETICA_BOLD, 10, Color.BLACK);
+    private static final Font TEXT = font(BaseFont.HELVETICA, 10, Color.BLACK);
+    private static final Font FOOTER = font(BaseFont.HELVETICA, 8, Color.GRAY);
+
+    private final Document document;
+    private long attendances;
+    private boolean headerDone;
+
+    public ClinicalRecordPdf(OutputStream out, String companyName, String title) throws IOException {
+        this.document = new Document(PageSize.A4, 50, 50, 50, 50);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            writer.setFullCompression();
+            writer.setPageEvent(new Footer(companyName));
+            document.addTitle(title);
+            document.addCreator(companyName);
+            document.open();
+
+            document.add(new Paragraph(title, TITLE));
+            document.add(new Paragraph(companyName + " · emitido em " + LocalDateTime.now().format(DATE_TIME), SUBTITLE));
+            document.add(Chunk.NEWLINE);
+        } catch (DocumentException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /** Linha "rótulo: valor" do cabeçalho; valores vazios são omitidos. */
+    public void field(String label, Object value) throws IOException {
+        String text = format(value);
+        if (text.isEmpty()) return;
+        Paragraph p = new Paragraph();
+        p.add(new Chunk(label + ": ", LABEL));
+        p.add(new Chunk(text, VALUE));
+        add(p);
+    }
+
+    public void attendance(long id, LocalDateTime happenedAt, LocalDateTime scheduledAt,
+                           String vetName, String description) throws IOException {
+        if (!headerDone) startEntries();
+
+        Paragraph title = new Paragraph();
+        title.add(new Chunk(format(happenedAt) + "  ·  Atendimento #" + id, ENTRY_TITLE));
+        if (vetName != null && !vetName.isBlank()) {
+            title.add(new Chunk("  ·  " + vetName, SUBTITLE));
+        }
+        title.setSpacingBefore(8);
+        title.setKeepTogether(true);
+        add(title);
+
+        if (scheduledAt != null && !scheduledAt.equals(happenedAt)) {
+            add(new Paragraph("Agendado para " + scheduledAt.format(DATE_TIME), SUBTITLE));
+        }
+
+        String text = description == null || description.isBlank() ? "(sem descrição)" : description.strip();
+        Paragraph body = new Paragraph(text, TEXT);
+        body.setSpacingBefore(2);
+        add(body);
+        attendances++;
+    }
+
+    private void startEntries() throws IOException {
+        headerDone = true;
+        add(Chunk.NEWLINE);
+        add(new LineSeparator(0.5f, 100, Color.LIGHT_GRAY, Element.ALIGN_CENTER, -2));
+        add(new Paragraph("Histórico de atendimentos", ENTRY_TITLE));
+    }
+
+    public long attendances() {
+        return attendances;
+    }
+
+    private void add(Element element) throws IOException {
+        try {
+            document.add(element);
+        } catch (DocumentException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!headerDone) startEntries();
+        if (attendances == 0) {
+            add(new Paragraph("Nenhum atendimento registrado.", SUBTITLE));
+        }
+        document.close();
+    }
+
+    private static String format(Object value) {
+        if (value == null) return "";
+        if (value instanceof LocalDateTime dt) return dt.format(DATE_TIME);
+        if (value instanceof LocalDate d) return d.format(DATE);
+        return value.toString().strip();
+    }
+
+    private static Font font(String name, float size, Color color) {
+        try {
+            // CP1252 cobre os acentos do português com as fontes padrão do PDF (nada embutido).
+            return new Font(BaseFont.createFont(name, BaseFont.CP1252, BaseFont.NOT_EMBEDDED), size, Font.NORMAL, color);
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Footer extends PdfPageEventHelper {
+        private final String companyName;
+
+        Footer(String companyName) {
+            this.companyName = companyName;
+        }
+
+        @Override
+        public void onEndPage(PdfWriter writer, Document document) {
+            PdfContentByte cb = writer.getDirectContent();
+            ColumnText.showTextAligned(cb, Element.ALIGN_LEFT, new Phrase(companyName, FOOTER),
+                    document.left(), document.bottom() - 20, 0);
+            ColumnText.showTextAligned(cb, Element.ALIGN_RIGHT, new Phrase("Página " + writer.getPageNumber(), FOOTER),
+                    document.right(), document.bottom() - 20, 0);
+        }
+    }
+}
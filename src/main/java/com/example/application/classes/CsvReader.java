@@ -0,0 +1,96 @@
+package com.example.application.classes;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV em streaming (RFC 4180): campos entre aspas, aspas duplicadas e quebras de linha dentro de aspas.
+ * Lê uma linha lógica por chamada de {@link #next()}, sem carregar o arquivo inteiro.
+ */
+public final class CsvReader implements AutoCloseable {
+
+    private final Reader in;
+    private final char separator;
+    private final char[] buf = new char[8192];
+    private int len;
+    private int pos;
+    private long line = 1;
+
+    public CsvReader(Reader in, char separator) {
+        this.in = in;
+        this.separator = separator;
+    }
+
+    /** Número da linha física onde começa o próximo registro (para mensagens de erro). */
+    public long lineNumber() {
+        return line;
+    }
+
+    /** Próximo registro, ou null no fim do arquivo. */
+    public String[] next() throws IOException {
+        int c = read();
+        if (c < 0) return null;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (true) {
+            if (quoted) {
+                if (c < 0) throw new IOException("Aspas não fechadas (linha " + line + ")");
+                if (c == '"') {
+                    int n = peek();
+                    if (n == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') line++;
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c < 0) {
+                line++;
+                break;
+            } else if (c == '\r') {
+                if (peek() == '\n') read();
+                line++;
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+
+        fields.add(field.toString());
+        return fields.toArray(String[]::new);
+    }
+
+    private int read() throws IOException {
+        if (pos >= len) {
+            len = in.read(buf);
+            pos = 0;
+            if (len <= 0) return -1;
+        }
+        return buf[pos++];
+    }
+
+    private int peek() throws IOException {
+        int c = read();
+        if (c >= 0) pos--;
+        return c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.application.classes;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * CSV no formato que o Excel em pt-BR abre direto: UTF-8 com BOM, separador ';' e CRLF.
+ */
+public class CsvTabularWriter implements TabularWriter {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final Writer out;
+
+    public CsvTabularWriter(OutputStream target) throws IOException {
+        this.out = new BufferedWriter(new OutputStreamWriter(nonClosing(target), StandardCharsets.UTF_8), 16 * 1024);
+        out.write('\uFEFF');
+    }
+
+    @Override
+    public void header(String... titles) throws IOException {
+        row((Object[]) titles);
+    }
+
+    @Override
+    public void row(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write(';');
+            writeField(values[i]);
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeField(Object value) throws IOException {
+        String s = format(value);
+        boolean quote = s.indexOf(';') >= 0 || s.indexOf('"') >= 0 || s.indexOf('\n') >= 0 || s.indexOf('\r') >= 0;
+        // Evita que a planilha interprete o texto como fórmula.
+        if (value instanceof String && !s.isEmpty() && "=+-@".indexOf(s.charAt(0)) >= 0) s = "'" + s;
+        if (!quote) {
+            out.write(s);
+            return;
+        }
+        out.write('"');
+        out.write(s.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static String format(Object v) {
+        if (v == null) return "";
+        if (v instanceof LocalDateTime dt) return DATE_TIME.format(dt);
+        if (v instanceof LocalDate d) return DATE.format(d);
+        if (v instanceof Boolean b) return b ? "Sim" : "Não";
+        return v.toString();
+    }
+
+    private static OutputStream nonClosing(OutputStream target) {
+        return new FilterOutputStream(target) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.application.classes;
+
+/**
+ * Redução de séries para gráfico com LTTB (largest-triangle-three-buckets, Steinarsson 2013):
+ * mantém primeiro e último ponto e, em cada balde, o ponto que forma o maior triângulo com o
+ * ponto escolhido antes e a média do balde seguinte. Preserva picos e vales que uma média apagaria.
+ */
+public final class Lttb {
+
+    private Lttb() {}
+
+    /**
+     * Índices dos pontos escolhidos (em ordem), considerando os n primeiros de x/y.
+     * x deve estar em ordem crescente. Se n &lt;= threshold, devolve todos.
+     */
+    public static int[] downsample(double[] x, double[] y, int n, int threshold) {
+        if (threshold >= n || threshold < 3) {
+            int[] all = new int[n];
+            for (int i = 0; i < n; i++) all[i] = i;
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        int count = 0;
+        selected[count++] = 0;
+
+        // Pontos internos (sem o primeiro e o último) divididos em threshold - 2 baldes.
+        double bucketSize = (double) (n - 2) / (threshold - 2);
+        int a = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            // Média do próximo balde (o último ponto, no caso do último balde).
+            int nextStart = end;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, n);
+            double avgX = 0;
+            double avgY = 0;
+            if (nextStart >= n - 1 || nextEnd <= nextStart) {
+                avgX = x[n - 1];
+                avgY = y[n - 1];
+            } else {
+                for (int i = nextStart; i < nextEnd; i++) {
+                    avgX += x[i];
+                    avgY += y[i];
+                }
+                avgX /= nextEnd - nextStart;
+                avgY /= nextEnd - nextStart;
+            }
+
+            double ax = x[a];
+            double ay = y[a];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Dobro da área do triângulo (a, i, média do próximo); o fator 1/2 não muda o máximo.
+                double area = Math.abs((ax - avgX) * (y[i] - ay) - (ax - x[i]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[count++] = chosen;
+            a = chosen;
+        }
+
+        selected[count++] = n - 1;
+        return selected;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.application.classes;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template de e-mail com marcadores {{nome}}, compilado uma única vez em trechos fixos e marcadores.
+ * Renderizar é só concatenar em um StringBuilder; valores são escapados para HTML.
+ */
+public final class MailTemplate {
+
+    private final String[] literals;
+    private final String[] names;
+    private final int sizeHint;
+
+    private MailTemplate(String[] literals, String[] names, int sizeHint) {
+        this.literals = literals;
+        this.names = names;
+        this.sizeHint = sizeHint;
+    }
+
+    public static MailTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int pos = 0;
+        while (true) {
+            int open = source.indexOf("{{", pos);
+            if (open < 0) break;
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) throw new IllegalArgumentException("Marcador sem fechamento na posição " + open);
+            literals.add(source.substring(pos, open));
+            names.add(source.substring(open + 2, close).trim());
+            pos = close + 2;
+        }
+        literals.add(source.substring(pos));
+        return new MailTemplate(literals.toArray(String[]::new), names.toArray(String[]::new), source.length() + 64);
+    }
+
+    public String render(Map<String, String> params) {
+        StringBuilder sb = new StringBuilder(sizeHint);
+        for (int i = 0; i < names.length; i++) {
+            sb.append(literals[i]);
+            String value = params.get(names[i]);
+            if (value == null) throw new IllegalArgumentException("Parâmetro ausente no template: " + names[i]);
+            sb.append(HtmlUtils.htmlEscape(value));
+        }
+        sb.append(literals[names.length]);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.application.classes;
+
+import com.example.application.classes.repository.MailOutboxRepository;
+import com.example.application.classes.service.ProvisionalPasswords;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * ResetMailer que apenas grava na mail_outbox, na transação de quem chama.
+ * Só o id do usuário vai para a fila; o MailOutboxDispatcher gera a senha provisória ao enviar.
+ */
+@Service
+public class OutboxResetMailer implements ResetMailer {
+
+    private static final Set<String> REASONS = Set.of("signup", "forgot");
+
+    private final MailOutboxRepository outboxRepository;
+
+    public OutboxResetMailer(MailOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    @Override
+    public void sendProvisionalPassword(long userId, String toEmail, String reason) {
+        String template = REASONS.contains(reason) ? reason : "provisional";
+        try {
+            outboxRepository.enqueue(template, toEmail, Map.of(ProvisionalPasswords.USER_ID_PARAM, Long.toString(userId)));
+        } catch (SQLException e) {
+            throw new RuntimeException("Falha ao enfileirar e-mail de senha provisória", e);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.application.classes;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Regra de repetição de uma série de atendimentos ("a cada 2 semanas por 6 meses").
+ * A ocorrência k é sempre calculada a partir do início (início + k * intervalo), então o mensal
+ * não escorrega: uma série do dia 31 cai no último dia dos meses curtos e volta ao 31 depois.
+ * Termina em count ocorrências e/ou na data until (inclusiva); pelo menos um dos dois é obrigatório.
+ */
+public record Recurrence(LocalDateTime start, Frequency frequency, int interval, Integer count, LocalDateTime until) {
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    public Recurrence {
+        if (start == null || frequency == null) throw new IllegalArgumentException("Início e frequência são obrigatórios.");
+        if (interval < 1) throw new IllegalArgumentException("Intervalo deve ser positivo.");
+        if (count == null && until == null) throw new IllegalArgumentException("Informe o fim da série.");
+        if (count != null && count < 1) throw new IllegalArgumentException("Quantidade deve ser positiva.");
+    }
+
+    public LocalDateTime occurrence(long k) {
+        return switch (frequency) {
+            case DAILY -> start.plusDays(k * interval);
+            case WEEKLY -> start.plusWeeks(k * interval);
+            case MONTHLY -> start.plusMonths(k * interval);
+        };
+    }
+
+    /** Última ocorrência da série (nunca antes do início). */
+    public LocalDateTime last() {
+        long k = count != null ? count - 1L : Long.MAX_VALUE;
+        if (until != null) {
+            k = Math.min(k, Math.max(0, firstIndexAtOrAfter(until.plusNanos(1)) - 1));
+        }
+        return occurrence(k);
+    }
+
+    /** Quantas ocorrências a série tem ao todo. */
+    public long size() {
+        LocalDateTime last = last();
+        return firstIndexAtOrAfter(last) + 1;
+    }
+
+    /** Ocorrências em [from, to), em ordem. Não percorre as ocorrências anteriores à janela. */
+    public List<LocalDateTime> between(LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> out = new ArrayList<>();
+        if (!to.isAfter(from) || !to.isAfter(start)) return out;
+
+        for (long k = firstIndexAtOrAfter(from); ; k++) {
+            if (count != null && k >= count) break;
+            LocalDateTime t = occurrence(k);
+            if (!t.isBefore(to)) break;
+            if (until != null && t.isAfter(until)) break;
+            out.add(t);
+        }
+        return out;
+    }
+
+    /** True se t é exatamente uma ocorrência da série. */
+    public boolean isOccurrence(LocalDateTime t) {
+        List<LocalDateTime> hit = between(t, t.plusNanos(1));
+        return !hit.isEmpty();
+    }
+
+    /** Menor k com occurrence(k) >= t, estimado pela distância e ajustado na ponta. */
+    private long firstIndexAtOrAfter(LocalDateTime t) {
+        if (!t.isAfter(start)) return 0;
+        ChronoUnit unit = switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS;
+            case WEEKLY -> ChronoUnit.WEEKS;
+            case MONTHLY -> ChronoUnit.MONTHS;
+        };
+        long k = Math.max(0, unit.between(start, t) / interval - 1);
+        while (occurrence(k).isBefore(t)) k++;
+        return k;
+    }
+}
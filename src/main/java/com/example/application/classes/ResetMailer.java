@@ -1,5 +1,6 @@
 package com.example.application.classes;
 
 public interface ResetMailer {
-    void sendProvisionalPassword(String toEmail, String provisionalPlain, String reason);
+    /** A senha provisória é gerada só na hora do envio; nada de credencial fica guardado na fila. */
+    void sendProvisionalPassword(long userId, String toEmail, String reason);
 }
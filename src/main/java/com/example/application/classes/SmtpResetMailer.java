@@ -1,43 +1,33 @@
 package com.example.application.classes;
 
+import com.example.application.classes.service.OutboxMail;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
-@Service
-public class SmtpResetMailer implements ResetMailer {
-    private final JavaMailSender mailSender;
-
-    @Value("${spring.mail.username}")
-    private String from;
+import java.util.*;
 
-    @Value("${app.product.name:Clínica Vet}")
-    private String productName;
-
-    public SmtpResetMailer(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
-    }
-
-    @Override
-    public void sendProvisionalPassword(String toEmail, String provisionalPlain, String reason) {
-        String subject = switch (reason) {
-            case "signup" -> productName + " – Confirmação de cadastro";
-            case "forgot" -> productName + " – Recuperação de senha";
-            default -> productName + " – Acesso provisório";
-        };
+/**
+ * Transporte SMTP usado pelo dispatcher da mail_outbox.
+ * Templates são compilados uma vez na criação do bean; cada lote usa uma única conexão SMTP.
+ */
+@Service
+public class SmtpResetMailer {
 
-        String html = """
+    private static final String PROVISIONAL_PASSWORD_HTML = """
             <html>
               <body style="font-family:Arial, Helvetica, sans-serif; background-color:#f9f9f9; padding:40px;">
-                <table align="center" width="100%%" style="max-width:600px; background:white; border-radius:8px; box-shadow:0 4px 12px rgba(0,0,0,0.05); padding:24px;">
+                <table align="center" width="100%" style="max-width:600px; background:white; border-radius:8px; box-shadow:0 4px 12px rgba(0,0,0,0.05); padding:24px;">
                   <tr>
                     <td style="text-align:center;">
                       <h2 style="color:#0077b6;">Sua senha provisória</h2>
                       <p style="color:#333; font-size:15px;">
-                        %s
+                        <strong>{{password}}</strong>
                       </p>
                       <p style="color:#333; font-size:14px; margin-top:25px;">
                         Use essa senha provisória para fazer login.<br>
@@ -45,7 +35,7 @@ public class SmtpResetMailer implements ResetMailer {
                       </p>
                       <hr style="border:none; border-top:1px solid #eee; margin:30px 0;">
                       <p style="font-size:12px; color:#aaa;">
-                        © 2025 %s. Todos os direitos reservados.<br>
+                        © 2025 {{product}}. Todos os direitos reservados.<br>
                         Este e-mail foi enviado automaticamente, por favor não responda.
                       </p>
                     </td>
@@ -53,18 +43,110 @@ public class SmtpResetMailer implements ResetMailer {
                 </table>
               </body>
             </html>
-            """.formatted("<strong>" + provisionalPlain + "</strong>", productName);
+            """;
+
+    private static final String APPOINTMENT_REMINDER_HTML = """
+            <html>
+              <body style="font-family:Arial, Helvetica, sans-serif; background-color:#f9f9f9; padding:40px;">
+                <table align="center" width="100%" style="max-width:600px; background:white; border-radius:8px; box-shadow:0 4px 12px rgba(0,0,0,0.05); padding:24px;">
+                  <tr>
+                    <td style="text-align:center;">
+                      <h2 style="color:#0077b6;">Lembrete de consulta</h2>
+                      <p style="color:#333; font-size:15px;">
+                        Olá, {{clientName}}! A consulta de <strong>{{petName}}</strong>
+                        em {{companyName}} está marcada para <strong>{{appointmentAt}}</strong>.
+                      </p>
+                      <p style="color:#333; font-size:14px; margin-top:25px;">
+                        Se não puder comparecer, entre em contato com a clínica para remarcar.
+                      </p>
+                      <hr style="border:none; border-top:1px solid #eee; margin:30px 0;">
+                      <p style="font-size:12px; color:#aaa;">
+                        © 2025 {{product}}. Todos os direitos reservados.<br>
+                        Este e-mail foi enviado automaticamente, por favor não responda.
+                      </p>
+                    </td>
+                  </tr>
+                </table>
+              </body>
+            </html>
+            """;
+
+    private record CompiledMail(String subject, MailTemplate body) {}
+
+    private final JavaMailSender mailSender;
+    private final String from;
+    private final String productName;
+    private final Map<String, CompiledMail> templates;
+
+    public SmtpResetMailer(JavaMailSender mailSender,
+                           @Value("${spring.mail.username}") String from,
+                           @Value("${app.product.name:Clínica Vet}") String productName) {
+        this.mailSender = mailSender;
+        this.from = from;
+        this.productName = productName;
+
+        MailTemplate provisional = MailTemplate.compile(PROVISIONAL_PASSWORD_HTML);
+        this.templates = Map.of(
+                "signup", new CompiledMail(productName + " – Confirmação de cadastro", provisional),
+                "forgot", new CompiledMail(productName + " – Recuperação de senha", provisional),
+                "provisional", new CompiledMail(productName + " – Acesso provisório", provisional),
+                "appointment-reminder", new CompiledMail(productName + " – Lembrete de consulta",
+                        MailTemplate.compile(APPOINTMENT_REMINDER_HTML))
+        );
+    }
+
+    /**
+     * Envia o lote em uma única conexão SMTP.
+     * Retorna as falhas por id da outbox; ids ausentes do mapa foram enviados.
+     */
+    public Map<Long, Exception> sendBatch(List<OutboxMail> batch) {
+        Map<Long, Exception> failures = new HashMap<>();
+        Map<MimeMessage, Long> idsByMessage = new IdentityHashMap<>();
+
+        for (OutboxMail mail : batch) {
+            try {
+                idsByMessage.put(build(mail), mail.id());
+            } catch (MessagingException | RuntimeException e) {
+                failures.put(mail.id(), e);
+            }
+        }
+        if (idsByMessage.isEmpty()) return failures;
 
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
-            helper.setFrom(from);
-            helper.setTo(toEmail);
-            helper.setSubject(subject);
-            helper.setText(html, true);
-            mailSender.send(message);
-        } catch (MessagingException e) {
-            throw new RuntimeException("Falha ao enviar e-mail de senha provisória", e);
+            mailSender.send(idsByMessage.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            // Falhas por mensagem: as demais do lote foram entregues ao servidor.
+            Map<Object, Exception> failed = e.getFailedMessages();
+            if (failed.isEmpty()) {
+                idsByMessage.values().forEach(id -> failures.put(id, e));
+            } else {
+                failed.forEach((msg, ex) -> {
+                    Long id = idsByMessage.get(msg);
+                    if (id != null) failures.put(id, ex);
+                });
+            }
+        } catch (MailException e) {
+            // Conexão/autenticação: nada foi enviado.
+            idsByMessage.values().forEach(id -> failures.put(id, e));
         }
+        return failures;
+    }
+
+    private MimeMessage build(OutboxMail mail) throws MessagingException {
+        CompiledMail compiled = templates.get(mail.template());
+        if (compiled == null) {
+            throw new IllegalArgumentException("Template de e-mail desconhecido: " + mail.template());
+        }
+
+        Map<String, String> params = new HashMap<>(mail.params());
+        params.putIfAbsent("product", productName);
+
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(from);
+        helper.setTo(mail.recipient());
+        helper.setSubject(compiled.subject());
+        helper.setText(compiled.body().render(params), true);
+        return message;
     }
 }
@@ -0,0 +1,53 @@
+package com.example.application.classes;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Junta listas já ordenadas numa só (k-way merge com heap): O(n log k), sem reordenar tudo.
+ * Em empate, vence a lista que veio antes em sources.
+ */
+public final class SortedMerge {
+
+    private SortedMerge() {}
+
+    public static <T> List<T> merge(List<? extends List<? extends T>> sources, Comparator<? super T> order) {
+        int total = 0;
+        for (List<? extends T> s : sources) total += s.size();
+        List<T> out = new ArrayList<>(total);
+
+        PriorityQueue<Head<T>> heap = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> {
+            int c = order.compare(a.value, b.value);
+            return c != 0 ? c : Integer.compare(a.source, b.source);
+        });
+        for (int i = 0; i < sources.size(); i++) {
+            Iterator<? extends T> it = sources.get(i).iterator();
+            if (it.hasNext()) heap.add(new Head<>(it.next(), it, i));
+        }
+
+        while (!heap.isEmpty()) {
+            Head<T> head = heap.poll();
+            out.add(head.value);
+            if (head.rest.hasNext()) {
+                head.value = head.rest.next();
+                heap.add(head);
+            }
+        }
+        return out;
+    }
+
+    private static final class Head<T> {
+        T value;
+        final Iterator<? extends T> rest;
+        final int source;
+
+        Head(T value, Iterator<? extends T> rest, int source) {
+            this.value = value;
+            this.rest = rest;
+            this.source = source;
+        }
+    }
+}
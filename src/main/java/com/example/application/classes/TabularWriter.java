@@ -0,0 +1,16 @@
+package com.example.application.classes;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Escrita de planilhas linha a linha, sem manter linhas em memória.
+ * close() finaliza o arquivo, mas não fecha o stream de destino.
+ */
+public interface TabularWriter extends Closeable {
+
+    void header(String... titles) throws IOException;
+
+    /** Aceita String, Number, LocalDate, LocalDateTime, Boolean ou null. */
+    void row(Object... values) throws IOException;
+}
@@ -0,0 +1,259 @@
+package com.example.application.classes;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Formato de arquivo de uma empresa (backup/migração entre ambientes), lido e escrito em streaming.
+ * <pre>
+ * gzip(
+ *   "CVTA" + versão (varint) + data de geração (varlong, epoch ms)
+ *   seções: nome (string), colunas (varint n + n x [nome, tipo (byte)]),
+ *           linhas (cada uma prefixada por varint 1), fim da seção = varint 0
+ *   fim do arquivo = seção com nome vazio
+ * )
+ * </pre>
+ * Valores: inteiros/datas em varint zigzag deslocado de 1 (0 = NULL); texto como tamanho+1 e UTF-8;
+ * booleano como 0 (NULL), 1 (falso), 2 (verdadeiro).
+ * TIMESTAMP é gravado em microssegundos desde a época (UTC), a precisão do Postgres; a versão 1
+ * gravava milissegundos e continua legível.
+ * Como cada seção descreve suas colunas, leitores antigos conseguem pular seções e colunas que não conhecem.
+ */
+public final class TenantArchive {
+
+    public static final int VERSION = 2;
+    /** Primeira versão com TIMESTAMP em microssegundos. */
+    private static final int MICROS_VERSION = 2;
+    private static final byte[] MAGIC = {'C', 'V', 'T', 'A'};
+
+    public enum ColumnType { LONG, INT, STRING, BOOL, DATE, TIMESTAMP }
+
+    public record Column(String name, ColumnType type) {}
+
+    public record Section(String name, List<Column> columns) {
+        public int indexOf(String column) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (columns.get(i).name().equals(column)) return i;
+            }
+            return -1;
+        }
+    }
+
+    private TenantArchive() {}
+
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private Section section;
+
+        public Writer(OutputStream target) throws IOException {
+            GZIPOutputStream gzip = new GZIPOutputStream(new FilterOutputStream(target) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            }, 64 * 1024);
+            this.out = new DataOutputStream(new BufferedOutputStream(gzip, 64 * 1024));
+            out.write(MAGIC);
+            writeVarLong(out, VERSION);
+            writeVarLong(out, System.currentTimeMillis());
+        }
+
+        public void beginSection(Section s) throws IOException {
+            if (section != null) endSection();
+            section = s;
+            writeString(out, s.name());
+            writeVarLong(out, s.columns().size());
+            for (Column c : s.columns()) {
+                writeString(out, c.name());
+                out.writeByte(c.type().ordinal());
+            }
+        }
+
+        public void row(Object[] values) throws IOException {
+            writeVarLong(out, 1);
+            List<Column> columns = section.columns();
+            for (int i = 0; i < columns.size(); i++) {
+                writeValue(out, columns.get(i).type(), values[i]);
+            }
+        }
+
+        public void endSection() throws IOException {
+            writeVarLong(out, 0);
+            section = null;
+        }
+
+        /** Finaliza o arquivo; não fecha o stream de destino. */
+        @Override
+        public void close() throws IOException {
+            if (section != null) endSection();
+            writeString(out, "");
+            out.close();
+        }
+    }
+
+    public static final class Reader implements Closeable {
+        private final DataInputStream in;
+        private final int version;
+        private Section section;
+
+        public Reader(InputStream source) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(source, 64 * 1024), 64 * 1024));
+            byte[] magic = in.readNBytes(4);
+            if (!java.util.Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Arquivo não é um arquivo de empresa válido.");
+            }
+            this.version = (int) readVarLong(in);
+            if (version > VERSION) {
+                throw new IOException("Versão de arquivo não suportada: " + version);
+            }
+            readVarLong(in); // data de geração
+        }
+
+        public int version() {
+            return version;
+        }
+
+        /** Próxima seção (pulando o resto da atual), ou null no fim do arquivo. */
+        public Section nextSection() throws IOException {
+            if (section != null) {
+                Object[] skip = new Object[section.columns().size()];
+                while (nextRow(skip)) { /* descarta */ }
+            }
+            String name = readString(in);
+            if (name == null || name.isEmpty()) return null;
+
+            int count = (int) readVarLong(in);
+            List<Column> columns = new ArrayList<>(count);
+            ColumnType[] types = ColumnType.values();
+            for (int i = 0; i < count; i++) {
+                String col = readString(in);
+                int type = in.readUnsignedByte();
+                if (type >= types.length) throw new IOException("Tipo de coluna desconhecido: " + type);
+                columns.add(new Column(col, types[type]));
+            }
+            section = new Section(name, List.copyOf(columns));
+            return section;
+        }
+
+        /** Lê a próxima linha da seção corrente em values; false no fim da seção. */
+        public boolean nextRow(Object[] values) throws IOException {
+            if (section == null) return false;
+            if (readVarLong(in) == 0) {
+                section = null;
+                return false;
+            }
+            List<Column> columns = section.columns();
+            for (int i = 0; i < columns.size(); i++) {
+                values[i] = readValue(in, columns.get(i).type(), version >= MICROS_VERSION);
+            }
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // ---------------------------------------------------------------- codificação
+
+    private static void writeValue(DataOutputStream out, ColumnType type, Object v) throws IOException {
+        switch (type) {
+            case LONG, INT -> writeNullableLong(out, v == null ? null : ((Number) v).longValue());
+            case STRING -> writeString(out, v == null ? null : v.toString());
+            case BOOL -> out.writeByte(v == null ? 0 : ((Boolean) v) ? 2 : 1);
+            case DATE -> writeNullableLong(out, v == null ? null : ((LocalDate) v).toEpochDay());
+            case TIMESTAMP -> writeNullableLong(out, v == null ? null : epochMicros((LocalDateTime) v));
+        }
+    }
+
+    private static Object readValue(DataInputStream in, ColumnType type, boolean micros) throws IOException {
+        return switch (type) {
+            case LONG -> readNullableLong(in);
+            case INT -> {
+                Long l = readNullableLong(in);
+                yield l == null ? null : l.intValue();
+            }
+            case STRING -> readString(in);
+            case BOOL -> {
+                int b = in.readUnsignedByte();
+                yield b == 0 ? null : b == 2;
+            }
+            case DATE -> {
+                Long l = readNullableLong(in);
+                yield l == null ? null : LocalDate.ofEpochDay(l);
+            }
+            case TIMESTAMP -> {
+                Long l = readNullableLong(in);
+                if (l == null) yield null;
+                long perSecond = micros ? 1_000_000 : 1_000;
+                yield LocalDateTime.ofEpochSecond(Math.floorDiv(l, perSecond),
+                        (int) (Math.floorMod(l, perSecond) * (1_000_000_000 / perSecond)), ZoneOffset.UTC);
+            }
+        };
+    }
+
+    private static long epochMicros(LocalDateTime t) {
+        return Math.addExact(Math.multiplyExact(t.toEpochSecond(ZoneOffset.UTC), 1_000_000L), t.getNano() / 1_000);
+    }
+
+    private static void writeNullableLong(DataOutputStream out, Long v) throws IOException {
+        writeVarLong(out, v == null ? 0 : ((v << 1) ^ (v >> 63)) + 1);
+    }
+
+    private static Long readNullableLong(DataInputStream in) throws IOException {
+        long raw = readVarLong(in);
+        if (raw == 0) return null;
+        long z = raw - 1;
+        return (z >>> 1) ^ -(z & 1);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        long len = readVarLong(in);
+        if (len == 0) return null;
+        if (len - 1 > Integer.MAX_VALUE - 8) throw new IOException("Texto grande demais no arquivo.");
+        byte[] bytes = in.readNBytes((int) (len - 1));
+        if (bytes.length != len - 1) throw new EOFException("Arquivo truncado.");
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return result;
+        }
+        throw new IOException("Número malformado no arquivo.");
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.application.classes;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * XLSX mínimo (uma planilha) gerado em streaming: o XML da planilha é escrito
+ * direto na entrada do ZIP, com textos inline, então a memória não cresce com o número de linhas.
+ */
+public class XlsxTabularWriter implements TabularWriter {
+
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+
+    private final ZipOutputStream zip;
+    private final Writer sheet;
+
+    public XlsxTabularWriter(OutputStream target, String sheetName) throws IOException {
+        this.zip = new ZipOutputStream(new BufferedOutputStream(new FilterOutputStream(target) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        }, 16 * 1024));
+
+        entry("[Content_Types].xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Types xmlns="http://schemas.openxmlformats.org/package/2006/content-types">
+                <Default Extension="rels" ContentType="application/vnd.openxmlformats-package.relationships+xml"/>
+                <Default Extension="xml" ContentType="application/xml"/>
+                <Override PartName="/xl/workbook.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml"/>
+                <Override PartName="/xl/worksheets/sheet1.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml"/>
+                <Override PartName="/xl/styles.xml" ContentType="application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml"/>
+                </Types>
+                """);
+        entry("_rels/.rels", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+                <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/officeDocument" Target="xl/workbook.xml"/>
+                </Relationships>
+                """);
+        entry("xl/workbook.xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <workbook xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main" xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships">
+                <sheets><sheet name="%s" sheetId="1" r:id="rId1"/></sheets>
+                </workbook>
+                """.formatted(escape(sheetName)));
+        entry("xl/_rels/workbook.xml.rels", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <Relationships xmlns="http://schemas.openxmlformats.org/package/2006/relationships">
+                <Relationship Id="rId1" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/worksheet" Target="worksheets/sheet1.xml"/>
+                <Relationship Id="rId2" Type="http://schemas.openxmlformats.org/officeDocument/2006/relationships/styles" Target="styles.xml"/>
+                </Relationships>
+                """);
+        // Estilo 1 = data, 2 = data e hora, 3 = cabeçalho em negrito.
+        entry("xl/styles.xml", """
+                <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+                <styleSheet xmlns="http://schemas.openxmlformats.org/spreadsheetml/2006/main">
+                <numFmts count="2"><numFmt numFmtId="164" formatCode="dd/mm/yyyy"/><numFmt numFmtId="165" formatCode="dd/mm/yyyy hh:mm"/></numFmts>
+                <fonts count="2"><font><sz val="11"/><name val="Calibri"/></font><font><b/><sz val="11"/><name val="Calibri"/></font></fonts>
+                <fills count="2"><fill><patternFill patternType="none"/></fill><fill><patternFill patternType="gray125"/></fill></fills>
+                <borders count="1"><border><left/><right/><top/><bottom/><diagonal/></border></borders>
+                <cellStyleXfs count="1"><xf numFmtId="0" fontId="0" fillId="0" borderId="0"/></cellStyleXfs>
+                <cellXfs count="4">
+                <xf numFmtId="0" fontId="0" fillId="0" borderId="0" xfId="0"/>
+                <xf numFmtId="164" fontId="0" fillId="0" borderId="0" xfId="0" applyNumberFormat="1"/>
+                <xf numFmtId="165" fontId="0" fillId="0" borderId="0" xfId="0" applyNumberFormat="1"/>
+                <xf numFmtId="0" fontId="1" fillId="0" borderId="0" xfId="0" applyFont="1"/>
+                </cellXfs>
+                </styleSheet>
+                """);
+
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet1.xml"));
+        this.sheet = new OutputStreamWriter(zip, StandardCharsets.UTF_8);
+        sheet.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n"
+                + "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>");
+    }
+
+    @Override
+    public void header(String... titles) throws IOException {
+        sheet.write("<row>");
+        for (String t : titles) {
+            sheet.write("<c t=\"inlineStr\" s=\"3\"><is><t>");
+            sheet.write(escape(t));
+            sheet.write("</t></is></c>");
+        }
+        sheet.write("</row>");
+    }
+
+    @Override
+    public void row(Object... values) throws IOException {
+        sheet.write("<row>");
+        for (Object v : values) {
+            if (v == null) {
+                sheet.write("<c/>");
+            } else if (v instanceof Number n) {
+                sheet.write("<c><v>" + n + "</v></c>");
+            } else if (v instanceof LocalDateTime dt) {
+                double serial = ChronoUnit.DAYS.between(EXCEL_EPOCH, dt.toLocalDate())
+                        + dt.toLocalTime().toSecondOfDay() / 86400.0;
+                sheet.write("<c s=\"2\"><v>" + serial + "</v></c>");
+            } else if (v instanceof LocalDate d) {
+                sheet.write("<c s=\"1\"><v>" + ChronoUnit.DAYS.between(EXCEL_EPOCH, d) + "</v></c>");
+            } else if (v instanceof Boolean b) {
+                sheet.write("<c t=\"b\"><v>" + (b ? 1 : 0) + "</v></c>");
+            } else {
+                sheet.write("<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+                sheet.write(escape(v.toString()));
+                sheet.write("</t></is></c>");
+            }
+        }
+        sheet.write("</row>");
+    }
+
+    @Override
+    public void close() throws IOException {
+        sheet.write("</sheetData></worksheet>");
+        sheet.flush();
+        zip.closeEntry();
+        zip.close();
+    }
+
+    private void entry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.strip().getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 16);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '<' -> sb.append("&lt;");
+                case '>' -> sb.append("&gt;");
+                case '&' -> sb.append("&amp;");
+                case '"' -> sb.append("&quot;");
+                default -> {
+                    // Caracteres de controle não são permitidos em XML 1.0.
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -14,6 +14,7 @@ public class Attendance {
     private Long createdByUserId;
     private LocalDateTime appointmentAt;
     private String description;
+    private ClinicalNotes clinicalNotes;
 
     public long getId() {
         return id;
@@ -86,4 +87,12 @@ public class Attendance {
     public void setDescription(String description) {
         this.description = description;
     }
+
+    public ClinicalNotes getClinicalNotes() {
+        return clinicalNotes;
+    }
+
+    public void setClinicalNotes(ClinicalNotes clinicalNotes) {
+        this.clinicalNotes = clinicalNotes;
+    }
 }
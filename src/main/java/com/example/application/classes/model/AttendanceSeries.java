@@ -0,0 +1,7 @@
+package com.example.application.classes.model;
+
+import com.example.application.classes.Recurrence;
+
+/** Série de atendimentos recorrentes: a regra e o que cada ocorrência herda (pet e descrição). */
+public record AttendanceSeries(long id, long companyId, long petId, Recurrence rule, String description) {
+}
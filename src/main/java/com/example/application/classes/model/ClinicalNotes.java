@@ -0,0 +1,30 @@
+package com.example.application.classes.model;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Notas clínicas estruturadas do atendimento (SOAP + medidas), gravadas em attendance.clinical_notes (JSONB).
+ * Códigos de diagnóstico ficam em maiúsculas, sem repetição.
+ */
+public record ClinicalNotes(String subjective,
+                            String objective,
+                            String assessment,
+                            String plan,
+                            BigDecimal weightKg,
+                            BigDecimal temperatureC,
+                            List<String> diagnoses) {
+
+    public ClinicalNotes {
+        diagnoses = diagnoses == null ? List.of() : List.copyOf(diagnoses);
+    }
+
+    public boolean isEmpty() {
+        return isBlank(subjective) && isBlank(objective) && isBlank(assessment) && isBlank(plan)
+                && weightKg == null && temperatureC == null && diagnoses.isEmpty();
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
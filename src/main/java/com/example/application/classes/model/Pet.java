@@ -17,6 +17,7 @@ public class Pet {
     private LocalDate birthDate;
     private String notes;
     private LocalDateTime deletedAt;
+    private String photoSha256;
 
 
     public long getId() {
@@ -126,4 +127,12 @@ public class Pet {
     public boolean isDeleted() {
         return deletedAt != null;
     }
+
+    public String getPhotoSha256() {
+        return photoSha256;
+    }
+
+    public void setPhotoSha256(String photoSha256) {
+        this.photoSha256 = photoSha256;
+    }
 }
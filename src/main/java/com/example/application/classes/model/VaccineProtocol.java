@@ -0,0 +1,79 @@
+package com.example.application.classes.model;
+
+import java.time.LocalDateTime;
+
+public class VaccineProtocol {
+    private long id;
+    private int version;
+    private LocalDateTime creationDate;
+    private LocalDateTime updateDate;
+    private long companyId;
+    private String name;
+    private Integer boosterIntervalDays;
+    private String notes;
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public LocalDateTime getUpdateDate() {
+        return updateDate;
+    }
+
+    public void setUpdateDate(LocalDateTime updateDate) {
+        this.updateDate = updateDate;
+    }
+
+    public long getCompanyId() {
+        return companyId;
+    }
+
+    public void setCompanyId(long companyId) {
+        this.companyId = companyId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /** Dias até o reforço; null = dose única, sem vencimento. */
+    public Integer getBoosterIntervalDays() {
+        return boosterIntervalDays;
+    }
+
+    public void setBoosterIntervalDays(Integer boosterIntervalDays) {
+        this.boosterIntervalDays = boosterIntervalDays;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
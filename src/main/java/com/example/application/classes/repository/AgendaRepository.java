@@ -1,69 +1,172 @@
 package com.example.application.classes.repository;
 
+import com.example.application.classes.Recurrence;
+import com.example.application.classes.SortedMerge;
 import com.example.application.classes.service.AgendaRow;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
 import java.sql.*;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
+/**
+ * Agenda de uma empresa numa janela [from, to).
+ * Atendimentos gravados vêm do banco já em ordem; séries que cruzam a janela são expandidas aqui,
+ * só dentro da janela, pulando ocorrências que viraram exceção. O resultado é a junção ordenada das duas fontes.
+ * Atendimentos sem data (só descrição) não cabem em janela nenhuma e são lidos à parte, por listUndated.
+ */
 @Repository
 public class AgendaRepository {
 
+    private static final Comparator<AgendaRow> BY_TIME = Comparator.comparing(AgendaRow::mainDateTime);
+
+    private record SeriesRow(long id, Recurrence rule, String petName, String species,
+                             String clientName, String description, String vetName) {}
+
     private final DataSource dataSource;
 
     public AgendaRepository(DataSource dataSource) {
         this.dataSource = dataSource;
     }
 
-    public List<AgendaRow> listByCompany(long companyId) throws SQLException {
+    public List<AgendaRow> listWindow(long companyId, LocalDateTime from, LocalDateTime to) throws SQLException {
+        return listWindow(companyId, from, to, 0);
+    }
+
+    /**
+     * Igual a listWindow, com Statement.setQueryTimeout em cada consulta (0 = sem limite). Quem tem prazo usa
+     * esta: interromper a thread não para a consulta no banco nem devolve a conexão ao pool.
+     */
+    public List<AgendaRow> listWindow(long companyId, LocalDateTime from, LocalDateTime to,
+                                      int queryTimeoutSeconds) throws SQLException {
+        final LocalDateTime now = LocalDateTime.now();
+
+        try (Connection con = dataSource.getConnection()) {
+            List<List<AgendaRow>> sources = new ArrayList<>();
+            sources.add(listStored(con, companyId, from, to, now, queryTimeoutSeconds));
+
+            List<SeriesRow> series = listSeries(con, companyId, from, to, queryTimeoutSeconds);
+            if (!series.isEmpty()) {
+                Map<Long, Set<LocalDateTime>> exceptions = listExceptions(con, series, from, to, queryTimeoutSeconds);
+                for (SeriesRow s : series) {
+                    Set<LocalDateTime> skip = exceptions.getOrDefault(s.id(), Set.of());
+                    List<AgendaRow> expanded = new ArrayList<>();
+                    for (LocalDateTime t : s.rule().between(from, to)) {
+                        if (skip.contains(t)) continue;
+                        expanded.add(new AgendaRow(0L, 0, t, !t.isAfter(now), s.petName(), s.species(),
+                                s.clientName(), s.description(), s.vetName(), s.id(), t));
+                    }
+                    sources.add(expanded);
+                }
+            }
+
+            return SortedMerge.merge(sources, BY_TIME);
+        }
+    }
+
+    /** Atendimentos sem data marcada nem agendada, os criados por último primeiro. */
+    public List<AgendaRow> listUndated(long companyId, int limit) throws SQLException {
+        // COALESCE(...) IS NULL usa o índice (animal_id, COALESCE(appointment_at, scheduled_at)) da V4.
         final String sql = """
             SELECT
                 a.id,
-                a.scheduled_at,
-                a.appointment_at,
+                a.version,
                 p.name    AS pet_name,
                 p.species AS species,
                 c.name    AS client_name,
-                a.description
+                a.description,
+                u.name    AS vet_name
             FROM attendance a
             JOIN pet p    ON p.id = a.animal_id
             JOIN client c ON c.id = p.client_id
+            LEFT JOIN app_user u ON u.id = COALESCE(a.vet_user_id, a.created_by_user_id)
             WHERE p.company_id = ?
-            ORDER BY COALESCE(a.appointment_at, a.scheduled_at) DESC
+              AND p.deleted_at IS NULL
+              AND COALESCE(a.appointment_at, a.scheduled_at) IS NULL
+            ORDER BY a.creation_date DESC, a.id DESC
+            LIMIT ?
             """;
 
-        final LocalDateTime now = LocalDateTime.now();
-
         try (Connection con = dataSource.getConnection();
              PreparedStatement ps = con.prepareStatement(sql)) {
-
             ps.setLong(1, companyId);
+            ps.setInt(2, limit);
 
             try (ResultSet rs = ps.executeQuery()) {
                 List<AgendaRow> list = new ArrayList<>();
-
                 while (rs.next()) {
-                    LocalDateTime scheduledAt   = toLocalDateTime(rs, "scheduled_at");
-                    LocalDateTime appointmentAt = toLocalDateTime(rs, "appointment_at");
+                    list.add(new AgendaRow(
+                            rs.getLong("id"),
+                            rs.getInt("version"),
+                            null,
+                            false,
+                            rs.getString("pet_name"),
+                            rs.getString("species"),
+                            rs.getString("client_name"),
+                            rs.getString("description"),
+                            rs.getString("vet_name"),
+                            null,
+                            null
+                    ));
+                }
+                return list;
+            }
+        }
+    }
+
+    private static List<AgendaRow> listStored(Connection con, long companyId, LocalDateTime from,
+                                              LocalDateTime to, LocalDateTime now, int queryTimeoutSeconds)
+            throws SQLException {
+        final String sql = """
+            SELECT
+                a.id,
+                a.version,
+                COALESCE(a.appointment_at, a.scheduled_at) AS main_at,
+                p.name    AS pet_name,
+                p.species AS species,
+                c.name    AS client_name,
+                a.description,
+                u.name    AS vet_name,
+                e.series_id,
+                e.occurrence_at
+            FROM attendance a
+            JOIN pet p    ON p.id = a.animal_id
+            JOIN client c ON c.id = p.client_id
+            LEFT JOIN app_user u ON u.id = COALESCE(a.vet_user_id, a.created_by_user_id)
+            LEFT JOIN attendance_series_exception e ON e.attendance_id = a.id
+            WHERE p.company_id = ?
+              AND p.deleted_at IS NULL
+              AND COALESCE(a.appointment_at, a.scheduled_at) >= ?
+              AND COALESCE(a.appointment_at, a.scheduled_at) < ?
+            ORDER BY main_at, a.id
+            """;
 
-                    LocalDateTime mainDateTime = appointmentAt != null ? appointmentAt : scheduledAt;
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setQueryTimeout(queryTimeoutSeconds);
+            ps.setLong(1, companyId);
+            ps.setTimestamp(2, Timestamp.valueOf(from));
+            ps.setTimestamp(3, Timestamp.valueOf(to));
 
-                    boolean done = false;
-                    if (mainDateTime != null) {
-                        done = !mainDateTime.isAfter(now);
-                    }
+            try (ResultSet rs = ps.executeQuery()) {
+                List<AgendaRow> list = new ArrayList<>();
+                while (rs.next()) {
+                    LocalDateTime mainDateTime = toLocalDateTime(rs, "main_at");
+                    long seriesId = rs.getLong("series_id");
+                    boolean inSeries = !rs.wasNull();
 
                     list.add(new AgendaRow(
                             rs.getLong("id"),
+                            rs.getInt("version"),
                             mainDateTime,
-                            done,
+                            !mainDateTime.isAfter(now),
                             rs.getString("pet_name"),
                             rs.getString("species"),
                             rs.getString("client_name"),
-                            rs.getString("description")
+                            rs.getString("description"),
+                            rs.getString("vet_name"),
+                            inSeries ? seriesId : null,
+                            toLocalDateTime(rs, "occurrence_at")
                     ));
                 }
                 return list;
@@ -71,8 +174,82 @@ public class AgendaRepository {
         }
     }
 
+    private static List<SeriesRow> listSeries(Connection con, long companyId, LocalDateTime from,
+                                              LocalDateTime to, int queryTimeoutSeconds) throws SQLException {
+        final String sql = """
+            SELECT s.id,
+                   s.starts_at,
+                   s.frequency,
+                   s.interval_n,
+                   s.occurrences,
+                   s.until_at,
+                   s.description,
+                   p.name    AS pet_name,
+                   p.species AS species,
+                   c.name    AS client_name,
+                   u.name    AS vet_name
+              FROM attendance_series s
+              JOIN pet p    ON p.id = s.pet_id
+              JOIN client c ON c.id = p.client_id
+              LEFT JOIN app_user u ON u.id = s.created_by_user_id
+             WHERE s.company_id = ?
+               AND s.ends_at >= ?
+               AND s.starts_at < ?
+               AND p.deleted_at IS NULL
+            """;
+
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setQueryTimeout(queryTimeoutSeconds);
+            ps.setLong(1, companyId);
+            ps.setTimestamp(2, Timestamp.valueOf(from));
+            ps.setTimestamp(3, Timestamp.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                List<SeriesRow> list = new ArrayList<>();
+                while (rs.next()) {
+                    list.add(new SeriesRow(
+                            rs.getLong("id"),
+                            AttendanceSeriesRepository.rule(rs),
+                            rs.getString("pet_name"),
+                            rs.getString("species"),
+                            rs.getString("client_name"),
+                            rs.getString("description"),
+                            rs.getString("vet_name")));
+                }
+                return list;
+            }
+        }
+    }
+
+    /** Ocorrências das séries, dentro da janela, que não seguem a regra (canceladas ou materializadas). */
+    private static Map<Long, Set<LocalDateTime>> listExceptions(Connection con, List<SeriesRow> series,
+                                                                LocalDateTime from, LocalDateTime to,
+                                                                int queryTimeoutSeconds) throws SQLException {
+        final String sql = """
+            SELECT series_id, occurrence_at
+              FROM attendance_series_exception
+             WHERE series_id = ANY(?)
+               AND occurrence_at >= ?
+               AND occurrence_at < ?
+            """;
+
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setQueryTimeout(queryTimeoutSeconds);
+            ps.setArray(1, con.createArrayOf("bigint", series.stream().map(SeriesRow::id).toArray()));
+            ps.setTimestamp(2, Timestamp.valueOf(from));
+            ps.setTimestamp(3, Timestamp.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                Map<Long, Set<LocalDateTime>> out = new HashMap<>();
+                while (rs.next()) {
+                    out.computeIfAbsent(rs.getLong(1), k -> new HashSet<>())
+                            .add(rs.getTimestamp(2).toLocalDateTime());
+                }
+                return out;
+            }
+        }
+    }
+
     private static LocalDateTime toLocalDateTime(ResultSet rs, String col) throws SQLException {
         Timestamp ts = rs.getTimestamp(col);
         return ts == null ? null : ts.toLocalDateTime();
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,10 @@
 package com.example.application.classes.repository;
 
 import com.example.application.classes.model.AppUser;
+import com.example.application.classes.service.CompanyChoice;
 import com.example.application.classes.service.CompanyUserRow;
+import com.example.application.classes.service.SessionBootstrap;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
@@ -21,6 +24,8 @@ public class AppUserRepository {
     }
 
     /* CREATE */
+
+    /** Usa a conexão da transação corrente, para gravar junto com a mail_outbox. */
     public long insertWithProvisional(AppUser user) throws SQLException {
         final String sql = """
             INSERT INTO app_user (email, name, password_hash, prov_pw_hash, email_conf_time)
@@ -28,8 +33,8 @@ public class AppUserRepository {
             RETURNING id, creation_date, update_date, version
             """;
 
-        try (Connection con = dataSource.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setString(1, user.getEmail());
             ps.setString(2, user.getName());
@@ -58,6 +63,8 @@ public class AppUserRepository {
                 user.setVersion(rs.getInt("version"));
                 return id;
             }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
         }
     }
 
@@ -87,6 +94,50 @@ public class AppUserRepository {
         }
     }
 
+    /**
+     * Carrega usuário e escolhas de empresa (vínculos ativos em empresas ativas) de uma vez.
+     * Uma linha por vínculo; usuário sem vínculo vem em uma única linha com company_id nulo.
+     */
+    public Optional<SessionBootstrap> findBootstrapByEmail(String email) throws SQLException {
+        final String sql = """
+            SELECT u.id, u.creation_date, u.update_date, u.version,
+                   u.email, u.name, u.password_hash, u.prov_pw_hash, u.email_conf_time,
+                   c.id   AS company_id,
+                   c.name AS company_name,
+                   uc.admin
+              FROM app_user u
+              LEFT JOIN user_company uc
+                ON uc.user_id = u.id
+               AND uc.deleted_at IS NULL
+              LEFT JOIN company c
+                ON c.id = uc.company_id
+               AND c.deleted_at IS NULL
+             WHERE LOWER(u.email) = LOWER(?)
+             ORDER BY c.name
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, email);
+            try (ResultSet rs = ps.executeQuery()) {
+                AppUser user = null;
+                List<CompanyChoice> choices = new ArrayList<>();
+                while (rs.next()) {
+                    if (user == null) user = map(rs);
+                    long companyId = rs.getLong("company_id");
+                    if (!rs.wasNull()) {
+                        choices.add(new CompanyChoice(
+                                companyId,
+                                rs.getString("company_name"),
+                                rs.getBoolean("admin")
+                        ));
+                    }
+                }
+                return user == null ? Optional.empty() : Optional.of(new SessionBootstrap(user, choices));
+            }
+        }
+    }
+
     public boolean existsByEmail(String email) throws SQLException {
         final String sql = "SELECT 1 FROM app_user WHERE LOWER(email) = LOWER(?) LIMIT 1";
         try (Connection con = dataSource.getConnection();
@@ -175,7 +226,7 @@ public class AppUserRepository {
 
     /* UPDATE (senhas e confirmação) */
 
-    /** Define uma nova senha provisória (esqueci minha senha). */
+    /** Define uma nova senha provisória (esqueci minha senha). Usa a conexão da transação corrente. */
     public void setProvisional(long userId, String provisionalHash) throws SQLException {
         final String sql = """
             UPDATE app_user
@@ -185,8 +236,8 @@ public class AppUserRepository {
              RETURNING update_date, version
             """;
 
-        try (Connection con = dataSource.getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
 
             ps.setString(1, provisionalHash);
             ps.setLong(2, userId);
@@ -196,6 +247,8 @@ public class AppUserRepository {
                     throw new SQLException("Falha ao definir senha provisória para AppUser id=" + userId);
                 }
             }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
         }
     }
 
@@ -221,6 +274,33 @@ public class AppUserRepository {
         }
     }
 
+    /**
+     * Troca um hash pelo mesmo segredo recalculado com o custo atual (rehash no login).
+     * Só altera a coluna que ainda guarda o hash antigo; se a senha mudou nesse meio tempo, nada é feito.
+     * Não incrementa version, pois os dados do usuário não mudam.
+     */
+    public boolean rehashPassword(long userId, String oldHash, String newHash) throws SQLException {
+        final String sql = """
+            UPDATE app_user
+               SET password_hash = CASE WHEN password_hash = ? THEN ? ELSE password_hash END,
+                   prov_pw_hash  = CASE WHEN prov_pw_hash  = ? THEN ? ELSE prov_pw_hash END
+             WHERE id = ?
+               AND (password_hash = ? OR prov_pw_hash = ?)
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, oldHash);
+            ps.setString(2, newHash);
+            ps.setString(3, oldHash);
+            ps.setString(4, newHash);
+            ps.setLong(5, userId);
+            ps.setString(6, oldHash);
+            ps.setString(7, oldHash);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
     /** Atualiza a senha oficial (não mexe na provisória). */
     public void updatePassword(long userId, String newHash, int currentVersion) throws SQLException {
         final String sql = """
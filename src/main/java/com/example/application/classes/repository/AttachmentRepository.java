@@ -0,0 +1,196 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.service.AttachmentInfo;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public class AttachmentRepository {
+
+    private final DataSource dataSource;
+
+    public AttachmentRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Trava o hash até o fim da transação corrente. Upload e coleta de blobs passam por aqui,
+     * então o arquivo nunca é apagado enquanto outro upload do mesmo conteúdo está sendo gravado.
+     */
+    public void lockBlob(String sha256) throws SQLException {
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement("SELECT pg_advisory_xact_lock(hashtext(?))")) {
+            ps.setString(1, sha256);
+            ps.execute();
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    public void upsertBlob(String sha256, long size) throws SQLException {
+        final String sql = """
+            INSERT INTO blob_object (sha256, size)
+            VALUES (?, ?)
+            ON CONFLICT (sha256) DO UPDATE
+                SET last_used_at = NOW()
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, sha256);
+            ps.setLong(2, size);
+            ps.executeUpdate();
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /** Insere o anexo só se o atendimento pertencer à empresa. */
+    public Optional<AttachmentInfo> insert(long companyId, long attendanceId, String sha256, String fileName,
+                                           String contentType, long size, long userId) throws SQLException {
+        final String sql = """
+            INSERT INTO attendance_attachment
+                   (company_id, attendance_id, sha256, file_name, content_type, size, created_by_user_id)
+            SELECT p.company_id, a.id, ?, ?, ?, ?, ?
+              FROM attendance a
+              JOIN pet p ON p.id = a.animal_id
+             WHERE a.id = ?
+               AND p.company_id = ?
+            RETURNING id, attendance_id, sha256, file_name, content_type, size, creation_date
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, sha256);
+            ps.setString(2, fileName);
+            ps.setString(3, contentType);
+            ps.setLong(4, size);
+            ps.setLong(5, userId);
+            ps.setLong(6, attendanceId);
+            ps.setLong(7, companyId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(map(rs)) : Optional.empty();
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    public List<AttachmentInfo> listByAttendance(long companyId, long attendanceId) throws SQLException {
+        final String sql = baseSelect() + """
+             WHERE company_id = ?
+               AND attendance_id = ?
+             ORDER BY creation_date, id
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setLong(2, attendanceId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                List<AttachmentInfo> list = new ArrayList<>();
+                while (rs.next()) list.add(map(rs));
+                return list;
+            }
+        }
+    }
+
+    public Optional<AttachmentInfo> findById(long companyId, long id) throws SQLException {
+        final String sql = baseSelect() + """
+             WHERE company_id = ?
+               AND id = ?
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setLong(2, id);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(map(rs)) : Optional.empty();
+            }
+        }
+    }
+
+    /** Remove só o vínculo; o blob fica para a coleta (pode estar em uso por outros anexos). */
+    public boolean delete(long companyId, long id) throws SQLException {
+        final String sql = "DELETE FROM attendance_attachment WHERE company_id = ? AND id = ?";
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setLong(2, id);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    /** Blobs sem anexo nem foto de pet e sem uso recente (candidatos à coleta). */
+    public List<String> listOrphanBlobs(int graceMinutes, int limit) throws SQLException {
+        final String sql = """
+            SELECT b.sha256
+              FROM blob_object b
+             WHERE b.last_used_at < NOW() - make_interval(mins => ?)
+               AND NOT EXISTS (SELECT 1 FROM attendance_attachment a WHERE a.sha256 = b.sha256)
+               AND NOT EXISTS (SELECT 1 FROM pet p WHERE p.photo_sha256 = b.sha256)
+             LIMIT ?
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setInt(1, graceMinutes);
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                List<String> list = new ArrayList<>();
+                while (rs.next()) list.add(rs.getString(1));
+                return list;
+            }
+        }
+    }
+
+    /** Apaga o registro do blob se ainda estiver órfão; use com lockBlob na mesma transação. */
+    public boolean deleteBlobIfOrphan(String sha256, int graceMinutes) throws SQLException {
+        final String sql = """
+            DELETE FROM blob_object b
+             WHERE b.sha256 = ?
+               AND b.last_used_at < NOW() - make_interval(mins => ?)
+               AND NOT EXISTS (SELECT 1 FROM attendance_attachment a WHERE a.sha256 = b.sha256)
+               AND NOT EXISTS (SELECT 1 FROM pet p WHERE p.photo_sha256 = b.sha256)
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, sha256);
+            ps.setInt(2, graceMinutes);
+            return ps.executeUpdate() == 1;
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    private static String baseSelect() {
+        return """
+            SELECT id, attendance_id, sha256, file_name, content_type, size, creation_date
+              FROM attendance_attachment
+            """;
+    }
+
+    private static AttachmentInfo map(ResultSet rs) throws SQLException {
+        return new AttachmentInfo(
+                rs.getLong("id"),
+                rs.getLong("attendance_id"),
+                rs.getString("sha256"),
+                rs.getString("file_name"),
+                rs.getString("content_type"),
+                rs.getLong("size"),
+                rs.getTimestamp("creation_date").toLocalDateTime());
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.application.classes.repository;
 
 import com.example.application.classes.model.Attendance;
+import com.example.application.classes.model.ClinicalNotes;
+import com.example.application.classes.service.BulkRescheduleResult;
+import com.example.application.classes.service.DiagnosisMatch;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
+import java.io.IOException;
 import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,8 +32,8 @@ public class AttendanceRepository {
      */
     public Optional<Long> insert(long companyId, Attendance attendance) throws SQLException {
         final String sql = """
-            INSERT INTO attendance (animal_id, created_by_user_id, appointment_at, description)
-            SELECT p.id, ?, ?, ?
+            INSERT INTO attendance (animal_id, created_by_user_id, appointment_at, description, clinical_notes)
+            SELECT p.id, ?, ?, ?, ?::jsonb
               FROM pet p
              WHERE p.id = ?
                AND p.company_id = ?
@@ -38,8 +46,9 @@ public class AttendanceRepository {
             setLongOrNull(ps, 1, attendance.getCreatedByUserId());
             ps.setObject(2, attendance.getAppointmentAt());
             ps.setString(3, attendance.getDescription());
-            ps.setLong(4, attendance.getAnimalId());
-            ps.setLong(5, companyId);
+            ps.setString(4, ClinicalNotesJson.write(attendance.getClinicalNotes()));
+            ps.setLong(5, attendance.getAnimalId());
+            ps.setLong(6, companyId);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) {
@@ -107,6 +116,7 @@ public class AttendanceRepository {
             UPDATE attendance a
                SET appointment_at = ?,
                    description    = ?,
+                   clinical_notes = ?::jsonb,
                    update_date    = NOW(),
                    version        = a.version + 1
               FROM pet p
@@ -122,9 +132,10 @@ public class AttendanceRepository {
 
             ps.setObject(1, attendance.getAppointmentAt());
             ps.setString(2, attendance.getDescription());
-            ps.setLong(3, attendance.getId());
-            ps.setInt(4, attendance.getVersion());
-            ps.setLong(5, companyId);
+            ps.setString(3, ClinicalNotesJson.write(attendance.getClinicalNotes()));
+            ps.setLong(4, attendance.getId());
+            ps.setInt(5, attendance.getVersion());
+            ps.setLong(6, companyId);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (!rs.next()) {
@@ -137,6 +148,70 @@ public class AttendanceRepository {
         }
     }
 
+    /**
+     * Remarca vários atendimentos num único UPDATE, cada um conferido pela própria versão.
+     * - day: move para esse dia mantendo a hora; shiftMinutes: desloca (pode ser negativo); aplicados nessa ordem.
+     * - vetUserId: passa para outro veterinário (null mantém).
+     * O horário considerado é o da agenda, COALESCE(appointment_at, scheduled_at); atendimento sem nenhum
+     * dos dois só pode trocar de veterinário.
+     * Roda na transação corrente (DataSourceUtils), junto com a materialização das ocorrências.
+     * Devolve os ids que não foram alterados (versão diferente, outra empresa ou sem horário).
+     */
+    public BulkRescheduleResult bulkReschedule(long companyId, long[] ids, int[] versions, LocalDate day,
+                                               int shiftMinutes, Long vetUserId) throws SQLException {
+        // Ao mover, o horário da agenda passa a valer como appointment_at; só trocar o veterinário não mexe nele.
+        final String sql = """
+            WITH params AS (
+                SELECT ?::date AS day, ?::int AS shift, ?::bigint AS vet
+            ), input AS (
+                SELECT i.id, i.version
+                  FROM unnest(?::bigint[], ?::int[]) AS i(id, version)
+            ), updated AS (
+                UPDATE attendance a
+                   SET appointment_at = CASE
+                           WHEN x.day IS NULL AND x.shift = 0 THEN a.appointment_at
+                           ELSE COALESCE(x.day + COALESCE(a.appointment_at, a.scheduled_at)::time,
+                                         COALESCE(a.appointment_at, a.scheduled_at))
+                                + make_interval(mins => x.shift)
+                       END,
+                       vet_user_id    = COALESCE(x.vet, a.vet_user_id),
+                       update_date    = NOW(),
+                       version        = a.version + 1
+                  FROM input i, pet p, params x
+                 WHERE a.id = i.id
+                   AND a.version = i.version
+                   AND a.animal_id = p.id
+                   AND p.company_id = ?
+                   AND (COALESCE(a.appointment_at, a.scheduled_at) IS NOT NULL OR (x.day IS NULL AND x.shift = 0))
+                RETURNING a.id
+            )
+            SELECT i.id
+              FROM input i
+             WHERE NOT EXISTS (SELECT 1 FROM updated u WHERE u.id = i.id)
+             ORDER BY i.id
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setObject(1, day, Types.DATE);
+            ps.setInt(2, shiftMinutes);
+            ps.setObject(3, vetUserId, Types.BIGINT);
+            ps.setArray(4, con.createArrayOf("bigint", Arrays.stream(ids).boxed().toArray()));
+            ps.setArray(5, con.createArrayOf("integer", Arrays.stream(versions).boxed().toArray()));
+            ps.setLong(6, companyId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                List<Long> conflicts = new ArrayList<>();
+                while (rs.next()) {
+                    conflicts.add(rs.getLong(1));
+                }
+                return new BulkRescheduleResult(ids.length - conflicts.size(), conflicts);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
     public boolean deleteById(long companyId, long id) throws SQLException {
         final String sql = """
             DELETE FROM attendance a
@@ -156,6 +231,77 @@ public class AttendanceRepository {
         }
     }
 
+    /**
+     * Atendimentos da empresa com o código de diagnóstico desde "since", mais recentes primeiro.
+     * O filtro por contenção (@>) usa o índice GIN de clinical_notes.
+     */
+    public List<DiagnosisMatch> findByDiagnosis(long companyId, String code, LocalDateTime since, int limit)
+            throws SQLException {
+        final String sql = """
+            SELECT a.id,
+                   COALESCE(a.appointment_at, a.scheduled_at, a.creation_date) AS happened_at,
+                   p.id   AS pet_id,
+                   p.name AS pet_name,
+                   c.name AS client_name,
+                   a.clinical_notes::text AS clinical_notes
+              FROM attendance a
+              JOIN pet p    ON p.id = a.animal_id
+              JOIN client c ON c.id = p.client_id
+             WHERE a.clinical_notes @> ?::jsonb
+               AND p.company_id = ?
+               AND p.deleted_at IS NULL
+               AND COALESCE(a.appointment_at, a.scheduled_at, a.creation_date) >= ?
+             ORDER BY happened_at DESC, a.id DESC
+             LIMIT ?
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, ClinicalNotesJson.diagnosisFilter(code));
+            ps.setLong(2, companyId);
+            ps.setObject(3, since);
+            ps.setInt(4, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                List<DiagnosisMatch> list = new ArrayList<>();
+                while (rs.next()) {
+                    ClinicalNotes notes = ClinicalNotesJson.read(rs.getString("clinical_notes"));
+                    list.add(new DiagnosisMatch(
+                            rs.getLong("id"),
+                            rs.getTimestamp("happened_at").toLocalDateTime(),
+                            rs.getLong("pet_id"),
+                            rs.getString("pet_name"),
+                            rs.getString("client_name"),
+                            notes != null ? notes.diagnoses() : List.of()));
+                }
+                return list;
+            }
+        }
+    }
+
+    /**
+     * Atendimentos do pet em ordem cronológica, por cursor no servidor (prontuário).
+     * Colunas: id, data (realizado, agendado ou criação), agendado para, veterinário, descrição.
+     * Precisa de transação ativa.
+     */
+    public long streamByAnimal(long companyId, long animalId, int fetchSize, RowHandler handler)
+            throws SQLException, IOException {
+        final String sql = """
+            SELECT a.id,
+                   COALESCE(a.appointment_at, a.scheduled_at, a.creation_date) AS happened_at,
+                   a.scheduled_at,
+                   u.name AS vet_name,
+                   a.description
+              FROM attendance a
+              JOIN pet p ON p.id = a.animal_id
+              LEFT JOIN app_user u ON u.id = COALESCE(a.vet_user_id, a.created_by_user_id)
+             WHERE p.company_id = ?
+               AND a.animal_id = ?
+             ORDER BY happened_at, a.id
+            """;
+        return Cursor.stream(dataSource, sql, fetchSize, handler, companyId, animalId);
+    }
+
     private static String baseSelect() {
         return """
             SELECT a.id,
@@ -165,7 +311,8 @@ public class AttendanceRepository {
                    a.animal_id,
                    a.created_by_user_id,
                    a.appointment_at,
-                   a.description
+                   a.description,
+                   a.clinical_notes::text AS clinical_notes
               FROM attendance a
               JOIN pet p ON p.id = a.animal_id
             """;
@@ -184,6 +331,7 @@ public class AttendanceRepository {
         a.setAppointmentAt(appt != null ? appt.toLocalDateTime() : null);
 
         a.setDescription(rs.getString("description"));
+        a.setClinicalNotes(ClinicalNotesJson.read(rs.getString("clinical_notes")));
         return a;
     }
 
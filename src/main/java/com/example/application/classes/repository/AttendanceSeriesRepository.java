@@ -0,0 +1,194 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.Recurrence;
+import com.example.application.classes.model.AttendanceSeries;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Séries de atendimentos e suas exceções (ocorrência cancelada ou materializada em attendance).
+ * Métodos de escrita usam a conexão da transação corrente: a série é travada antes de mexer nas exceções.
+ */
+@Repository
+public class AttendanceSeriesRepository {
+
+    /** Exceção de uma ocorrência; attendanceId null = cancelada. */
+    public record SeriesException(long seriesId, LocalDateTime occurrenceAt, Long attendanceId) {}
+
+    private final DataSource dataSource;
+
+    public AttendanceSeriesRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /** Vazio se o pet não existe (ou foi excluído) na empresa. */
+    public Optional<Long> insert(long companyId, long petId, Long userId, Recurrence rule, String description)
+            throws SQLException {
+        final String sql = """
+            INSERT INTO attendance_series (company_id, pet_id, created_by_user_id, starts_at, frequency,
+                                           interval_n, occurrences, until_at, ends_at, description)
+            SELECT p.company_id, p.id, ?, ?, ?, ?, ?, ?, ?, ?
+              FROM pet p
+             WHERE p.company_id = ?
+               AND p.id = ?
+               AND p.deleted_at IS NULL
+            RETURNING id
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setObject(1, userId, Types.BIGINT);
+            ps.setTimestamp(2, Timestamp.valueOf(rule.start()));
+            ps.setString(3, rule.frequency().name());
+            ps.setInt(4, rule.interval());
+            ps.setObject(5, rule.count(), Types.INTEGER);
+            ps.setTimestamp(6, rule.until() == null ? null : Timestamp.valueOf(rule.until()));
+            ps.setTimestamp(7, Timestamp.valueOf(rule.last()));
+            ps.setString(8, description);
+            ps.setLong(9, companyId);
+            ps.setLong(10, petId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(rs.getLong(1)) : Optional.empty();
+            }
+        }
+    }
+
+    /** Trava a série até o fim da transação. */
+    public Optional<AttendanceSeries> lock(long companyId, long id) throws SQLException {
+        final String sql = """
+            SELECT id, company_id, pet_id, starts_at, frequency, interval_n, occurrences, until_at, description
+              FROM attendance_series
+             WHERE company_id = ?
+               AND id = ?
+               FOR UPDATE
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setLong(2, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return Optional.empty();
+                return Optional.of(new AttendanceSeries(
+                        rs.getLong("id"),
+                        rs.getLong("company_id"),
+                        rs.getLong("pet_id"),
+                        rule(rs),
+                        rs.getString("description")));
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    public Optional<SeriesException> findException(long seriesId, LocalDateTime occurrenceAt) throws SQLException {
+        final String sql = """
+            SELECT attendance_id
+              FROM attendance_series_exception
+             WHERE series_id = ?
+               AND occurrence_at = ?
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, seriesId);
+            ps.setTimestamp(2, Timestamp.valueOf(occurrenceAt));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return Optional.empty();
+                long attendanceId = rs.getLong(1);
+                return Optional.of(new SeriesException(seriesId, occurrenceAt, rs.wasNull() ? null : attendanceId));
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /** Cria o atendimento da ocorrência (pet e descrição da série) e a exceção que aponta para ele. */
+    public long materialize(AttendanceSeries series, LocalDateTime occurrenceAt, Long userId) throws SQLException {
+        final String sql = """
+            WITH created AS (
+                INSERT INTO attendance (animal_id, created_by_user_id, appointment_at, description)
+                VALUES (?, ?, ?, ?)
+                RETURNING id
+            )
+            INSERT INTO attendance_series_exception (series_id, occurrence_at, attendance_id)
+            SELECT ?, ?, id FROM created
+            RETURNING attendance_id
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, series.petId());
+            ps.setObject(2, userId, Types.BIGINT);
+            ps.setTimestamp(3, Timestamp.valueOf(occurrenceAt));
+            ps.setString(4, series.description());
+            ps.setLong(5, series.id());
+            ps.setTimestamp(6, Timestamp.valueOf(occurrenceAt));
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    public void cancelOccurrence(long seriesId, LocalDateTime occurrenceAt) throws SQLException {
+        final String sql = """
+            INSERT INTO attendance_series_exception (series_id, occurrence_at)
+            VALUES (?, ?)
+            ON CONFLICT (series_id, occurrence_at) DO NOTHING
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, seriesId);
+            ps.setTimestamp(2, Timestamp.valueOf(occurrenceAt));
+            ps.executeUpdate();
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /** Troca o fim da série (regra já recortada pelo chamador). */
+    public void updateEnd(long companyId, long id, Recurrence rule) throws SQLException {
+        final String sql = """
+            UPDATE attendance_series
+               SET occurrences = ?,
+                   until_at    = ?,
+                   ends_at     = ?,
+                   update_date = NOW(),
+                   version     = version + 1
+             WHERE company_id = ?
+               AND id = ?
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setObject(1, rule.count(), Types.INTEGER);
+            ps.setTimestamp(2, rule.until() == null ? null : Timestamp.valueOf(rule.until()));
+            ps.setTimestamp(3, Timestamp.valueOf(rule.last()));
+            ps.setLong(4, companyId);
+            ps.setLong(5, id);
+            ps.executeUpdate();
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /** Regra da linha atual; a consulta precisa trazer starts_at, frequency, interval_n, occurrences e until_at. */
+    static Recurrence rule(ResultSet rs) throws SQLException {
+        Timestamp until = rs.getTimestamp("until_at");
+        return new Recurrence(
+                rs.getTimestamp("starts_at").toLocalDateTime(),
+                Recurrence.Frequency.valueOf(rs.getString("frequency")),
+                rs.getInt("interval_n"),
+                (Integer) rs.getObject("occurrences"),
+                until == null ? null : until.toLocalDateTime());
+    }
+}
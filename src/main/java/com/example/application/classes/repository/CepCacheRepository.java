@@ -0,0 +1,76 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.service.CepCacheEntry;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.Optional;
+
+@Repository
+public class CepCacheRepository {
+
+    private final DataSource dataSource;
+
+    public CepCacheRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public Optional<CepCacheEntry> find(String cep) throws SQLException {
+        final String sql = """
+            SELECT cep, found, logradouro, complemento, bairro, localidade, uf, expires_at
+              FROM cep_cache
+             WHERE cep = ?
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setString(1, cep);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return Optional.empty();
+                return Optional.of(new CepCacheEntry(
+                        rs.getString("cep"),
+                        rs.getBoolean("found"),
+                        rs.getString("logradouro"),
+                        rs.getString("complemento"),
+                        rs.getString("bairro"),
+                        rs.getString("localidade"),
+                        rs.getString("uf"),
+                        rs.getTimestamp("expires_at").toLocalDateTime()
+                ));
+            }
+        }
+    }
+
+    public void upsert(CepCacheEntry entry) throws SQLException {
+        final String sql = """
+            INSERT INTO cep_cache (cep, found, logradouro, complemento, bairro, localidade, uf, fetched_at, expires_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, NOW(), ?)
+            ON CONFLICT (cep) DO UPDATE
+               SET found       = EXCLUDED.found,
+                   logradouro  = EXCLUDED.logradouro,
+                   complemento = EXCLUDED.complemento,
+                   bairro      = EXCLUDED.bairro,
+                   localidade  = EXCLUDED.localidade,
+                   uf          = EXCLUDED.uf,
+                   fetched_at  = EXCLUDED.fetched_at,
+                   expires_at  = EXCLUDED.expires_at
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setString(1, entry.cep());
+            ps.setBoolean(2, entry.found());
+            ps.setString(3, entry.logradouro());
+            ps.setString(4, entry.complemento());
+            ps.setString(5, entry.bairro());
+            ps.setString(6, entry.localidade());
+            ps.setString(7, entry.uf());
+            ps.setTimestamp(8, Timestamp.valueOf(entry.expiresAt()));
+            ps.executeUpdate();
+        }
+    }
+}
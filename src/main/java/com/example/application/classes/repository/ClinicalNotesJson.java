@@ -0,0 +1,51 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.model.ClinicalNotes;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/** Conversão de ClinicalNotes para o JSONB de attendance.clinical_notes (campos vazios não são gravados). */
+final class ClinicalNotesJson {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_EMPTY)
+            .setVisibility(PropertyAccessor.IS_GETTER, JsonAutoDetect.Visibility.NONE) // isEmpty() não é campo
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private ClinicalNotesJson() {}
+
+    static String write(ClinicalNotes notes) throws SQLException {
+        if (notes == null || notes.isEmpty()) return null;
+        try {
+            return MAPPER.writeValueAsString(notes);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Falha ao converter notas clínicas", e);
+        }
+    }
+
+    static ClinicalNotes read(String json) throws SQLException {
+        if (json == null) return null;
+        try {
+            return MAPPER.readValue(json, ClinicalNotes.class);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Notas clínicas inválidas no banco", e);
+        }
+    }
+
+    /** Filtro de contenção para o índice GIN: {"diagnoses": [code]}. */
+    static String diagnosisFilter(String code) throws SQLException {
+        try {
+            return MAPPER.writeValueAsString(Map.of("diagnoses", List.of(code)));
+        } catch (JsonProcessingException e) {
+            throw new SQLException(e);
+        }
+    }
+}
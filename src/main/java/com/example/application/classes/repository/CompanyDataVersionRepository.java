@@ -0,0 +1,49 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.service.CompanyDataVersion;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+@Repository
+public class CompanyDataVersionRepository {
+
+    private final DataSource dataSource;
+
+    public CompanyDataVersionRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Carimbos atuais da empresa. Empresas sem nenhuma escrita ainda
+     * não possuem linha e recebem versão zero.
+     */
+    public CompanyDataVersion findByCompany(long companyId) throws SQLException {
+        final String sql = """
+            SELECT company_id, client_version, pet_version, attendance_version
+              FROM company_data_version
+             WHERE company_id = ?
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setLong(1, companyId);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return CompanyDataVersion.initial(companyId);
+
+                return new CompanyDataVersion(
+                        rs.getLong("company_id"),
+                        rs.getLong("client_version"),
+                        rs.getLong("pet_version"),
+                        rs.getLong("attendance_version")
+                );
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.application.classes.repository;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.*;
+
+/**
+ * Leitura por cursor no servidor, linha a linha, para consultas parametrizadas por ids (empresa primeiro).
+ * Precisa de transação ativa (o driver do PostgreSQL ignora o fetch size com auto-commit).
+ * O array entregue ao handler é reaproveitado entre linhas.
+ */
+final class Cursor {
+
+    private Cursor() {}
+
+    static long stream(DataSource dataSource, String sql, long companyId, int fetchSize, RowHandler handler)
+            throws SQLException, IOException {
+        return stream(dataSource, sql, fetchSize, handler, companyId);
+    }
+
+    static long stream(DataSource dataSource, String sql, int fetchSize, RowHandler handler, long... params)
+            throws SQLException, IOException {
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(fetchSize);
+            for (int i = 0; i < params.length; i++) {
+                ps.setLong(i + 1, params[i]);
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                Object[] values = new Object[columns];
+                long count = 0;
+                while (rs.next()) {
+                    for (int i = 0; i < columns; i++) {
+                        values[i] = value(rs.getObject(i + 1));
+                    }
+                    handler.accept(values);
+                    count++;
+                }
+                return count;
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    private static Object value(Object raw) {
+        if (raw instanceof Timestamp ts) return ts.toLocalDateTime();
+        if (raw instanceof Date d) return d.toLocalDate();
+        return raw;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.application.classes.repository;
+
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Consultas de exportação lidas por cursor no servidor (fetch size), linha a linha.
+ * O driver do PostgreSQL só usa cursor com auto-commit desligado, então estes métodos
+ * precisam rodar dentro de uma transação (somente leitura) e usam a conexão dela.
+ */
+@Repository
+public class ExportRepository {
+
+    private final DataSource dataSource;
+
+    public ExportRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public long streamClients(long companyId, int fetchSize, RowHandler handler) throws SQLException, IOException {
+        final String sql = """
+            SELECT id, name, doc_type, document, email, phone,
+                   cep, street, number, complement, district, city, uf,
+                   creation_date
+              FROM client
+             WHERE company_id = ?
+               AND deleted_at IS NULL
+             ORDER BY id
+            """;
+        return stream(sql, companyId, fetchSize, handler);
+    }
+
+    public long streamPets(long companyId, int fetchSize, RowHandler handler) throws SQLException, IOException {
+        final String sql = """
+            SELECT p.id, p.name, p.species, p.breed, p.birth_date,
+                   c.id AS client_id, c.name AS client_name,
+                   p.creation_date
+              FROM pet p
+              JOIN client c ON c.id = p.client_id
+             WHERE p.company_id = ?
+               AND p.deleted_at IS NULL
+             ORDER BY p.id
+            """;
+        return stream(sql, companyId, fetchSize, handler);
+    }
+
+    public long streamAttendances(long companyId, int fetchSize, RowHandler handler) throws SQLException, IOException {
+        final String sql = """
+            SELECT a.id, a.scheduled_at, a.appointment_at,
+                   p.name AS pet_name, p.species,
+                   c.name AS client_name,
+                   a.description
+              FROM attendance a
+              JOIN pet p    ON p.id = a.animal_id
+              JOIN client c ON c.id = p.client_id
+             WHERE p.company_id = ?
+               AND p.deleted_at IS NULL
+             ORDER BY a.id
+            """;
+        return stream(sql, companyId, fetchSize, handler);
+    }
+
+    private long stream(String sql, long companyId, int fetchSize, RowHandler handler) throws SQLException, IOException {
+        return Cursor.stream(dataSource, sql, companyId, fetchSize, handler);
+    }
+}
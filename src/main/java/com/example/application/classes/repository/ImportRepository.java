@@ -0,0 +1,333 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.service.ImportError;
+import com.example.application.classes.service.ImportKind;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Importação de dados legados.
+ * - import_job/import_error: registros do processo, gravados fora da transação da carga
+ *   (o job e o relatório de erros por linha continuam visíveis mesmo se a carga falhar).
+ * - Staging e merge: usam a conexão da transação corrente; todo o merge é feito com
+ *   comandos em conjunto, nunca linha a linha.
+ */
+@Repository
+public class ImportRepository {
+
+    private final DataSource dataSource;
+
+    public ImportRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public long createJob(long companyId, long userId, ImportKind kind, String fileName) throws SQLException {
+        final String sql = """
+            INSERT INTO import_job (company_id, created_by_user_id, kind, file_name)
+            VALUES (?, ?, ?, ?)
+            RETURNING id
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setLong(2, userId);
+            ps.setString(3, kind.name());
+            ps.setString(4, fileName);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong("id");
+            }
+        }
+    }
+
+    public void finishJob(long jobId, boolean ok, int total, int errors, int inserted, int updated, String message)
+            throws SQLException {
+        final String sql = """
+            UPDATE import_job
+               SET status        = ?,
+                   total_rows    = ?,
+                   error_rows    = ?,
+                   inserted_rows = ?,
+                   updated_rows  = ?,
+                   message       = ?,
+                   finished_at   = NOW()
+             WHERE id = ?
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, ok ? "DONE" : "FAILED");
+            ps.setInt(2, total);
+            ps.setInt(3, errors);
+            ps.setInt(4, inserted);
+            ps.setInt(5, updated);
+            ps.setString(6, message);
+            ps.setLong(7, jobId);
+            ps.executeUpdate();
+        }
+    }
+
+    /** Conexão própria, em autocommit: não entra nem sai com a transação da carga. */
+    public void insertErrors(long jobId, List<ImportError> errors) throws SQLException {
+        if (errors.isEmpty()) return;
+        final String sql = "INSERT INTO import_error (job_id, line_no, message) VALUES (?, ?, ?)";
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            int pending = 0;
+            for (ImportError e : errors) {
+                ps.setLong(1, jobId);
+                ps.setLong(2, e.lineNo());
+                ps.setString(3, e.message());
+                ps.addBatch();
+                if (++pending == 500) {
+                    ps.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) ps.executeBatch();
+        }
+    }
+
+    public List<ImportError> listErrors(long companyId, long jobId, int limit) throws SQLException {
+        final String sql = """
+            SELECT e.line_no, e.message
+              FROM import_error e
+              JOIN import_job j ON j.id = e.job_id
+             WHERE j.company_id = ?
+               AND e.job_id = ?
+             ORDER BY e.line_no
+             LIMIT ?
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setLong(2, jobId);
+            ps.setInt(3, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                List<ImportError> list = new ArrayList<>();
+                while (rs.next()) {
+                    list.add(new ImportError(rs.getLong("line_no"), rs.getString("message")));
+                }
+                return list;
+            }
+        }
+    }
+
+    /** Abre o COPY para o staging; cada linha: job_id, line_no, legacy_key e as colunas do tipo. */
+    public StageCopy openStage(ImportKind kind) throws SQLException {
+        List<String> columns = Stream.concat(Stream.of("job_id", "line_no", "legacy_key"), kind.stageColumns.stream())
+                .toList();
+        return new StageCopy(dataSource, kind.stageTable, columns);
+    }
+
+    /**
+     * Resolve chaves e FKs, grava inserções/atualizações e o mapa de chaves. Linhas recusadas nesta fase
+     * saem do staging e vão para rejected (até maxReported), para serem gravadas com insertErrors
+     * depois da transação. Retorna {recusadas, inseridas, atualizadas}.
+     */
+    public int[] merge(ImportKind kind, long jobId, long companyId, long userId,
+                       List<ImportError> rejected, int maxReported) throws SQLException {
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try {
+            Rejections r = new Rejections(rejected, maxReported);
+
+            // Código repetido no arquivo: vale a última linha.
+            reject(con, r, jobId, kind.stageTable, """
+                    EXISTS (SELECT 1 FROM %1$s k
+                             WHERE k.job_id = s.job_id
+                               AND k.legacy_key = s.legacy_key
+                               AND k.line_no > s.line_no)
+                    """.formatted(kind.stageTable),
+                    "'Código ' || s.legacy_key || ' repetido no arquivo; foi usada a última ocorrência.'");
+
+            switch (kind) {
+                case PET -> {
+                    resolveForeignKey(con, jobId, companyId, kind.stageTable, "client_id", "client_key", "CLIENT", "client");
+                    reject(con, r, jobId, kind.stageTable, "s.client_id IS NULL",
+                            "'Tutor com código ' || s.client_key || ' não encontrado (importe os clientes antes).'");
+                }
+                case ATTENDANCE -> {
+                    resolveForeignKey(con, jobId, companyId, kind.stageTable, "animal_id", "pet_key", "PET", "pet");
+                    reject(con, r, jobId, kind.stageTable, "s.animal_id IS NULL",
+                            "'Pet com código ' || s.pet_key || ' não encontrado (importe os pets antes).'");
+                }
+                case CLIENT -> { }
+            }
+
+            // Linhas já importadas antes (mapa aponta para um registro que ainda existe) viram atualização.
+            exec(con, """
+                    UPDATE %1$s s
+                       SET target_id = km.target_id
+                      FROM import_key_map km
+                      JOIN %2$s t ON t.id = km.target_id
+                     WHERE s.job_id = ?
+                       AND km.company_id = ?
+                       AND km.entity = ?
+                       AND km.legacy_key = s.legacy_key
+                    """.formatted(kind.stageTable, kind.targetTable), jobId, companyId, kind.name());
+
+            if (kind == ImportKind.CLIENT) {
+                // Documento já usado por outro cliente ativo ou por uma linha anterior do arquivo.
+                reject(con, r, jobId, kind.stageTable, """
+                        s.doc_type IS NOT NULL AND s.document IS NOT NULL
+                        AND (EXISTS (SELECT 1 FROM client c
+                                      WHERE c.company_id = ?
+                                        AND c.doc_type = s.doc_type
+                                        AND c.document = s.document
+                                        AND c.deleted_at IS NULL
+                                        AND c.id IS DISTINCT FROM s.target_id)
+                          OR EXISTS (SELECT 1 FROM import_client_stage k
+                                      WHERE k.job_id = s.job_id
+                                        AND k.doc_type = s.doc_type
+                                        AND k.document = s.document
+                                        AND k.line_no < s.line_no))
+                        """,
+                        "'Documento ' || s.document || ' já cadastrado para outro cliente.'", companyId);
+            }
+
+            // Ids das linhas novas saem da própria sequence, para gravar o mapa sem depender de RETURNING.
+            exec(con, """
+                    UPDATE %1$s
+                       SET target_id = nextval(pg_get_serial_sequence('%2$s', 'id')),
+                           is_new    = TRUE
+                     WHERE job_id = ?
+                       AND target_id IS NULL
+                    """.formatted(kind.stageTable, kind.targetTable), jobId);
+
+            String cols = String.join(", ", kind.targetColumns);
+            String stageCols = kind.targetColumns.stream().map(c -> "s." + c).collect(Collectors.joining(", "));
+            String targetCols = kind.targetColumns.stream().map(c -> "t." + c).collect(Collectors.joining(", "));
+            String sets = kind.targetColumns.stream().map(c -> c + " = s." + c).collect(Collectors.joining(", "));
+
+            int inserted = kind.hasCompany
+                    ? exec(con, """
+                        INSERT INTO %1$s (id, company_id, created_by_user_id, %2$s)
+                        SELECT s.target_id, ?, ?, %3$s
+                          FROM %4$s s
+                         WHERE s.job_id = ?
+                           AND s.is_new
+                        """.formatted(kind.targetTable, cols, stageCols, kind.stageTable), companyId, userId, jobId)
+                    : exec(con, """
+                        INSERT INTO %1$s (id, created_by_user_id, %2$s)
+                        SELECT s.target_id, ?, %3$s
+                          FROM %4$s s
+                         WHERE s.job_id = ?
+                           AND s.is_new
+                        """.formatted(kind.targetTable, cols, stageCols, kind.stageTable), userId, jobId);
+
+            // Só atualiza o que mudou: reimportar o mesmo arquivo não gera versões novas.
+            int updated = exec(con, """
+                    UPDATE %1$s t
+                       SET %2$s,
+                           version = t.version + 1
+                      FROM %3$s s
+                     WHERE s.job_id = ?
+                       AND NOT s.is_new
+                       AND t.id = s.target_id
+                       AND (%4$s) IS DISTINCT FROM (%5$s)
+                    """.formatted(kind.targetTable, sets, kind.stageTable, targetCols, stageCols), jobId);
+
+            exec(con, """
+                    INSERT INTO import_key_map (company_id, entity, legacy_key, target_id)
+                    SELECT ?, ?, legacy_key, target_id
+                      FROM %1$s
+                     WHERE job_id = ?
+                       AND is_new
+                    ON CONFLICT (company_id, entity, legacy_key)
+                    DO UPDATE SET target_id = EXCLUDED.target_id
+                    """.formatted(kind.stageTable), companyId, kind.name(), jobId);
+
+            return new int[]{r.count, inserted, updated};
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    public void clearStage(ImportKind kind, long jobId) throws SQLException {
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try {
+            exec(con, "DELETE FROM " + kind.stageTable + " WHERE job_id = ?", jobId);
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    private static void resolveForeignKey(Connection con, long jobId, long companyId, String stageTable,
+                                          String fkColumn, String keyColumn, String entity, String parentTable)
+            throws SQLException {
+        exec(con, """
+                UPDATE %1$s s
+                   SET %2$s = km.target_id
+                  FROM import_key_map km
+                  JOIN %5$s p ON p.id = km.target_id
+                             AND p.company_id = km.company_id
+                             AND p.deleted_at IS NULL
+                 WHERE s.job_id = ?
+                   AND km.company_id = ?
+                   AND km.entity = '%4$s'
+                   AND km.legacy_key = s.%3$s
+                """.formatted(stageTable, fkColumn, keyColumn, entity, parentTable), jobId, companyId);
+    }
+
+    /** Recusas do merge: todas contadas, só as primeiras maxReported guardadas. */
+    private static final class Rejections {
+        final List<ImportError> reported;
+        final int maxReported;
+        int count;
+
+        Rejections(List<ImportError> reported, int maxReported) {
+            this.reported = reported;
+            this.maxReported = maxReported;
+        }
+    }
+
+    /**
+     * Remove do staging as linhas que atendem a condição e devolve o motivo de cada uma em r.
+     * Os ? da condição recebem conditionParams, na ordem.
+     */
+    private static void reject(Connection con, Rejections r, long jobId, String stageTable, String condition,
+                               String messageSql, Object... conditionParams) throws SQLException {
+        Object[] params = new Object[conditionParams.length + 1];
+        params[0] = jobId;
+        System.arraycopy(conditionParams, 0, params, 1, conditionParams.length);
+        try (PreparedStatement ps = con.prepareStatement("""
+                DELETE FROM %1$s s
+                 WHERE s.job_id = ?
+                   AND %2$s
+                RETURNING s.line_no, %3$s AS message
+                """.formatted(stageTable, condition, messageSql))) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    r.count++;
+                    if (r.reported.size() < r.maxReported) {
+                        r.reported.add(new ImportError(rs.getLong("line_no"), rs.getString("message")));
+                    }
+                }
+            }
+        }
+    }
+
+    private static int exec(Connection con, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            return ps.executeUpdate();
+        }
+    }
+}
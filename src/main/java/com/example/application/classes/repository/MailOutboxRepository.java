@@ -0,0 +1,152 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.service.OutboxMail;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.util.*;
+
+@Repository
+public class MailOutboxRepository {
+
+    private final DataSource dataSource;
+
+    public MailOutboxRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Enfileira um e-mail. Usa a conexão da transação corrente (se houver),
+     * para que o e-mail só exista se a alteração que o originou for confirmada.
+     */
+    public long enqueue(String template, String recipient, Map<String, String> params) throws SQLException {
+        final String sql = """
+            INSERT INTO mail_outbox (template, recipient, params)
+            VALUES (?, ?, jsonb_object(?::text[], ?::text[]))
+            RETURNING id
+            """;
+
+        List<String> keys = new ArrayList<>(params.keySet());
+        List<String> values = keys.stream().map(params::get).toList();
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, template);
+            ps.setString(2, recipient);
+            ps.setArray(3, con.createArrayOf("text", keys.toArray()));
+            ps.setArray(4, con.createArrayOf("text", values.toArray()));
+
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong("id");
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /**
+     * Reivindica até {@code limit} e-mails vencidos, marcando-os como SENDING.
+     * Também retoma linhas presas em SENDING há mais de {@code leaseSeconds} (réplica caiu no meio do envio).
+     * SKIP LOCKED faz réplicas concorrentes pegarem lotes disjuntos sem esperar umas pelas outras.
+     */
+    public List<OutboxMail> claimBatch(int limit, int leaseSeconds) throws SQLException {
+        final String sql = """
+            WITH claimed AS (
+                UPDATE mail_outbox
+                   SET status     = 'SENDING',
+                       claimed_at = NOW(),
+                       attempts   = attempts + 1
+                 WHERE id IN (
+                        SELECT id
+                          FROM mail_outbox
+                         WHERE (status = 'PENDING' AND next_attempt_at <= NOW())
+                            OR (status = 'SENDING' AND claimed_at < NOW() - make_interval(secs => ?))
+                         ORDER BY next_attempt_at
+                         LIMIT ?
+                         FOR UPDATE SKIP LOCKED
+                 )
+                RETURNING id, template, recipient, params, attempts
+            )
+            SELECT c.id, c.template, c.recipient, c.attempts,
+                   ARRAY(SELECT e.key   FROM jsonb_each_text(c.params) e ORDER BY e.key) AS param_keys,
+                   ARRAY(SELECT e.value FROM jsonb_each_text(c.params) e ORDER BY e.key) AS param_values
+              FROM claimed c
+             ORDER BY c.id
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+
+            ps.setInt(1, leaseSeconds);
+            ps.setInt(2, limit);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                List<OutboxMail> out = new ArrayList<>();
+                while (rs.next()) {
+                    String[] keys = (String[]) rs.getArray("param_keys").getArray();
+                    String[] values = (String[]) rs.getArray("param_values").getArray();
+                    Map<String, String> params = new HashMap<>();
+                    for (int i = 0; i < keys.length; i++) params.put(keys[i], values[i]);
+
+                    out.add(new OutboxMail(
+                            rs.getLong("id"),
+                            rs.getString("template"),
+                            rs.getString("recipient"),
+                            params,
+                            rs.getInt("attempts")
+                    ));
+                }
+                return out;
+            }
+        }
+    }
+
+    /** Marca como enviados e apaga os parâmetros (dados pessoais do e-mail). */
+    public void markSent(Collection<Long> ids) throws SQLException {
+        if (ids.isEmpty()) return;
+        final String sql = """
+            UPDATE mail_outbox
+               SET status     = 'SENT',
+                   sent_at    = NOW(),
+                   claimed_at = NULL,
+                   params     = '{}'::jsonb,
+                   last_error = NULL
+             WHERE id = ANY(?)
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Devolve para a fila com nova tentativa em {@code delaySeconds},
+     * ou marca FAILED (limpando os parâmetros) quando {@code giveUp}.
+     */
+    public void markFailed(long id, String error, int delaySeconds, boolean giveUp) throws SQLException {
+        final String sql = """
+            UPDATE mail_outbox
+               SET status          = CASE WHEN ? THEN 'FAILED' ELSE 'PENDING' END,
+                   next_attempt_at = NOW() + make_interval(secs => ?),
+                   claimed_at      = NULL,
+                   params          = CASE WHEN ? THEN '{}'::jsonb ELSE params END,
+                   last_error      = ?
+             WHERE id = ?
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setBoolean(1, giveUp);
+            ps.setInt(2, delaySeconds);
+            ps.setBoolean(3, giveUp);
+            ps.setString(4, error);
+            ps.setLong(5, id);
+            ps.executeUpdate();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.application.classes.repository;
 
 import com.example.application.classes.model.Pet;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.stereotype.Repository;
 
 import javax.sql.DataSource;
@@ -218,6 +219,49 @@ public class PetRepository {
         }
     }
 
+    /** Troca a foto do pet (null remove). Roda na transação corrente. */
+    public boolean updatePhoto(long companyId, long id, String photoSha256) throws SQLException {
+        final String sql = """
+            UPDATE pet
+               SET photo_sha256 = ?,
+                   update_date = NOW(),
+                   version = version + 1
+             WHERE company_id = ?
+               AND id = ?
+               AND deleted_at IS NULL
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, photoSha256);
+            ps.setLong(2, companyId);
+            ps.setLong(3, id);
+            return ps.executeUpdate() == 1;
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /** True se a foto pertence a algum pet da empresa (acesso às miniaturas). */
+    public boolean isPhotoOfCompany(long companyId, String photoSha256) throws SQLException {
+        final String sql = """
+            SELECT 1
+              FROM pet
+             WHERE photo_sha256 = ?
+               AND company_id = ?
+             LIMIT 1
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, photoSha256);
+            ps.setLong(2, companyId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
     private static String baseSelect() {
         return """
             SELECT id,
@@ -232,7 +276,8 @@ public class PetRepository {
                    breed,
                    birth_date,
                    notes,
-                   deleted_at
+                   deleted_at,
+                   photo_sha256
               FROM pet
             """;
     }
@@ -262,6 +307,8 @@ public class PetRepository {
         Timestamp deletedAt = rs.getTimestamp("deleted_at");
         pet.setDeletedAt(deletedAt != null ? deletedAt.toLocalDateTime() : null);
 
+        pet.setPhotoSha256(rs.getString("photo_sha256"));
+
         return pet;
     }
 }
\ No newline at end of file
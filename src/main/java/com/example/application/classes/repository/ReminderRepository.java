@@ -0,0 +1,243 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.Recurrence;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Varredura dos lembretes de consulta. Tudo roda na transação corrente (DataSourceUtils):
+ * travar a marca d'água, enfileirar a janela e avançar a marca são uma coisa só.
+ * Horários vêm do relógio do banco, não das réplicas.
+ */
+@Repository
+public class ReminderRepository {
+
+    /** Marca d'água travada e o horário do banco no início da transação. */
+    public record Watermark(LocalDateTime scannedUntil, LocalDateTime now) {}
+
+    /** Série ativa na janela, com as ocorrências que já viraram exceção (canceladas ou materializadas). */
+    public record SeriesInWindow(long id, Recurrence rule, Set<LocalDateTime> exceptions) {}
+
+    private final DataSource dataSource;
+
+    public ReminderRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /** Cria a marca do tipo se ainda não existe, começando em agora + lead (nada de lembrete retroativo). */
+    public void ensureWatermark(int kind, long leadSeconds) throws SQLException {
+        final String sql = """
+            INSERT INTO reminder_watermark (kind, scanned_until)
+            VALUES (?, LOCALTIMESTAMP + make_interval(secs => ?))
+            ON CONFLICT (kind) DO NOTHING
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setShort(1, (short) kind);
+            ps.setLong(2, leadSeconds);
+            ps.executeUpdate();
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /** Vazio se outra réplica está varrendo este tipo agora (SKIP LOCKED). */
+    public Optional<Watermark> lockWatermark(int kind) throws SQLException {
+        final String sql = """
+            SELECT scanned_until, LOCALTIMESTAMP AS now
+              FROM reminder_watermark
+             WHERE kind = ?
+               FOR UPDATE SKIP LOCKED
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setShort(1, (short) kind);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return Optional.empty();
+                return Optional.of(new Watermark(
+                        rs.getTimestamp("scanned_until").toLocalDateTime(),
+                        rs.getTimestamp("now").toLocalDateTime()));
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    public void advanceWatermark(int kind, LocalDateTime scannedUntil) throws SQLException {
+        final String sql = """
+            UPDATE reminder_watermark
+               SET scanned_until = ?,
+                   update_date   = NOW()
+             WHERE kind = ?
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(scannedUntil));
+            ps.setShort(2, (short) kind);
+            ps.executeUpdate();
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /**
+     * Enfileira, numa única instrução, os lembretes das consultas com appointment_at em (from, to]:
+     * grava a marca em attendance_reminder (ON CONFLICT ignora as já enfileiradas) e só as marcas
+     * novas viram linha na mail_outbox. Usa ix_attendance_appointment_at. Devolve quantos e-mails entraram.
+     */
+    public int enqueueWindow(int kind, String template, LocalDateTime from, LocalDateTime to) throws SQLException {
+        final String sql = """
+            WITH due AS (
+                SELECT a.id,
+                       a.appointment_at,
+                       p.name  AS pet_name,
+                       c.name  AS client_name,
+                       c.email AS client_email,
+                       co.name AS company_name
+                  FROM attendance a
+                  JOIN pet p     ON p.id = a.animal_id
+                  JOIN client c  ON c.id = p.client_id
+                  JOIN company co ON co.id = p.company_id
+                 WHERE a.appointment_at > ?
+                   AND a.appointment_at <= ?
+                   AND p.deleted_at IS NULL
+                   AND c.deleted_at IS NULL
+                   AND co.deleted_at IS NULL
+                   AND c.email IS NOT NULL
+                   AND c.email <> ''
+            ), marked AS (
+                INSERT INTO attendance_reminder (attendance_id, kind, appointment_at)
+                SELECT id, ?, appointment_at
+                  FROM due
+                ON CONFLICT DO NOTHING
+                RETURNING attendance_id
+            )
+            INSERT INTO mail_outbox (template, recipient, params)
+            SELECT ?,
+                   d.client_email,
+                   jsonb_build_object(
+                       'clientName',    d.client_name,
+                       'petName',       d.pet_name,
+                       'companyName',   d.company_name,
+                       'appointmentAt', to_char(d.appointment_at, 'DD/MM/YYYY "às" HH24:MI'))
+              FROM due d
+              JOIN marked m ON m.attendance_id = d.id
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(from));
+            ps.setTimestamp(2, Timestamp.valueOf(to));
+            ps.setShort(3, (short) kind);
+            ps.setString(4, template);
+            return ps.executeUpdate();
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /**
+     * Séries (de todas as empresas) com ocorrência possível em (from, to] e tutor com e-mail.
+     * As exceções vêm junto, já recortadas pela janela.
+     */
+    public List<SeriesInWindow> listSeriesInWindow(LocalDateTime from, LocalDateTime to) throws SQLException {
+        final String sql = """
+            SELECT s.id,
+                   s.starts_at,
+                   s.frequency,
+                   s.interval_n,
+                   s.occurrences,
+                   s.until_at,
+                   ARRAY(SELECT e.occurrence_at
+                           FROM attendance_series_exception e
+                          WHERE e.series_id = s.id
+                            AND e.occurrence_at > ?
+                            AND e.occurrence_at <= ?) AS exceptions
+              FROM attendance_series s
+              JOIN pet p     ON p.id = s.pet_id
+              JOIN client c  ON c.id = p.client_id
+              JOIN company co ON co.id = s.company_id
+             WHERE s.ends_at > ?
+               AND s.starts_at <= ?
+               AND p.deleted_at IS NULL
+               AND c.deleted_at IS NULL
+               AND co.deleted_at IS NULL
+               AND c.email IS NOT NULL
+               AND c.email <> ''
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            Timestamp f = Timestamp.valueOf(from);
+            Timestamp t = Timestamp.valueOf(to);
+            ps.setTimestamp(1, f);
+            ps.setTimestamp(2, t);
+            ps.setTimestamp(3, f);
+            ps.setTimestamp(4, t);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<SeriesInWindow> out = new ArrayList<>();
+                while (rs.next()) {
+                    Set<LocalDateTime> exceptions = new HashSet<>();
+                    for (Timestamp ts : (Timestamp[]) rs.getArray("exceptions").getArray()) {
+                        exceptions.add(ts.toLocalDateTime());
+                    }
+                    out.add(new SeriesInWindow(rs.getLong("id"), AttendanceSeriesRepository.rule(rs), exceptions));
+                }
+                return out;
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /**
+     * Mesmo esquema de enqueueWindow para ocorrências de série expandidas no Java:
+     * os pares (série, horário) vão como dois arrays e entram numa única instrução.
+     */
+    public int enqueueSeriesOccurrences(int kind, String template, List<Long> seriesIds,
+                                        List<LocalDateTime> occurrences) throws SQLException {
+        if (seriesIds.isEmpty()) return 0;
+        final String sql = """
+            WITH marked AS (
+                INSERT INTO series_reminder (series_id, occurrence_at, kind)
+                SELECT o.series_id, o.occurrence_at, ?
+                  FROM unnest(?::bigint[], ?::timestamp[]) AS o(series_id, occurrence_at)
+                ON CONFLICT DO NOTHING
+                RETURNING series_id, occurrence_at
+            )
+            INSERT INTO mail_outbox (template, recipient, params)
+            SELECT ?,
+                   c.email,
+                   jsonb_build_object(
+                       'clientName',    c.name,
+                       'petName',       p.name,
+                       'companyName',   co.name,
+                       'appointmentAt', to_char(m.occurrence_at, 'DD/MM/YYYY "às" HH24:MI'))
+              FROM marked m
+              JOIN attendance_series s ON s.id = m.series_id
+              JOIN pet p               ON p.id = s.pet_id
+              JOIN client c            ON c.id = p.client_id
+              JOIN company co          ON co.id = s.company_id
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setShort(1, (short) kind);
+            ps.setArray(2, con.createArrayOf("bigint", seriesIds.toArray()));
+            ps.setArray(3, con.createArrayOf("timestamp",
+                    occurrences.stream().map(Timestamp::valueOf).toArray()));
+            ps.setString(4, template);
+            return ps.executeUpdate();
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+}
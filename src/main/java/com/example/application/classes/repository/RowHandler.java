@@ -0,0 +1,9 @@
+package com.example.application.classes.repository;
+
+import java.io.IOException;
+
+/** Recebe cada linha de uma consulta em streaming; os valores não devem ser guardados. */
+@FunctionalInterface
+public interface RowHandler {
+    void accept(Object[] values) throws IOException;
+}
@@ -0,0 +1,78 @@
+package com.example.application.classes.repository;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * COPY ... FROM STDIN em andamento, alimentado linha a linha.
+ * Usa a conexão da transação corrente; enquanto aberto, a conexão não aceita outros comandos.
+ * null vira NULL; texto vazio continua texto vazio.
+ */
+public class StageCopy implements Closeable {
+
+    private final DataSource dataSource;
+    private final Connection con;
+    private final PGCopyOutputStream copy;
+    private final Writer out;
+    private long rows;
+
+    StageCopy(DataSource dataSource, String table, List<String> columns) throws SQLException {
+        this.dataSource = dataSource;
+        this.con = DataSourceUtils.getConnection(dataSource);
+        try {
+            String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv)";
+            this.copy = new PGCopyOutputStream(con.unwrap(PGConnection.class), sql, 64 * 1024);
+        } catch (SQLException e) {
+            DataSourceUtils.releaseConnection(con, dataSource);
+            throw e;
+        }
+        this.out = new BufferedWriter(new OutputStreamWriter(copy, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    public void row(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) out.write(',');
+            Object v = values[i];
+            if (v == null) continue;
+            String s = v.toString();
+            out.write('"');
+            out.write(s.indexOf('"') >= 0 ? s.replace("\"", "\"\"") : s);
+            out.write('"');
+        }
+        out.write('\n');
+        rows++;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    /** Desiste da carga (a transação ainda precisa de rollback). */
+    public void abort() {
+        try {
+            if (copy.isActive()) copy.cancelCopy();
+        } catch (SQLException ignored) {
+            // a conexão será descartada pelo rollback
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /** Conclui o COPY. */
+    @Override
+    public void close() throws IOException {
+        try {
+            out.close();
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.TenantArchive.Column;
+import com.example.application.classes.TenantArchive.Section;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.application.classes.TenantArchive.ColumnType.*;
+
+/**
+ * Exportação e importação de uma empresa inteira (ver TenantArchive).
+ * - Exportação: uma consulta por seção, lida por cursor; rode numa transação REPEATABLE READ
+ *   para que todas as seções venham do mesmo snapshot.
+ * - Importação: cada seção entra por COPY numa tabela temporária (com os ids antigos);
+ *   os ids novos saem das sequences e as FKs são remapeadas com joins, tudo em SQL em conjunto.
+ * Usuários são globais: autores são ligados pelo e-mail, se o usuário existir no destino. Vínculos do arquivo
+ * não são recriados (dariam acesso a contas que não pediram); só quem importou entra, como administrador.
+ */
+@Repository
+public class TenantArchiveRepository {
+
+    public static final Section COMPANY = new Section("company", List.of(
+            new Column("name", STRING), new Column("document_type", STRING), new Column("document", STRING),
+            new Column("creation_date", TIMESTAMP), new Column("deleted_at", TIMESTAMP)));
+
+    public static final Section MEMBER = new Section("user_company", List.of(
+            new Column("user_email", STRING), new Column("admin", BOOL),
+            new Column("creation_date", TIMESTAMP), new Column("deleted_at", TIMESTAMP)));
+
+    public static final Section CLIENT = new Section("client", List.of(
+            new Column("id", LONG), new Column("name", STRING), new Column("email", STRING),
+            new Column("phone", STRING), new Column("notes", STRING), new Column("doc_type", STRING),
+            new Column("document", STRING), new Column("cep", STRING), new Column("uf", STRING),
+            new Column("city", STRING), new Column("district", STRING), new Column("street", STRING),
+            new Column("number", STRING), new Column("complement", STRING), new Column("created_by_email", STRING),
+            new Column("creation_date", TIMESTAMP), new Column("update_date", TIMESTAMP),
+            new Column("deleted_at", TIMESTAMP)));
+
+    public static final Section PET = new Section("pet", List.of(
+            new Column("id", LONG), new Column("client_id", LONG), new Column("name", STRING),
+            new Column("species", STRING), new Column("breed", STRING), new Column("birth_date", DATE),
+            new Column("notes", STRING), new Column("created_by_email", STRING),
+            new Column("creation_date", TIMESTAMP), new Column("update_date", TIMESTAMP),
+            new Column("deleted_at", TIMESTAMP)));
+
+    public static final Section ATTENDANCE = new Section("attendance", List.of(
+            new Column("id", LONG), new Column("animal_id", LONG), new Column("scheduled_at", TIMESTAMP),
+            new Column("appointment_at", TIMESTAMP), new Column("description", STRING),
+            new Column("created_by_email", STRING),
+            new Column("creation_date", TIMESTAMP), new Column("update_date", TIMESTAMP),
+            new Column("clinical_notes", STRING)));
+
+    /** Seções na ordem de escrita (pais antes dos filhos). */
+    public static final List<Section> SECTIONS = List.of(COMPANY, MEMBER, CLIENT, PET, ATTENDANCE);
+
+    private static final Map<String, String> EXPORT_SQL = Map.of(
+            "company", """
+                SELECT name, document_type, document, creation_date, deleted_at
+                  FROM company
+                 WHERE id = ?
+                """,
+            "user_company", """
+                SELECT u.email AS user_email, uc.admin, uc.creation_date, uc.deleted_at
+                  FROM user_company uc
+                  JOIN app_user u ON u.id = uc.user_id
+                 WHERE uc.company_id = ?
+                 ORDER BY uc.id
+                """,
+            "client", """
+                SELECT c.id, c.name, c.email, c.phone, c.notes, c.doc_type, c.document,
+                       c.cep, c.uf, c.city, c.district, c.street, c.number, c.complement,
+                       u.email AS created_by_email, c.creation_date, c.update_date, c.deleted_at
+                  FROM client c
+                  LEFT JOIN app_user u ON u.id = c.created_by_user_id
+                 WHERE c.company_id = ?
+                 ORDER BY c.id
+                """,
+            "pet", """
+                SELECT p.id, p.client_id, p.name, p.species, p.breed, p.birth_date, p.notes,
+                       u.email AS created_by_email, p.creation_date, p.update_date, p.deleted_at
+                  FROM pet p
+                  LEFT JOIN app_user u ON u.id = p.created_by_user_id
+                 WHERE p.company_id = ?
+                 ORDER BY p.id
+                """,
+            "attendance", """
+                SELECT a.id, a.animal_id, a.scheduled_at, a.appointment_at, a.description,
+                       u.email AS created_by_email, a.creation_date, a.update_date,
+                       a.clinical_notes::text AS clinical_notes
+                  FROM attendance a
+                  JOIN pet p ON p.id = a.animal_id
+                  LEFT JOIN app_user u ON u.id = a.created_by_user_id
+                 WHERE p.company_id = ?
+                 ORDER BY a.id
+                """);
+
+    private final DataSource dataSource;
+
+    public TenantArchiveRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /** Linhas da seção, na ordem das colunas de Section. */
+    public long streamSection(Section section, long companyId, int fetchSize, RowHandler handler)
+            throws SQLException, IOException {
+        return Cursor.stream(dataSource, EXPORT_SQL.get(section.name()), companyId, fetchSize, handler);
+    }
+
+    // ---------------------------------------------------------------- importação
+
+    public boolean companyDocumentExists(String documentType, String document) throws SQLException {
+        final String sql = "SELECT 1 FROM company WHERE document_type = ? AND document = ?";
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, documentType);
+            ps.setString(2, document);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    public long insertCompany(String name, String documentType, String document,
+                              LocalDateTime creationDate, LocalDateTime deletedAt) throws SQLException {
+        final String sql = """
+            INSERT INTO company (name, document_type, document, creation_date, deleted_at)
+            VALUES (?, ?, ?, COALESCE(?, NOW()), ?)
+            RETURNING id
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, name);
+            ps.setString(2, documentType);
+            ps.setString(3, document);
+            ps.setObject(4, creationDate);
+            ps.setObject(5, deletedAt);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong("id");
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /** Tabelas temporárias (somem no commit) que recebem as seções por COPY. */
+    public void createImportTables() throws SQLException {
+        final String sql = """
+            CREATE TEMP TABLE archive_user_company (
+                user_email TEXT, admin BOOLEAN, creation_date TIMESTAMP, deleted_at TIMESTAMP
+            ) ON COMMIT DROP;
+            CREATE TEMP TABLE archive_client (
+                id BIGINT, name TEXT, email TEXT, phone TEXT, notes TEXT, doc_type TEXT, document TEXT,
+                cep TEXT, uf TEXT, city TEXT, district TEXT, street TEXT, number TEXT, complement TEXT,
+                created_by_email TEXT, creation_date TIMESTAMP, update_date TIMESTAMP, deleted_at TIMESTAMP
+            ) ON COMMIT DROP;
+            CREATE TEMP TABLE archive_pet (
+                id BIGINT, client_id BIGINT, name TEXT, species TEXT, breed TEXT, birth_date DATE, notes TEXT,
+                created_by_email TEXT, creation_date TIMESTAMP, update_date TIMESTAMP, deleted_at TIMESTAMP
+            ) ON COMMIT DROP;
+            CREATE TEMP TABLE archive_attendance (
+                id BIGINT, animal_id BIGINT, scheduled_at TIMESTAMP, appointment_at TIMESTAMP, description TEXT,
+                created_by_email TEXT, creation_date TIMESTAMP, update_date TIMESTAMP, clinical_notes TEXT
+            ) ON COMMIT DROP;
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (Statement st = con.createStatement()) {
+            st.execute(sql);
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /** COPY de uma seção para sua tabela temporária; as linhas seguem a ordem das colunas da Section. */
+    public StageCopy openImport(Section section) throws SQLException {
+        List<String> columns = section.columns().stream().map(Column::name).toList();
+        return new StageCopy(dataSource, "archive_" + section.name(), columns);
+    }
+
+    /**
+     * Cria clientes, pets e atendimentos da empresa nova a partir das tabelas temporárias e vincula
+     * quem importou como administrador. Retorna {clientes, pets, atendimentos, vínculos do arquivo não recriados}.
+     */
+    public int[] finishImport(long companyId, long userId) throws SQLException {
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (Statement st = con.createStatement()) {
+            // Tabelas temporárias não passam pelo autovacuum: sem ANALYZE o planejador erra os joins.
+            st.execute("ANALYZE archive_user_company, archive_client, archive_pet, archive_attendance");
+
+            st.execute("""
+                CREATE TEMP TABLE archive_client_map ON COMMIT DROP AS
+                SELECT id AS old_id, nextval(pg_get_serial_sequence('client', 'id')) AS new_id
+                  FROM archive_client;
+                CREATE TEMP TABLE archive_pet_map ON COMMIT DROP AS
+                SELECT id AS old_id, nextval(pg_get_serial_sequence('pet', 'id')) AS new_id
+                  FROM archive_pet;
+                ALTER TABLE archive_client_map ADD PRIMARY KEY (old_id);
+                ALTER TABLE archive_pet_map ADD PRIMARY KEY (old_id);
+                """);
+
+            int clients = exec(con, """
+                INSERT INTO client (id, company_id, name, email, phone, notes, doc_type, document,
+                                    cep, uf, city, district, street, number, complement,
+                                    created_by_user_id, creation_date, update_date, deleted_at)
+                SELECT m.new_id, ?, a.name, a.email, a.phone, a.notes, a.doc_type, a.document,
+                       a.cep, a.uf, a.city, a.district, a.street, a.number, a.complement,
+                       u.id, COALESCE(a.creation_date, NOW()), COALESCE(a.update_date, NOW()), a.deleted_at
+                  FROM archive_client a
+                  JOIN archive_client_map m ON m.old_id = a.id
+                  LEFT JOIN app_user u ON LOWER(u.email) = LOWER(a.created_by_email)
+                """, companyId);
+
+            int pets = exec(con, """
+                INSERT INTO pet (id, company_id, client_id, name, species, breed, birth_date, notes,
+                                 created_by_user_id, creation_date, update_date, deleted_at)
+                SELECT m.new_id, ?, cm.new_id, a.name, a.species, a.breed, a.birth_date, a.notes,
+                       u.id, COALESCE(a.creation_date, NOW()), COALESCE(a.update_date, NOW()), a.deleted_at
+                  FROM archive_pet a
+                  JOIN archive_pet_map m     ON m.old_id = a.id
+                  JOIN archive_client_map cm ON cm.old_id = a.client_id
+                  LEFT JOIN app_user u ON LOWER(u.email) = LOWER(a.created_by_email)
+                """, companyId);
+
+            int attendances = exec(con, """
+                INSERT INTO attendance (animal_id, scheduled_at, appointment_at, description,
+                                        created_by_user_id, creation_date, update_date, clinical_notes)
+                SELECT pm.new_id, a.scheduled_at, a.appointment_at, a.description,
+                       u.id, COALESCE(a.creation_date, NOW()), COALESCE(a.update_date, NOW()),
+                       a.clinical_notes::jsonb
+                  FROM archive_attendance a
+                  JOIN archive_pet_map pm ON pm.old_id = a.animal_id
+                  LEFT JOIN app_user u ON LOWER(u.email) = LOWER(a.created_by_email)
+                 ORDER BY a.id
+                """);
+
+            exec(con, """
+                INSERT INTO user_company (user_id, company_id, admin, created_by_user_id)
+                VALUES (?, ?, TRUE, ?)
+                """, userId, companyId, userId);
+
+            int otherMembers = count(con, """
+                SELECT COUNT(DISTINCT LOWER(a.user_email))
+                  FROM archive_user_company a
+                 WHERE a.deleted_at IS NULL
+                   AND LOWER(a.user_email) IS DISTINCT FROM (SELECT LOWER(email) FROM app_user WHERE id = ?)
+                """, userId);
+
+            return new int[]{clients, pets, attendances, otherMembers};
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    private static int exec(Connection con, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            return ps.executeUpdate();
+        }
+    }
+
+    private static int count(Connection con, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+}
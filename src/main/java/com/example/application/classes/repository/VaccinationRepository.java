@@ -0,0 +1,407 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.model.VaccineProtocol;
+import com.example.application.classes.service.VaccinationDue;
+import com.example.application.classes.service.VaccinationRecord;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Protocolos de vacina e vacinas aplicadas.
+ * Os métodos que mexem em pet_vaccination usam a conexão da transação corrente (DataSourceUtils):
+ * inserir/remover uma aplicação e recalcular a vigente precisam acontecer juntos.
+ */
+@Repository
+public class VaccinationRepository {
+
+    private final DataSource dataSource;
+
+    public VaccinationRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    // ---------------------------------------------------------------- protocolos
+
+    public List<VaccineProtocol> listProtocols(long companyId) throws SQLException {
+        final String sql = protocolSelect() + """
+            WHERE company_id = ?
+            ORDER BY lower(name)
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<VaccineProtocol> protocols = new ArrayList<>();
+                while (rs.next()) protocols.add(mapProtocol(rs));
+                return protocols;
+            }
+        }
+    }
+
+    public Optional<VaccineProtocol> findProtocol(long companyId, long id) throws SQLException {
+        final String sql = protocolSelect() + """
+            WHERE company_id = ?
+              AND id = ?
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setLong(2, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(mapProtocol(rs)) : Optional.empty();
+            }
+        }
+    }
+
+    public boolean existsProtocolName(long companyId, String name, Long exceptId) throws SQLException {
+        final String sql = """
+            SELECT 1
+              FROM vaccine_protocol
+             WHERE company_id = ?
+               AND lower(name) = lower(?)
+               AND (?::bigint IS NULL OR id <> ?::bigint)
+             LIMIT 1
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setString(2, name);
+            ps.setObject(3, exceptId, Types.BIGINT);
+            ps.setObject(4, exceptId, Types.BIGINT);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    public long insertProtocol(VaccineProtocol protocol) throws SQLException {
+        final String sql = """
+            INSERT INTO vaccine_protocol (company_id, name, booster_interval_days, notes)
+            VALUES (?, ?, ?, ?)
+            RETURNING id, version, creation_date, update_date
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, protocol.getCompanyId());
+            ps.setString(2, protocol.getName());
+            ps.setObject(3, protocol.getBoosterIntervalDays(), Types.INTEGER);
+            ps.setString(4, protocol.getNotes());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                protocol.setId(rs.getLong("id"));
+                protocol.setVersion(rs.getInt("version"));
+                protocol.setCreationDate(rs.getTimestamp("creation_date").toLocalDateTime());
+                protocol.setUpdateDate(rs.getTimestamp("update_date").toLocalDateTime());
+                return protocol.getId();
+            }
+        }
+    }
+
+    /** Controle de versão otimista; falso se o protocolo mudou ou não existe. */
+    public boolean updateProtocol(VaccineProtocol protocol) throws SQLException {
+        final String sql = """
+            UPDATE vaccine_protocol
+               SET name                  = ?,
+                   booster_interval_days = ?,
+                   notes                 = ?,
+                   update_date           = NOW(),
+                   version               = version + 1
+             WHERE company_id = ?
+               AND id = ?
+               AND version = ?
+            RETURNING version, update_date
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, protocol.getName());
+            ps.setObject(2, protocol.getBoosterIntervalDays(), Types.INTEGER);
+            ps.setString(3, protocol.getNotes());
+            ps.setLong(4, protocol.getCompanyId());
+            ps.setLong(5, protocol.getId());
+            ps.setInt(6, protocol.getVersion());
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) return false;
+                protocol.setVersion(rs.getInt("version"));
+                protocol.setUpdateDate(rs.getTimestamp("update_date").toLocalDateTime());
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Recalcula next_due_at de um lote de aplicações vigentes do protocolo, com id &gt; afterId.
+     * O intervalo é lido da tabela na própria instrução, então lotes repetidos ou concorrentes convergem.
+     * Devolve o maior id do lote, ou -1 quando não há mais linhas.
+     */
+    public long recomputeDueChunk(long companyId, long protocolId, long afterId, int chunkSize) throws SQLException {
+        final String sql = """
+            WITH chunk AS (
+                SELECT v.id
+                  FROM pet_vaccination v
+                 WHERE v.protocol_id = ?
+                   AND v.is_current
+                   AND v.id > ?
+                 ORDER BY v.id
+                 LIMIT ?
+            ), updated AS (
+                UPDATE pet_vaccination v
+                   SET next_due_at = v.applied_at + p.booster_interval_days
+                  FROM chunk, vaccine_protocol p
+                 WHERE v.id = chunk.id
+                   AND p.id = v.protocol_id
+                   AND p.company_id = ?
+                   AND v.next_due_at IS DISTINCT FROM v.applied_at + p.booster_interval_days
+            )
+            SELECT max(id) FROM chunk
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, protocolId);
+            ps.setLong(2, afterId);
+            ps.setInt(3, chunkSize);
+            ps.setLong(4, companyId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                long max = rs.getLong(1);
+                return rs.wasNull() ? -1 : max;
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    // ---------------------------------------------------------------- aplicações
+
+    /** Trava o pet até o fim da transação; serializa mudanças no histórico de vacinas dele. */
+    public boolean lockPet(long companyId, long petId) throws SQLException {
+        final String sql = """
+            SELECT 1
+              FROM pet
+             WHERE company_id = ?
+               AND id = ?
+               AND deleted_at IS NULL
+             FOR UPDATE
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setLong(2, petId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    public long insertVaccination(long companyId, long petId, long protocolId, LocalDate appliedAt,
+                                  String lot, Long userId) throws SQLException {
+        final String sql = """
+            INSERT INTO pet_vaccination (company_id, pet_id, protocol_id, applied_at, lot, created_by_user_id)
+            VALUES (?, ?, ?, ?, ?, ?)
+            RETURNING id
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setLong(2, petId);
+            ps.setLong(3, protocolId);
+            ps.setObject(4, appliedAt);
+            ps.setString(5, lot);
+            ps.setObject(6, userId, Types.BIGINT);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /** Protocolo da aplicação removida, ou vazio se ela não existe no pet/empresa. */
+    public Optional<Long> deleteVaccination(long companyId, long petId, long id) throws SQLException {
+        final String sql = """
+            DELETE FROM pet_vaccination
+             WHERE company_id = ?
+               AND pet_id = ?
+               AND id = ?
+            RETURNING protocol_id
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setLong(2, petId);
+            ps.setLong(3, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(rs.getLong(1)) : Optional.empty();
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    /**
+     * Marca como vigente a aplicação mais recente do pet/protocolo, com next_due_at calculado,
+     * e limpa as demais. Só toca linhas que mudam.
+     */
+    public void refreshCurrent(long petId, long protocolId) throws SQLException {
+        final String sql = """
+            WITH latest AS (
+                SELECT id
+                  FROM pet_vaccination
+                 WHERE pet_id = ?
+                   AND protocol_id = ?
+                 ORDER BY applied_at DESC, id DESC
+                 LIMIT 1
+            )
+            UPDATE pet_vaccination v
+               SET is_current  = (v.id = l.id),
+                   next_due_at = CASE WHEN v.id = l.id THEN v.applied_at + p.booster_interval_days END
+              FROM latest l, vaccine_protocol p
+             WHERE v.pet_id = ?
+               AND v.protocol_id = ?
+               AND p.id = v.protocol_id
+               AND (v.is_current IS DISTINCT FROM (v.id = l.id)
+                    OR v.next_due_at IS DISTINCT FROM
+                       CASE WHEN v.id = l.id THEN v.applied_at + p.booster_interval_days END)
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, petId);
+            ps.setLong(2, protocolId);
+            ps.setLong(3, petId);
+            ps.setLong(4, protocolId);
+            ps.executeUpdate();
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+
+    public List<VaccinationRecord> listByPet(long companyId, long petId) throws SQLException {
+        final String sql = """
+            SELECT v.id,
+                   v.protocol_id,
+                   p.name AS protocol_name,
+                   v.applied_at,
+                   v.lot,
+                   v.is_current,
+                   v.next_due_at
+              FROM pet_vaccination v
+              JOIN vaccine_protocol p ON p.id = v.protocol_id
+             WHERE v.company_id = ?
+               AND v.pet_id = ?
+             ORDER BY v.applied_at DESC, v.id DESC
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setLong(2, petId);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<VaccinationRecord> records = new ArrayList<>();
+                while (rs.next()) {
+                    records.add(new VaccinationRecord(
+                            rs.getLong("id"),
+                            rs.getLong("protocol_id"),
+                            rs.getString("protocol_name"),
+                            rs.getObject("applied_at", LocalDate.class),
+                            rs.getString("lot"),
+                            rs.getBoolean("is_current"),
+                            rs.getObject("next_due_at", LocalDate.class)));
+                }
+                return records;
+            }
+        }
+    }
+
+    /** Aplicações vigentes com reforço antes de dueBefore (exclusivo), atrasadas primeiro. Usa ix_pet_vaccination_due. */
+    public List<VaccinationDue> listDue(long companyId, LocalDate dueBefore, int limit) throws SQLException {
+        final String sql = """
+            SELECT v.id,
+                   v.next_due_at,
+                   v.applied_at,
+                   vp.name AS protocol_name,
+                   p.id    AS pet_id,
+                   p.name  AS pet_name,
+                   c.name  AS client_name,
+                   c.phone AS client_phone
+              FROM pet_vaccination v
+              JOIN vaccine_protocol vp ON vp.id = v.protocol_id
+              JOIN pet p               ON p.id = v.pet_id
+              JOIN client c            ON c.id = p.client_id
+             WHERE v.company_id = ?
+               AND v.is_current
+               AND v.next_due_at IS NOT NULL
+               AND v.next_due_at < ?
+               AND p.deleted_at IS NULL
+             ORDER BY v.next_due_at, v.id
+             LIMIT ?
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setObject(2, dueBefore);
+            ps.setInt(3, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                List<VaccinationDue> due = new ArrayList<>();
+                while (rs.next()) {
+                    due.add(new VaccinationDue(
+                            rs.getLong("id"),
+                            rs.getObject("next_due_at", LocalDate.class),
+                            rs.getObject("applied_at", LocalDate.class),
+                            rs.getString("protocol_name"),
+                            rs.getLong("pet_id"),
+                            rs.getString("pet_name"),
+                            rs.getString("client_name"),
+                            rs.getString("client_phone")));
+                }
+                return due;
+            }
+        }
+    }
+
+    private static String protocolSelect() {
+        return """
+            SELECT id,
+                   version,
+                   creation_date,
+                   update_date,
+                   company_id,
+                   name,
+                   booster_interval_days,
+                   notes
+              FROM vaccine_protocol
+            """;
+    }
+
+    private static VaccineProtocol mapProtocol(ResultSet rs) throws SQLException {
+        VaccineProtocol p = new VaccineProtocol();
+        p.setId(rs.getLong("id"));
+        p.setVersion(rs.getInt("version"));
+        p.setCreationDate(rs.getTimestamp("creation_date").toLocalDateTime());
+        p.setUpdateDate(rs.getTimestamp("update_date").toLocalDateTime());
+        p.setCompanyId(rs.getLong("company_id"));
+        p.setName(rs.getString("name"));
+        p.setBoosterIntervalDays((Integer) rs.getObject("booster_interval_days"));
+        p.setNotes(rs.getString("notes"));
+        return p;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.application.classes.repository;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDateTime;
+
+/** Medidas do pet (pet_vital): só inserção e leitura da série em ordem de tempo. */
+@Repository
+public class VitalRepository {
+
+    /** Recebe cada ponto da série; o tempo vem em milissegundos (Timestamp.getTime()). */
+    @FunctionalInterface
+    public interface PointSink {
+        void accept(long epochMillis, double value);
+    }
+
+    private final DataSource dataSource;
+
+    public VitalRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /** Falso se o pet não existe (ou foi excluído) na empresa. */
+    public boolean insert(long companyId, long petId, int kind, LocalDateTime measuredAt,
+                          double value, Long userId) throws SQLException {
+        final String sql = """
+            INSERT INTO pet_vital (measured_at, pet_id, created_by_user_id, value, kind)
+            SELECT ?, p.id, ?, ?, ?
+              FROM pet p
+             WHERE p.company_id = ?
+               AND p.id = ?
+               AND p.deleted_at IS NULL
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(measuredAt));
+            if (userId != null) {
+                ps.setLong(2, userId);
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setFloat(3, (float) value);
+            ps.setShort(4, (short) kind);
+            ps.setLong(5, companyId);
+            ps.setLong(6, petId);
+            return ps.executeUpdate() == 1;
+        }
+    }
+
+    /**
+     * Série completa de um tipo de medida, do mais antigo ao mais recente, sem montar objetos por linha.
+     * Precisa de transação ativa para o fetch size valer. Devolve a quantidade de pontos.
+     */
+    public long stream(long companyId, long petId, int kind, int fetchSize, PointSink sink) throws SQLException {
+        final String sql = """
+            SELECT v.measured_at, v.value
+              FROM pet_vital v
+              JOIN pet p ON p.id = v.pet_id
+             WHERE p.company_id = ?
+               AND v.pet_id = ?
+               AND v.kind = ?
+             ORDER BY v.measured_at
+            """;
+
+        Connection con = DataSourceUtils.getConnection(dataSource);
+        try (PreparedStatement ps = con.prepareStatement(sql,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, companyId);
+            ps.setLong(2, petId);
+            ps.setShort(3, (short) kind);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                long count = 0;
+                while (rs.next()) {
+                    sink.accept(rs.getTimestamp(1).getTime(), rs.getFloat(2));
+                    count++;
+                }
+                return count;
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(con, dataSource);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.service.WaitlistEntry;
+import com.example.application.classes.service.WaitlistPriority;
+import com.example.application.classes.service.WaitlistStatus;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cópia durável da fila de espera. Toda mudança é um UPDATE conferido pela versão
+ * que devolve a linha nova (RETURNING), aplicada em seguida na fila em memória.
+ */
+@Repository
+public class WaitlistRepository {
+
+    private static final String COLUMNS = """
+            id, version, pet_id, display_name, note, priority, status, room,
+            checked_in_at, called_at, update_date
+            """;
+
+    private final DataSource dataSource;
+
+    public WaitlistRepository(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /** Chegada na fila. Com petId, só entra se o pet for da empresa. */
+    public Optional<WaitlistEntry> insert(long companyId, long userId, Long petId, String displayName,
+                                          String note, WaitlistPriority priority) throws SQLException {
+        final String sql = """
+            INSERT INTO waitlist_entry (company_id, created_by_user_id, pet_id, display_name, note, priority)
+            SELECT ?, ?, ?::bigint, ?, ?, ?
+             WHERE ?::bigint IS NULL
+                OR EXISTS (SELECT 1 FROM pet p
+                            WHERE p.id = ?::bigint
+                              AND p.company_id = ?
+                              AND p.deleted_at IS NULL)
+            RETURNING
+            """ + COLUMNS;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setLong(2, userId);
+            ps.setObject(3, petId, Types.BIGINT);
+            ps.setString(4, displayName);
+            ps.setString(5, note);
+            ps.setShort(6, (short) priority.code);
+            ps.setObject(7, petId, Types.BIGINT);
+            ps.setObject(8, petId, Types.BIGINT);
+            ps.setLong(9, companyId);
+            return single(ps);
+        }
+    }
+
+    /** Triagem: muda a prioridade de quem ainda aguarda. */
+    public Optional<WaitlistEntry> updatePriority(long companyId, long id, int version,
+                                                  WaitlistPriority priority) throws SQLException {
+        final String sql = """
+            UPDATE waitlist_entry
+               SET priority    = ?,
+                   update_date = NOW(),
+                   version     = version + 1
+             WHERE id = ?
+               AND company_id = ?
+               AND version = ?
+               AND status = 1
+            RETURNING
+            """ + COLUMNS;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setShort(1, (short) priority.code);
+            ps.setLong(2, id);
+            ps.setLong(3, companyId);
+            ps.setInt(4, version);
+            return single(ps);
+        }
+    }
+
+    /** Chama (ou chama de novo) para a sala informada. */
+    public Optional<WaitlistEntry> call(long companyId, long id, int version, String room) throws SQLException {
+        final String sql = """
+            UPDATE waitlist_entry
+               SET status      = 2,
+                   room        = ?,
+                   called_at   = NOW(),
+                   update_date = NOW(),
+                   version     = version + 1
+             WHERE id = ?
+               AND company_id = ?
+               AND version = ?
+               AND status IN (1, 2)
+            RETURNING
+            """ + COLUMNS;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setString(1, room);
+            ps.setLong(2, id);
+            ps.setLong(3, companyId);
+            ps.setInt(4, version);
+            return single(ps);
+        }
+    }
+
+    /** Tira da fila: atendido ou desistiu. */
+    public Optional<WaitlistEntry> finish(long companyId, long id, int version,
+                                          WaitlistStatus status) throws SQLException {
+        final String sql = """
+            UPDATE waitlist_entry
+               SET status      = ?,
+                   update_date = NOW(),
+                   version     = version + 1
+             WHERE id = ?
+               AND company_id = ?
+               AND version = ?
+               AND status IN (1, 2)
+            RETURNING
+            """ + COLUMNS;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setShort(1, (short) status.code);
+            ps.setLong(2, id);
+            ps.setLong(3, companyId);
+            ps.setInt(4, version);
+            return single(ps);
+        }
+    }
+
+    /** Entradas abertas e as que mudaram desde "since" (para contar as concluídas do dia). */
+    public List<WaitlistEntry> listRecent(long companyId, LocalDateTime since) throws SQLException {
+        final String sql = "SELECT " + COLUMNS + """
+              FROM waitlist_entry
+             WHERE company_id = ?
+               AND (status IN (1, 2) OR update_date >= ?)
+            """;
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, companyId);
+            ps.setTimestamp(2, Timestamp.valueOf(since));
+            try (ResultSet rs = ps.executeQuery()) {
+                List<WaitlistEntry> list = new ArrayList<>();
+                while (rs.next()) list.add(map(rs));
+                return list;
+            }
+        }
+    }
+
+    private static Optional<WaitlistEntry> single(PreparedStatement ps) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? Optional.of(map(rs)) : Optional.empty();
+        }
+    }
+
+    private static WaitlistEntry map(ResultSet rs) throws SQLException {
+        Timestamp calledAt = rs.getTimestamp("called_at");
+        return new WaitlistEntry(
+                rs.getLong("id"),
+                rs.getInt("version"),
+                rs.getObject("pet_id", Long.class),
+                rs.getString("display_name"),
+                rs.getString("note"),
+                WaitlistPriority.of(rs.getInt("priority")),
+                WaitlistStatus.of(rs.getInt("status")),
+                rs.getString("room"),
+                rs.getTimestamp("checked_in_at").toLocalDateTime(),
+                calledAt == null ? null : calledAt.toLocalDateTime(),
+                rs.getTimestamp("update_date").toLocalDateTime());
+    }
+}
@@ -2,13 +2,26 @@ package com.example.application.classes.service;
 
 import java.time.LocalDateTime;
 
+/**
+ * Linha da agenda. seriesId/occurrenceAt vêm preenchidos para ocorrências de série;
+ * id é 0 quando a ocorrência ainda não virou atendimento (existe só pela regra).
+ * version é a do atendimento quando a linha foi lida (conferida na remarcação em lote).
+ */
 public record AgendaRow (
         long id,
+        int version,
         LocalDateTime mainDateTime,
         boolean done,
         String petName,
         String species,
         String clientName,
-        String description
+        String description,
+        String vetName,
+        Long seriesId,
+        LocalDateTime occurrenceAt
 ) {
+
+    public boolean expanded() {
+        return id == 0L;
+    }
 }
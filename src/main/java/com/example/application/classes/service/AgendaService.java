@@ -1,26 +1,124 @@
 package com.example.application.classes.service;
 
 import com.example.application.classes.repository.AgendaRepository;
+import com.example.application.classes.repository.AttendanceRepository;
 import com.example.application.config.ServiceGuard;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
 
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AgendaService {
 
+    /** Janela máxima da agenda; séries são expandidas só dentro dela. */
+    private static final int MAX_WINDOW_DAYS = 366;
+    private static final int MAX_RESCHEDULE_ROWS = 500;
+    private static final int MAX_UNDATED_ROWS = 200;
+    private static final int MAX_SHIFT_MINUTES = 30 * 24 * 60;
+    private static final int MAX_MOVE_YEARS = 2;
+
     private final AgendaRepository agendaRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceSeriesService seriesService;
+    private final MembershipCache membershipCache;
     private final ServiceGuard serviceGuard;
+    private final PlatformTransactionManager transactionManager;
 
     public AgendaService(AgendaRepository agendaRepository,
-                         ServiceGuard serviceGuard) {
+                         AttendanceRepository attendanceRepository,
+                         AttendanceSeriesService seriesService,
+                         MembershipCache membershipCache,
+                         ServiceGuard serviceGuard,
+                         PlatformTransactionManager transactionManager) {
         this.agendaRepository = agendaRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.seriesService = seriesService;
+        this.membershipCache = membershipCache;
         this.serviceGuard = serviceGuard;
+        this.transactionManager = transactionManager;
+    }
+
+    /** Atendimentos e ocorrências de séries em [from, to), em ordem de horário. */
+    public List<AgendaRow> listCurrentCompanyAgenda(LocalDateTime from, LocalDateTime to) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        validateWindow(from, to);
+        return agendaRepository.listWindow(companyId, from, to);
     }
 
-    public List<AgendaRow> listCurrentCompanyAgenda() throws SQLException {
+    /** Atendimentos sem data (só descrição), que não aparecem em janela nenhuma da agenda. */
+    public List<AgendaRow> listCurrentCompanyUndated() throws SQLException {
         long companyId = serviceGuard.requireCompanyId();
-        return agendaRepository.listByCompany(companyId);
+        return agendaRepository.listUndated(companyId, MAX_UNDATED_ROWS);
+    }
+
+    static void validateWindow(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new AttendanceValidationException("Período da agenda inválido.");
+        }
+        if (from.plusDays(MAX_WINDOW_DAYS).isBefore(to)) {
+            throw new AttendanceValidationException("O período da agenda não pode passar de " + MAX_WINDOW_DAYS + " dias.");
+        }
+    }
+
+    /**
+     * Remarca as linhas selecionadas na agenda de uma vez: move para outro dia, desloca em minutos
+     * e/ou passa para outro veterinário. Um único UPDATE para todas, cada uma conferida pela versão lida;
+     * as que mudaram nesse meio tempo voltam em conflicts e ficam como estavam.
+     * Ocorrências de série ainda não gravadas viram atendimento antes, na mesma transação do UPDATE:
+     * se a remarcação falhar, nenhuma ocorrência fica materializada pela metade.
+     */
+    public BulkRescheduleResult reschedule(Collection<AgendaRow> rows, LocalDate day, int shiftMinutes,
+                                           Long vetUserId) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        if (rows == null || rows.isEmpty()) {
+            throw new AttendanceValidationException("Selecione ao menos um atendimento.");
+        }
+        if (rows.size() > MAX_RESCHEDULE_ROWS) {
+            throw new AttendanceValidationException("Selecione no máximo " + MAX_RESCHEDULE_ROWS + " atendimentos.");
+        }
+        if (day == null && shiftMinutes == 0 && vetUserId == null) {
+            throw new AttendanceValidationException("Informe o novo dia, o deslocamento ou o veterinário.");
+        }
+        if (Math.abs(shiftMinutes) > MAX_SHIFT_MINUTES) {
+            throw new AttendanceValidationException("O deslocamento não pode passar de 30 dias.");
+        }
+        if (day != null && (day.isBefore(LocalDate.now().minusYears(MAX_MOVE_YEARS))
+                || day.isAfter(LocalDate.now().plusYears(MAX_MOVE_YEARS)))) {
+            throw new AttendanceValidationException("Dia fora do intervalo permitido.");
+        }
+        if (vetUserId != null && !membershipCache.isMember(vetUserId, companyId)) {
+            throw new AttendanceValidationException("Veterinário não pertence à empresa selecionada.");
+        }
+
+        TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            // materialize participa desta transação. A ocorrência recém-materializada nasce na versão 0,
+            // a mesma que a agenda exibiu.
+            Map<Long, Integer> versions = new LinkedHashMap<>();
+            for (AgendaRow row : rows) {
+                long id = row.expanded()
+                        ? seriesService.materialize(row.seriesId(), row.occurrenceAt())
+                        : row.id();
+                versions.putIfAbsent(id, row.version());
+            }
+
+            long[] ids = versions.keySet().stream().mapToLong(Long::longValue).toArray();
+            int[] expected = versions.values().stream().mapToInt(Integer::intValue).toArray();
+            BulkRescheduleResult result =
+                    attendanceRepository.bulkReschedule(companyId, ids, expected, day, shiftMinutes, vetUserId);
+            transactionManager.commit(tx);
+            return result;
+        } finally {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+        }
     }
-}
\ No newline at end of file
+}
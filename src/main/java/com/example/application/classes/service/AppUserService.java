@@ -4,35 +4,43 @@ import com.example.application.classes.ResetMailer;
 import com.example.application.classes.model.AppUser;
 import com.example.application.classes.repository.AppUserRepository;
 import com.example.application.config.ServiceGuard;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.security.SecureRandom;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AppUserService {
 
     private final AppUserRepository repo;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final ResetMailer resetMailer;
     private final CurrentUserService currentUserService;
+    private final CurrentCompanyService currentCompanyService;
+    private final MembershipCache membershipCache;
+    private final AuthThrottle authThrottle;
 
     private final ServiceGuard serviceGuard;
 
     public AppUserService(AppUserRepository repo,
-                          PasswordEncoder passwordEncoder,
+                          PasswordHasher passwordHasher,
                           ResetMailer resetMailer,
                           CurrentUserService currentUserService,
+                          CurrentCompanyService currentCompanyService,
+                          MembershipCache membershipCache,
+                          AuthThrottle authThrottle,
                           ServiceGuard serviceGuard) {
         this.repo = repo;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.resetMailer = resetMailer;
         this.currentUserService = currentUserService;
+        this.currentCompanyService = currentCompanyService;
+        this.membershipCache = membershipCache;
+        this.authThrottle = authThrottle;
         this.serviceGuard = serviceGuard;
     }
 
@@ -42,38 +50,97 @@ public class AppUserService {
     }
 
     /**
-     * Tenta realizar login ou confirmar cadastro caso exista senha provisória.
-     * - Se senha provisória confere: promove senha, marca email_conf_time e loga o usuário.
-     * - Se senha oficial confere: loga o usuário.
-     * - Caso contrário: retorna INVALID.
+     * Resultado da conferência de senha, feita fora da thread da interface.
+     * rehashed, quando presente, é o novo hash (custo atual) que substitui matchedHash.
      */
-    @Transactional
-    public LoginResult loginOrConfirm(String email, String plainPassword) throws SQLException {
+    public record LoginAttempt(SessionBootstrap bootstrap, long readAt, boolean provisional, boolean official,
+                               String matchedHash, String rehashed) {
+        static final LoginAttempt INVALID = new LoginAttempt(null, 0, false, false, null, null);
+
+        public boolean matched() {
+            return bootstrap != null && (provisional || official);
+        }
+
+        LoginAttempt withRehash(String newHash) {
+            return new LoginAttempt(bootstrap, readAt, provisional, official, matchedHash, newHash);
+        }
+    }
+
+    /**
+     * Primeira etapa do login: carrega usuário e empresas (uma consulta) e confere a senha
+     * no PasswordHasher. A senha provisória é testada antes da oficial.
+     * Se o hash que conferiu estiver fora do algoritmo/custo configurado, já calcula o novo hash.
+     * O future falha com PasswordHashingBusyException quando o pool de hash está cheio.
+     * Excesso de tentativas (por e-mail ou IP) lança TooManyAttemptsException antes de qualquer consulta.
+     */
+    public CompletableFuture<LoginAttempt> verifyCredentialsAsync(String email, String plainPassword) throws SQLException {
         String normalizedEmail = normalizeEmail(email);
         String plain = plainPassword == null ? null : plainPassword.trim();
 
-        if (normalizedEmail == null || normalizedEmail.isBlank()) return LoginResult.INVALID;
-        if (plain == null || plain.isBlank()) return LoginResult.INVALID;
+        if (normalizedEmail == null || normalizedEmail.isBlank()) return CompletableFuture.completedFuture(LoginAttempt.INVALID);
+        if (plain == null || plain.isBlank()) return CompletableFuture.completedFuture(LoginAttempt.INVALID);
 
-        AppUser user = repo.findByEmail(normalizedEmail).orElse(null);
-        if (user == null) return LoginResult.INVALID;
+        authThrottle.checkLogin(normalizedEmail);
 
+        long readAt = membershipCache.generation();
+        SessionBootstrap bootstrap = repo.findBootstrapByEmail(normalizedEmail).orElse(null);
+        if (bootstrap == null) return CompletableFuture.completedFuture(LoginAttempt.INVALID);
+        AppUser user = bootstrap.user();
         String prov = user.getProvisionalPasswordHash();
-        if (prov != null && passwordEncoder.matches(plain, prov)) {
-            boolean promoted = repo.promoteProvisionalToOfficial(user.getId());
-            if (!promoted) return LoginResult.INVALID;
+        String official = user.getPasswordHash();
+
+        return passwordHasher.matchesAsync(plain, prov)
+                .thenCompose(provOk -> provOk
+                        ? CompletableFuture.completedFuture(new LoginAttempt(bootstrap, readAt, true, false, prov, null))
+                        : passwordHasher.matchesAsync(plain, official)
+                                .thenApply(ok -> ok ? new LoginAttempt(bootstrap, readAt, false, true, official, null) : LoginAttempt.INVALID))
+                .thenCompose(attempt -> withRehashIfNeeded(attempt, plain));
+    }
 
-            currentUserService.onLogin(user.getId(), user.getEmail());
-            return LoginResult.LOGGED_IN;
+    private CompletableFuture<LoginAttempt> withRehashIfNeeded(LoginAttempt attempt, String plain) {
+        if (!attempt.matched() || !passwordHasher.needsRehash(attempt.matchedHash())) {
+            return CompletableFuture.completedFuture(attempt);
         }
+        // Rehash é oportunista: se o pool estiver cheio, o login segue com o hash antigo.
+        return passwordHasher.encodeAsync(plain)
+                .thenApply(attempt::withRehash)
+                .exceptionally(ex -> attempt);
+    }
 
-        String official = user.getPasswordHash();
-        if (official != null && passwordEncoder.matches(plain, official)) {
-            currentUserService.onLogin(user.getId(), user.getEmail());
-            return LoginResult.LOGGED_IN;
+    /**
+     * Segunda etapa do login, na thread da sessão (ex.: dentro de UI.access):
+     * - Se senha provisória conferiu: promove senha, marca email_conf_time e loga o usuário.
+     * - Se senha oficial conferiu: loga o usuário.
+     * - Caso contrário: retorna INVALID.
+     * Com uma só empresa, ela já fica selecionada.
+     */
+    @Transactional
+    public LoginResult completeLogin(LoginAttempt attempt) throws SQLException {
+        if (attempt == null || !attempt.matched()) return LoginResult.INVALID;
+
+        long userId = attempt.bootstrap().user().getId();
+        if (attempt.rehashed() != null) {
+            repo.rehashPassword(userId, attempt.matchedHash(), attempt.rehashed());
         }
 
-        return LoginResult.INVALID;
+        if (attempt.provisional()) {
+            boolean promoted = repo.promoteProvisionalToOfficial(userId);
+            if (!promoted) return LoginResult.INVALID;
+        }
+
+        startSession(attempt.bootstrap(), attempt.readAt());
+        return LoginResult.LOGGED_IN;
+    }
+
+    private void startSession(SessionBootstrap bootstrap, long readAt) {
+        AppUser user = bootstrap.user();
+        currentUserService.onLogin(user.getId(), user.getEmail(), user.getName());
+        membershipCache.prime(user.getId(), bootstrap.choices(), readAt);
+
+        currentCompanyService.clearSelection();
+        if (bootstrap.choices().size() == 1) {
+            currentCompanyService.selectFromChoice(bootstrap.choices().getFirst());
+        }
     }
 
     public List<AppUser> listAll() throws SQLException {
@@ -104,12 +171,14 @@ public class AppUserService {
         if (user == null) throw new IllegalArgumentException("Usuário inválido.");
         user.setEmail(normalizeEmail(user.getEmail()));
         repo.updateDadosBasicos(user);
+        currentUserService.refreshName(user.getId(), user.getName());
     }
 
     @Transactional
     public void deleteById(long id) throws SQLException {
         serviceGuard.requireAdmin();
         repo.deleteById(id);
+        membershipCache.invalidateUser(id);
     }
 
     @Transactional
@@ -118,6 +187,7 @@ public class AppUserService {
         if (user == null) throw new IllegalArgumentException("Usuário inválido.");
         user.setEmail(normalizeEmail(user.getEmail()));
         repo.save(user);
+        currentUserService.refreshName(user.getId(), user.getName());
     }
 
     @Transactional
@@ -142,9 +212,8 @@ public class AppUserService {
     /**
      * Autocadastro:
      * - Normaliza email
-     * - Gera senha provisória e grava o hash em prov_pw_hash (BCrypt)
-     * - Insere usuário com a provisória
-     * - Envia senha provisória por email
+     * - Insere usuário com o hash de uma senha descartável (ninguém a recebe)
+     * - Enfileira o e-mail; a senha provisória de fato é gerada e gravada no envio (ProvisionalPasswords)
      */
     @Transactional
     public void requestSignup(String name, String email) throws SQLException {
@@ -161,18 +230,17 @@ public class AppUserService {
             throw new IllegalStateException("E-mail já cadastrado.");
         }
 
-        String provisionalPlain = generateTempPassword(10);
-        String provisionalHash = passwordEncoder.encode(provisionalPlain);
+        String placeholderHash = passwordHasher.encode(ProvisionalPasswords.generate(32));
 
         AppUser user = new AppUser()
                 .setName(name.trim())
                 .setEmail(normalizedEmail)
                 .setPasswordHash(null)
                 .setEmailConfirmationTime(null)
-                .setProvisionalPasswordHash(provisionalHash);
+                .setProvisionalPasswordHash(placeholderHash);
 
-        repo.insertWithProvisional(user);
-        resetMailer.sendProvisionalPassword(normalizedEmail, provisionalPlain, "signup");
+        long userId = repo.insertWithProvisional(user);
+        resetMailer.sendProvisionalPassword(userId, normalizedEmail, "signup");
     }
 
     /**
@@ -200,7 +268,7 @@ public class AppUserService {
             throw new IllegalStateException("Não há senha provisória pendente para este usuário.");
         }
 
-        if (!passwordEncoder.matches(provisionalPlainPassword.trim(), provHash)) {
+        if (!passwordHasher.matches(provisionalPlainPassword.trim(), provHash)) {
             return false;
         }
 
@@ -218,13 +286,13 @@ public class AppUserService {
         AppUser user = repo.findByEmail(normalizedEmail)
                 .orElseThrow(() -> new IllegalStateException("Usuário não encontrado."));
 
-        String encoded = passwordEncoder.encode(newPassword.trim());
+        String encoded = passwordHasher.encode(newPassword.trim());
         repo.updateOfficialPasswordAndClearProvisional(user.getId(), encoded);
     }
 
     /**
      * Fluxo "Esqueci minha senha":
-     * - Se email existir, gera nova senha provisória, grava o hash e envia por email.
+     * - Se email existir, enfileira o e-mail; a nova senha provisória é gerada e gravada no envio.
      * - Retorna true se o email existia, false caso contrário.
      */
     @Transactional
@@ -232,16 +300,14 @@ public class AppUserService {
         String normalizedEmail = normalizeEmail(email);
         if (normalizedEmail == null || normalizedEmail.isBlank()) return false;
 
+        authThrottle.checkForgotPassword(normalizedEmail);
+
         var userOpt = repo.findByEmail(normalizedEmail);
         if (userOpt.isEmpty()) return false;
 
         var user = userOpt.get();
 
-        String provisionalPlain = generateTempPassword(10);
-        String provisionalHash = passwordEncoder.encode(provisionalPlain);
-
-        repo.setProvisional(user.getId(), provisionalHash);
-        resetMailer.sendProvisionalPassword(user.getEmail(), provisionalPlain, "forgot");
+        resetMailer.sendProvisionalPassword(user.getId(), user.getEmail(), "forgot");
 
         return true;
     }
@@ -264,15 +330,4 @@ public class AppUserService {
     private static String normalizeEmail(String email) {
         return email == null ? null : email.trim().toLowerCase();
     }
-
-    /** Gera senha provisória alfanumérica, evitando caracteres ambíguos. */
-    private static String generateTempPassword(int length) {
-        final String alphabet = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz23456789";
-        SecureRandom random = new SecureRandom();
-        StringBuilder sb = new StringBuilder(length);
-        for (int i = 0; i < length; i++) {
-            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
-        }
-        return sb.toString();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,130 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.ReminderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Enfileira lembretes de consulta por e-mail (24 h e 2 h antes) na mail_outbox.
+ * - Para cada tipo há uma marca d'água em appointment_at; cada ciclo avança a marca até agora + antecedência,
+ *   em janelas de app.reminders.window-minutes, uma transação por janela.
+ * - A marca é travada com SKIP LOCKED: com várias réplicas, uma varre e as outras pulam o ciclo.
+ *   attendance_reminder garante que cada lembrete de cada horário entra na fila uma única vez.
+ * - Consulta criada (ou remarcada) para dentro de uma janela já varrida não recebe aquele lembrete:
+ *   ele já estaria atrasado. O de 2 h ainda sai se houver tempo.
+ * - Ocorrências de séries recorrentes são expandidas só para a janela (series_reminder faz a idempotência).
+ * Métrica: app.reminders.enqueued (tag kind).
+ */
+@Component
+public class AppointmentReminderScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(AppointmentReminderScheduler.class);
+
+    static final String TEMPLATE = "appointment-reminder";
+
+    private final ReminderRepository reminderRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxWindowsPerRun;
+    private final Map<ReminderKind, Counter> enqueued = new EnumMap<>(ReminderKind.class);
+
+    public AppointmentReminderScheduler(ReminderRepository reminderRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${app.reminders.enabled:true}") boolean enabled,
+                                        @Value("${app.reminders.window-minutes:5}") int windowMinutes,
+                                        @Value("${app.reminders.max-windows-per-run:48}") int maxWindowsPerRun) {
+        this.reminderRepository = reminderRepository;
+        this.transactionManager = transactionManager;
+        this.enabled = enabled;
+        this.window = Duration.ofMinutes(Math.max(1, windowMinutes));
+        this.maxWindowsPerRun = Math.max(1, maxWindowsPerRun);
+        for (ReminderKind kind : ReminderKind.values()) {
+            enqueued.put(kind, Counter.builder("app.reminders.enqueued")
+                    .tag("kind", kind.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.reminders.initial-delay-ms:20000}",
+               fixedDelayString = "${app.reminders.poll-ms:60000}")
+    public void scan() {
+        if (!enabled) return;
+        for (ReminderKind kind : ReminderKind.values()) {
+            try {
+                reminderRepository.ensureWatermark(kind.code, kind.lead.toSeconds());
+                scan(kind);
+            } catch (Exception e) {
+                log.warn("Falha ao varrer lembretes {}", kind, e);
+            }
+        }
+    }
+
+    private void scan(ReminderKind kind) throws SQLException {
+        for (int i = 0; i < maxWindowsPerRun; i++) {
+            int count;
+            boolean caughtUp;
+
+            TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            try {
+                Optional<ReminderRepository.Watermark> locked = reminderRepository.lockWatermark(kind.code);
+                if (locked.isEmpty()) return; // outra réplica está varrendo
+
+                ReminderRepository.Watermark mark = locked.get();
+                LocalDateTime target = mark.now().plus(kind.lead);
+                // Parado por um tempo: consultas que já passaram não recebem lembrete.
+                LocalDateTime from = mark.scannedUntil().isBefore(mark.now()) ? mark.now() : mark.scannedUntil();
+                if (!from.isBefore(target)) return;
+
+                LocalDateTime to = from.plus(window);
+                if (to.isAfter(target)) to = target;
+
+                count = reminderRepository.enqueueWindow(kind.code, TEMPLATE, from, to)
+                        + enqueueSeries(kind, from, to);
+                reminderRepository.advanceWatermark(kind.code, to);
+                transactionManager.commit(tx);
+                caughtUp = to.equals(target);
+            } finally {
+                if (!tx.isCompleted()) transactionManager.rollback(tx);
+            }
+
+            if (count > 0) {
+                enqueued.get(kind).increment(count);
+                log.debug("{} lembrete(s) {} enfileirado(s)", count, kind);
+            }
+            if (caughtUp) return;
+        }
+    }
+
+    /** Ocorrências de séries ainda não materializadas em (from, to]; as materializadas seguem pelo próprio atendimento. */
+    private int enqueueSeries(ReminderKind kind, LocalDateTime from, LocalDateTime to) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        List<LocalDateTime> occurrences = new ArrayList<>();
+        for (ReminderRepository.SeriesInWindow series : reminderRepository.listSeriesInWindow(from, to)) {
+            for (LocalDateTime t : series.rule().between(from, to.plusNanos(1))) {
+                if (!t.isAfter(from) || series.exceptions().contains(t)) continue;
+                ids.add(series.id());
+                occurrences.add(t);
+            }
+        }
+        return reminderRepository.enqueueSeriesOccurrences(kind.code, TEMPLATE, ids, occurrences);
+    }
+}
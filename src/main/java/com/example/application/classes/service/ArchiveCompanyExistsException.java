@@ -0,0 +1,16 @@
+package com.example.application.classes.service;
+
+/** O documento da empresa do arquivo já existe neste ambiente; a importação pode ser refeita com outro nome/documento. */
+public class ArchiveCompanyExistsException extends IllegalStateException {
+
+    private final String archivedName;
+
+    public ArchiveCompanyExistsException(String message, String archivedName) {
+        super(message);
+        this.archivedName = archivedName;
+    }
+
+    public String archivedName() {
+        return archivedName;
+    }
+}
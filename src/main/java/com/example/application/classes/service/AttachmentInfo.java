@@ -0,0 +1,11 @@
+package com.example.application.classes.service;
+
+import java.time.LocalDateTime;
+
+public record AttachmentInfo(long id,
+                             long attendanceId,
+                             String sha256,
+                             String fileName,
+                             String contentType,
+                             long size,
+                             LocalDateTime creationDate) {}
@@ -0,0 +1,180 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.AttachmentRepository;
+import com.example.application.classes.repository.AttendanceRepository;
+import com.example.application.config.ServiceGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Anexos de atendimento (exames, raio-X, PDFs).
+ * - prepare*() validam sessão e empresa (precisam do lock da sessão); store() e o download rodam fora dele.
+ * - O conteúdo vai para o BlobStore; arquivos idênticos são guardados uma vez só.
+ * - Excluir um anexo remove só o vínculo; blobs sem referência são apagados por collectOrphans(),
+ *   depois de um prazo de carência. Upload e coleta usam o mesmo advisory lock por hash.
+ * Métricas: app.attachments.upload (tag stored=new|dedup) e app.attachments.collected.
+ */
+@Service
+public class AttachmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(AttachmentService.class);
+    // Só "tipo/subtipo"; parâmetros e qualquer coisa fora de token são descartados.
+    private static final Pattern MEDIA_TYPE =
+            Pattern.compile("[a-z0-9][a-z0-9!#$&^_.+-]{0,63}/[a-z0-9][a-z0-9!#$&^_.+-]{0,63}");
+
+    /** Upload já autorizado; carrega só os ids necessários para rodar fora da sessão. */
+    public record PreparedUpload(long userId, long companyId, long attendanceId) {}
+
+    /** Download já autorizado: metadados do anexo e o arquivo no disco. */
+    public record PreparedDownload(AttachmentInfo info, Path file) {}
+
+    private final AttachmentRepository attachmentRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final BlobStore blobStore;
+    private final ServiceGuard serviceGuard;
+    private final MembershipCache membershipCache;
+    private final PlatformTransactionManager transactionManager;
+    private final Counter storedNew;
+    private final Counter storedDedup;
+    private final Counter collected;
+    private final int graceMinutes;
+
+    public AttachmentService(AttachmentRepository attachmentRepository,
+                             AttendanceRepository attendanceRepository,
+                             BlobStore blobStore,
+                             ServiceGuard serviceGuard,
+                             MembershipCache membershipCache,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.attachments.gc-grace-minutes:60}") int graceMinutes) {
+        this.attachmentRepository = attachmentRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.blobStore = blobStore;
+        this.serviceGuard = serviceGuard;
+        this.membershipCache = membershipCache;
+        this.transactionManager = transactionManager;
+        this.storedNew = Counter.builder("app.attachments.upload").tag("stored", "new").register(meterRegistry);
+        this.storedDedup = Counter.builder("app.attachments.upload").tag("stored", "dedup").register(meterRegistry);
+        this.collected = Counter.builder("app.attachments.collected").register(meterRegistry);
+        this.graceMinutes = graceMinutes;
+    }
+
+    public long maxBytes() {
+        return blobStore.maxBytes();
+    }
+
+    public PreparedUpload prepareUpload(long attendanceId) throws SQLException {
+        long userId = serviceGuard.requireUserId();
+        long companyId = serviceGuard.requireCompanyId();
+        if (attendanceRepository.findById(companyId, attendanceId).isEmpty()) {
+            throw new SecurityException("Atendimento não encontrado na empresa selecionada.");
+        }
+        return new PreparedUpload(userId, companyId, attendanceId);
+    }
+
+    /** Recebe o conteúdo em streaming e registra o anexo. Não depende da sessão. */
+    public AttachmentInfo store(PreparedUpload upload, String fileName, String contentType, InputStream in)
+            throws IOException, SQLException {
+        BlobStore.Received received = blobStore.receive(in);
+
+        TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            if (!membershipCache.isMember(upload.userId(), upload.companyId())) {
+                throw new SecurityException("Usuário não pertence mais à empresa selecionada.");
+            }
+            attachmentRepository.lockBlob(received.sha256());
+            attachmentRepository.upsertBlob(received.sha256(), received.size());
+            AttachmentInfo info = attachmentRepository.insert(
+                            upload.companyId(), upload.attendanceId(), received.sha256(),
+                            cleanFileName(fileName), cleanContentType(contentType),
+                            received.size(), upload.userId())
+                    .orElseThrow(() -> new SecurityException("Atendimento não encontrado na empresa selecionada."));
+
+            // Publica ainda com o lock do hash: a coleta não apaga o arquivo entre a checagem e o commit.
+            boolean isNew = blobStore.publish(received);
+            transactionManager.commit(tx);
+            (isNew ? storedNew : storedDedup).increment();
+            return info;
+        } finally {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+            blobStore.discard(received);
+        }
+    }
+
+    public List<AttachmentInfo> list(long attendanceId) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        return attachmentRepository.listByAttendance(companyId, attendanceId);
+    }
+
+    public PreparedDownload prepareDownload(long attachmentId) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        AttachmentInfo info = attachmentRepository.findById(companyId, attachmentId)
+                .orElseThrow(() -> new SecurityException("Anexo não encontrado na empresa selecionada."));
+        return new PreparedDownload(info, blobStore.pathOf(info.sha256()));
+    }
+
+    public void delete(long attachmentId) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        attachmentRepository.delete(companyId, attachmentId);
+    }
+
+    /** Apaga blobs que ficaram sem anexo além do prazo de carência. */
+    @Scheduled(initialDelayString = "${app.attachments.gc-initial-delay-ms:60000}",
+               fixedDelayString = "${app.attachments.gc-interval-ms:3600000}")
+    public void collectOrphans() {
+        List<String> candidates;
+        try {
+            candidates = attachmentRepository.listOrphanBlobs(graceMinutes, 500);
+        } catch (SQLException e) {
+            log.warn("Falha ao listar blobs órfãos", e);
+            return;
+        }
+
+        for (String sha256 : candidates) {
+            TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            try {
+                attachmentRepository.lockBlob(sha256);
+                if (attachmentRepository.deleteBlobIfOrphan(sha256, graceMinutes)) {
+                    blobStore.delete(sha256);
+                    collected.increment();
+                }
+                transactionManager.commit(tx);
+            } catch (SQLException | IOException e) {
+                log.warn("Falha ao coletar blob {}", sha256, e);
+            } finally {
+                if (!tx.isCompleted()) transactionManager.rollback(tx);
+            }
+        }
+    }
+
+    private static String cleanFileName(String fileName) {
+        String name = fileName == null ? "" : fileName.replace('\\', '/');
+        name = name.substring(name.lastIndexOf('/') + 1).strip();
+        if (name.isEmpty()) name = "arquivo";
+        return name.length() > 255 ? name.substring(name.length() - 255) : name;
+    }
+
+    private static String cleanContentType(String contentType) {
+        if (contentType == null) return "application/octet-stream";
+        int semicolon = contentType.indexOf(';');
+        String mediaType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon))
+                .strip().toLowerCase(Locale.ROOT);
+        return MEDIA_TYPE.matcher(mediaType).matches() ? mediaType : "application/octet-stream";
+    }
+}
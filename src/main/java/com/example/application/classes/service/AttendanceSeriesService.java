@@ -0,0 +1,143 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.Recurrence;
+import com.example.application.classes.model.AttendanceSeries;
+import com.example.application.classes.repository.AttendanceSeriesRepository;
+import com.example.application.config.ServiceGuard;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+
+/**
+ * Séries de atendimentos recorrentes.
+ * - A série guarda só a regra; as ocorrências aparecem na agenda sem existir em attendance.
+ * - Abrir uma ocorrência para editar a materializa (vira atendimento ligado à série);
+ *   cancelar grava só a exceção. As demais ocorrências continuam seguindo a regra.
+ */
+@Service
+public class AttendanceSeriesService {
+
+    private static final int MAX_OCCURRENCES = 500;
+    private static final int MAX_YEARS = 2;
+
+    private final AttendanceSeriesRepository seriesRepository;
+    private final ServiceGuard serviceGuard;
+    private final PlatformTransactionManager transactionManager;
+
+    public AttendanceSeriesService(AttendanceSeriesRepository seriesRepository,
+                                   ServiceGuard serviceGuard,
+                                   PlatformTransactionManager transactionManager) {
+        this.seriesRepository = seriesRepository;
+        this.serviceGuard = serviceGuard;
+        this.transactionManager = transactionManager;
+    }
+
+    public long create(long petId, Recurrence rule, String description) throws SQLException {
+        long userId = serviceGuard.requireUserId();
+        long companyId = serviceGuard.requireCompanyId();
+
+        String desc = description == null ? "" : description.trim();
+        if (desc.length() > 2000) {
+            throw new AttendanceValidationException("A descrição excede 2000 caracteres.");
+        }
+        if (rule.until() != null && rule.until().isBefore(rule.start())) {
+            throw new AttendanceValidationException("O fim da série deve ser depois do primeiro atendimento.");
+        }
+        if (rule.last().isAfter(LocalDateTime.now().plusYears(MAX_YEARS))) {
+            throw new AttendanceValidationException("A série não pode passar de " + MAX_YEARS + " anos no futuro.");
+        }
+        if (rule.size() > MAX_OCCURRENCES) {
+            throw new AttendanceValidationException("A série não pode ter mais de " + MAX_OCCURRENCES + " ocorrências.");
+        }
+        if (rule.size() < 2) {
+            throw new AttendanceValidationException("A série precisa de pelo menos duas ocorrências.");
+        }
+
+        return seriesRepository.insert(companyId, petId, userId, rule, desc.isEmpty() ? null : desc)
+                .orElseThrow(() -> new AttendanceValidationException(
+                        "Pet inválido ou não pertence à empresa selecionada."));
+    }
+
+    /**
+     * Atendimento da ocorrência, criado na primeira chamada a partir da série.
+     * Chamadas repetidas (ou concorrentes) devolvem o mesmo atendimento.
+     */
+    public long materialize(long seriesId, LocalDateTime occurrenceAt) throws SQLException {
+        long userId = serviceGuard.requireUserId();
+        long companyId = serviceGuard.requireCompanyId();
+
+        TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            AttendanceSeries series = lockOccurrence(companyId, seriesId, occurrenceAt);
+            var existing = seriesRepository.findException(seriesId, occurrenceAt);
+            long attendanceId;
+            if (existing.isPresent()) {
+                if (existing.get().attendanceId() == null) {
+                    throw new AttendanceValidationException("Esta ocorrência foi cancelada.");
+                }
+                attendanceId = existing.get().attendanceId();
+            } else {
+                attendanceId = seriesRepository.materialize(series, occurrenceAt, userId);
+            }
+            transactionManager.commit(tx);
+            return attendanceId;
+        } finally {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+        }
+    }
+
+    public void cancelOccurrence(long seriesId, LocalDateTime occurrenceAt) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+
+        TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            lockOccurrence(companyId, seriesId, occurrenceAt);
+            if (seriesRepository.findException(seriesId, occurrenceAt).isPresent()) {
+                throw new AttendanceValidationException(
+                        "Esta ocorrência já foi cancelada ou aberta como atendimento.");
+            }
+            seriesRepository.cancelOccurrence(seriesId, occurrenceAt);
+            transactionManager.commit(tx);
+        } finally {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+        }
+    }
+
+    /** Encerra a série: nenhuma ocorrência depois de after. As anteriores e as exceções ficam como estão. */
+    public void endAfter(long seriesId, LocalDateTime after) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+
+        TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            AttendanceSeries series = seriesRepository.lock(companyId, seriesId)
+                    .orElseThrow(() -> new SecurityException("Série não encontrada na empresa selecionada."));
+            Recurrence rule = series.rule();
+            if (!after.isAfter(rule.start())) {
+                throw new AttendanceValidationException(
+                        "A série começa depois desta data; cancele as ocorrências individualmente.");
+            }
+            if (rule.last().isAfter(after)) {
+                LocalDateTime until = rule.until() != null && rule.until().isBefore(after) ? rule.until() : after;
+                Recurrence cut = new Recurrence(rule.start(), rule.frequency(), rule.interval(), rule.count(), until);
+                seriesRepository.updateEnd(companyId, seriesId, cut);
+            }
+            transactionManager.commit(tx);
+        } finally {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+        }
+    }
+
+    private AttendanceSeries lockOccurrence(long companyId, long seriesId, LocalDateTime occurrenceAt)
+            throws SQLException {
+        AttendanceSeries series = seriesRepository.lock(companyId, seriesId)
+                .orElseThrow(() -> new SecurityException("Série não encontrada na empresa selecionada."));
+        if (!series.rule().isOccurrence(occurrenceAt)) {
+            throw new AttendanceValidationException("Horário não pertence à série.");
+        }
+        return series;
+    }
+}
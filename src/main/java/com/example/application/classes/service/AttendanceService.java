@@ -1,19 +1,33 @@
 package com.example.application.classes.service;
 
 import com.example.application.classes.model.Attendance;
+import com.example.application.classes.model.ClinicalNotes;
 import com.example.application.classes.repository.AttendanceRepository;
 import com.example.application.config.ServiceGuard;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 @Service
 public class AttendanceService {
 
+    private static final int MAX_SECTION_LENGTH = 4000;
+    private static final int MAX_DIAGNOSES = 20;
+    private static final BigDecimal MAX_WEIGHT_KG = new BigDecimal("500");
+    private static final BigDecimal MIN_TEMPERATURE_C = new BigDecimal("25");
+    private static final BigDecimal MAX_TEMPERATURE_C = new BigDecimal("45");
+    private static final Pattern DIAGNOSIS_CODE = Pattern.compile("[A-Z0-9][A-Z0-9._-]{0,29}");
+    private static final int MAX_DIAGNOSIS_RESULTS = 1000;
+
     private final AttendanceRepository attendanceRepository;
     private final ServiceGuard serviceGuard;
 
@@ -23,16 +37,21 @@ public class AttendanceService {
         this.serviceGuard = serviceGuard;
     }
 
-    private void validate(Attendance a) {
-        a.setDescription(trimToEmpty(a.getDescription()));
-
+    private static void validate(Attendance a) {
         if (a.getAnimalId() <= 0L) {
             throw new AttendanceValidationException("O pet do atendimento é obrigatório.");
         }
+        validateFields(a);
+    }
 
-        if (a.getAppointmentAt() == null && a.getDescription().isEmpty()) {
+    /** Regras dos campos do atendimento, sem o pet; também usadas pela importação de dados legados. */
+    static void validateFields(Attendance a) {
+        a.setDescription(trimToEmpty(a.getDescription()));
+        a.setClinicalNotes(normalizeNotes(a.getClinicalNotes()));
+
+        if (a.getAppointmentAt() == null && a.getDescription().isEmpty() && a.getClinicalNotes() == null) {
             throw new AttendanceValidationException(
-                    "Preencha ao menos a data do atendimento ou a descrição."
+                    "Preencha ao menos a data do atendimento, a descrição ou as notas clínicas."
             );
         }
 
@@ -48,6 +67,55 @@ public class AttendanceService {
         }
     }
 
+    /** Valida e normaliza as notas clínicas; notas vazias viram null (nada gravado). */
+    private static ClinicalNotes normalizeNotes(ClinicalNotes n) {
+        if (n == null) return null;
+
+        String subjective = section(n.subjective(), "Subjetivo");
+        String objective = section(n.objective(), "Objetivo");
+        String assessment = section(n.assessment(), "Avaliação");
+        String plan = section(n.plan(), "Plano");
+
+        if (n.weightKg() != null && (n.weightKg().signum() <= 0 || n.weightKg().compareTo(MAX_WEIGHT_KG) > 0)) {
+            throw new AttendanceValidationException("Peso deve estar entre 0 e " + MAX_WEIGHT_KG + " kg.");
+        }
+        if (n.temperatureC() != null
+                && (n.temperatureC().compareTo(MIN_TEMPERATURE_C) < 0 || n.temperatureC().compareTo(MAX_TEMPERATURE_C) > 0)) {
+            throw new AttendanceValidationException(
+                    "Temperatura deve estar entre " + MIN_TEMPERATURE_C + " e " + MAX_TEMPERATURE_C + " °C.");
+        }
+
+        Set<String> codes = new LinkedHashSet<>();
+        for (String raw : n.diagnoses()) {
+            String code = normalizeDiagnosis(raw);
+            if (code.isEmpty()) continue;
+            if (!DIAGNOSIS_CODE.matcher(code).matches()) {
+                throw new AttendanceValidationException("Código de diagnóstico inválido: " + raw);
+            }
+            codes.add(code);
+        }
+        if (codes.size() > MAX_DIAGNOSES) {
+            throw new AttendanceValidationException("Informe no máximo " + MAX_DIAGNOSES + " diagnósticos.");
+        }
+
+        ClinicalNotes normalized = new ClinicalNotes(subjective, objective, assessment, plan,
+                n.weightKg(), n.temperatureC(), List.copyOf(codes));
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    /** Códigos de diagnóstico são comparados em maiúsculas e sem espaços nas pontas. */
+    static String normalizeDiagnosis(String code) {
+        return code == null ? "" : code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String section(String value, String label) {
+        String v = trimToEmpty(value);
+        if (v.length() > MAX_SECTION_LENGTH) {
+            throw new AttendanceValidationException(label + " excede " + MAX_SECTION_LENGTH + " caracteres.");
+        }
+        return v.isEmpty() ? null : v;
+    }
+
     private static String trimToEmpty(String v) {
         return v == null ? "" : v.trim();
     }
@@ -94,6 +162,20 @@ public class AttendanceService {
         }
     }
 
+    /** Atendimentos com o diagnóstico nos últimos "days" dias (consulta pelo índice GIN). */
+    public List<DiagnosisMatch> findByDiagnosis(String code, int days) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        String normalized = normalizeDiagnosis(code);
+        if (!DIAGNOSIS_CODE.matcher(normalized).matches()) {
+            throw new AttendanceValidationException("Código de diagnóstico inválido.");
+        }
+        if (days <= 0 || days > 3660) {
+            throw new AttendanceValidationException("Período deve ser entre 1 e 3660 dias.");
+        }
+        return attendanceRepository.findByDiagnosis(companyId, normalized,
+                LocalDateTime.now().minusDays(days), MAX_DIAGNOSIS_RESULTS);
+    }
+
     @Transactional
     public void deleteById(long id) throws SQLException {
         long companyId = serviceGuard.requireCompanyId();
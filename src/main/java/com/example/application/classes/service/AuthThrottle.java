@@ -0,0 +1,97 @@
+package com.example.application.classes.service;
+
+import com.vaadin.flow.server.VaadinSession;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Limites de tentativas para login e "esqueci minha senha", por e-mail e por IP.
+ * Checado antes de qualquer consulta ou hash; quando estoura, lança TooManyAttemptsException.
+ * Uma tentativa só consome se passar nos dois limites: a permissão de IP é devolvida quando o e-mail rejeita.
+ * Rejeições contam em app.auth.throttled (tags action e key).
+ */
+@Component
+public class AuthThrottle {
+
+    private static final String MESSAGE = "Muitas tentativas. Aguarde alguns instantes e tente novamente.";
+
+    private final RateLimiter loginByEmail;
+    private final RateLimiter loginByIp;
+    private final RateLimiter forgotByEmail;
+    private final RateLimiter forgotByIp;
+
+    private final Counter loginEmailRejected;
+    private final Counter loginIpRejected;
+    private final Counter forgotEmailRejected;
+    private final Counter forgotIpRejected;
+
+    public AuthThrottle(MeterRegistry meterRegistry,
+                        @Value("${app.throttle.login.email-per-minute:5}") int loginEmailPerMinute,
+                        @Value("${app.throttle.login.ip-per-minute:30}") int loginIpPerMinute,
+                        @Value("${app.throttle.forgot.email-per-hour:3}") int forgotEmailPerHour,
+                        @Value("${app.throttle.forgot.ip-per-hour:20}") int forgotIpPerHour,
+                        @Value("${app.throttle.max-keys:50000}") int maxKeys) {
+        this.loginByEmail = new RateLimiter(loginEmailPerMinute, Duration.ofMinutes(1), loginEmailPerMinute, maxKeys);
+        this.loginByIp = new RateLimiter(loginIpPerMinute, Duration.ofMinutes(1), loginIpPerMinute, maxKeys);
+        this.forgotByEmail = new RateLimiter(forgotEmailPerHour, Duration.ofHours(1), forgotEmailPerHour, maxKeys);
+        this.forgotByIp = new RateLimiter(forgotIpPerHour, Duration.ofHours(1), forgotIpPerHour, maxKeys);
+
+        this.loginEmailRejected = rejectedCounter(meterRegistry, "login", "email");
+        this.loginIpRejected = rejectedCounter(meterRegistry, "login", "ip");
+        this.forgotEmailRejected = rejectedCounter(meterRegistry, "forgot", "email");
+        this.forgotIpRejected = rejectedCounter(meterRegistry, "forgot", "ip");
+
+        Gauge.builder("app.auth.throttle.keys", this,
+                        t -> t.loginByEmail.trackedKeys() + t.loginByIp.trackedKeys()
+                                + t.forgotByEmail.trackedKeys() + t.forgotByIp.trackedKeys())
+                .register(meterRegistry);
+    }
+
+    public void checkLogin(String normalizedEmail) {
+        check(loginByIp, clientAddress(), loginIpRejected, loginByEmail, normalizedEmail, loginEmailRejected);
+    }
+
+    public void checkForgotPassword(String normalizedEmail) {
+        check(forgotByIp, clientAddress(), forgotIpRejected, forgotByEmail, normalizedEmail, forgotEmailRejected);
+    }
+
+    static void check(RateLimiter byIp, String ip, Counter ipRejected,
+                      RateLimiter byEmail, String email, Counter emailRejected) {
+        boolean ipAcquired = acquire(byIp, ip, ipRejected);
+        try {
+            acquire(byEmail, email, emailRejected);
+        } catch (TooManyAttemptsException e) {
+            if (ipAcquired) byIp.release(ip);
+            throw e;
+        }
+    }
+
+    /** false quando a chave está vazia (nada a limitar). */
+    private static boolean acquire(RateLimiter limiter, String key, Counter rejected) {
+        if (key == null || key.isBlank()) return false;
+        if (!limiter.tryAcquire(key)) {
+            rejected.increment();
+            throw new TooManyAttemptsException(MESSAGE);
+        }
+        return true;
+    }
+
+    /** IP do navegador da sessão atual (com server.forward-headers-strategy, o IP real atrás do ingress). */
+    private static String clientAddress() {
+        VaadinSession session = VaadinSession.getCurrent();
+        if (session == null || session.getBrowser() == null) return null;
+        return session.getBrowser().getAddress();
+    }
+
+    private static Counter rejectedCounter(MeterRegistry registry, String action, String key) {
+        return Counter.builder("app.auth.throttled")
+                .tag("action", action)
+                .tag("key", key)
+                .register(registry);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.application.classes.service;
+
+public class BatchBusyException extends IllegalStateException {
+    public BatchBusyException(String message) {
+        super(message);
+    }
+}
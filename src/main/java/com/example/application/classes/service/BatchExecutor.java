@@ -0,0 +1,89 @@
+package com.example.application.classes.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool limitado para trabalhos pesados e longos (exportações, importações, arquivamento).
+ * - Poucas threads: cada trabalho segura uma conexão do banco durante toda a execução,
+ *   então o pool também limita quantas conexões ficam presas em lotes.
+ * - Fila fixa; quando cheia, o trabalho é recusado na hora com BatchBusyException.
+ * Métricas: app.batch.queue, app.batch.active e app.batch.rejected.
+ */
+@Component
+public class BatchExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public BatchExecutor(MeterRegistry meterRegistry,
+                         @Value("${app.batch.threads:2}") int threads,
+                         @Value("${app.batch.queue-capacity:8}") int queueCapacity) {
+        int poolSize = Math.max(1, threads);
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "batch-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.rejected = Counter.builder("app.batch.rejected")
+                .register(meterRegistry);
+        Gauge.builder("app.batch.queue", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("app.batch.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        try {
+            CompletableFuture<T> future = new CompletableFuture<>();
+            Future<?> running = executor.submit(() -> {
+                try {
+                    future.complete(task.call());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                }
+            });
+            // Cancelar o future devolvido interrompe a thread do lote.
+            future.whenComplete((r, e) -> {
+                if (future.isCancelled()) running.cancel(true);
+            });
+            return future;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new BatchBusyException("Sistema ocupado com outras tarefas. Tente novamente em instantes."));
+        }
+    }
+
+    /** Executa no pool e espera o fim; exceções da tarefa são relançadas como vieram. */
+    public <T> T run(Callable<T> task) throws Exception {
+        try {
+            return submit(task).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception ex) throw ex;
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
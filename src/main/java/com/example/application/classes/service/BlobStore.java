@@ -0,0 +1,149 @@
+package com.example.application.classes.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Armazenamento de arquivos endereçado pelo conteúdo: cada arquivo fica em root/ab/cd/&lt;sha256&gt;.
+ * - receive() copia o stream para um temporário (FileChannel.transferFrom) calculando o SHA-256 no caminho;
+ *   nada é mantido em memória além do buffer da cópia.
+ * - publish() move o temporário para o lugar definitivo; se o conteúdo já existe, o temporário é descartado.
+ * - Arquivos derivados (variantes) ficam em root/variants e são apagados junto com o blob.
+ */
+@Component
+public class BlobStore {
+
+    /** Arquivo recebido, ainda fora do lugar definitivo. */
+    public record Received(Path tempFile, String sha256, long size) {}
+
+    private static final long CHUNK = 1 << 20;
+
+    private final Path root;
+    private final Path tmp;
+    private final long maxBytes;
+
+    public BlobStore(@Value("${app.attachments.dir:data/attachments}") String dir,
+                     @Value("${app.attachments.max-bytes:524288000}") long maxBytes) throws IOException {
+        this.root = Path.of(dir).toAbsolutePath();
+        this.tmp = root.resolve("tmp");
+        this.maxBytes = maxBytes;
+        Files.createDirectories(tmp);
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public Received receive(InputStream in) throws IOException {
+        return receive(in, maxBytes);
+    }
+
+    /** Como receive(in), com um limite próprio (ex.: fotos, bem menores que anexos). */
+    public Received receive(InputStream in, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path file = Files.createTempFile(tmp, "up-", ".part");
+        try (DigestInputStream din = new DigestInputStream(in, digest);
+             ReadableByteChannel src = Channels.newChannel(din);
+             FileChannel dst = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            long size = 0;
+            while (true) {
+                long n = dst.transferFrom(src, size, CHUNK);
+                // Channels.newChannel bloqueia até ter dados; 0 aqui significa fim do stream.
+                if (n <= 0) break;
+                size += n;
+                if (size > maxBytes) {
+                    throw new IOException("Arquivo maior que o limite de " + maxBytes + " bytes.");
+                }
+            }
+            dst.force(false);
+            return new Received(file, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * Coloca o arquivo recebido no lugar definitivo, ou descarta se o conteúdo já existir.
+     * Devolve true se o conteúdo era novo.
+     */
+    public boolean publish(Received received) throws IOException {
+        Path target = pathOf(received.sha256());
+        if (Files.exists(target)) {
+            Files.deleteIfExists(received.tempFile());
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(received.tempFile(), target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            Files.deleteIfExists(received.tempFile());
+            return false;
+        }
+    }
+
+    public void discard(Received received) {
+        try {
+            Files.deleteIfExists(received.tempFile());
+        } catch (IOException ignored) {
+        }
+    }
+
+    public Path pathOf(String sha256) {
+        if (!sha256.matches("[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Hash inválido");
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4)).resolve(sha256);
+    }
+
+    /** Arquivo derivado de um blob (ex.: miniatura), em root/variants/&lt;variant&gt;/ab/cd/&lt;sha256&gt;. */
+    public Path variantPath(String sha256, String variant) {
+        Path original = pathOf(sha256);
+        return root.resolve("variants").resolve(variant).resolve(root.relativize(original));
+    }
+
+    /** Grava um arquivo derivado via temporário + move atômico, para nunca servir um arquivo pela metade. */
+    public void writeVariant(String sha256, String variant, byte[] content) throws IOException {
+        Path target = variantPath(sha256, variant);
+        Files.createDirectories(target.getParent());
+        Path file = Files.createTempFile(tmp, "var-", ".part");
+        try {
+            Files.write(file, content);
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    public void delete(String sha256) throws IOException {
+        Files.deleteIfExists(pathOf(sha256));
+        Path variants = root.resolve("variants");
+        if (Files.isDirectory(variants)) {
+            try (var dirs = Files.newDirectoryStream(variants, Files::isDirectory)) {
+                for (Path dir : dirs) {
+                    Files.deleteIfExists(variantPath(sha256, dir.getFileName().toString()));
+                }
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
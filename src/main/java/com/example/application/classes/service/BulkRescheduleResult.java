@@ -0,0 +1,14 @@
+package com.example.application.classes.service;
+
+import java.util.List;
+
+/**
+ * Resultado de uma remarcação em lote.
+ * conflicts: atendimentos não alterados (editados por outra pessoa, excluídos ou sem horário marcado).
+ */
+public record BulkRescheduleResult(int updated, List<Long> conflicts) {
+
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+}
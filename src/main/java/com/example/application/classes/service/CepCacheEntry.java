@@ -0,0 +1,44 @@
+package com.example.application.classes.service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/** Resultado de uma consulta de CEP guardado em cache (inclusive "não encontrado"). */
+public record CepCacheEntry(String cep,
+                            boolean found,
+                            String logradouro,
+                            String complemento,
+                            String bairro,
+                            String localidade,
+                            String uf,
+                            LocalDateTime expiresAt) {
+
+    public static CepCacheEntry notFound(String cep, LocalDateTime expiresAt) {
+        return new CepCacheEntry(cep, false, null, null, null, null, null, expiresAt);
+    }
+
+    public static CepCacheEntry of(String cep, ViaCepResponse dto, LocalDateTime expiresAt) {
+        return new CepCacheEntry(cep, true, dto.getLogradouro(), dto.getComplemento(),
+                dto.getBairro(), dto.getLocalidade(), dto.getUf(), expiresAt);
+    }
+
+    public boolean isExpired(LocalDateTime now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public CepCacheEntry withExpiresAt(LocalDateTime newExpiresAt) {
+        return new CepCacheEntry(cep, found, logradouro, complemento, bairro, localidade, uf, newExpiresAt);
+    }
+
+    public Optional<ViaCepResponse> toResponse() {
+        if (!found) return Optional.empty();
+        ViaCepResponse dto = new ViaCepResponse();
+        dto.setCep(cep.replaceFirst("(\\d{5})(\\d{3})", "$1-$2"));
+        dto.setLogradouro(logradouro);
+        dto.setComplemento(complemento);
+        dto.setBairro(bairro);
+        dto.setLocalidade(localidade);
+        dto.setUf(uf);
+        return Optional.of(dto);
+    }
+}
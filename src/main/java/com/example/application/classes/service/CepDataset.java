@@ -0,0 +1,127 @@
+package com.example.application.classes.service;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Base local de CEPs, lida por mmap (o conteúdo fica no page cache, não no heap).
+ *
+ * Formato (little-endian), gerado pelo {@link CepDatasetBuilder}:
+ * <pre>
+ * header : magic "CEPD" (int), versão (int), quantidade N (int), reservado (int)
+ * índice : N entradas de 24 bytes, ordenadas por CEP:
+ *          cep (int) + offsets de logradouro, complemento, bairro, localidade, uf (5 x int)
+ * strings: pool deduplicado, cada uma como tamanho (unsigned short) + bytes UTF-8
+ * </pre>
+ * O arquivo inteiro é conferido ao abrir (ordem do índice e limites de cada string), então um arquivo
+ * truncado ou corrompido é recusado na carga e nunca falha no meio de uma consulta.
+ * A busca é binária sobre o índice; leituras usam só acessos absolutos, então a instância é segura entre threads.
+ */
+public final class CepDataset {
+
+    static final int MAGIC = 0x44504543; // "CEPD" em little-endian
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 24;
+    static final int FIELDS = 5;
+
+    private final MappedByteBuffer buffer;
+    private final int count;
+    private final int poolStart;
+
+    private CepDataset(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Arquivo não é uma base de CEP válida.");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Versão de base de CEP não suportada: " + buffer.getInt(4));
+        }
+        this.count = buffer.getInt(8);
+        long indexEnd = HEADER_BYTES + (long) count * ENTRY_BYTES;
+        if (count < 0 || indexEnd > buffer.capacity()) {
+            throw new IOException("Base de CEP truncada.");
+        }
+        this.poolStart = (int) indexEnd;
+        validate();
+    }
+
+    private void validate() throws IOException {
+        int poolSize = buffer.capacity() - poolStart;
+        int previous = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            int at = HEADER_BYTES + i * ENTRY_BYTES;
+            int cep = buffer.getInt(at);
+            if (i > 0 && cep <= previous) {
+                throw new IOException("Base de CEP corrompida: índice fora de ordem na entrada " + i + ".");
+            }
+            previous = cep;
+            for (int f = 0; f < FIELDS; f++) {
+                int offset = buffer.getInt(at + 4 + f * 4);
+                if (offset < 0 || offset > poolSize - 2
+                        || 2 + Short.toUnsignedInt(buffer.getShort(poolStart + offset)) > poolSize - offset) {
+                    throw new IOException("Base de CEP corrompida: texto fora do arquivo na entrada " + i + ".");
+                }
+            }
+        }
+    }
+
+    public static CepDataset open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("Base de CEP grande demais: " + ch.size());
+            // O mapeamento continua válido depois de fechar o canal.
+            return new CepDataset(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public Optional<ViaCepResponse> find(String digits) {
+        int cep = Integer.parseInt(digits);
+        int lo = 0;
+        int hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int at = HEADER_BYTES + mid * ENTRY_BYTES;
+            int value = buffer.getInt(at);
+            if (value < cep) {
+                lo = mid + 1;
+            } else if (value > cep) {
+                hi = mid - 1;
+            } else {
+                return Optional.of(read(digits, at));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private ViaCepResponse read(String digits, int at) {
+        ViaCepResponse dto = new ViaCepResponse();
+        dto.setCep(digits.substring(0, 5) + "-" + digits.substring(5));
+        dto.setLogradouro(string(buffer.getInt(at + 4)));
+        dto.setComplemento(string(buffer.getInt(at + 8)));
+        dto.setBairro(string(buffer.getInt(at + 12)));
+        dto.setLocalidade(string(buffer.getInt(at + 16)));
+        dto.setUf(string(buffer.getInt(at + 20)));
+        return dto;
+    }
+
+    private String string(int offset) {
+        int at = poolStart + offset;
+        int len = Short.toUnsignedInt(buffer.getShort(at));
+        if (len == 0) return "";
+        byte[] bytes = new byte[len];
+        buffer.get(at + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
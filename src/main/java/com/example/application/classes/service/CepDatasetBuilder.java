@@ -0,0 +1,104 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.CsvReader;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Converte um CSV de CEPs no arquivo binário lido pelo {@link CepDataset}.
+ *
+ * CSV com cabeçalho e colunas: cep, logradouro, complemento, bairro, localidade, uf
+ * (separador ',' ou ';', detectado pelo cabeçalho; CEP com ou sem hífen).
+ *
+ * Uso: java -cp &lt;classpath&gt; com.example.application.classes.service.CepDatasetBuilder entrada.csv saida.bin
+ *
+ * O arquivo é gravado em um temporário e depois movido por cima do destino (move atômico),
+ * para que a aplicação em execução recarregue sem nunca ver um arquivo pela metade.
+ */
+public final class CepDatasetBuilder {
+
+    private record Row(int cep, String[] fields) {}
+
+    private CepDatasetBuilder() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: CepDatasetBuilder <entrada.csv> <saida.bin>");
+            System.exit(2);
+        }
+        int written = build(Path.of(args[0]), Path.of(args[1]));
+        System.out.println("Base de CEP gerada com " + written + " CEPs em " + args[1]);
+    }
+
+    public static int build(Path csv, Path target) throws IOException {
+        char separator = detectSeparator(csv);
+
+        TreeMap<Integer, Row> rows = new TreeMap<>();
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(csv, StandardCharsets.UTF_8), separator)) {
+            reader.next(); // cabeçalho
+            String[] r;
+            while ((r = reader.next()) != null) {
+                if (r.length == 1 && r[0].isBlank()) continue;
+                if (r.length < 6) {
+                    throw new IOException("Linha " + (reader.lineNumber() - 1) + ": esperadas 6 colunas, encontradas " + r.length);
+                }
+                String digits = r[0].replaceAll("\\D", "");
+                if (digits.length() != 8) continue;
+
+                String[] fields = new String[CepDataset.FIELDS];
+                for (int i = 0; i < CepDataset.FIELDS; i++) fields[i] = r[i + 1].trim();
+                rows.put(Integer.parseInt(digits), new Row(Integer.parseInt(digits), fields));
+            }
+        }
+
+        // Pool de strings deduplicado (bairro, cidade e UF se repetem muito).
+        Map<String, Integer> offsets = new HashMap<>();
+        ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        ByteBuffer index = ByteBuffer.allocate(rows.size() * CepDataset.ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (Row row : rows.values()) {
+            index.putInt(row.cep());
+            for (String f : row.fields()) {
+                index.putInt(offsets.computeIfAbsent(f, s -> appendString(pool, s)));
+            }
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(CepDataset.HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(CepDataset.MAGIC).putInt(CepDataset.VERSION).putInt(rows.size()).putInt(0);
+
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+            out.write(header.array());
+            out.write(index.array());
+            pool.writeTo(out);
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return rows.size();
+    }
+
+    private static int appendString(ByteArrayOutputStream pool, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) throw new IllegalArgumentException("Texto longo demais na base de CEP.");
+        int offset = pool.size();
+        pool.write(bytes.length & 0xFF);
+        pool.write((bytes.length >>> 8) & 0xFF);
+        pool.writeBytes(bytes);
+        return offset;
+    }
+
+    private static char detectSeparator(Path csv) throws IOException {
+        try (BufferedReader r = Files.newBufferedReader(csv, StandardCharsets.UTF_8)) {
+            String header = Objects.requireNonNullElse(r.readLine(), "");
+            return header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.application.classes.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Mantém a base local de CEPs aberta e a recarrega quando o arquivo muda (sem reiniciar a aplicação).
+ * - Desativado quando app.cep.dataset.path está vazio.
+ * - A troca é atômica: consultas em andamento terminam na base antiga, as novas já usam a nova.
+ * - Arquivo inválido ou ausente não derruba a base atual; o erro só é registrado no log.
+ */
+@Component
+public class CepDatasetHolder {
+
+    private static final Logger log = LoggerFactory.getLogger(CepDatasetHolder.class);
+
+    private record Loaded(CepDataset dataset, FileTime modified, long size) {}
+
+    private final Path path;
+    private final AtomicReference<Loaded> current = new AtomicReference<>();
+
+    public CepDatasetHolder(MeterRegistry meterRegistry,
+                            @Value("${app.cep.dataset.path:}") String path) {
+        this.path = path == null || path.isBlank() ? null : Path.of(path);
+        Gauge.builder("app.cep.dataset.size", current, ref -> {
+                    Loaded l = ref.get();
+                    return l == null ? 0 : l.dataset().size();
+                })
+                .register(meterRegistry);
+        reloadIfChanged();
+    }
+
+    public Optional<ViaCepResponse> find(String digits) {
+        Loaded loaded = current.get();
+        return loaded == null ? Optional.empty() : loaded.dataset().find(digits);
+    }
+
+    @Scheduled(fixedDelayString = "${app.cep.dataset.reload-check-ms:60000}")
+    public void reloadIfChanged() {
+        if (path == null) return;
+        try {
+            if (!Files.isRegularFile(path)) return;
+            FileTime modified = Files.getLastModifiedTime(path);
+            long size = Files.size(path);
+
+            Loaded previous = current.get();
+            if (previous != null && previous.modified().equals(modified) && previous.size() == size) return;
+
+            CepDataset dataset = CepDataset.open(path);
+            current.set(new Loaded(dataset, modified, size));
+            log.info("Base local de CEP carregada de {} ({} CEPs)", path, dataset.size());
+        } catch (Exception e) {
+            log.warn("Falha ao carregar base local de CEP de {}: {}", path, e.getMessage());
+        }
+    }
+}
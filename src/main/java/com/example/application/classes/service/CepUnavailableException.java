@@ -0,0 +1,7 @@
+package com.example.application.classes.service;
+
+public class CepUnavailableException extends RuntimeException {
+    public CepUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.application.classes.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Circuit breaker simples e sem locks para dependências externas.
+ * - CLOSED: chamadas passam; após {@code failureThreshold} falhas seguidas, abre.
+ * - OPEN: chamadas são recusadas na hora durante {@code openDuration}.
+ * - HALF_OPEN: depois desse tempo, uma única chamada de teste passa; sucesso fecha, falha reabre.
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    /** 0 = fechado; senão, instante (nanoTime) em que o circuito abriu. */
+    private final AtomicLong openedAt = new AtomicLong();
+    private final AtomicInteger trialInFlight = new AtomicInteger();
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+    }
+
+    public boolean tryAcquire() {
+        long opened = openedAt.get();
+        if (opened == 0) return true;
+        if (System.nanoTime() - opened < openNanos) return false;
+        // meia-abertura: só uma chamada de teste por vez
+        return trialInFlight.compareAndSet(0, 1);
+    }
+
+    public void onSuccess() {
+        consecutiveFailures.set(0);
+        openedAt.set(0);
+        trialInFlight.set(0);
+    }
+
+    public void onFailure() {
+        if (openedAt.get() != 0) {
+            // Só a falha da chamada de teste reabre. Chamadas que já estavam em andamento quando o
+            // circuito abriu são ignoradas, senão cada uma empurraria o fim do período aberto.
+            if (trialInFlight.compareAndSet(1, 0)) {
+                openedAt.set(System.nanoTime());
+            }
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAt.compareAndSet(0, System.nanoTime());
+        }
+    }
+
+    public State state() {
+        long opened = openedAt.get();
+        if (opened == 0) return State.CLOSED;
+        return System.nanoTime() - opened < openNanos ? State.OPEN : State.HALF_OPEN;
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.application.classes.service;
 
+import com.example.application.classes.DocumentType;
 import com.example.application.classes.model.Client;
 import com.example.application.classes.repository.ClientRepository;
 import com.example.application.config.ServiceGuard;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,13 +15,21 @@ import java.util.Optional;
 @Service
 public class ClientService {
 
+    private static final String SNAPSHOT_KEY = "clients";
+
     private final ClientRepository clientRepository;
     private final ServiceGuard serviceGuard;
+    private final CompanyDataVersionService dataVersionService;
+    private final ObjectFactory<CompanyDataSnapshotHolder> snapshotFactory;
 
     public ClientService(ClientRepository clientRepository,
-                         ServiceGuard serviceGuard) {
+                         ServiceGuard serviceGuard,
+                         CompanyDataVersionService dataVersionService,
+                         ObjectFactory<CompanyDataSnapshotHolder> snapshotFactory) {
         this.clientRepository = clientRepository;
         this.serviceGuard = serviceGuard;
+        this.dataVersionService = dataVersionService;
+        this.snapshotFactory = snapshotFactory;
     }
 
     @Transactional
@@ -52,9 +62,21 @@ public class ClientService {
         return clientRepository.findById(serviceGuard.requireCompanyId(), id);
     }
 
+    /**
+     * Lista os clientes da empresa selecionada, reaproveitando a última
+     * listagem da sessão enquanto o carimbo de versão de clientes não mudar.
+     */
     @Transactional(readOnly = true)
     public List<Client> listAllForCompany() throws SQLException {
-        return clientRepository.listByCompany(serviceGuard.requireCompanyId());
+        long companyId = serviceGuard.requireCompanyId();
+        long version = dataVersionService.forCompany(companyId).clientVersion();
+
+        CompanyDataSnapshotHolder snapshots = snapshotFactory.getObject();
+        Optional<List<Client>> cached = snapshots.get(SNAPSHOT_KEY, companyId, version);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return snapshots.put(SNAPSHOT_KEY, companyId, version, clientRepository.listByCompany(companyId));
     }
 
     @Transactional
@@ -67,4 +89,49 @@ public class ClientService {
 
     private void validate(Client c) throws SQLException {
     }
+
+    /**
+     * Regras de campos para clientes vindos da importação de dados legados.
+     * O cadastro pela tela não passa por aqui, para não mudar o comportamento dele.
+     */
+    static void validateImported(Client c) {
+        c.setName(trim(c.getName()));
+        if (c.getName().isEmpty()) {
+            throw new ClientValidationException("Nome do cliente é obrigatório.");
+        }
+        requireMax(c.getName(), 200, "Nome");
+        requireMax(c.getEmail(), 320, "Email");
+        requireMax(c.getPhone(), 32, "Telefone");
+        requireMax(c.getDocument(), 50, "Documento");
+        requireMax(c.getCep(), 20, "CEP");
+        requireMax(c.getUf(), 2, "UF");
+        requireMax(c.getCity(), 100, "Cidade");
+        requireMax(c.getDistrict(), 100, "Bairro");
+        requireMax(c.getStreet(), 150, "Logradouro");
+        requireMax(c.getNumber(), 20, "Número");
+        requireMax(c.getComplement(), 150, "Complemento");
+
+        if (c.getEmail() != null && !c.getEmail().isBlank() && !c.getEmail().matches("[^@\\s]+@[^@\\s]+")) {
+            throw new ClientValidationException("Email inválido.");
+        }
+        if (c.getDocument() != null && !c.getDocument().isBlank()) {
+            try {
+                if (DocumentType.fromString(c.getDocType()) == null) {
+                    throw new IllegalArgumentException();
+                }
+            } catch (IllegalArgumentException e) {
+                throw new ClientValidationException("Informe o tipo do documento (CPF, CNPJ ou PASSPORT).");
+            }
+        }
+    }
+
+    private static void requireMax(String value, int max, String field) {
+        if (value != null && value.length() > max) {
+            throw new ClientValidationException(field + " excede " + max + " caracteres.");
+        }
+    }
+
+    private static String trim(String s) {
+        return s == null ? "" : s.trim();
+    }
 }
\ No newline at end of file
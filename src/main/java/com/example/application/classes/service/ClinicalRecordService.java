@@ -0,0 +1,271 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.ClinicalRecordPdf;
+import com.example.application.classes.model.Client;
+import com.example.application.classes.model.Company;
+import com.example.application.classes.model.Pet;
+import com.example.application.classes.repository.AttendanceRepository;
+import com.example.application.classes.repository.ClientRepository;
+import com.example.application.classes.repository.CompanyRepository;
+import com.example.application.classes.repository.PetRepository;
+import com.example.application.config.ServiceGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Prontuário do pet em PDF (dados do tutor e do pet + histórico de atendimentos).
+ * - prepare*() validam sessão e empresa (precisam do lock da sessão); a geração não depende da sessão.
+ * - Os atendimentos vêm por cursor no servidor e vão direto para o PDF, página a página.
+ * - Um prontuário roda no BatchExecutor. Em lote (ZIP), até "parallelism" prontuários são gerados
+ *   ao mesmo tempo no pool, em arquivos temporários, e entram no ZIP na ordem; se o pool estiver cheio,
+ *   o prontuário é gerado na própria thread do download.
+ * Métricas: app.clinical-record (latência) e app.clinical-record.attendances.
+ */
+@Service
+public class ClinicalRecordService {
+
+    /** Prontuário já autorizado; carrega só os ids necessários para rodar fora da sessão. */
+    public record PreparedRecord(long userId, long companyId, long petId, String fileName) {}
+
+    /** Lote já autorizado (todos os pets da empresa). */
+    public record PreparedBatch(long userId, long companyId, List<PreparedRecord> records) {
+        public String fileName() {
+            return "prontuarios-" + LocalDate.now() + ".zip";
+        }
+    }
+
+    private final PetRepository petRepository;
+    private final ClientRepository clientRepository;
+    private final CompanyRepository companyRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final ServiceGuard serviceGuard;
+    private final MembershipCache membershipCache;
+    private final BatchExecutor batchExecutor;
+    private final PlatformTransactionManager transactionManager;
+    private final Timer timer;
+    private final Counter attendances;
+    private final int fetchSize;
+    private final int parallelism;
+
+    public ClinicalRecordService(PetRepository petRepository,
+                                 ClientRepository clientRepository,
+                                 CompanyRepository companyRepository,
+                                 AttendanceRepository attendanceRepository,
+                                 ServiceGuard serviceGuard,
+                                 MembershipCache membershipCache,
+                                 BatchExecutor batchExecutor,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.export.fetch-size:500}") int fetchSize,
+                                 @Value("${app.clinical-record.parallelism:2}") int parallelism) {
+        this.petRepository = petRepository;
+        this.clientRepository = clientRepository;
+        this.companyRepository = companyRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.serviceGuard = serviceGuard;
+        this.membershipCache = membershipCache;
+        this.batchExecutor = batchExecutor;
+        this.transactionManager = transactionManager;
+        this.timer = Timer.builder("app.clinical-record")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.attendances = Counter.builder("app.clinical-record.attendances").register(meterRegistry);
+        this.fetchSize = fetchSize;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public PreparedRecord prepare(long petId) throws SQLException {
+        long userId = serviceGuard.requireUserId();
+        long companyId = serviceGuard.requireCompanyId();
+        Pet pet = petRepository.findById(companyId, petId)
+                .orElseThrow(() -> new SecurityException("Pet não encontrado na empresa selecionada."));
+        return record(userId, companyId, pet);
+    }
+
+    public PreparedBatch prepareAll() throws SQLException {
+        serviceGuard.requireAdmin();
+        long userId = serviceGuard.requireUserId();
+        long companyId = serviceGuard.requireCompanyId();
+        List<PreparedRecord> records = petRepository.listByCompany(companyId).stream()
+                .map(p -> record(userId, companyId, p))
+                .toList();
+        return new PreparedBatch(userId, companyId, records);
+    }
+
+    /** Escreve o PDF em out, esperando a vez no pool de lotes. Não fecha out. */
+    public void write(PreparedRecord record, OutputStream out) throws Exception {
+        batchExecutor.run(() -> {
+            requireMember(record.userId(), record.companyId());
+            return generate(record, out);
+        });
+    }
+
+    /** Escreve um ZIP com o prontuário de cada pet do lote. Não fecha out. */
+    public void writeZip(PreparedBatch batch, OutputStream out) throws Exception {
+        requireMember(batch.userId(), batch.companyId());
+
+        ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        zip.setLevel(Deflater.BEST_SPEED); // PDF já vem comprimido
+        ArrayDeque<Pending> window = new ArrayDeque<>();
+        Iterator<PreparedRecord> pending = batch.records().iterator();
+        try {
+            while (pending.hasNext() || !window.isEmpty()) {
+                while (window.size() < parallelism && pending.hasNext()) {
+                    window.add(start(pending.next()));
+                }
+                Pending head = window.poll();
+                head.await();
+                zip.putNextEntry(new ZipEntry(head.record.fileName()));
+                Files.copy(head.file, zip);
+                zip.closeEntry();
+                Files.deleteIfExists(head.file);
+            }
+            zip.finish();
+            zip.flush();
+        } finally {
+            for (Pending p : window) {
+                p.future.cancel(true);
+                Files.deleteIfExists(p.file);
+            }
+        }
+    }
+
+    private Pending start(PreparedRecord record) throws IOException {
+        Path file = Files.createTempFile("prontuario-", ".pdf");
+        CompletableFuture<Long> future = batchExecutor.submit(() -> generateTo(record, file));
+        return new Pending(record, file, future);
+    }
+
+    private final class Pending {
+        final PreparedRecord record;
+        final Path file;
+        final CompletableFuture<Long> future;
+
+        Pending(PreparedRecord record, Path file, CompletableFuture<Long> future) {
+            this.record = record;
+            this.file = file;
+            this.future = future;
+        }
+
+        void await() throws Exception {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // Pool cheio: gera aqui mesmo em vez de falhar o lote inteiro.
+                if (e.getCause() instanceof BatchBusyException) {
+                    generateTo(record, file);
+                    return;
+                }
+                if (e.getCause() instanceof Exception ex) throw ex;
+                throw e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+        }
+    }
+
+    private long generateTo(PreparedRecord record, Path file) throws Exception {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 64 * 1024)) {
+            return generate(record, out);
+        }
+    }
+
+    private long generate(PreparedRecord record, OutputStream out) throws Exception {
+        return timer.recordCallable(() -> {
+            DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+            definition.setReadOnly(true);
+            TransactionStatus tx = transactionManager.getTransaction(definition);
+            try {
+                long count = writePdf(record, out);
+                transactionManager.commit(tx);
+                attendances.increment(count);
+                return count;
+            } finally {
+                if (!tx.isCompleted()) transactionManager.rollback(tx);
+            }
+        });
+    }
+
+    private long writePdf(PreparedRecord record, OutputStream out) throws SQLException, IOException {
+        Pet pet = petRepository.findById(record.companyId(), record.petId())
+                .orElseThrow(() -> new SecurityException("Pet não encontrado na empresa selecionada."));
+        Client client = clientRepository.findById(record.companyId(), pet.getClientId()).orElse(null);
+        String companyName = companyRepository.findById(record.companyId()).map(Company::getName).orElse("");
+
+        try (ClinicalRecordPdf pdf = new ClinicalRecordPdf(out, companyName, "Prontuário de " + pet.getName())) {
+            pdf.field("Pet", pet.getName());
+            pdf.field("Espécie", pet.getSpecies());
+            pdf.field("Raça", pet.getBreed());
+            pdf.field("Nascimento", pet.getBirthDate());
+            pdf.field("Observações", pet.getNotes());
+            if (client != null) {
+                pdf.field("Tutor", client.getName());
+                pdf.field("Documento", client.getDocument());
+                pdf.field("Telefone", client.getPhone());
+                pdf.field("Email", client.getEmail());
+                pdf.field("Cidade", join(client.getCity(), client.getUf()));
+            }
+
+            attendanceRepository.streamByAnimal(record.companyId(), record.petId(), fetchSize,
+                    row -> pdf.attendance(
+                            (Long) row[0],
+                            (LocalDateTime) row[1],
+                            (LocalDateTime) row[2],
+                            (String) row[3],
+                            (String) row[4]));
+            return pdf.attendances();
+        }
+    }
+
+    private void requireMember(long userId, long companyId) throws SQLException {
+        // O vínculo pode ter sido revogado entre o clique e a vez no pool.
+        if (!membershipCache.isMember(userId, companyId)) {
+            throw new SecurityException("Usuário não pertence mais à empresa selecionada.");
+        }
+    }
+
+    private static PreparedRecord record(long userId, long companyId, Pet pet) {
+        return new PreparedRecord(userId, companyId, pet.getId(),
+                "prontuario-" + slug(pet.getName()) + "-" + pet.getId() + ".pdf");
+    }
+
+    private static String slug(String name) {
+        String ascii = Normalizer.normalize(name == null ? "" : name, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase()
+                .replaceAll("[^a-z0-9]+", "-")
+                .replaceAll("(^-|-$)", "");
+        return ascii.isEmpty() ? "pet" : ascii;
+    }
+
+    private static String join(String city, String uf) {
+        if (city == null || city.isBlank()) return uf;
+        if (uf == null || uf.isBlank()) return city;
+        return city + "/" + uf;
+    }
+}
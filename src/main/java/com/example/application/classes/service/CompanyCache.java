@@ -0,0 +1,93 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.model.Company;
+import com.example.application.classes.repository.CompanyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache compartilhado (entre sessões) de empresas ativas.
+ * - Limitado por tamanho e com expiração curta, que também limita a defasagem entre réplicas.
+ * - Escritas só substituem a entrada se a versão for maior ou igual à já guardada.
+ * - Entregamos sempre cópias, pois Company é mutável e as telas editam a instância recebida.
+ * Tamanho e acertos/erros são exportados como métricas "cache.*" com cache=company.
+ */
+@Component
+public class CompanyCache {
+
+    private final CompanyRepository companyRepository;
+    private final Cache<Long, Company> cache;
+
+    public CompanyCache(CompanyRepository companyRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.cache.company.max-size:1000}") long maxSize,
+                        @Value("${app.cache.company.ttl-seconds:60}") long ttlSeconds) {
+        this.companyRepository = companyRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "company");
+    }
+
+    public Optional<Company> findById(long id) throws SQLException {
+        Company cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+
+        Optional<Company> loaded = companyRepository.findById(id);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    /** Guarda a empresa, ignorando versões mais antigas que a já presente. */
+    public void put(Company company) {
+        if (company == null || company.getId() <= 0) return;
+        cache.asMap().merge(company.getId(), copyOf(company),
+                (current, candidate) -> candidate.getVersion() >= current.getVersion() ? candidate : current);
+    }
+
+    /**
+     * Remove a empresa agora e novamente após o commit, para que uma leitura
+     * concorrente feita antes do commit não deixe a versão antiga no cache.
+     */
+    public void invalidate(long companyId) {
+        cache.invalidate(companyId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(companyId);
+                }
+            });
+        }
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static Company copyOf(Company c) {
+        return new Company()
+                .setId(c.getId())
+                .setVersion(c.getVersion())
+                .setCreationDate(c.getCreationDate())
+                .setUpdateDate(c.getUpdateDate())
+                .setDeletedAt(c.getDeletedAt())
+                .setName(c.getName())
+                .setDocumentType(c.getDocumentType())
+                .setDocument(c.getDocument());
+    }
+}
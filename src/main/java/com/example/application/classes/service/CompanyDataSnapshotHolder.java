@@ -0,0 +1,42 @@
+package com.example.application.classes.service;
+
+import com.vaadin.flow.spring.annotation.VaadinSessionScope;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Última listagem carregada por sessão, marcada com a empresa e o carimbo
+ * de versão vigentes na leitura. Só é reaproveitada enquanto o carimbo não mudar.
+ */
+@Component
+@VaadinSessionScope
+public class CompanyDataSnapshotHolder {
+
+    private record Snapshot(long companyId, long version, List<?> items) {
+    }
+
+    private final Map<String, Snapshot> snapshots = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    public synchronized <T> Optional<List<T>> get(String key, long companyId, long version) {
+        Snapshot s = snapshots.get(key);
+        if (s == null || s.companyId() != companyId || s.version() != version) {
+            return Optional.empty();
+        }
+        return Optional.of((List<T>) s.items());
+    }
+
+    public synchronized <T> List<T> put(String key, long companyId, long version, List<T> items) {
+        List<T> copy = List.copyOf(items);
+        snapshots.put(key, new Snapshot(companyId, version, copy));
+        return copy;
+    }
+
+    public synchronized void clear() {
+        snapshots.clear();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.application.classes.service;
+
+public record CompanyDataVersion(
+        long companyId,
+        long clientVersion,
+        long petVersion,
+        long attendanceVersion
+) {
+    public static CompanyDataVersion initial(long companyId) {
+        return new CompanyDataVersion(companyId, 0L, 0L, 0L);
+    }
+}
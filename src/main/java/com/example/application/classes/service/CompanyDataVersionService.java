@@ -0,0 +1,28 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.CompanyDataVersionRepository;
+import com.example.application.config.ServiceGuard;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+
+@Service
+public class CompanyDataVersionService {
+
+    private final CompanyDataVersionRepository repository;
+    private final ServiceGuard serviceGuard;
+
+    public CompanyDataVersionService(CompanyDataVersionRepository repository,
+                                     ServiceGuard serviceGuard) {
+        this.repository = repository;
+        this.serviceGuard = serviceGuard;
+    }
+
+    public CompanyDataVersion currentForCompany() throws SQLException {
+        return repository.findByCompany(serviceGuard.requireCompanyId());
+    }
+
+    public CompanyDataVersion forCompany(long companyId) throws SQLException {
+        return repository.findByCompany(companyId);
+    }
+}
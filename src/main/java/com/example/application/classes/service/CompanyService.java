@@ -16,13 +16,19 @@ import java.util.Optional;
 public class CompanyService {
 
     private final CompanyRepository companyRepository;
+    private final CompanyCache companyCache;
+    private final MembershipCache membershipCache;
     private final UserCompanyService userCompanyService;
     private final ServiceGuard serviceGuard;
 
     public CompanyService(CompanyRepository companyRepository,
+                          CompanyCache companyCache,
+                          MembershipCache membershipCache,
                           UserCompanyService userCompanyService,
                           ServiceGuard serviceGuard) {
         this.companyRepository = companyRepository;
+        this.companyCache = companyCache;
+        this.membershipCache = membershipCache;
         this.userCompanyService = userCompanyService;
         this.serviceGuard = serviceGuard;
     }
@@ -64,7 +70,7 @@ public class CompanyService {
     @Transactional(readOnly = true)
     public Optional<Company> findById(long id) throws SQLException {
         serviceGuard.requireUserId();
-        return companyRepository.findById(id);
+        return companyCache.findById(id);
     }
 
     @Transactional(readOnly = true)
@@ -100,8 +106,12 @@ public class CompanyService {
         try {
             boolean ok = companyRepository.updateBasics(company);
             if (!ok) {
+                companyCache.invalidate(company.getId());
                 throw new SQLException("Empresa não encontrada, removida, ou conflito de versão.");
             }
+            companyCache.invalidate(company.getId());
+            companyCache.put(company);
+            membershipCache.invalidateCompany(company.getId());
         } catch (SQLException ex) {
             if ("23505".equals(ex.getSQLState())
                     || String.valueOf(ex.getMessage()).toLowerCase().contains("unique")) {
@@ -121,16 +131,18 @@ public class CompanyService {
         serviceGuard.requireAdminOfCompany(id);
 
         boolean ok = companyRepository.softDeleteById(id);
+        companyCache.invalidate(id);
+        membershipCache.invalidateCompany(id);
         if (!ok) {
             throw new SQLException("Nenhuma empresa ativa encontrada para remover. ID=" + id);
         }
     }
 
-    private static String normalizeName(String name) {
+    static String normalizeName(String name) {
         return name == null ? null : name.trim();
     }
 
-    private static String normalizeDocument(DocumentType documentType, String document) {
+    static String normalizeDocument(DocumentType documentType, String document) {
         if (document == null) return null;
         String doc = document.trim();
         if (documentType == DocumentType.CPF || documentType == DocumentType.CNPJ) {
@@ -142,7 +154,7 @@ public class CompanyService {
         return doc;
     }
 
-    private static void validateCompanyInput(String name, DocumentType documentType, String document) {
+    static void validateCompanyInput(String name, DocumentType documentType, String document) {
         if (name == null || name.isBlank()) {
             throw new IllegalArgumentException("Nome da empresa é obrigatório.");
         }
@@ -0,0 +1,9 @@
+package com.example.application.classes.service;
+
+import java.util.List;
+
+/**
+ * Agenda de todas as empresas do usuário, em ordem de horário.
+ * failedCompanies: empresas cuja agenda não pôde ser lida (erro ou tempo esgotado); as demais vêm normalmente.
+ */
+public record ConsolidatedAgenda(List<ConsolidatedAgendaRow> rows, List<String> failedCompanies) {}
@@ -0,0 +1,11 @@
+package com.example.application.classes.service;
+
+import java.time.LocalDateTime;
+
+/** Linha da agenda consolidada: a linha da agenda de uma empresa mais a empresa de origem. */
+public record ConsolidatedAgendaRow(long companyId, String companyName, AgendaRow row) {
+
+    public LocalDateTime mainDateTime() {
+        return row.mainDateTime();
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.SortedMerge;
+import com.example.application.classes.repository.AgendaRepository;
+import com.example.application.config.ServiceGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Agenda de todas as empresas a que o usuário pertence, sem trocar a empresa selecionada.
+ * - Uma consulta de janela por empresa (a mesma da agenda normal), em virtual threads; no máximo
+ *   app.agenda.consolidated.parallelism ao mesmo tempo por chamada, para não tomar o pool de conexões.
+ * - O vínculo é conferido de novo em cada empresa antes de ler a agenda dela.
+ * - Cada agenda já vem em ordem; o resultado é a junção ordenada (k-way merge).
+ * - Empresa que falha ou passa de app.agenda.consolidated.timeout-ms fica de fora e é informada.
+ *   Cada consulta leva um query timeout até o prazo: a que estourou é cancelada no banco e a conexão
+ *   volta ao pool (interromper a thread não faz isso).
+ * Métricas: app.agenda.consolidated (latência) e app.agenda.consolidated.failures.
+ */
+@Service
+public class ConsolidatedAgendaService {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsolidatedAgendaService.class);
+
+    private static final Comparator<ConsolidatedAgendaRow> BY_TIME =
+            Comparator.comparing(ConsolidatedAgendaRow::mainDateTime);
+
+    private final AgendaRepository agendaRepository;
+    private final MembershipCache membershipCache;
+    private final ServiceGuard serviceGuard;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final int parallelism;
+    private final Duration timeout;
+    private final Timer timer;
+    private final Counter failures;
+
+    public ConsolidatedAgendaService(AgendaRepository agendaRepository,
+                                     MembershipCache membershipCache,
+                                     ServiceGuard serviceGuard,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.agenda.consolidated.parallelism:4}") int parallelism,
+                                     @Value("${app.agenda.consolidated.timeout-ms:10000}") long timeoutMs) {
+        this.agendaRepository = agendaRepository;
+        this.membershipCache = membershipCache;
+        this.serviceGuard = serviceGuard;
+        this.parallelism = Math.max(1, parallelism);
+        this.timeout = Duration.ofMillis(Math.max(1, timeoutMs));
+        this.timer = Timer.builder("app.agenda.consolidated")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.failures = Counter.builder("app.agenda.consolidated.failures")
+                .register(meterRegistry);
+    }
+
+    /** Atendimentos e ocorrências de séries em [from, to) de todas as empresas do usuário. */
+    public ConsolidatedAgenda listAllCompanies(LocalDateTime from, LocalDateTime to) throws SQLException {
+        long userId = serviceGuard.requireUserId();
+        AgendaService.validateWindow(from, to);
+        List<CompanyChoice> companies = membershipCache.choicesFor(userId);
+
+        long start = System.nanoTime();
+        try {
+            return fanOut(userId, companies, from, to);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private ConsolidatedAgenda fanOut(long userId, List<CompanyChoice> companies,
+                                      LocalDateTime from, LocalDateTime to) {
+        Semaphore permits = new Semaphore(parallelism);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        List<Future<List<ConsolidatedAgendaRow>>> futures = new ArrayList<>(companies.size());
+        for (CompanyChoice company : companies) {
+            futures.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    return listCompany(userId, company, from, to, queryTimeoutSeconds(deadline));
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        List<List<ConsolidatedAgendaRow>> sources = new ArrayList<>(companies.size());
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            Future<List<ConsolidatedAgendaRow>> future = futures.get(i);
+            CompanyChoice company = companies.get(i);
+            try {
+                sources.add(future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                failed.add(company.name);
+                failures.increment();
+                log.warn("Agenda consolidada: tempo esgotado na empresa {}", company.id);
+            } catch (ExecutionException e) {
+                failed.add(company.name);
+                failures.increment();
+                log.warn("Agenda consolidada: falha ao ler a empresa {}", company.id, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new IllegalStateException("Consulta da agenda interrompida.", e);
+            }
+        }
+
+        return new ConsolidatedAgenda(SortedMerge.merge(sources, BY_TIME), failed);
+    }
+
+    /**
+     * O que falta até o prazo, arredondado para cima (setQueryTimeout é em segundos).
+     * Prazo já vencido enquanto esperava vaga: desiste sem abrir conexão.
+     */
+    static int queryTimeoutSeconds(long deadline) throws TimeoutException {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) throw new TimeoutException("Prazo da agenda consolidada esgotado.");
+        return (int) Math.min(Integer.MAX_VALUE, (remaining + 999_999_999L) / 1_000_000_000L);
+    }
+
+    private List<ConsolidatedAgendaRow> listCompany(long userId, CompanyChoice company, LocalDateTime from,
+                                                    LocalDateTime to, int queryTimeoutSeconds) throws SQLException {
+        // A lista de empresas pode vir do cache; o vínculo com cada uma é conferido aqui.
+        if (!membershipCache.isMember(userId, company.id)) {
+            return List.of();
+        }
+        return agendaRepository.listWindow(company.id, from, to, queryTimeoutSeconds).stream()
+                .map(row -> new ConsolidatedAgendaRow(company.id, company.name, row))
+                .toList();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.application.classes.service;
 
-import com.example.application.classes.repository.CompanyRepository;
 import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,14 +10,14 @@ import java.util.List;
 @Service
 public class CurrentCompanyService {
 
-    private final CompanyRepository companyRepository;
+    private final CompanyCache companyCache;
     private final UserCompanyService userCompanyService;
     private final ObjectFactory<CurrentCompanyHolder> holderFactory;
 
-    public CurrentCompanyService(CompanyRepository companyRepository,
+    public CurrentCompanyService(CompanyCache companyCache,
                                  UserCompanyService userCompanyService,
                                  ObjectFactory<CurrentCompanyHolder> holderFactory) {
-        this.companyRepository = companyRepository;
+        this.companyCache = companyCache;
         this.userCompanyService = userCompanyService;
         this.holderFactory = holderFactory;
     }
@@ -57,12 +56,17 @@ public class CurrentCompanyService {
             throw new IllegalStateException("Usuário não possui vínculo ativo com esta empresa.");
         }
 
-        var company = companyRepository.findById(companyId)
+        var company = companyCache.findById(companyId)
                 .orElseThrow(() -> new IllegalStateException("Empresa não encontrada: id=" + companyId));
 
         holder().set(company.getId(), company.getName(), linkOpt.get().isAdmin());
     }
 
+    /** Seleciona a empresa a partir de uma escolha já carregada (ex.: no login), sem ir ao banco. */
+    public void selectFromChoice(CompanyChoice choice) {
+        holder().set(choice.id, choice.name, choice.admin);
+    }
+
     @Transactional(readOnly = true)
     public boolean ensureAutoSelectionIfSingle(long userId) throws SQLException {
         if (holder().isSelected()) return false;
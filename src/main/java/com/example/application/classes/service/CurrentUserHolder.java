@@ -9,6 +9,7 @@ public class CurrentUserHolder {
 
     private Long userId;
     private String email;
+    private String name;
 
     public boolean isLoggedIn() {
         return userId != null && userId > 0;
@@ -22,7 +23,15 @@ public class CurrentUserHolder {
         return email;
     }
 
-    public void set(Long userId, String email) {
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void set(Long userId, String email, String name) {
         if (userId == null || userId <= 0) {
             throw new IllegalArgumentException("userId inválido para sessão.");
         }
@@ -31,10 +40,12 @@ public class CurrentUserHolder {
         }
         this.userId = userId;
         this.email = email.trim();
+        this.name = name;
     }
 
     public void clear() {
         this.userId = null;
         this.email = null;
+        this.name = null;
     }
 }
\ No newline at end of file
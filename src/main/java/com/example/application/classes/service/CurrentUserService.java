@@ -54,14 +54,25 @@ public class CurrentUserService {
         return holder().isLoggedIn() ? Optional.ofNullable(holder().getEmail()) : Optional.empty();
     }
 
-    public void onLogin(long userId, String email) {
+    public Optional<String> nameOrEmpty() {
+        return holder().isLoggedIn() ? Optional.ofNullable(holder().getName()) : Optional.empty();
+    }
+
+    public void onLogin(long userId, String email, String name) {
         if (userId <= 0) {
             throw new IllegalArgumentException("userId inválido.");
         }
         if (email == null || email.isBlank()) {
             throw new IllegalArgumentException("email é obrigatório.");
         }
-        holder().set(userId, email.trim());
+        holder().set(userId, email.trim(), name);
+    }
+
+    /** Atualiza o nome exibido quando o próprio usuário logado é editado. */
+    public void refreshName(long userId, String name) {
+        if (holder().isLoggedIn() && holder().getUserId() == userId) {
+            holder().setName(name);
+        }
     }
 
     public void logout() {
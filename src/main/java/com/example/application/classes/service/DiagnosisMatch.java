@@ -0,0 +1,14 @@
+package com.example.application.classes.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record DiagnosisMatch(
+        long attendanceId,
+        LocalDateTime happenedAt,
+        long petId,
+        String petName,
+        String clientName,
+        List<String> diagnoses
+) {
+}
@@ -0,0 +1,136 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.CsvTabularWriter;
+import com.example.application.classes.TabularWriter;
+import com.example.application.classes.XlsxTabularWriter;
+import com.example.application.classes.repository.ExportRepository;
+import com.example.application.config.ServiceGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Exportação de clientes, pets e atendimentos da empresa em CSV ou XLSX.
+ * - prepare() valida sessão e empresa (precisa do lock da sessão); write() não depende da sessão.
+ * - As linhas vêm de um cursor no servidor dentro de uma transação somente leitura e vão direto
+ *   para o stream de saída: a memória usada não depende do tamanho da empresa.
+ * - O trabalho roda no BatchExecutor, que limita quantas exportações (e conexões) correm ao mesmo tempo.
+ * Métricas: app.export (latência, tags dataset/format) e app.export.rows.
+ */
+@Service
+public class ExportService {
+
+    public enum Dataset {
+        CLIENTS("clientes", "Clientes",
+                "ID", "Nome", "Tipo doc.", "Documento", "Email", "Telefone",
+                "CEP", "Logradouro", "Número", "Complemento", "Bairro", "Cidade", "UF", "Cadastro"),
+        PETS("pets", "Pets",
+                "ID", "Nome", "Espécie", "Raça", "Nascimento", "ID tutor", "Tutor", "Cadastro"),
+        ATTENDANCES("atendimentos", "Atendimentos",
+                "ID", "Agendado para", "Realizado em", "Pet", "Espécie", "Tutor", "Descrição");
+
+        final String fileBase;
+        final String sheetName;
+        final String[] headers;
+
+        Dataset(String fileBase, String sheetName, String... headers) {
+            this.fileBase = fileBase;
+            this.sheetName = sheetName;
+            this.headers = headers;
+        }
+    }
+
+    /** Exportação já autorizada; carrega só os ids necessários para rodar fora da sessão. */
+    public record PreparedExport(Dataset dataset, ExportFormat format, long userId, long companyId) {
+        public String fileName() {
+            return dataset.fileBase + "-" + LocalDate.now() + "." + format.extension;
+        }
+
+        public String contentType() {
+            return format.contentType;
+        }
+    }
+
+    private final ExportRepository exportRepository;
+    private final ServiceGuard serviceGuard;
+    private final MembershipCache membershipCache;
+    private final BatchExecutor batchExecutor;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final Counter rows;
+    private final int fetchSize;
+
+    public ExportService(ExportRepository exportRepository,
+                         ServiceGuard serviceGuard,
+                         MembershipCache membershipCache,
+                         BatchExecutor batchExecutor,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.exportRepository = exportRepository;
+        this.serviceGuard = serviceGuard;
+        this.membershipCache = membershipCache;
+        this.batchExecutor = batchExecutor;
+        this.transactionManager = transactionManager;
+        this.meterRegistry = meterRegistry;
+        this.rows = Counter.builder("app.export.rows").register(meterRegistry);
+        this.fetchSize = fetchSize;
+    }
+
+    public PreparedExport prepare(Dataset dataset, ExportFormat format) {
+        long userId = serviceGuard.requireUserId();
+        long companyId = serviceGuard.requireCompanyId();
+        return new PreparedExport(dataset, format, userId, companyId);
+    }
+
+    /** Escreve a exportação em out, esperando a vez no pool de lotes. Não fecha out. */
+    public void write(PreparedExport export, OutputStream out) throws Exception {
+        Timer timer = Timer.builder("app.export")
+                .tag("dataset", export.dataset().name().toLowerCase())
+                .tag("format", export.format().extension)
+                .register(meterRegistry);
+
+        batchExecutor.run(() -> {
+            // O vínculo pode ter sido revogado entre o clique e a vez no pool.
+            if (!membershipCache.isMember(export.userId(), export.companyId())) {
+                throw new SecurityException("Usuário não pertence mais à empresa selecionada.");
+            }
+            return timer.recordCallable(() -> stream(export, out));
+        });
+    }
+
+    private long stream(PreparedExport export, OutputStream out) throws Exception {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        TransactionStatus tx = transactionManager.getTransaction(definition);
+        try (TabularWriter writer = open(export, out)) {
+            writer.header(export.dataset().headers);
+            long count = switch (export.dataset()) {
+                case CLIENTS -> exportRepository.streamClients(export.companyId(), fetchSize, writer::row);
+                case PETS -> exportRepository.streamPets(export.companyId(), fetchSize, writer::row);
+                case ATTENDANCES -> exportRepository.streamAttendances(export.companyId(), fetchSize, writer::row);
+            };
+            transactionManager.commit(tx);
+            rows.increment(count);
+            return count;
+        } finally {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+        }
+    }
+
+    private static TabularWriter open(PreparedExport export, OutputStream out) throws IOException {
+        return switch (export.format()) {
+            case CSV -> new CsvTabularWriter(out);
+            case XLSX -> new XlsxTabularWriter(out, export.dataset().sheetName);
+        };
+    }
+}
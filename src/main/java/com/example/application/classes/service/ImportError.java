@@ -0,0 +1,3 @@
+package com.example.application.classes.service;
+
+public record ImportError(long lineNo, String message) {}
@@ -0,0 +1,52 @@
+package com.example.application.classes.service;
+
+import java.util.List;
+
+/**
+ * Tipos de importação. Cada um conhece o layout do CSV (cabeçalhos aceitos),
+ * a tabela de staging e as colunas que vão para a tabela real.
+ */
+public enum ImportKind {
+
+    CLIENT("Clientes", "client", "import_client_stage", true,
+            List.of("codigo", "nome", "email", "telefone", "tipo_documento", "documento",
+                    "cep", "uf", "cidade", "bairro", "logradouro", "numero", "complemento", "observacoes"),
+            List.of("name", "email", "phone", "doc_type", "document",
+                    "cep", "uf", "city", "district", "street", "number", "complement", "notes"),
+            List.of("name", "email", "phone", "doc_type", "document",
+                    "cep", "uf", "city", "district", "street", "number", "complement", "notes")),
+
+    PET("Pets", "pet", "import_pet_stage", true,
+            List.of("codigo", "codigo_tutor", "nome", "especie", "raca", "nascimento", "observacoes"),
+            List.of("client_key", "name", "species", "breed", "birth_date", "notes"),
+            List.of("client_id", "name", "species", "breed", "birth_date", "notes")),
+
+    ATTENDANCE("Atendimentos", "attendance", "import_attendance_stage", false,
+            List.of("codigo", "codigo_pet", "data", "descricao"),
+            List.of("pet_key", "appointment_at", "description"),
+            List.of("animal_id", "appointment_at", "description"));
+
+    public final String label;
+    /** Tabela real de destino. */
+    public final String targetTable;
+    public final String stageTable;
+    /** Destino tem company_id próprio (attendance herda a empresa do pet). */
+    public final boolean hasCompany;
+    /** Cabeçalhos do CSV; "codigo" é a chave no sistema antigo. */
+    public final List<String> csvHeaders;
+    /** Colunas de dados enviadas por COPY para o staging (além de job_id, line_no e legacy_key). */
+    public final List<String> stageColumns;
+    /** Colunas copiadas do staging para a tabela real (já com as FKs resolvidas). */
+    public final List<String> targetColumns;
+
+    ImportKind(String label, String targetTable, String stageTable, boolean hasCompany,
+               List<String> csvHeaders, List<String> stageColumns, List<String> targetColumns) {
+        this.label = label;
+        this.targetTable = targetTable;
+        this.stageTable = stageTable;
+        this.hasCompany = hasCompany;
+        this.csvHeaders = csvHeaders;
+        this.stageColumns = stageColumns;
+        this.targetColumns = targetColumns;
+    }
+}
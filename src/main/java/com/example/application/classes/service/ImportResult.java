@@ -0,0 +1,3 @@
+package com.example.application.classes.service;
+
+public record ImportResult(long jobId, int totalRows, int errorRows, int insertedRows, int updatedRows) {}
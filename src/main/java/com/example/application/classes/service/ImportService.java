@@ -0,0 +1,358 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.CsvReader;
+import com.example.application.classes.model.Attendance;
+import com.example.application.classes.model.Client;
+import com.example.application.classes.model.Pet;
+import com.example.application.classes.repository.ImportRepository;
+import com.example.application.classes.repository.StageCopy;
+import com.example.application.config.ServiceGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Importação de clientes, pets e atendimentos vindos de outro sistema.
+ * 1. O CSV é lido em streaming e cada linha passa pelas mesmas regras dos serviços de cadastro;
+ *    as válidas seguem por COPY para o staging, as inválidas viram linhas do relatório de erros.
+ * 2. FKs (tutor do pet, pet do atendimento) são resolvidas pelo código legado, via import_key_map.
+ * 3. Inserções e atualizações acontecem em poucos comandos SQL, numa única transação.
+ * Reimportar o mesmo arquivo atualiza os registros já criados em vez de duplicar.
+ * Roda no BatchExecutor; métricas app.import (latência por tipo) e app.import.rows.
+ */
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private static final DateTimeFormatter BR_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter BR_DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm[:ss]");
+    private static final DateTimeFormatter ISO_DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd['T'][ ]HH:mm[:ss]");
+
+    /** Importação já autorizada; carrega só os ids necessários para rodar fora da sessão. */
+    public record PreparedImport(ImportKind kind, String fileName, long userId, long companyId) {}
+
+    private final ImportRepository importRepository;
+    private final ServiceGuard serviceGuard;
+    private final MembershipCache membershipCache;
+    private final BatchExecutor batchExecutor;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final Counter rows;
+    private final int maxReportedErrors;
+
+    public ImportService(ImportRepository importRepository,
+                         ServiceGuard serviceGuard,
+                         MembershipCache membershipCache,
+                         BatchExecutor batchExecutor,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.import.max-reported-errors:5000}") int maxReportedErrors) {
+        this.importRepository = importRepository;
+        this.serviceGuard = serviceGuard;
+        this.membershipCache = membershipCache;
+        this.batchExecutor = batchExecutor;
+        this.transactionManager = transactionManager;
+        this.meterRegistry = meterRegistry;
+        this.rows = Counter.builder("app.import.rows").register(meterRegistry);
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /** Importar dados é restrito a administradores da empresa. */
+    public PreparedImport prepare(ImportKind kind, String fileName) {
+        serviceGuard.requireAdmin();
+        return new PreparedImport(kind, fileName, serviceGuard.requireUserId(), serviceGuard.requireCompanyId());
+    }
+
+    /**
+     * Importa o arquivo no pool de lotes. progress recebe valores entre 0 e 1 (fração do arquivo lida);
+     * é chamado fora da thread da UI.
+     */
+    public CompletableFuture<ImportResult> run(PreparedImport prepared, Path file, DoubleConsumer progress) {
+        Timer timer = Timer.builder("app.import")
+                .tag("kind", prepared.kind().name().toLowerCase())
+                .register(meterRegistry);
+        return batchExecutor.submit(() -> timer.recordCallable(() -> execute(prepared, file, progress)));
+    }
+
+    public List<ImportError> errors(long jobId, int limit) throws SQLException {
+        return importRepository.listErrors(serviceGuard.requireCompanyId(), jobId, limit);
+    }
+
+    private ImportResult execute(PreparedImport p, Path file, DoubleConsumer progress) throws Exception {
+        if (!membershipCache.isAdmin(p.userId(), p.companyId())) {
+            throw new SecurityException("Usuário não possui privilégios de administrador na empresa selecionada.");
+        }
+
+        long jobId = importRepository.createJob(p.companyId(), p.userId(), p.kind(), p.fileName());
+        // Erros de validação e recusas do merge; gravados depois da transação, dê ela certo ou não.
+        List<ImportError> errors = new ArrayList<>();
+        int[] counts = {0, 0};  // total, erros de validação
+
+        TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            load(p.kind(), jobId, file, progress, errors, counts);
+
+            int[] merged = importRepository.merge(p.kind(), jobId, p.companyId(), p.userId(),
+                    errors, maxReportedErrors);
+            importRepository.clearStage(p.kind(), jobId);
+            transactionManager.commit(tx);
+            saveErrors(jobId, errors);
+
+            ImportResult result = new ImportResult(jobId, counts[0], counts[1] + merged[0], merged[1], merged[2]);
+            importRepository.finishJob(jobId, true, result.totalRows(), result.errorRows(),
+                    result.insertedRows(), result.updatedRows(), null);
+            rows.increment(counts[0]);
+            progress.accept(1.0);
+            return result;
+        } catch (Exception e) {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+            log.warn("Importação {} (job {}) falhou", p.kind(), jobId, e);
+            saveErrors(jobId, errors);
+            importRepository.finishJob(jobId, false, counts[0], counts[1], 0, 0, e.getMessage());
+            throw e;
+        }
+    }
+
+    /** Falha ao gravar o relatório não desfaz nem mascara o resultado da carga. */
+    private void saveErrors(long jobId, List<ImportError> errors) {
+        try {
+            importRepository.insertErrors(jobId, errors);
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Falha ao gravar o relatório de erros do job {}", jobId, e);
+        }
+    }
+
+    /** Lê o CSV, valida e envia as linhas válidas por COPY. */
+    private void load(ImportKind kind, long jobId, Path file, DoubleConsumer progress,
+                      List<ImportError> errors, int[] counts) throws IOException, SQLException {
+        long size = Math.max(1, Files.size(file));
+        char separator = detectSeparator(file);
+
+        try (CountingInputStream in = new CountingInputStream(new BufferedInputStream(Files.newInputStream(file)));
+             CsvReader reader = new CsvReader(new InputStreamReader(skipBom(in), StandardCharsets.UTF_8), separator)) {
+
+            String[] header = reader.next();
+            int[] index = headerIndex(kind, header);
+
+            StageCopy copy = importRepository.openStage(kind);
+            try {
+                long lastReport = 0;
+                while (true) {
+                    long lineNo = reader.lineNumber();
+                    String[] r = reader.next();
+                    if (r == null) break;
+                    if (r.length == 1 && r[0].isBlank()) continue;
+                    counts[0]++;
+
+                    try {
+                        String key = field(r, index[0]);
+                        if (key.isEmpty()) throw new IllegalArgumentException("Código é obrigatório.");
+                        if (key.length() > 100) throw new IllegalArgumentException("Código excede 100 caracteres.");
+
+                        Object[] values = switch (kind) {
+                            case CLIENT -> clientRow(r, index);
+                            case PET -> petRow(r, index);
+                            case ATTENDANCE -> attendanceRow(r, index);
+                        };
+                        Object[] row = new Object[values.length + 3];
+                        row[0] = jobId;
+                        row[1] = lineNo;
+                        row[2] = key;
+                        System.arraycopy(values, 0, row, 3, values.length);
+                        copy.row(row);
+                    } catch (RuntimeException e) {
+                        counts[1]++;
+                        if (errors.size() < maxReportedErrors) {
+                            errors.add(new ImportError(lineNo, e.getMessage()));
+                        }
+                    }
+
+                    if (in.count - lastReport > size / 100) {
+                        lastReport = in.count;
+                        progress.accept(0.9 * in.count / size);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                copy.abort();
+                throw e;
+            }
+            copy.close();
+        }
+        progress.accept(0.9);
+    }
+
+    private static Object[] clientRow(String[] r, int[] ix) {
+        Client c = new Client();
+        c.setName(field(r, ix[1]));
+        c.setEmail(emptyToNull(field(r, ix[2])));
+        c.setPhone(emptyToNull(field(r, ix[3])));
+        c.setDocType(emptyToNull(field(r, ix[4]).toUpperCase()));
+        c.setDocument(emptyToNull(field(r, ix[5])));
+        c.setCep(emptyToNull(field(r, ix[6])));
+        c.setUf(emptyToNull(field(r, ix[7]).toUpperCase()));
+        c.setCity(emptyToNull(field(r, ix[8])));
+        c.setDistrict(emptyToNull(field(r, ix[9])));
+        c.setStreet(emptyToNull(field(r, ix[10])));
+        c.setNumber(emptyToNull(field(r, ix[11])));
+        c.setComplement(emptyToNull(field(r, ix[12])));
+        c.setNotes(emptyToNull(field(r, ix[13])));
+        if (c.getDocument() == null) c.setDocType(null);
+
+        ClientService.validateImported(c);
+
+        return new Object[]{c.getName(), c.getEmail(), c.getPhone(), c.getDocType(), c.getDocument(),
+                c.getCep(), c.getUf(), c.getCity(), c.getDistrict(), c.getStreet(), c.getNumber(),
+                c.getComplement(), c.getNotes()};
+    }
+
+    private static Object[] petRow(String[] r, int[] ix) {
+        String clientKey = field(r, ix[1]);
+        if (clientKey.isEmpty()) throw new PetValidationException("Código do tutor é obrigatório.");
+
+        Pet pet = new Pet();
+        pet.setName(field(r, ix[2]));
+        pet.setSpecies(field(r, ix[3]));
+        pet.setBreed(field(r, ix[4]));
+        pet.setBirthDate(parseDate(field(r, ix[5])));
+        pet.setNotes(field(r, ix[6]));
+
+        PetService.validateFields(pet);
+
+        return new Object[]{clientKey, pet.getName(), emptyToNull(pet.getSpecies()), emptyToNull(pet.getBreed()),
+                pet.getBirthDate(), emptyToNull(pet.getNotes())};
+    }
+
+    private static Object[] attendanceRow(String[] r, int[] ix) {
+        String petKey = field(r, ix[1]);
+        if (petKey.isEmpty()) throw new AttendanceValidationException("Código do pet é obrigatório.");
+
+        Attendance a = new Attendance();
+        a.setAppointmentAt(parseDateTime(field(r, ix[2])));
+        a.setDescription(field(r, ix[3]));
+
+        AttendanceService.validateFields(a);
+
+        return new Object[]{petKey, a.getAppointmentAt(), emptyToNull(a.getDescription())};
+    }
+
+    /** Posição de cada cabeçalho esperado no arquivo (ignora maiúsculas e acentos). */
+    private static int[] headerIndex(ImportKind kind, String[] header) {
+        if (header == null) throw new IllegalArgumentException("Arquivo vazio.");
+
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            positions.putIfAbsent(normalizeHeader(header[i]), i);
+        }
+
+        int[] index = new int[kind.csvHeaders.size()];
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < index.length; i++) {
+            Integer pos = positions.get(kind.csvHeaders.get(i));
+            index[i] = pos == null ? -1 : pos;
+            if (pos == null && i < 2) missing.add(kind.csvHeaders.get(i));
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Colunas obrigatórias ausentes: " + String.join(", ", missing)
+                    + ". Esperado: " + String.join(", ", kind.csvHeaders));
+        }
+        return index;
+    }
+
+    private static String normalizeHeader(String h) {
+        String s = Normalizer.normalize(h.trim().toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "");
+        return s.replace(' ', '_');
+    }
+
+    private static String field(String[] r, int index) {
+        if (index < 0 || index >= r.length || r[index] == null) return "";
+        return r[index].trim();
+    }
+
+    private static String emptyToNull(String s) {
+        return s == null || s.isEmpty() ? null : s;
+    }
+
+    private static LocalDate parseDate(String s) {
+        if (s.isEmpty()) return null;
+        try {
+            return s.contains("/") ? LocalDate.parse(s, BR_DATE) : LocalDate.parse(s);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data inválida: " + s + " (use dd/MM/aaaa).");
+        }
+    }
+
+    private static LocalDateTime parseDateTime(String s) {
+        if (s.isEmpty()) return null;
+        try {
+            if (s.contains("/")) {
+                return s.length() <= 10 ? LocalDate.parse(s, BR_DATE).atStartOfDay() : LocalDateTime.parse(s, BR_DATE_TIME);
+            }
+            return s.length() <= 10 ? LocalDate.parse(s).atStartOfDay() : LocalDateTime.parse(s, ISO_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data/hora inválida: " + s + " (use dd/MM/aaaa HH:mm).");
+        }
+    }
+
+    private static char detectSeparator(Path file) throws IOException {
+        try (BufferedReader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = Objects.requireNonNullElse(r.readLine(), "");
+            return header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+        }
+    }
+
+    private static InputStream skipBom(InputStream in) throws IOException {
+        PushbackInputStream pb = new PushbackInputStream(in, 3);
+        byte[] bom = new byte[3];
+        int n = pb.readNBytes(bom, 0, 3);
+        if (n == 3 && (bom[0] & 0xFF) == 0xEF && (bom[1] & 0xFF) == 0xBB && (bom[2] & 0xFF) == 0xBF) {
+            return pb;
+        }
+        if (n > 0) pb.unread(bom, 0, n);
+        return pb;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
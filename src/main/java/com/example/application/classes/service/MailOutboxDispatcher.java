@@ -0,0 +1,133 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.SmtpResetMailer;
+import com.example.application.classes.repository.MailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Envia a mail_outbox em segundo plano.
+ * - Cada ciclo reivindica um lote (SKIP LOCKED, seguro com várias réplicas) e o envia numa só conexão SMTP.
+ * - E-mails de senha provisória chegam só com o id do usuário; a senha é gerada aqui, no envio.
+ * - Falhas voltam para a fila com backoff exponencial (com jitter) até app.mail.outbox.max-attempts.
+ */
+@Component
+public class MailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final MailOutboxRepository outboxRepository;
+    private final SmtpResetMailer smtpMailer;
+    private final ProvisionalPasswords provisionalPasswords;
+    private final int batchSize;
+    private final int leaseSeconds;
+    private final int maxAttempts;
+    private final int baseBackoffSeconds;
+    private final int maxBackoffSeconds;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter failed;
+
+    public MailOutboxDispatcher(MailOutboxRepository outboxRepository,
+                                SmtpResetMailer smtpMailer,
+                                ProvisionalPasswords provisionalPasswords,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.mail.outbox.batch-size:20}") int batchSize,
+                                @Value("${app.mail.outbox.lease-seconds:300}") int leaseSeconds,
+                                @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+                                @Value("${app.mail.outbox.backoff-base-seconds:15}") int baseBackoffSeconds,
+                                @Value("${app.mail.outbox.backoff-max-seconds:3600}") int maxBackoffSeconds) {
+        this.outboxRepository = outboxRepository;
+        this.smtpMailer = smtpMailer;
+        this.provisionalPasswords = provisionalPasswords;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffSeconds = baseBackoffSeconds;
+        this.maxBackoffSeconds = maxBackoffSeconds;
+        this.sent = Counter.builder("app.mail.outbox").tag("result", "sent").register(meterRegistry);
+        this.retried = Counter.builder("app.mail.outbox").tag("result", "retry").register(meterRegistry);
+        this.failed = Counter.builder("app.mail.outbox").tag("result", "failed").register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.mail.outbox.initial-delay-ms:5000}",
+               fixedDelayString = "${app.mail.outbox.poll-ms:2000}")
+    public void dispatch() {
+        try {
+            // Lote cheio indica que há mais na fila: continua sem esperar o próximo ciclo.
+            int claimed;
+            do {
+                claimed = dispatchBatch();
+            } while (claimed == batchSize);
+        } catch (Exception e) {
+            log.warn("Falha ao processar mail_outbox", e);
+        }
+    }
+
+    private int dispatchBatch() throws Exception {
+        List<OutboxMail> batch = outboxRepository.claimBatch(batchSize, leaseSeconds);
+        if (batch.isEmpty()) return 0;
+
+        Map<Long, Exception> failures = new HashMap<>();
+        List<OutboxMail> ready = new ArrayList<>(batch.size());
+        for (OutboxMail mail : batch) {
+            try {
+                ready.add(withProvisionalPassword(mail));
+            } catch (Exception e) {
+                failures.put(mail.id(), e);
+            }
+        }
+        failures.putAll(smtpMailer.sendBatch(ready));
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        for (OutboxMail mail : batch) {
+            Exception error = failures.get(mail.id());
+            if (error == null) {
+                sentIds.add(mail.id());
+                continue;
+            }
+
+            boolean giveUp = mail.attempts() >= maxAttempts;
+            outboxRepository.markFailed(mail.id(), String.valueOf(error.getMessage()), backoffSeconds(mail.attempts()), giveUp);
+            (giveUp ? failed : retried).increment();
+            if (giveUp) {
+                log.error("E-mail {} para {} descartado após {} tentativas", mail.id(), mail.recipient(), mail.attempts(), error);
+            }
+        }
+
+        outboxRepository.markSent(sentIds);
+        sent.increment(sentIds.size());
+        return batch.size();
+    }
+
+    private OutboxMail withProvisionalPassword(OutboxMail mail) throws SQLException {
+        if (!ProvisionalPasswords.TEMPLATES.contains(mail.template())) return mail;
+
+        String userId = mail.params().get(ProvisionalPasswords.USER_ID_PARAM);
+        if (userId == null) {
+            throw new IllegalArgumentException("E-mail de senha provisória sem usuário: " + mail.id());
+        }
+        Map<String, String> params = new HashMap<>(mail.params());
+        params.put(ProvisionalPasswords.PASSWORD_PARAM, provisionalPasswords.issue(Long.parseLong(userId)));
+        return new OutboxMail(mail.id(), mail.template(), mail.recipient(), params, mail.attempts());
+    }
+
+    private int backoffSeconds(int attempts) {
+        long exp = (long) baseBackoffSeconds << Math.min(Math.max(attempts - 1, 0), 20);
+        long capped = Math.min(exp, maxBackoffSeconds);
+        // jitter de até 20% para não sincronizar réplicas em retry
+        return (int) (capped + ThreadLocalRandom.current().nextLong(capped / 5 + 1));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.UserCompanyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache compartilhado de vínculos usuário/empresa, usado nas checagens de permissão.
+ * - Guarda também a ausência de vínculo, para que acessos negados não consultem o banco.
+ * - Toda escrita em user_company invalida a chave (usuário, empresa) e as escolhas do usuário,
+ *   agora e novamente após o commit; assim revogações valem na próxima checagem.
+ * - O login só pré-carrega a lista de escolhas, e só se nenhuma invalidação ocorreu desde a leitura
+ *   (ver generation()); vínculos usados em permissão sempre passam pelo load do cache.
+ * - Entre réplicas, a defasagem é limitada pela expiração (app.cache.membership.ttl-seconds).
+ */
+@Component
+public class MembershipCache {
+
+    public record Membership(boolean member, boolean admin) {
+        static final Membership NONE = new Membership(false, false);
+    }
+
+    private record Key(long userId, long companyId) {}
+
+    private final UserCompanyRepository userCompanyRepository;
+    private final Cache<Key, Membership> memberships;
+    private final Cache<Long, List<CompanyChoice>> choices;
+    private final AtomicLong generation = new AtomicLong();
+
+    public MembershipCache(UserCompanyRepository userCompanyRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.cache.membership.max-size:10000}") long maxSize,
+                           @Value("${app.cache.membership.ttl-seconds:30}") long ttlSeconds) {
+        this.userCompanyRepository = userCompanyRepository;
+        this.memberships = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.choices = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memberships, "membership");
+        CaffeineCacheMetrics.monitor(meterRegistry, choices, "company-choices");
+    }
+
+    public Membership membership(long userId, long companyId) throws SQLException {
+        // get(key, loader) bloqueia invalidações concorrentes da mesma chave até o load terminar,
+        // então uma leitura antiga nunca sobrevive a uma invalidação posterior.
+        try {
+            return memberships.get(new Key(userId, companyId), this::load);
+        } catch (LoadFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    public boolean isMember(long userId, long companyId) throws SQLException {
+        return membership(userId, companyId).member();
+    }
+
+    public boolean isAdmin(long userId, long companyId) throws SQLException {
+        return membership(userId, companyId).admin();
+    }
+
+    public List<CompanyChoice> choicesFor(long userId) throws SQLException {
+        try {
+            return choices.get(userId, uid -> {
+                try {
+                    return List.copyOf(userCompanyRepository.listActiveCompanyChoicesByUser(uid));
+                } catch (SQLException e) {
+                    throw new LoadFailure(e);
+                }
+            });
+        } catch (LoadFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Contador de invalidações; lido antes de consultar o banco para um prime posterior. */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Preenche as escolhas do usuário com a lista lida no login, evitando nova consulta na sessão.
+     * readAt é o generation() de antes da leitura: se houve invalidação desde então a lista é descartada.
+     */
+    public void prime(long userId, List<CompanyChoice> loaded, long readAt) {
+        List<CompanyChoice> copy = List.copyOf(loaded);
+        if (choices.asMap().putIfAbsent(userId, copy) == null && generation.get() != readAt) {
+            // Invalidação entre a leitura e o put: quem incrementou antes do put não a removeu.
+            choices.asMap().remove(userId, copy);
+        }
+    }
+
+    /** Vínculo (usuário, empresa) alterado: criado, restaurado, removido ou admin trocado. */
+    public void invalidate(long userId, long companyId) {
+        runNowAndAfterCommit(() -> {
+            memberships.invalidate(new Key(userId, companyId));
+            choices.invalidate(userId);
+        });
+    }
+
+    /** Usuário removido: todos os vínculos dele deixam de valer. */
+    public void invalidateUser(long userId) {
+        runNowAndAfterCommit(() -> {
+            memberships.asMap().keySet().removeIf(k -> k.userId() == userId);
+            choices.invalidate(userId);
+        });
+    }
+
+    /** Empresa removida ou renomeada: vínculos e listas de escolha que a citam ficam inválidos. */
+    public void invalidateCompany(long companyId) {
+        runNowAndAfterCommit(() -> {
+            memberships.asMap().keySet().removeIf(k -> k.companyId() == companyId);
+            choices.asMap().values().removeIf(list -> list.stream().anyMatch(c -> c.id == companyId));
+        });
+    }
+
+    private Membership load(Key key) {
+        try {
+            return userCompanyRepository.findActive(key.userId(), key.companyId())
+                    .map(link -> new Membership(true, link.isAdmin()))
+                    .orElse(Membership.NONE);
+        } catch (SQLException e) {
+            throw new LoadFailure(e);
+        }
+    }
+
+    private void runNowAndAfterCommit(Runnable invalidation) {
+        // O incremento vem antes da remoção; prime() depende dessa ordem.
+        Runnable counted = () -> {
+            generation.incrementAndGet();
+            invalidation.run();
+        };
+        counted.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counted.run();
+                }
+            });
+        }
+    }
+
+    private static final class LoadFailure extends RuntimeException {
+        LoadFailure(SQLException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+}
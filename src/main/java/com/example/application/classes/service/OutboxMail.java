@@ -0,0 +1,11 @@
+package com.example.application.classes.service;
+
+import java.util.Map;
+
+/** Linha reivindicada da mail_outbox, pronta para envio. */
+public record OutboxMail(long id, String template, String recipient, Map<String, String> params, int attempts) {
+
+    public OutboxMail {
+        params = Map.copyOf(params);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.application.classes.service;
+
+import com.example.application.config.PasswordHashPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executa encode/matches do PasswordEncoder em um pool próprio e limitado.
+ * - O hash (BCrypt) é caro de propósito; fora das threads de requisição, um pico de logins
+ *   não trava a interface dos demais usuários.
+ * - Fila com capacidade fixa: quando cheia, a chamada é recusada na hora
+ *   com PasswordHashingBusyException em vez de acumular espera.
+ * Métricas: app.password.hash (latência por operação), app.password.hash.queue e app.password.hash.rejected.
+ */
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashPolicy passwordHashPolicy;
+    private final ThreadPoolExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejected;
+
+    public PasswordHasher(PasswordEncoder passwordEncoder,
+                          PasswordHashPolicy passwordHashPolicy,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.hashing.threads:0}") int threads,
+                          @Value("${app.hashing.queue-capacity:32}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashPolicy = passwordHashPolicy;
+
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors());
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.encodeTimer = Timer.builder("app.password.hash")
+                .tag("op", "encode")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("app.password.hash")
+                .tag("op", "matches")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.password.hash.rejected")
+                .register(meterRegistry);
+        Gauge.builder("app.password.hash.queue", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("app.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<String> encodeAsync(String raw) {
+        return submit(() -> encodeTimer.record(() -> passwordEncoder.encode(raw)));
+    }
+
+    public CompletableFuture<Boolean> matchesAsync(String raw, String encoded) {
+        if (raw == null || encoded == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return submit(() -> matchesTimer.record(() -> passwordEncoder.matches(raw, encoded)));
+    }
+
+    /** True se o hash guardado não segue o algoritmo/custo configurado e deve ser recalculado. */
+    public boolean needsRehash(String encoded) {
+        return passwordHashPolicy.needsRehash(encoded);
+    }
+
+    /** Versão síncrona: a thread chamadora espera, mas o trabalho continua limitado pelo pool. */
+    public String encode(String raw) {
+        return await(encodeAsync(raw));
+    }
+
+    public boolean matches(String raw, String encoded) {
+        return await(matchesAsync(raw, encoded));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(
+                    new PasswordHashingBusyException("Sistema ocupado no momento. Tente novamente em instantes."));
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.application.classes.service;
+
+public class PasswordHashingBusyException extends IllegalStateException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
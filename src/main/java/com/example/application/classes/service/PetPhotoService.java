@@ -0,0 +1,116 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.AttachmentRepository;
+import com.example.application.classes.repository.PetRepository;
+import com.example.application.config.ServiceGuard;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+
+/**
+ * Foto do pet.
+ * - O original vai para o BlobStore (mesmo armazenamento por hash dos anexos); as miniaturas
+ *   são geradas em segundo plano pelo PhotoResizer e servidas por PetPhotoRequestHandler.
+ * - A tela nunca recebe o original: só URLs das miniaturas, que não mudam enquanto a foto for a mesma.
+ */
+@Service
+public class PetPhotoService {
+
+    /** URL base das miniaturas, relativa à raiz da aplicação. */
+    public static final String URL_PREFIX = "pet-photos/";
+
+    /** Upload já autorizado; carrega só os ids necessários para rodar fora da sessão. */
+    public record PreparedUpload(long userId, long companyId, long petId) {}
+
+    private final PetRepository petRepository;
+    private final AttachmentRepository attachmentRepository;
+    private final BlobStore blobStore;
+    private final PhotoResizer photoResizer;
+    private final ServiceGuard serviceGuard;
+    private final MembershipCache membershipCache;
+    private final PlatformTransactionManager transactionManager;
+    private final long maxBytes;
+
+    public PetPhotoService(PetRepository petRepository,
+                           AttachmentRepository attachmentRepository,
+                           BlobStore blobStore,
+                           PhotoResizer photoResizer,
+                           ServiceGuard serviceGuard,
+                           MembershipCache membershipCache,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.pet-photo.max-bytes:20971520}") long maxBytes) {
+        this.petRepository = petRepository;
+        this.attachmentRepository = attachmentRepository;
+        this.blobStore = blobStore;
+        this.photoResizer = photoResizer;
+        this.serviceGuard = serviceGuard;
+        this.membershipCache = membershipCache;
+        this.transactionManager = transactionManager;
+        this.maxBytes = maxBytes;
+    }
+
+    /** URL da miniatura, ou null se o pet não tem foto. */
+    public static String url(String photoSha256, PhotoSize size) {
+        if (photoSha256 == null) return null;
+        return URL_PREFIX + size.key + "/" + photoSha256 + ".jpg";
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    public PreparedUpload prepareUpload(long petId) throws SQLException {
+        long userId = serviceGuard.requireUserId();
+        long companyId = serviceGuard.requireCompanyId();
+        if (petRepository.findById(companyId, petId).isEmpty()) {
+            throw new SecurityException("Pet não encontrado na empresa selecionada.");
+        }
+        return new PreparedUpload(userId, companyId, petId);
+    }
+
+    /**
+     * Recebe a foto em streaming, troca a foto do pet e agenda as miniaturas. Não depende da sessão.
+     * Devolve o hash da nova foto.
+     */
+    public String store(PreparedUpload upload, InputStream in) throws IOException, SQLException {
+        BlobStore.Received received = blobStore.receive(in, maxBytes);
+        try {
+            if (!PhotoResizer.isSupportedImage(received.tempFile())) {
+                throw new PetValidationException("Arquivo não é uma imagem suportada (use JPEG, PNG, GIF ou BMP).");
+            }
+
+            TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            try {
+                if (!membershipCache.isMember(upload.userId(), upload.companyId())) {
+                    throw new SecurityException("Usuário não pertence mais à empresa selecionada.");
+                }
+                attachmentRepository.lockBlob(received.sha256());
+                attachmentRepository.upsertBlob(received.sha256(), received.size());
+                if (!petRepository.updatePhoto(upload.companyId(), upload.petId(), received.sha256())) {
+                    throw new SecurityException("Pet não encontrado na empresa selecionada.");
+                }
+                blobStore.publish(received);
+                transactionManager.commit(tx);
+            } finally {
+                if (!tx.isCompleted()) transactionManager.rollback(tx);
+            }
+        } finally {
+            blobStore.discard(received);
+        }
+
+        // Fila cheia não é erro: a miniatura é gerada no primeiro acesso.
+        photoResizer.submit(received.sha256());
+        return received.sha256();
+    }
+
+    public void removePhoto(long petId) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        petRepository.updatePhoto(companyId, petId, null);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.application.classes.service;
 import com.example.application.classes.model.Pet;
 import com.example.application.classes.repository.PetRepository;
 import com.example.application.config.ServiceGuard;
+import org.springframework.beans.factory.ObjectFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,25 +15,37 @@ import java.util.Optional;
 @Service
 public class PetService {
 
+    private static final String SNAPSHOT_KEY = "pets";
+
     private final PetRepository petRepository;
     private final ServiceGuard serviceGuard;
+    private final CompanyDataVersionService dataVersionService;
+    private final ObjectFactory<CompanyDataSnapshotHolder> snapshotFactory;
 
     public PetService(PetRepository petRepository,
-                      ServiceGuard serviceGuard) {
+                      ServiceGuard serviceGuard,
+                      CompanyDataVersionService dataVersionService,
+                      ObjectFactory<CompanyDataSnapshotHolder> snapshotFactory) {
         this.petRepository = petRepository;
         this.serviceGuard = serviceGuard;
+        this.dataVersionService = dataVersionService;
+        this.snapshotFactory = snapshotFactory;
+    }
+
+    private static void validate(Pet pet) {
+        if (pet.getClientId() <= 0) {
+            throw new PetValidationException("Selecione o tutor do pet.");
+        }
+        validateFields(pet);
     }
 
-    private void validate(Pet pet) {
+    /** Regras dos campos do pet, sem o tutor; também usadas pela importação de dados legados. */
+    static void validateFields(Pet pet) {
         pet.setName(trim(pet.getName()));
         pet.setSpecies(trim(pet.getSpecies()));
         pet.setBreed(trim(pet.getBreed()));
         pet.setNotes(trim(pet.getNotes()));
 
-        if (pet.getClientId() <= 0) {
-            throw new PetValidationException("Selecione o tutor do pet.");
-        }
-
         if (pet.getName().isEmpty()) {
             throw new PetValidationException("Nome do pet é obrigatório.");
         }
@@ -90,10 +103,21 @@ public class PetService {
         return petRepository.findById(companyId, id);
     }
 
+    /**
+     * Lista os pets da empresa selecionada, reaproveitando a última
+     * listagem da sessão enquanto o carimbo de versão de pets não mudar.
+     */
     @Transactional(readOnly = true)
     public List<Pet> listAllForCompany() throws SQLException {
         long companyId = serviceGuard.requireCompanyId();
-        return petRepository.listByCompany(companyId);
+        long version = dataVersionService.forCompany(companyId).petVersion();
+
+        CompanyDataSnapshotHolder snapshots = snapshotFactory.getObject();
+        Optional<List<Pet>> cached = snapshots.get(SNAPSHOT_KEY, companyId, version);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        return snapshots.put(SNAPSHOT_KEY, companyId, version, petRepository.listByCompany(companyId));
     }
 
     @Transactional
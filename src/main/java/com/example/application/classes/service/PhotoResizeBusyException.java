@@ -0,0 +1,7 @@
+package com.example.application.classes.service;
+
+public class PhotoResizeBusyException extends IllegalStateException {
+    public PhotoResizeBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.application.classes.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gera as miniaturas (PhotoSize) de uma foto em um pool próprio e limitado, fora da thread da requisição.
+ * - A decodificação usa subamostragem: uma foto de câmera de 12 MP é lida já reduzida perto do tamanho
+ *   maior, então a memória por tarefa fica pequena.
+ * - Cada tamanho é reduzido a partir do anterior (480 → 160 → 64), em passos de no máximo metade.
+ * - Pedidos para a mesma foto enquanto ela está na fila são juntados em um só.
+ * - Fila cheia: recusa na hora com PhotoResizeBusyException; a miniatura é gerada depois, no primeiro acesso.
+ * Métricas: app.photo.resize (latência), app.photo.resize.queue, app.photo.resize.active,
+ * app.photo.resize.rejected e app.photo.resize.failed.
+ */
+@Component
+public class PhotoResizer {
+
+    private static final Logger log = LoggerFactory.getLogger(PhotoResizer.class);
+
+    /** Acima disso a imagem é recusada (proteção contra "bombas" de descompressão). */
+    private static final long MAX_SOURCE_PIXELS = 100_000_000L;
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final BlobStore blobStore;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> inFlight = new ConcurrentHashMap<>();
+    private final Timer resizeTimer;
+    private final Counter rejected;
+    private final Counter failed;
+
+    public PhotoResizer(BlobStore blobStore,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.photos.resize-threads:2}") int threads,
+                        @Value("${app.photos.resize-queue-capacity:64}") int queueCapacity) {
+        this.blobStore = blobStore;
+
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "photo-resize-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.resizeTimer = Timer.builder("app.photo.resize")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.photo.resize.rejected").register(meterRegistry);
+        this.failed = Counter.builder("app.photo.resize.failed").register(meterRegistry);
+        Gauge.builder("app.photo.resize.queue", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("app.photo.resize.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    /** Agenda a geração de todas as miniaturas da foto. */
+    public CompletableFuture<Void> submit(String sha256) {
+        CompletableFuture<Void> existing = inFlight.get(sha256);
+        if (existing != null) return existing;
+
+        CompletableFuture<Void> task = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(sha256, task);
+        if (existing != null) return existing;
+
+        try {
+            executor.execute(() -> {
+                try {
+                    resizeTimer.recordCallable(() -> {
+                        resizeAll(sha256);
+                        return null;
+                    });
+                    task.complete(null);
+                } catch (Exception e) {
+                    failed.increment();
+                    log.warn("Falha ao gerar miniaturas de {}", sha256, e);
+                    task.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(sha256, task);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            inFlight.remove(sha256, task);
+            task.completeExceptionally(
+                    new PhotoResizeBusyException("Sistema ocupado no momento. Tente novamente em instantes."));
+        }
+        return task;
+    }
+
+    /**
+     * Caminho da miniatura, gerando-a se ainda não existir (ex.: a fila estava cheia no upload).
+     * Espera no máximo timeout pela geração.
+     */
+    public Path variant(String sha256, PhotoSize size, long timeoutMillis)
+            throws IOException, InterruptedException, TimeoutException {
+        Path path = blobStore.variantPath(sha256, size.key);
+        if (Files.exists(path)) return path;
+
+        try {
+            submit(sha256).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IOException("Falha ao gerar miniatura", e.getCause());
+        }
+        return path;
+    }
+
+    /** True se o arquivo é uma imagem que o ImageIO sabe ler (checagem barata, só o cabeçalho). */
+    public static boolean isSupportedImage(Path file) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            return in != null && ImageIO.getImageReaders(in).hasNext();
+        }
+    }
+
+    private void resizeAll(String sha256) throws IOException {
+        PhotoSize[] sizes = PhotoSize.values();
+        BufferedImage current = decode(blobStore.pathOf(sha256), sizes[sizes.length - 1].pixels);
+        for (int i = sizes.length - 1; i >= 0; i--) {
+            current = scale(current, sizes[i].pixels);
+            blobStore.writeVariant(sha256, sizes[i].key, encodeJpeg(current));
+        }
+    }
+
+    /** Lê a imagem já subamostrada para algo entre target e 2 × target no lado maior. */
+    private static BufferedImage decode(Path file, int target) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) throw new IOException("Arquivo de imagem ilegível");
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) throw new IOException("Formato de imagem não suportado");
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_SOURCE_PIXELS) {
+                    throw new IOException("Imagem grande demais: " + width + "x" + height);
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int factor = Math.max(1, Math.max(width, height) / (2 * target));
+                param.setSourceSubsampling(factor, factor, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /** Reduz até caber em target × target, mantendo a proporção; sempre devolve RGB (sem alfa, para JPEG). */
+    private static BufferedImage scale(BufferedImage source, int target) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) target / Math.max(width, height));
+        int finalWidth = Math.max(1, (int) Math.round(width * ratio));
+        int finalHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        do {
+            width = Math.max(finalWidth, width / 2);
+            height = Math.max(finalHeight, height / 2);
+            current = draw(current, width, height);
+        } while (width != finalWidth || height != finalHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage out = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setBackground(Color.WHITE);
+            g.clearRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16 * 1024);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
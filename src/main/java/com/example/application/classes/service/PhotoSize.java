@@ -0,0 +1,23 @@
+package com.example.application.classes.service;
+
+/** Tamanhos fixos das miniaturas de foto (lado maior, em pixels). */
+public enum PhotoSize {
+    THUMB("thumb", 64),
+    SMALL("small", 160),
+    MEDIUM("medium", 480);
+
+    public final String key;
+    public final int pixels;
+
+    PhotoSize(String key, int pixels) {
+        this.key = key;
+        this.pixels = pixels;
+    }
+
+    public static PhotoSize fromKey(String key) {
+        for (PhotoSize size : values()) {
+            if (size.key.equals(key)) return size;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.AppUserRepository;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * Gera senhas provisórias na hora do envio do e-mail (MailOutboxDispatcher).
+ * A fila guarda só o id do usuário; cada envio grava um hash novo, então um reenvio invalida a senha anterior.
+ */
+@Component
+public class ProvisionalPasswords {
+
+    /** Templates da mail_outbox que levam senha provisória. */
+    public static final Set<String> TEMPLATES = Set.of("signup", "forgot", "provisional");
+    public static final String USER_ID_PARAM = "userId";
+    public static final String PASSWORD_PARAM = "password";
+
+    private static final String ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz23456789";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final AppUserRepository appUserRepository;
+    private final PasswordHasher passwordHasher;
+
+    public ProvisionalPasswords(AppUserRepository appUserRepository, PasswordHasher passwordHasher) {
+        this.appUserRepository = appUserRepository;
+        this.passwordHasher = passwordHasher;
+    }
+
+    /** Gera uma senha provisória nova, grava o hash e devolve o texto para o e-mail. */
+    public String issue(long userId) throws SQLException {
+        String plain = generate(10);
+        appUserRepository.setProvisional(userId, passwordHasher.encode(plain));
+        return plain;
+    }
+
+    /** Senha alfanumérica, evitando caracteres ambíguos. */
+    static String generate(int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(ALPHABET.charAt(RANDOM.nextInt(ALPHABET.length())));
+        }
+        return sb.toString();
+    }
+}
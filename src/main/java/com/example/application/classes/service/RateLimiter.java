@@ -0,0 +1,53 @@
+package com.example.application.classes.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket por chave, sem locks (GCRA: guarda só o "theoretical arrival time" em um AtomicLong).
+ * - Cada chave é atualizada por CAS; o mapa é um cache Caffeine limitado a maxKeys.
+ * - Chave ociosa por mais que a janela de burst = balde cheio de novo, então expira por acesso sem perda.
+ * - Com o cache cheio, o Caffeine descarta as chaves menos usadas (o balde volta cheio só para elas);
+ *   cada chave continua com o próprio balde, sem transbordo compartilhado.
+ */
+public final class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    /** permits por period, aceitando até burst tentativas seguidas. */
+    public RateLimiter(int permits, Duration period, int burst, int maxKeys) {
+        if (permits <= 0 || burst <= 0) throw new IllegalArgumentException("permits e burst devem ser positivos.");
+        this.intervalNanos = period.toNanos() / permits;
+        this.burstNanos = intervalNanos * burst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .build();
+    }
+
+    public boolean tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong tat = buckets.get(key, k -> new AtomicLong(now));
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now) + intervalNanos;
+            if (next - now > burstNanos) return false;
+            if (tat.compareAndSet(current, next)) return true;
+        }
+    }
+
+    /** Devolve uma permissão obtida por tryAcquire (ex.: quando outro limite rejeitou a mesma tentativa). */
+    public void release(String key) {
+        AtomicLong tat = buckets.getIfPresent(key);
+        if (tat != null) tat.addAndGet(-intervalNanos);
+    }
+
+    public long trackedKeys() {
+        return buckets.estimatedSize();
+    }
+}
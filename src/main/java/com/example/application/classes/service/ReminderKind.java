@@ -0,0 +1,17 @@
+package com.example.application.classes.service;
+
+import java.time.Duration;
+
+/** Lembretes de consulta; code é o valor gravado em attendance_reminder.kind e reminder_watermark.kind. */
+public enum ReminderKind {
+    DAY_BEFORE(1, Duration.ofHours(24)),
+    TWO_HOURS_BEFORE(2, Duration.ofHours(2));
+
+    public final int code;
+    public final Duration lead;
+
+    ReminderKind(int code, Duration lead) {
+        this.code = code;
+        this.lead = lead;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.model.AppUser;
+
+import java.util.List;
+
+/**
+ * Dados carregados no login em uma única consulta:
+ * o usuário e as empresas ativas a que ele tem acesso (com a flag de admin).
+ */
+public record SessionBootstrap(AppUser user, List<CompanyChoice> choices) {
+
+    public SessionBootstrap {
+        choices = List.copyOf(choices);
+    }
+}
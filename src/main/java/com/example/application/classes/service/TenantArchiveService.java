@@ -0,0 +1,223 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.DocumentType;
+import com.example.application.classes.TenantArchive;
+import com.example.application.classes.TenantArchive.Column;
+import com.example.application.classes.TenantArchive.Section;
+import com.example.application.classes.repository.StageCopy;
+import com.example.application.classes.repository.TenantArchiveRepository;
+import com.example.application.config.ServiceGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Arquivo completo de uma empresa (empresa, vínculos, clientes, pets e atendimentos),
+ * para backup ou para levar a clínica a outro ambiente sem pg_dump do banco inteiro.
+ * - Exportação: cursores dentro de uma transação REPEATABLE READ (snapshot único), direto para o gzip.
+ * - Importação: cria uma empresa nova; as seções entram por COPY e os ids são remapeados no banco.
+ *   Só quem importou fica vinculado (administrador). Se o documento já existir no ambiente (ex.: restaurar
+ *   no mesmo servidor), a importação pode ser refeita como cópia, com outro nome e documento (ArchiveTarget).
+ * Memória constante nos dois sentidos, qualquer que seja o número de atendimentos.
+ * Ambos rodam no BatchExecutor. Métrica: app.archive (tag op = export/import).
+ */
+@Service
+public class TenantArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantArchiveService.class);
+
+    public record PreparedArchive(long userId, long companyId) {
+        public String fileName() {
+            return "empresa-" + companyId + "-" + LocalDate.now() + ".cvta";
+        }
+    }
+
+    public record ImportedArchive(long companyId, String companyName, int clients, int pets, int attendances,
+                                  int membersNotLinked) {}
+
+    /** Nome e documento da empresa criada, no lugar dos do arquivo. */
+    public record ArchiveTarget(String name, DocumentType documentType, String document) {}
+
+    private final TenantArchiveRepository archiveRepository;
+    private final ServiceGuard serviceGuard;
+    private final MembershipCache membershipCache;
+    private final BatchExecutor batchExecutor;
+    private final PlatformTransactionManager transactionManager;
+    private final Timer exportTimer;
+    private final Timer importTimer;
+    private final int fetchSize;
+
+    public TenantArchiveService(TenantArchiveRepository archiveRepository,
+                                ServiceGuard serviceGuard,
+                                MembershipCache membershipCache,
+                                BatchExecutor batchExecutor,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.export.fetch-size:500}") int fetchSize) {
+        this.archiveRepository = archiveRepository;
+        this.serviceGuard = serviceGuard;
+        this.membershipCache = membershipCache;
+        this.batchExecutor = batchExecutor;
+        this.transactionManager = transactionManager;
+        this.exportTimer = Timer.builder("app.archive").tag("op", "export").register(meterRegistry);
+        this.importTimer = Timer.builder("app.archive").tag("op", "import").register(meterRegistry);
+        this.fetchSize = fetchSize;
+    }
+
+    /** Exportar a empresa inteira é restrito a administradores. */
+    public PreparedArchive prepareExport() {
+        serviceGuard.requireAdmin();
+        return new PreparedArchive(serviceGuard.requireUserId(), serviceGuard.requireCompanyId());
+    }
+
+    /**
+     * Qualquer usuário pode importar, como pode criar empresas: o arquivo vira uma empresa nova
+     * administrada só por ele. Nenhuma outra conta ganha acesso pela importação.
+     */
+    public long prepareImport() {
+        return serviceGuard.requireUserId();
+    }
+
+    /** Escreve o arquivo em out, esperando a vez no pool de lotes. Não fecha out. */
+    public void export(PreparedArchive prepared, OutputStream out) throws Exception {
+        batchExecutor.run(() -> {
+            if (!membershipCache.isAdmin(prepared.userId(), prepared.companyId())) {
+                throw new SecurityException("Usuário não possui privilégios de administrador na empresa selecionada.");
+            }
+            return exportTimer.recordCallable(() -> writeArchive(prepared.companyId(), out));
+        });
+    }
+
+    /** target null: usa nome e documento do arquivo. */
+    public CompletableFuture<ImportedArchive> importArchive(long userId, Path file, ArchiveTarget target) {
+        ArchiveTarget t = target == null ? null : normalize(target);
+        return batchExecutor.submit(() -> importTimer.recordCallable(() -> readArchive(userId, file, t)));
+    }
+
+    /** Mesmas regras do cadastro de empresa; lança IllegalArgumentException com a mensagem para a tela. */
+    public ArchiveTarget normalize(ArchiveTarget target) {
+        ArchiveTarget t = new ArchiveTarget(CompanyService.normalizeName(target.name()), target.documentType(),
+                CompanyService.normalizeDocument(target.documentType(), target.document()));
+        CompanyService.validateCompanyInput(t.name(), t.documentType(), t.document());
+        return t;
+    }
+
+    private long writeArchive(long companyId, OutputStream out) throws Exception {
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        TransactionStatus tx = transactionManager.getTransaction(definition);
+        try (TenantArchive.Writer writer = new TenantArchive.Writer(out)) {
+            long total = 0;
+            for (Section section : TenantArchiveRepository.SECTIONS) {
+                writer.beginSection(section);
+                total += archiveRepository.streamSection(section, companyId, fetchSize, writer::row);
+                writer.endSection();
+            }
+            transactionManager.commit(tx);
+            log.info("Arquivo da empresa {} gerado ({} linhas)", companyId, total);
+            return total;
+        } finally {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+        }
+    }
+
+    private ImportedArchive readArchive(long userId, Path file, ArchiveTarget target) throws Exception {
+        TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file));
+             TenantArchive.Reader reader = new TenantArchive.Reader(in)) {
+
+            Section section = reader.nextSection();
+            if (section == null || !section.name().equals(TenantArchiveRepository.COMPANY.name())) {
+                throw new IOException("Arquivo sem os dados da empresa.");
+            }
+            Object[] row = new Object[section.columns().size()];
+            if (!reader.nextRow(row)) throw new IOException("Arquivo sem os dados da empresa.");
+
+            String archivedName = (String) value(section, row, "name");
+            String name = target != null ? target.name() : archivedName;
+            String documentType = target != null ? target.documentType().name() : (String) value(section, row, "document_type");
+            String document = target != null ? target.document() : (String) value(section, row, "document");
+            if (archiveRepository.companyDocumentExists(documentType, document)) {
+                throw new ArchiveCompanyExistsException(
+                        "Já existe uma empresa com o documento " + document + " neste ambiente.", archivedName);
+            }
+            long companyId = archiveRepository.insertCompany(name, documentType, document,
+                    (LocalDateTime) value(section, row, "creation_date"),
+                    (LocalDateTime) value(section, row, "deleted_at"));
+
+            archiveRepository.createImportTables();
+            while ((section = reader.nextSection()) != null) {
+                Section known = known(section.name());
+                if (known == null) {
+                    log.info("Seção '{}' desconhecida no arquivo; ignorada", section.name());
+                    continue;
+                }
+                copySection(reader, section, known);
+            }
+
+            int[] counts = archiveRepository.finishImport(companyId, userId);
+            transactionManager.commit(tx);
+            membershipCache.invalidateUser(userId);
+
+            return new ImportedArchive(companyId, name, counts[0], counts[1], counts[2], counts[3]);
+        } finally {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+        }
+    }
+
+    /** Copia a seção lida para a tabela temporária, casando as colunas pelo nome. */
+    private void copySection(TenantArchive.Reader reader, Section incoming, Section known) throws Exception {
+        List<Column> columns = known.columns();
+        int[] source = new int[columns.size()];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = incoming.indexOf(columns.get(i).name());
+        }
+
+        Object[] row = new Object[incoming.columns().size()];
+        Object[] out = new Object[source.length];
+        StageCopy copy = archiveRepository.openImport(known);
+        try {
+            while (reader.nextRow(row)) {
+                for (int i = 0; i < source.length; i++) {
+                    out[i] = source[i] < 0 ? null : row[source[i]];
+                }
+                copy.row(out);
+            }
+        } catch (Exception e) {
+            copy.abort();
+            throw e;
+        }
+        copy.close();
+    }
+
+    private static Section known(String name) {
+        for (Section s : TenantArchiveRepository.SECTIONS) {
+            if (s.name().equals(name) && s != TenantArchiveRepository.COMPANY) return s;
+        }
+        return null;
+    }
+
+    private static Object value(Section section, Object[] row, String column) {
+        int i = section.indexOf(column);
+        return i < 0 ? null : row[i];
+    }
+}
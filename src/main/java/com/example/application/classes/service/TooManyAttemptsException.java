@@ -0,0 +1,7 @@
+package com.example.application.classes.service;
+
+public class TooManyAttemptsException extends IllegalStateException {
+    public TooManyAttemptsException(String message) {
+        super(message);
+    }
+}
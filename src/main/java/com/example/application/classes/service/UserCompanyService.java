@@ -16,33 +16,41 @@ public class UserCompanyService {
     private final UserCompanyRepository userCompanyRepository;
     private final AppUserRepository appUserRepository;
     private final CurrentUserService currentUserService;
+    private final MembershipCache membershipCache;
 
     public UserCompanyService(UserCompanyRepository userCompanyRepository,
                               AppUserRepository appUserRepository,
-                              CurrentUserService currentUserService) {
+                              CurrentUserService currentUserService,
+                              MembershipCache membershipCache) {
         this.userCompanyRepository = userCompanyRepository;
         this.appUserRepository = appUserRepository;
         this.currentUserService = currentUserService;
+        this.membershipCache = membershipCache;
     }
 
     @Transactional
     public long linkAsAdmin(long createdByUserId, long userId, long companyId) throws SQLException {
-        return userCompanyRepository.insertOrRestore(createdByUserId, userId, companyId, true);
+        long id = userCompanyRepository.insertOrRestore(createdByUserId, userId, companyId, true);
+        membershipCache.invalidate(userId, companyId);
+        return id;
     }
 
     @Transactional
     public long linkMember(long createdByUserId, long userId, long companyId) throws SQLException {
-        return userCompanyRepository.insertOrRestore(createdByUserId, userId, companyId, false);
+        long id = userCompanyRepository.insertOrRestore(createdByUserId, userId, companyId, false);
+        membershipCache.invalidate(userId, companyId);
+        return id;
     }
 
     @Transactional
     public void unlink(long userId, long companyId) throws SQLException {
         userCompanyRepository.softDelete(userId, companyId);
+        membershipCache.invalidate(userId, companyId);
     }
 
     @Transactional(readOnly = true)
     public boolean isAdmin(long userId, long companyId) throws SQLException {
-        return userCompanyRepository.isUserAdmin(userId, companyId);
+        return membershipCache.isAdmin(userId, companyId);
     }
 
     @Transactional(readOnly = true)
@@ -57,7 +65,7 @@ public class UserCompanyService {
 
     @Transactional(readOnly = true)
     public List<CompanyChoice> companyChoicesFor(long userId) throws SQLException {
-        return userCompanyRepository.listActiveCompanyChoicesByUser(userId);
+        return membershipCache.choicesFor(userId);
     }
 
     @Transactional(readOnly = true)
@@ -73,6 +81,7 @@ public class UserCompanyService {
     @Transactional
     public void setAdmin(long userId, long companyId, boolean isAdmin) throws SQLException {
         userCompanyRepository.setAdmin(userId, companyId, isAdmin);
+        membershipCache.invalidate(userId, companyId);
     }
 
     @Transactional
@@ -91,10 +100,12 @@ public class UserCompanyService {
 
         for (Long cid : toDelete) {
             userCompanyRepository.softDelete(userId, cid);
+            membershipCache.invalidate(userId, cid);
         }
 
         for (Long cid : toAdd) {
             userCompanyRepository.insertOrRestore(actingUserId, userId, cid, false);
+            membershipCache.invalidate(userId, cid);
         }
     }
 
@@ -115,7 +126,9 @@ public class UserCompanyService {
         long userId = userOpt.get().getId();
         long actingUserId = currentUserService.requireUserId();
 
-        return userCompanyRepository.insertOrRestore(actingUserId, userId, companyId, false);
+        long id = userCompanyRepository.insertOrRestore(actingUserId, userId, companyId, false);
+        membershipCache.invalidate(userId, companyId);
+        return id;
     }
 
     private static String normalizeEmail(String email) {
@@ -0,0 +1,15 @@
+package com.example.application.classes.service;
+
+import java.time.LocalDate;
+
+public record VaccinationDue(
+        long vaccinationId,
+        LocalDate nextDueAt,
+        LocalDate appliedAt,
+        String protocolName,
+        long petId,
+        String petName,
+        String clientName,
+        String clientPhone
+) {
+}
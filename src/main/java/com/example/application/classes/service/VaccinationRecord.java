@@ -0,0 +1,15 @@
+package com.example.application.classes.service;
+
+import java.time.LocalDate;
+
+/** Vacina aplicada, como aparece no histórico do pet. nextDueAt só vem preenchido na aplicação vigente. */
+public record VaccinationRecord(
+        long id,
+        long protocolId,
+        String protocolName,
+        LocalDate appliedAt,
+        String lot,
+        boolean current,
+        LocalDate nextDueAt
+) {
+}
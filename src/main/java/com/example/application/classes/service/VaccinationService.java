@@ -0,0 +1,197 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.model.VaccineProtocol;
+import com.example.application.classes.repository.VaccinationRepository;
+import com.example.application.config.ServiceGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Protocolos de vacina e vacinas aplicadas nos pets.
+ * - Cada aplicação nova (ou removida) recalcula só a aplicação vigente daquele pet/protocolo.
+ * - Salvar um protocolo recalcula os vencimentos no banco, em lotes de app.vaccination.recompute-chunk
+ *   linhas com uma transação cada, sem trazer as aplicações para o Java. Só quem está fora do novo
+ *   intervalo é gravado, então salvar sem mudar nada só lê.
+ * - Criar e alterar protocolos é coisa de administrador da empresa.
+ * Métrica: app.vaccination.recompute.chunks.
+ */
+@Service
+public class VaccinationService {
+
+    private static final Logger log = LoggerFactory.getLogger(VaccinationService.class);
+
+    private static final int MAX_DUE_ROWS = 2000;
+
+    private final VaccinationRepository vaccinationRepository;
+    private final ServiceGuard serviceGuard;
+    private final PlatformTransactionManager transactionManager;
+    private final int recomputeChunk;
+    private final Counter recomputeChunks;
+
+    public VaccinationService(VaccinationRepository vaccinationRepository,
+                              ServiceGuard serviceGuard,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.vaccination.recompute-chunk:1000}") int recomputeChunk) {
+        this.vaccinationRepository = vaccinationRepository;
+        this.serviceGuard = serviceGuard;
+        this.transactionManager = transactionManager;
+        this.recomputeChunk = Math.max(1, recomputeChunk);
+        this.recomputeChunks = Counter.builder("app.vaccination.recompute.chunks")
+                .register(meterRegistry);
+    }
+
+    // ---------------------------------------------------------------- protocolos
+
+    public List<VaccineProtocol> listProtocols() throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        return vaccinationRepository.listProtocols(companyId);
+    }
+
+    public long createProtocol(VaccineProtocol protocol) throws SQLException {
+        serviceGuard.requireAdmin();
+        long companyId = serviceGuard.requireCompanyId();
+        protocol.setCompanyId(companyId);
+        validate(protocol, null);
+        return vaccinationRepository.insertProtocol(protocol);
+    }
+
+    /**
+     * Salva o protocolo e recalcula os vencimentos das aplicações vigentes. O recálculo roda sempre,
+     * e não só quando o intervalo muda: assim um recálculo interrompido termina no próximo salvar.
+     */
+    public void updateProtocol(VaccineProtocol protocol) throws SQLException {
+        serviceGuard.requireAdmin();
+        long companyId = serviceGuard.requireCompanyId();
+        protocol.setCompanyId(companyId);
+        validate(protocol, protocol.getId());
+
+        if (!vaccinationRepository.updateProtocol(protocol)) {
+            throw new SQLException("Protocolo não encontrado ou conflito de versão.");
+        }
+        recomputeDue(companyId, protocol.getId());
+    }
+
+    /**
+     * Um UPDATE por lote, em ordem de id; cada lote confirma sozinho para não segurar locks
+     * de milhares de linhas. É idempotente: rodar de novo só grava o que ainda está diferente.
+     */
+    private void recomputeDue(long companyId, long protocolId) throws SQLException {
+        long afterId = 0;
+        int chunks = 0;
+        while (afterId >= 0) {
+            TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+            try {
+                afterId = vaccinationRepository.recomputeDueChunk(companyId, protocolId, afterId, recomputeChunk);
+                transactionManager.commit(tx);
+            } finally {
+                if (!tx.isCompleted()) transactionManager.rollback(tx);
+            }
+            chunks++;
+            recomputeChunks.increment();
+        }
+        log.info("Vencimentos do protocolo {} recalculados em {} lote(s)", protocolId, chunks);
+    }
+
+    private void validate(VaccineProtocol protocol, Long exceptId) throws SQLException {
+        String name = protocol.getName() == null ? "" : protocol.getName().trim();
+        String notes = protocol.getNotes() == null ? "" : protocol.getNotes().trim();
+        protocol.setName(name);
+        protocol.setNotes(notes.isEmpty() ? null : notes);
+
+        if (name.isEmpty()) {
+            throw new VaccinationValidationException("Nome do protocolo é obrigatório.");
+        }
+        if (name.length() > 120) {
+            throw new VaccinationValidationException("Nome excede 120 caracteres.");
+        }
+        Integer interval = protocol.getBoosterIntervalDays();
+        if (interval != null && (interval < 1 || interval > 3660)) {
+            throw new VaccinationValidationException("Intervalo de reforço deve estar entre 1 e 3660 dias.");
+        }
+        if (vaccinationRepository.existsProtocolName(protocol.getCompanyId(), name, exceptId)) {
+            throw new VaccinationValidationException("Já existe um protocolo com esse nome.");
+        }
+    }
+
+    // ---------------------------------------------------------------- aplicações
+
+    public List<VaccinationRecord> listByPet(long petId) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        return vaccinationRepository.listByPet(companyId, petId);
+    }
+
+    public void registerVaccination(long petId, Long protocolId, LocalDate appliedAt, String lot) throws SQLException {
+        long userId = serviceGuard.requireUserId();
+        long companyId = serviceGuard.requireCompanyId();
+
+        if (protocolId == null) {
+            throw new VaccinationValidationException("Selecione o protocolo da vacina.");
+        }
+        if (appliedAt == null) {
+            throw new VaccinationValidationException("Data de aplicação é obrigatória.");
+        }
+        if (appliedAt.isAfter(LocalDate.now())) {
+            throw new VaccinationValidationException("Data de aplicação não pode ser futura.");
+        }
+        String trimmedLot = lot == null ? "" : lot.trim();
+        if (trimmedLot.length() > 60) {
+            throw new VaccinationValidationException("Lote excede 60 caracteres.");
+        }
+        if (vaccinationRepository.findProtocol(companyId, protocolId).isEmpty()) {
+            throw new SecurityException("Protocolo não encontrado na empresa selecionada.");
+        }
+
+        TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            if (!vaccinationRepository.lockPet(companyId, petId)) {
+                throw new SecurityException("Pet não encontrado na empresa selecionada.");
+            }
+            vaccinationRepository.insertVaccination(companyId, petId, protocolId, appliedAt,
+                    trimmedLot.isEmpty() ? null : trimmedLot, userId);
+            vaccinationRepository.refreshCurrent(petId, protocolId);
+            transactionManager.commit(tx);
+        } finally {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+        }
+    }
+
+    public void deleteVaccination(long petId, long vaccinationId) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+
+        TransactionStatus tx = transactionManager.getTransaction(new DefaultTransactionDefinition());
+        try {
+            if (!vaccinationRepository.lockPet(companyId, petId)) {
+                throw new SecurityException("Pet não encontrado na empresa selecionada.");
+            }
+            long protocolId = vaccinationRepository.deleteVaccination(companyId, petId, vaccinationId)
+                    .orElseThrow(() -> new SQLException("Aplicação não encontrada."));
+            vaccinationRepository.refreshCurrent(petId, protocolId);
+            transactionManager.commit(tx);
+        } finally {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+        }
+    }
+
+    // ---------------------------------------------------------------- vencimentos
+
+    /** Atrasadas e que vencem nos próximos days dias (hoje incluso), as mais atrasadas primeiro. */
+    public List<VaccinationDue> listDue(int days) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        if (days < 0 || days > 365) {
+            throw new VaccinationValidationException("Período deve estar entre 0 e 365 dias.");
+        }
+        return vaccinationRepository.listDue(companyId, LocalDate.now().plusDays(days + 1L), MAX_DUE_ROWS);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.application.classes.service;
+
+public class VaccinationValidationException extends RuntimeException {
+    public VaccinationValidationException(String message) {
+        super(message);
+    }
+}
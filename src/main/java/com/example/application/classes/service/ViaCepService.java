@@ -1,17 +1,39 @@
 package com.example.application.classes.service;
 
+import com.example.application.classes.repository.CepCacheRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.concurrent.*;
 
+/**
+ * Consulta de CEP: base local (arquivo mapeado, ver CepDatasetHolder), depois cache em dois níveis:
+ * - memória (LRU limitado, por réplica) na frente da tabela cep_cache (compartilhada);
+ * - entradas vencidas são renovadas no ViaCEP; se ele falhar, a entrada vencida continua servindo;
+ * - CEP inexistente também é guardado (cache negativo), com validade menor.
+ * lookupAsync roda em virtual threads e junta consultas simultâneas ao mesmo CEP (de qualquer sessão)
+ * em uma só; o ViaCEP fica atrás de um circuit breaker, então uma queda falha na hora.
+ * Métricas: app.cep.lookup (tag source), app.cep.circuit e cache.* com cache=cep.
+ */
 @Service
 public class ViaCepService {
 
@@ -19,55 +41,218 @@ public class ViaCepService {
 
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
+    private final CepCacheRepository cepCacheRepository;
+    private final CepDatasetHolder dataset;
+    private final Cache<String, CepCacheEntry> memory;
+    private final ConcurrentHashMap<String, CompletableFuture<CepCacheEntry>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final CircuitBreaker circuitBreaker;
 
-    public ViaCepService() {
+    private final Duration foundTtl;
+    private final Duration notFoundTtl;
+    private final Duration staleRetry;
+
+    private final Counter datasetHits;
+    private final Counter memoryHits;
+    private final Counter dbHits;
+    private final Counter remoteLoads;
+    private final Counter staleServed;
+    private final Counter failures;
+    private final Timer remoteTimer;
+
+    public ViaCepService(CepCacheRepository cepCacheRepository,
+                         CepDatasetHolder dataset,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.cep.cache.max-size:20000}") long maxSize,
+                         @Value("${app.cep.cache.found-ttl-days:90}") long foundTtlDays,
+                         @Value("${app.cep.cache.not-found-ttl-hours:24}") long notFoundTtlHours,
+                         @Value("${app.cep.cache.stale-retry-minutes:10}") long staleRetryMinutes,
+                         @Value("${app.cep.circuit.failure-threshold:3}") int circuitFailureThreshold,
+                         @Value("${app.cep.circuit.open-seconds:30}") long circuitOpenSeconds) {
         this.httpClient = HttpClient.newBuilder()
                 .version(HttpClient.Version.HTTP_1_1)
                 .connectTimeout(Duration.ofSeconds(5))
                 .build();
         this.objectMapper = new ObjectMapper();
+        this.cepCacheRepository = cepCacheRepository;
+        this.dataset = dataset;
+
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, memory, "cep");
+
+        this.foundTtl = Duration.ofDays(foundTtlDays);
+        this.notFoundTtl = Duration.ofHours(notFoundTtlHours);
+        this.staleRetry = Duration.ofMinutes(staleRetryMinutes);
+        this.circuitBreaker = new CircuitBreaker(circuitFailureThreshold, Duration.ofSeconds(circuitOpenSeconds));
+
+        this.datasetHits = lookupCounter(meterRegistry, "dataset");
+        this.memoryHits = lookupCounter(meterRegistry, "memory");
+        this.dbHits = lookupCounter(meterRegistry, "db");
+        this.remoteLoads = lookupCounter(meterRegistry, "remote");
+        this.staleServed = lookupCounter(meterRegistry, "stale");
+        this.failures = lookupCounter(meterRegistry, "error");
+        this.remoteTimer = Timer.builder("app.cep.remote")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("app.cep.circuit", circuitBreaker, cb -> cb.state().ordinal())
+                .description("0 = fechado, 1 = aberto, 2 = meio-aberto")
+                .register(meterRegistry);
     }
 
+    /** Versão bloqueante; falhas (inclusive circuito aberto) viram Optional.empty(). */
     public Optional<ViaCepResponse> lookup(String cepRaw) {
         try {
-            String digits = cepRaw == null ? "" : cepRaw.replaceAll("\\D", "");
-            if (!digits.matches("\\d{8}")) {
-                log.debug("ViaCep: CEP '{}' não possui 8 dígitos após limpeza -> ignorando", cepRaw);
-                return Optional.empty();
-            }
+            return lookupAsync(cepRaw).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Consulta assíncrona. Acerto na base local ou em memória volta já completado; senão a carga roda numa virtual thread.
+     * O future devolvido é exclusivo de quem chamou: cancelá-lo não afeta outras sessões esperando o mesmo CEP.
+     * Falha com CepUnavailableException quando o ViaCEP está fora e não há nada em cache.
+     */
+    public CompletableFuture<Optional<ViaCepResponse>> lookupAsync(String cepRaw) {
+        String digits = cepRaw == null ? "" : cepRaw.replaceAll("\\D", "");
+        if (!digits.matches("\\d{8}")) {
+            log.debug("ViaCep: CEP '{}' não possui 8 dígitos após limpeza -> ignorando", cepRaw);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
 
-            String url = "https://viacep.com.br/ws/" + digits + "/json/";
-            log.debug("ViaCep: consultando URL {}", url);
+        Optional<ViaCepResponse> local = dataset.find(digits);
+        if (local.isPresent()) {
+            datasetHits.increment();
+            return CompletableFuture.completedFuture(local);
+        }
 
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(url))
-                    .timeout(Duration.ofSeconds(5))
-                    .GET()
-                    .build();
+        CepCacheEntry cached = memory.getIfPresent(digits);
+        if (cached != null && !cached.isExpired(LocalDateTime.now())) {
+            memoryHits.increment();
+            return CompletableFuture.completedFuture(cached.toResponse());
+        }
 
-            HttpResponse<String> response = httpClient.send(
-                    request,
-                    HttpResponse.BodyHandlers.ofString()
-            );
+        CompletableFuture<CepCacheEntry> shared = inFlight.computeIfAbsent(digits,
+                d -> CompletableFuture.supplyAsync(() -> load(d), executor));
+        shared.whenComplete((r, e) -> inFlight.remove(digits, shared));
+        return shared.thenApply(CepCacheEntry::toResponse);
+    }
 
-            log.debug("ViaCep: status code={} body={}", response.statusCode(), response.body());
+    /** Memória (de novo, pode ter sido preenchida enquanto esperava), banco e por fim o ViaCEP. */
+    private CepCacheEntry load(String digits) {
+        LocalDateTime now = LocalDateTime.now();
 
-            if (response.statusCode() != 200) {
-                log.warn("ViaCep retornou status {} para CEP {}", response.statusCode(), digits);
-                return Optional.empty();
-            }
+        CepCacheEntry cached = memory.getIfPresent(digits);
+        if (cached != null && !cached.isExpired(now)) {
+            memoryHits.increment();
+            return cached;
+        }
 
-            ViaCepResponse dto = objectMapper.readValue(response.body(), ViaCepResponse.class);
+        // Outra réplica pode já ter renovado a entrada no banco.
+        CepCacheEntry stored = findInDb(digits);
+        if (stored != null && !stored.isExpired(now)) {
+            memory.put(digits, stored);
+            dbHits.increment();
+            return stored;
+        }
+        if (stored != null) cached = stored;
 
-            if (dto.getErro() != null && dto.getErro()) {
-                log.info("ViaCep: CEP {} não encontrado (campo erro = true)", digits);
-                return Optional.empty();
+        Exception failure;
+        if (circuitBreaker.tryAcquire()) {
+            try {
+                CepCacheEntry fresh = remoteTimer.recordCallable(() -> fetchRemote(digits, now));
+                circuitBreaker.onSuccess();
+                remoteLoads.increment();
+                memory.put(digits, fresh);
+                saveInDb(fresh);
+                return fresh;
+            } catch (Exception e) {
+                circuitBreaker.onFailure();
+                failure = e;
             }
+        } else {
+            failure = new CepUnavailableException("Circuito do ViaCEP aberto");
+        }
+
+        if (cached != null) {
+            // ViaCEP fora do ar: continua servindo a entrada vencida e só tenta de novo mais tarde.
+            log.warn("ViaCep indisponível para CEP {}; usando cache vencido ({})", digits, failure.getMessage());
+            memory.put(digits, cached.withExpiresAt(now.plus(staleRetry)));
+            staleServed.increment();
+            return cached;
+        }
+        log.warn("Erro ao consultar ViaCep para CEP '{}': {}", digits, failure.getMessage());
+        failures.increment();
+        throw new CepUnavailableException("Consulta de CEP indisponível no momento.");
+    }
+
+    /** Consulta o ViaCEP. Lança exceção em falha de rede/HTTP; "não encontrado" volta como entrada negativa. */
+    private CepCacheEntry fetchRemote(String digits, LocalDateTime now) throws IOException, InterruptedException {
+        String url = "https://viacep.com.br/ws/" + digits + "/json/";
+        log.debug("ViaCep: consultando URL {}", url);
 
-            return Optional.of(dto);
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+
+        HttpResponse<String> response = httpClient.send(
+                request,
+                HttpResponse.BodyHandlers.ofString()
+        );
+
+        log.debug("ViaCep: status code={} body={}", response.statusCode(), response.body());
+
+        // 400 = formato inválido; para CEP de 8 dígitos isso equivale a "não existe".
+        if (response.statusCode() == 400) {
+            return CepCacheEntry.notFound(digits, now.plus(notFoundTtl));
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("ViaCep retornou status " + response.statusCode() + " para CEP " + digits);
+        }
+
+        ViaCepResponse dto = objectMapper.readValue(response.body(), ViaCepResponse.class);
+
+        if (dto.getErro() != null && dto.getErro()) {
+            log.info("ViaCep: CEP {} não encontrado (campo erro = true)", digits);
+            return CepCacheEntry.notFound(digits, now.plus(notFoundTtl));
+        }
+
+        return CepCacheEntry.of(digits, dto, now.plus(foundTtl));
+    }
+
+    private CepCacheEntry findInDb(String digits) {
+        try {
+            return cepCacheRepository.find(digits).orElse(null);
         } catch (Exception e) {
-            log.error("Erro ao consultar ViaCep para CEP '{}'", cepRaw, e);
-            return Optional.empty();
+            log.warn("Falha ao ler cep_cache para CEP {}", digits, e);
+            return null;
         }
     }
-}
\ No newline at end of file
+
+    private void saveInDb(CepCacheEntry entry) {
+        try {
+            cepCacheRepository.upsert(entry);
+        } catch (Exception e) {
+            log.warn("Falha ao gravar cep_cache para CEP {}", entry.cep(), e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static Counter lookupCounter(MeterRegistry registry, String source) {
+        return Counter.builder("app.cep.lookup")
+                .tag("source", source)
+                .register(registry);
+    }
+}
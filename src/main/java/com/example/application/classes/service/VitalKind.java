@@ -0,0 +1,22 @@
+package com.example.application.classes.service;
+
+/** Tipos de medida do pet; code é o valor gravado em pet_vital.kind. */
+public enum VitalKind {
+    WEIGHT(1, "Peso", "kg", 0.01, 500),
+    TEMPERATURE(2, "Temperatura", "°C", 25, 45),
+    HEART_RATE(3, "Frequência cardíaca", "bpm", 10, 400);
+
+    public final int code;
+    public final String label;
+    public final String unit;
+    final double min;
+    final double max;
+
+    VitalKind(int code, String label, String unit, double min, double max) {
+        this.code = code;
+        this.label = label;
+        this.unit = unit;
+        this.min = min;
+        this.max = max;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.application.classes.service;
+
+import java.time.LocalDateTime;
+
+public record VitalPoint(LocalDateTime measuredAt, double value) {}
@@ -0,0 +1,15 @@
+package com.example.application.classes.service;
+
+import java.util.List;
+
+/** Série pronta para o gráfico: points já reduzida; total é quantas medidas existem de fato. */
+public record VitalSeries(VitalKind kind, long total, List<VitalPoint> points) {
+
+    public boolean isEmpty() {
+        return points.isEmpty();
+    }
+
+    public VitalPoint last() {
+        return points.isEmpty() ? null : points.get(points.size() - 1);
+    }
+}
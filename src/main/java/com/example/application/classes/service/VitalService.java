@@ -0,0 +1,131 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.Lttb;
+import com.example.application.classes.repository.VitalRepository;
+import com.example.application.config.ServiceGuard;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Peso, temperatura e frequência cardíaca do pet ao longo do tempo.
+ * - A série é lida em streaming para arrays primitivos e reduzida com LTTB antes de ir para a tela:
+ *   pacientes crônicos acumulam milhares de medidas, o gráfico recebe no máximo app.vitals.chart-points.
+ * Métricas: app.vitals.series (latência) e app.vitals.series.points (medidas lidas por série).
+ */
+@Service
+public class VitalService {
+
+    private static final int FETCH_SIZE = 2000;
+
+    private final VitalRepository vitalRepository;
+    private final ServiceGuard serviceGuard;
+    private final PlatformTransactionManager transactionManager;
+    private final int chartPoints;
+    private final Timer seriesTimer;
+    private final DistributionSummary seriesPoints;
+
+    public VitalService(VitalRepository vitalRepository,
+                        ServiceGuard serviceGuard,
+                        PlatformTransactionManager transactionManager,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.vitals.chart-points:300}") int chartPoints) {
+        this.vitalRepository = vitalRepository;
+        this.serviceGuard = serviceGuard;
+        this.transactionManager = transactionManager;
+        this.chartPoints = Math.max(3, chartPoints);
+        this.seriesTimer = Timer.builder("app.vitals.series")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.seriesPoints = DistributionSummary.builder("app.vitals.series.points")
+                .register(meterRegistry);
+    }
+
+    public void record(long petId, VitalKind kind, LocalDateTime measuredAt, Double value) throws SQLException {
+        long userId = serviceGuard.requireUserId();
+        long companyId = serviceGuard.requireCompanyId();
+
+        if (kind == null) throw new PetValidationException("Tipo de medida é obrigatório.");
+        if (value == null) throw new PetValidationException(kind.label + " é obrigatório.");
+        if (value < kind.min || value > kind.max) {
+            throw new PetValidationException(kind.label + " deve estar entre "
+                    + format(kind.min) + " e " + format(kind.max) + " " + kind.unit + ".");
+        }
+        LocalDateTime at = measuredAt != null ? measuredAt : LocalDateTime.now();
+        if (at.isAfter(LocalDateTime.now().plusMinutes(5))) {
+            throw new PetValidationException("Data da medida não pode estar no futuro.");
+        }
+
+        if (!vitalRepository.insert(companyId, petId, kind.code, at, value, userId)) {
+            throw new SecurityException("Pet não encontrado na empresa selecionada.");
+        }
+    }
+
+    /** Série de um tipo de medida, reduzida para o gráfico. */
+    public VitalSeries series(long petId, VitalKind kind) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        try {
+            return seriesTimer.recordCallable(() -> load(companyId, petId, kind));
+        } catch (SQLException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private VitalSeries load(long companyId, long petId, VitalKind kind) throws SQLException {
+        Points points = new Points();
+
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setReadOnly(true);
+        TransactionStatus tx = transactionManager.getTransaction(definition);
+        try {
+            vitalRepository.stream(companyId, petId, kind.code, FETCH_SIZE, points);
+            transactionManager.commit(tx);
+        } finally {
+            if (!tx.isCompleted()) transactionManager.rollback(tx);
+        }
+        seriesPoints.record(points.size);
+
+        int[] selected = Lttb.downsample(points.x, points.y, points.size, chartPoints);
+        List<VitalPoint> result = new ArrayList<>(selected.length);
+        for (int i : selected) {
+            result.add(new VitalPoint(new Timestamp((long) points.x[i]).toLocalDateTime(), points.y[i]));
+        }
+        return new VitalSeries(kind, points.size, result);
+    }
+
+    private static String format(double v) {
+        return v == Math.rint(v) ? String.valueOf((long) v) : String.valueOf(v);
+    }
+
+    /** Arrays que crescem conforme o cursor avança; um ponto ocupa 16 bytes em vez de dois objetos. */
+    private static final class Points implements VitalRepository.PointSink {
+        double[] x = new double[256];
+        double[] y = new double[256];
+        int size;
+
+        @Override
+        public void accept(long epochMillis, double value) {
+            if (size == x.length) {
+                x = Arrays.copyOf(x, size * 2);
+                y = Arrays.copyOf(y, size * 2);
+            }
+            x[size] = epochMillis;
+            y[size] = value;
+            size++;
+        }
+    }
+}
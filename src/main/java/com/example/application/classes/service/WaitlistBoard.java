@@ -0,0 +1,186 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.WaitlistRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Fila de espera viva, em memória, por empresa.
+ * - O estado é um mapa imutável (id -> entrada) trocado por compare-and-set: leitores nunca travam
+ *   e a mesma entrada só é substituída por uma de versão maior, então aplicar fora de ordem ou duas vezes não estraga.
+ * - Telas assinam a fila; mudanças só marcam a empresa como suja. Um tique a cada app.waitlist.push-ms
+ *   monta uma única foto por empresa e entrega a mesma instância a todas as telas. Várias mudanças
+ *   no intervalo viram um envio só.
+ * - A cada app.waitlist.resync-ms as filas com telas abertas são relidas do banco (mudanças feitas
+ *   por outras réplicas); fila sem tela só é relida no próximo acesso.
+ * Métricas: app.waitlist.subscribers e app.waitlist.pushes.
+ */
+@Component
+public class WaitlistBoard {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistBoard.class);
+
+    private static final Comparator<WaitlistEntry> WAITING_ORDER = Comparator
+            .comparingInt((WaitlistEntry e) -> e.priority().code)
+            .thenComparing(WaitlistEntry::checkedInAt)
+            .thenComparingLong(WaitlistEntry::id);
+    private static final Comparator<WaitlistEntry> CALLED_ORDER = Comparator
+            .comparing(WaitlistEntry::calledAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparingLong(WaitlistEntry::id);
+
+    private static final class Queue {
+        final AtomicReference<Map<Long, WaitlistEntry>> entries = new AtomicReference<>(Map.of());
+        final AtomicLong revision = new AtomicLong();
+        final CopyOnWriteArrayList<Consumer<WaitlistSnapshot>> listeners = new CopyOnWriteArrayList<>();
+        volatile WaitlistSnapshot snapshot = WaitlistSnapshot.EMPTY;
+        volatile boolean loaded;
+    }
+
+    private final WaitlistRepository waitlistRepository;
+    private final ConcurrentHashMap<Long, Queue> queues = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Counter pushes;
+
+    public WaitlistBoard(WaitlistRepository waitlistRepository,
+                         MeterRegistry meterRegistry) {
+        this.waitlistRepository = waitlistRepository;
+        this.pushes = Counter.builder("app.waitlist.pushes")
+                .register(meterRegistry);
+        Gauge.builder("app.waitlist.subscribers", queues,
+                        q -> q.values().stream().mapToInt(x -> x.listeners.size()).sum())
+                .register(meterRegistry);
+    }
+
+    /** Foto atual da fila (carrega do banco no primeiro acesso). */
+    public WaitlistSnapshot snapshot(long companyId) throws SQLException {
+        return current(loaded(companyId));
+    }
+
+    /**
+     * Recebe a foto atual na hora e depois a cada mudança (na thread do tique, nunca na da tela).
+     * Devolve a ação que cancela a assinatura.
+     */
+    public Runnable subscribe(long companyId, Consumer<WaitlistSnapshot> listener) throws SQLException {
+        Queue q = loaded(companyId);
+        q.listeners.add(listener);
+        listener.accept(current(q));
+        return () -> q.listeners.remove(listener);
+    }
+
+    /** Aplica uma entrada recém-gravada. */
+    void apply(long companyId, WaitlistEntry entry) throws SQLException {
+        merge(companyId, loaded(companyId), List.of(entry));
+    }
+
+    /** Relê a fila do banco (usado também após conflito de versão). */
+    void reload(long companyId) throws SQLException {
+        Queue q = queues.computeIfAbsent(companyId, id -> new Queue());
+        merge(companyId, q, waitlistRepository.listRecent(companyId, LocalDate.now().atStartOfDay()));
+        q.loaded = true;
+    }
+
+    @Scheduled(initialDelayString = "${app.waitlist.resync-ms:30000}",
+            fixedDelayString = "${app.waitlist.resync-ms:30000}")
+    void resync() {
+        for (Map.Entry<Long, Queue> e : queues.entrySet()) {
+            if (e.getValue().listeners.isEmpty()) {
+                e.getValue().loaded = false;
+                continue;
+            }
+            try {
+                reload(e.getKey());
+            } catch (Exception ex) {
+                log.warn("Falha ao reler a fila de espera da empresa {}", e.getKey(), ex);
+            }
+        }
+    }
+
+    private Queue loaded(long companyId) throws SQLException {
+        Queue q = queues.computeIfAbsent(companyId, id -> new Queue());
+        // Duas cargas ao mesmo tempo só repetem a leitura: merge é idempotente.
+        if (!q.loaded) reload(companyId);
+        return q;
+    }
+
+    private void merge(long companyId, Queue q, Collection<WaitlistEntry> incoming) {
+        LocalDateTime keepSince = LocalDate.now().atStartOfDay();
+        Map<Long, WaitlistEntry> before;
+        Map<Long, WaitlistEntry> after;
+        do {
+            before = q.entries.get();
+            Map<Long, WaitlistEntry> next = new HashMap<>(before);
+            for (WaitlistEntry entry : incoming) {
+                next.merge(entry.id(), entry, (old, neu) -> neu.version() > old.version() ? neu : old);
+            }
+            // Encerradas de dias anteriores saem da memória.
+            next.values().removeIf(x -> !x.status().open() && x.updatedAt().isBefore(keepSince));
+            after = Map.copyOf(next);
+        } while (!q.entries.compareAndSet(before, after));
+
+        if (!after.equals(before)) {
+            q.revision.incrementAndGet();
+            dirty.add(companyId);
+        }
+    }
+
+    /** Foto da revisão corrente, montada uma vez e reaproveitada por todas as telas. */
+    private static WaitlistSnapshot current(Queue q) {
+        WaitlistSnapshot cached = q.snapshot;
+        long revision = q.revision.get();
+        if (cached.revision() == revision) return cached;
+
+        LocalDateTime today = LocalDate.now().atStartOfDay();
+        List<WaitlistEntry> waiting = new ArrayList<>();
+        List<WaitlistEntry> called = new ArrayList<>();
+        int doneToday = 0;
+        for (WaitlistEntry e : q.entries.get().values()) {
+            switch (e.status()) {
+                case WAITING -> waiting.add(e);
+                case CALLED -> called.add(e);
+                case DONE -> { if (!e.updatedAt().isBefore(today)) doneToday++; }
+                case LEFT -> { }
+            }
+        }
+        waiting.sort(WAITING_ORDER);
+        called.sort(CALLED_ORDER);
+
+        WaitlistSnapshot snapshot = new WaitlistSnapshot(revision, List.copyOf(waiting), List.copyOf(called), doneToday);
+        q.snapshot = snapshot;
+        return snapshot;
+    }
+
+    @Scheduled(initialDelayString = "${app.waitlist.push-ms:1000}",
+            fixedDelayString = "${app.waitlist.push-ms:1000}")
+    void publish() {
+        for (Long companyId : dirty) {
+            dirty.remove(companyId);
+            Queue q = queues.get(companyId);
+            if (q == null || q.listeners.isEmpty()) continue;
+
+            WaitlistSnapshot snapshot = current(q);
+            for (Consumer<WaitlistSnapshot> listener : q.listeners) {
+                try {
+                    listener.accept(snapshot);
+                    pushes.increment();
+                } catch (RuntimeException ex) {
+                    log.warn("Falha ao entregar a fila de espera a uma tela", ex);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.application.classes.service;
+
+import java.time.LocalDateTime;
+
+/** Linha da fila de espera, imutável; cada mudança gravada gera uma nova com version maior. */
+public record WaitlistEntry(
+        long id,
+        int version,
+        Long petId,
+        String displayName,
+        String note,
+        WaitlistPriority priority,
+        WaitlistStatus status,
+        String room,
+        LocalDateTime checkedInAt,
+        LocalDateTime calledAt,
+        LocalDateTime updatedAt
+) {}
@@ -0,0 +1,23 @@
+package com.example.application.classes.service;
+
+/** Prioridade da triagem; code é o valor gravado em waitlist_entry.priority (menor = antes). */
+public enum WaitlistPriority {
+    EMERGENCY(1, "Emergência"),
+    URGENT(2, "Urgente"),
+    NORMAL(3, "Normal");
+
+    public final int code;
+    public final String label;
+
+    WaitlistPriority(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public static WaitlistPriority of(int code) {
+        for (WaitlistPriority p : values()) {
+            if (p.code == code) return p;
+        }
+        throw new IllegalArgumentException("Prioridade desconhecida: " + code);
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.WaitlistRepository;
+import com.example.application.config.ServiceGuard;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Fila de espera (chegada sem hora marcada): grava no banco e aplica a linha devolvida na fila em memória.
+ * Cada ação é conferida pela versão da entrada que a tela exibia.
+ */
+@Service
+public class WaitlistService {
+
+    private static final int MAX_NAME_LENGTH = 80;
+    private static final int MAX_NOTE_LENGTH = 200;
+    private static final int MAX_ROOM_LENGTH = 40;
+
+    private final WaitlistRepository waitlistRepository;
+    private final WaitlistBoard board;
+    private final ServiceGuard serviceGuard;
+
+    public WaitlistService(WaitlistRepository waitlistRepository,
+                           WaitlistBoard board,
+                           ServiceGuard serviceGuard) {
+        this.waitlistRepository = waitlistRepository;
+        this.board = board;
+        this.serviceGuard = serviceGuard;
+    }
+
+    public WaitlistEntry checkIn(Long petId, String displayName, String note,
+                                 WaitlistPriority priority) throws SQLException {
+        long userId = serviceGuard.requireUserId();
+        long companyId = serviceGuard.requireCompanyId();
+
+        String name = trim(displayName);
+        if (name.isEmpty()) {
+            throw new WaitlistValidationException("Informe o paciente.");
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            throw new WaitlistValidationException("Nome do paciente muito longo (máx. " + MAX_NAME_LENGTH + ").");
+        }
+        String n = trim(note);
+        if (n.length() > MAX_NOTE_LENGTH) {
+            throw new WaitlistValidationException("Observação muito longa (máx. " + MAX_NOTE_LENGTH + ").");
+        }
+        if (priority == null) {
+            throw new WaitlistValidationException("Informe a prioridade.");
+        }
+
+        WaitlistEntry entry = waitlistRepository.insert(companyId, userId, petId, name, n.isEmpty() ? null : n, priority)
+                .orElseThrow(() -> new WaitlistValidationException(
+                        "Pet inválido ou não pertence à empresa selecionada."));
+        board.apply(companyId, entry);
+        return entry;
+    }
+
+    public void triage(WaitlistEntry entry, WaitlistPriority priority) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        if (priority == null) {
+            throw new WaitlistValidationException("Informe a prioridade.");
+        }
+        applyOrConflict(companyId, waitlistRepository.updatePriority(companyId, entry.id(), entry.version(), priority));
+    }
+
+    public void call(WaitlistEntry entry, String room) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        String r = trim(room);
+        if (r.isEmpty()) {
+            throw new WaitlistValidationException("Informe a sala.");
+        }
+        if (r.length() > MAX_ROOM_LENGTH) {
+            throw new WaitlistValidationException("Nome da sala muito longo (máx. " + MAX_ROOM_LENGTH + ").");
+        }
+        applyOrConflict(companyId, waitlistRepository.call(companyId, entry.id(), entry.version(), r));
+    }
+
+    /** Atendido ou desistiu; a entrada sai da fila. */
+    public void finish(WaitlistEntry entry, WaitlistStatus status) throws SQLException {
+        long companyId = serviceGuard.requireCompanyId();
+        if (status == null || status.open()) {
+            throw new WaitlistValidationException("Status final inválido.");
+        }
+        applyOrConflict(companyId, waitlistRepository.finish(companyId, entry.id(), entry.version(), status));
+    }
+
+    public WaitlistSnapshot snapshot() throws SQLException {
+        return board.snapshot(serviceGuard.requireCompanyId());
+    }
+
+    /** Ver WaitlistBoard.subscribe: o listener roda fora da thread da tela. */
+    public Runnable subscribe(Consumer<WaitlistSnapshot> listener) throws SQLException {
+        return board.subscribe(serviceGuard.requireCompanyId(), listener);
+    }
+
+    private void applyOrConflict(long companyId, Optional<WaitlistEntry> updated) throws SQLException {
+        if (updated.isEmpty()) {
+            // Tela desatualizada: relê para que todas recebam o estado atual.
+            board.reload(companyId);
+            throw new WaitlistValidationException("A fila mudou enquanto você editava. Confira e tente novamente.");
+        }
+        board.apply(companyId, updated.get());
+    }
+
+    private static String trim(String v) {
+        return v == null ? "" : v.trim();
+    }
+}
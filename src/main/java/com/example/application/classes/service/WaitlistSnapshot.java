@@ -0,0 +1,12 @@
+package com.example.application.classes.service;
+
+import java.util.List;
+
+/**
+ * Foto da fila de uma empresa, compartilhada por todas as telas (não deve ser alterada).
+ * waiting: por prioridade e chegada; called: chamada mais recente primeiro.
+ */
+public record WaitlistSnapshot(long revision, List<WaitlistEntry> waiting, List<WaitlistEntry> called, int doneToday) {
+
+    static final WaitlistSnapshot EMPTY = new WaitlistSnapshot(0, List.of(), List.of(), 0);
+}
@@ -0,0 +1,28 @@
+package com.example.application.classes.service;
+
+/** Situação na fila; code é o valor gravado em waitlist_entry.status. */
+public enum WaitlistStatus {
+    WAITING(1, "Aguardando"),
+    CALLED(2, "Chamado"),
+    DONE(3, "Atendido"),
+    LEFT(4, "Desistiu");
+
+    public final int code;
+    public final String label;
+
+    WaitlistStatus(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public boolean open() {
+        return this == WAITING || this == CALLED;
+    }
+
+    public static WaitlistStatus of(int code) {
+        for (WaitlistStatus s : values()) {
+            if (s.code == code) return s;
+        }
+        throw new IllegalArgumentException("Status desconhecido: " + code);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.application.classes.service;
+
+public class WaitlistValidationException extends RuntimeException {
+    public WaitlistValidationException(String message) {
+        super(message);
+    }
+}
@@ -4,18 +4,37 @@ import com.example.application.base.ui.MainLayout;
 import com.example.application.base.ui.component.ViewToolbar;
 import com.example.application.classes.service.AgendaRow;
 import com.example.application.classes.service.AgendaService;
+import com.example.application.classes.service.AttendanceSeriesService;
+import com.example.application.classes.service.AttendanceValidationException;
+import com.example.application.classes.service.BulkRescheduleResult;
+import com.example.application.classes.service.CompanyUserRow;
 import com.example.application.classes.service.CurrentCompanyService;
 import com.example.application.classes.service.CurrentUserService;
+import com.example.application.classes.service.ExportService;
+import com.example.application.classes.service.UserCompanyService;
 import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.datepicker.DatePicker;
+import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Main;
 import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.router.*;
 
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 
 @PageTitle("Agenda")
 @Route(value = "agenda", layout = MainLayout.class)
@@ -23,29 +42,49 @@ import java.util.List;
 public class AgendaView extends Main implements BeforeEnterObserver {
 
     private final AgendaService agendaService;
+    private final AttendanceSeriesService seriesService;
     private final CurrentCompanyService currentCompanyService;
     private final CurrentUserService currentUserService;
+    private final UserCompanyService userCompanyService;
 
     private final Grid<AgendaRow> grid = new Grid<>(AgendaRow.class, false);
+    private final Grid<AgendaRow> undatedGrid = new Grid<>(AgendaRow.class, false);
     private final ComboBox<String> statusFilter = new ComboBox<>("Status");
+    private final DatePicker fromPicker = new DatePicker("De");
+    private final DatePicker toPicker = new DatePicker("Até");
+    private final Button openBtn = new Button("Abrir");
+    private final Button cancelOccurrenceBtn = new Button("Cancelar ocorrência");
+    private final Button endSeriesBtn = new Button("Encerrar série aqui");
+    private final Button rescheduleBtn = new Button("Remarcar selecionados");
 
     private List<AgendaRow> allItems = Collections.emptyList();
 
     private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     public AgendaView(AgendaService agendaService,
+                      AttendanceSeriesService seriesService,
                       CurrentCompanyService currentCompanyService,
-                      CurrentUserService currentUserService) {
+                      CurrentUserService currentUserService,
+                      UserCompanyService userCompanyService,
+                      ExportService exportService) {
         this.agendaService = agendaService;
+        this.seriesService = seriesService;
         this.currentCompanyService = currentCompanyService;
         this.currentUserService = currentUserService;
+        this.userCompanyService = userCompanyService;
 
-        add(new ViewToolbar("Agenda"));
+        add(new ViewToolbar("Agenda", ExportLinks.of(exportService, ExportService.Dataset.ATTENDANCES)));
 
-        configureStatusFilter();
+        configureFilters();
         configureGrid();
+        configureUndatedGrid();
+        configureActions();
 
-        add(statusFilter, grid);
+        var filters = new HorizontalLayout(fromPicker, toPicker, statusFilter);
+        filters.setAlignItems(FlexComponent.Alignment.BASELINE);
+        var actions = new HorizontalLayout(openBtn, cancelOccurrenceBtn, endSeriesBtn, rescheduleBtn);
+
+        add(filters, actions, grid, new H3("Sem data"), undatedGrid);
     }
 
     @Override
@@ -80,6 +119,10 @@ public class AgendaView extends Main implements BeforeEnterObserver {
                 .setHeader("Status")
                 .setAutoWidth(true);
 
+        grid.addColumn(row -> row.seriesId() == null ? "" : "Recorrente")
+                .setHeader("Série")
+                .setAutoWidth(true);
+
         grid.addColumn(AgendaRow::petName)
                 .setHeader("Pet")
                 .setAutoWidth(true);
@@ -92,29 +135,103 @@ public class AgendaView extends Main implements BeforeEnterObserver {
                 .setHeader("Tutor")
                 .setAutoWidth(true);
 
+        grid.addColumn(AgendaRow::vetName)
+                .setHeader("Veterinário")
+                .setAutoWidth(true);
+
         grid.addColumn(AgendaRow::description)
                 .setHeader("Descrição")
                 .setFlexGrow(1);
+
+        // Seleção múltipla para a remarcação em lote; as demais ações valem para uma linha só.
+        grid.setSelectionMode(Grid.SelectionMode.MULTI);
+        grid.addSelectionListener(e -> updateActions());
+        grid.addItemDoubleClickListener(e -> open(e.getItem()));
+    }
+
+    /** Atendimentos só com descrição: ficam fora da janela de datas, então aparecem aqui, independentes dos filtros. */
+    private void configureUndatedGrid() {
+        undatedGrid.setWidthFull();
+        undatedGrid.setAllRowsVisible(true);
+        undatedGrid.addColumn(AgendaRow::petName)
+                .setHeader("Pet")
+                .setAutoWidth(true);
+        undatedGrid.addColumn(AgendaRow::species)
+                .setHeader("Espécie")
+                .setAutoWidth(true);
+        undatedGrid.addColumn(AgendaRow::clientName)
+                .setHeader("Tutor")
+                .setAutoWidth(true);
+        undatedGrid.addColumn(AgendaRow::vetName)
+                .setHeader("Veterinário")
+                .setAutoWidth(true);
+        undatedGrid.addColumn(AgendaRow::description)
+                .setHeader("Descrição")
+                .setFlexGrow(1);
+        undatedGrid.addItemDoubleClickListener(e -> open(e.getItem()));
     }
 
-    private void configureStatusFilter() {
+    private void configureFilters() {
         statusFilter.setItems("Todos", "Agendados", "Realizados");
         statusFilter.setValue("Todos");
         statusFilter.setClearButtonVisible(false);
         statusFilter.addValueChangeListener(e -> applyFilter());
+
+        // Janela padrão: última semana e próximo mês. Só essa faixa é lida e as séries expandidas.
+        fromPicker.setValue(LocalDate.now().minusDays(7));
+        toPicker.setValue(LocalDate.now().plusDays(30));
+        fromPicker.addValueChangeListener(e -> { if (e.isFromClient()) loadData(); });
+        toPicker.addValueChangeListener(e -> { if (e.isFromClient()) loadData(); });
+    }
+
+    private void configureActions() {
+        openBtn.addThemeNames("primary");
+        openBtn.addClickListener(e -> {
+            AgendaRow selected = singleSelected();
+            if (selected != null) open(selected);
+        });
+        cancelOccurrenceBtn.addThemeNames("error", "tertiary");
+        cancelOccurrenceBtn.addClickListener(e -> onCancelOccurrence());
+        endSeriesBtn.addThemeNames("tertiary");
+        endSeriesBtn.addClickListener(e -> onEndSeries());
+        rescheduleBtn.addClickListener(e -> openRescheduleDialog());
+        updateActions();
+    }
+
+    private void updateActions() {
+        AgendaRow selected = singleSelected();
+        openBtn.setEnabled(selected != null);
+        cancelOccurrenceBtn.setEnabled(selected != null && selected.expanded());
+        endSeriesBtn.setEnabled(selected != null && selected.seriesId() != null);
+        rescheduleBtn.setEnabled(!grid.getSelectedItems().isEmpty());
+    }
+
+    /** A linha selecionada, quando há exatamente uma. */
+    private AgendaRow singleSelected() {
+        Set<AgendaRow> selected = grid.getSelectedItems();
+        return selected.size() == 1 ? selected.iterator().next() : null;
     }
 
     private void loadData() {
+        LocalDate from = fromPicker.getValue();
+        LocalDate to = toPicker.getValue();
+        if (from == null || to == null) return;
+
         try {
             currentCompanyService.activeCompanyIdOrThrow();
-            allItems = agendaService.listCurrentCompanyAgenda();
+            allItems = agendaService.listCurrentCompanyAgenda(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
             applyFilter();
+            undatedGrid.setItems(agendaService.listCurrentCompanyUndated());
+        } catch (AttendanceValidationException e) {
+            Notification.show(e.getMessage(), 4000, Notification.Position.MIDDLE)
+                    .addThemeNames("warning");
         } catch (Exception e) {
             e.printStackTrace();
             Notification.show("Erro ao carregar dados da agenda: " + e.getMessage(),
                     5000, Notification.Position.MIDDLE).addThemeNames("error");
             allItems = Collections.emptyList();
             grid.setItems(allItems);
+            undatedGrid.setItems(allItems);
         }
     }
 
@@ -135,4 +252,117 @@ public class AgendaView extends Main implements BeforeEnterObserver {
                 .filter(row -> row.done() == doneFilter)
                 .toList());
     }
-}
\ No newline at end of file
+
+    /** Ocorrência de série ainda não gravada vira atendimento na hora de abrir. */
+    private void open(AgendaRow row) {
+        try {
+            long id = row.expanded()
+                    ? seriesService.materialize(row.seriesId(), row.occurrenceAt())
+                    : row.id();
+            UI.getCurrent().navigate("attendance/" + id + "/edit");
+        } catch (AttendanceValidationException ex) {
+            Notification.show(ex.getMessage(), 4000, Notification.Position.MIDDLE)
+                    .addThemeNames("warning");
+        } catch (SQLException | RuntimeException ex) {
+            Notification.show("Erro ao abrir atendimento: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+
+    private void onCancelOccurrence() {
+        AgendaRow selected = singleSelected();
+        if (selected == null || !selected.expanded()) return;
+        try {
+            seriesService.cancelOccurrence(selected.seriesId(), selected.occurrenceAt());
+            Notification.show("Ocorrência cancelada.", 3000, Notification.Position.MIDDLE)
+                    .addThemeNames("success");
+            loadData();
+        } catch (AttendanceValidationException ex) {
+            Notification.show(ex.getMessage(), 4000, Notification.Position.MIDDLE)
+                    .addThemeNames("warning");
+        } catch (SQLException | RuntimeException ex) {
+            Notification.show("Erro ao cancelar ocorrência: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+
+    /** Mantém a ocorrência selecionada e remove as seguintes. */
+    private void onEndSeries() {
+        AgendaRow selected = singleSelected();
+        if (selected == null || selected.seriesId() == null) return;
+        LocalDateTime slot = selected.occurrenceAt();
+        try {
+            seriesService.endAfter(selected.seriesId(), slot.plusMinutes(1));
+            Notification.show("Série encerrada após " + slot.format(FMT) + ".", 3000, Notification.Position.MIDDLE)
+                    .addThemeNames("success");
+            loadData();
+        } catch (AttendanceValidationException ex) {
+            Notification.show(ex.getMessage(), 4000, Notification.Position.MIDDLE)
+                    .addThemeNames("warning");
+        } catch (SQLException | RuntimeException ex) {
+            Notification.show("Erro ao encerrar série: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+
+    /** Move, desloca e/ou troca o veterinário de todas as linhas selecionadas numa só operação. */
+    private void openRescheduleDialog() {
+        Set<AgendaRow> selected = grid.getSelectedItems();
+        if (selected.isEmpty()) return;
+
+        Dialog dialog = new Dialog();
+        dialog.setHeaderTitle("Remarcar " + selected.size() + " atendimento(s)");
+
+        DatePicker dayField = new DatePicker("Mover para o dia");
+        dayField.setHelperText("Mantém o horário de cada atendimento.");
+        dayField.setClearButtonVisible(true);
+
+        IntegerField shiftField = new IntegerField("Deslocar (minutos)");
+        shiftField.setHelperText("Negativo adianta. Aplicado depois da troca de dia.");
+        shiftField.setStepButtonsVisible(true);
+        shiftField.setStep(15);
+
+        ComboBox<CompanyUserRow> vetField = new ComboBox<>("Veterinário");
+        vetField.setItemLabelGenerator(CompanyUserRow::getName);
+        vetField.setClearButtonVisible(true);
+        vetField.setHelperText("Em branco mantém o atual.");
+        try {
+            vetField.setItems(userCompanyService.listCompanyUsers(currentCompanyService.activeCompanyIdOrThrow()));
+        } catch (SQLException ex) {
+            Notification.show("Erro ao listar veterinários: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+
+        Button cancelBtn = new Button("Cancelar", e -> dialog.close());
+        Button saveBtn = new Button("Remarcar");
+        saveBtn.addThemeNames("primary");
+        saveBtn.addClickListener(e -> {
+            int shift = shiftField.getValue() == null ? 0 : shiftField.getValue();
+            Long vetUserId = vetField.getValue() == null ? null : vetField.getValue().getUserId();
+            try {
+                BulkRescheduleResult result = agendaService.reschedule(selected, dayField.getValue(), shift, vetUserId);
+                if (result.hasConflicts()) {
+                    Notification.show(result.updated() + " remarcado(s). " + result.conflicts().size()
+                                    + " não alterado(s): foram modificados por outra pessoa ou não têm horário marcado.",
+                            6000, Notification.Position.MIDDLE).addThemeNames("warning");
+                } else {
+                    Notification.show(result.updated() + " atendimento(s) remarcado(s).", 3000, Notification.Position.MIDDLE)
+                            .addThemeNames("success");
+                }
+                dialog.close();
+                grid.deselectAll();
+                loadData();
+            } catch (AttendanceValidationException ex) {
+                Notification.show(ex.getMessage(), 4000, Notification.Position.MIDDLE)
+                        .addThemeNames("warning");
+            } catch (SQLException | RuntimeException ex) {
+                Notification.show("Erro ao remarcar: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                        .addThemeNames("error");
+            }
+        });
+
+        dialog.add(new VerticalLayout(dayField, shiftField, vetField));
+        dialog.getFooter().add(cancelBtn, saveBtn);
+        dialog.open();
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.application.classes.views;
+
+import com.example.application.classes.service.AttachmentInfo;
+import com.example.application.classes.service.AttachmentService;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.AttachmentType;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.streams.DownloadEvent;
+import com.vaadin.flow.server.streams.DownloadHandler;
+import com.vaadin.flow.server.streams.UploadHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Anexos de um atendimento.
+ * - O upload vai direto do corpo da requisição para o BlobStore, sem arquivo temporário do Vaadin nem lock da sessão.
+ * - O download aceita Range (um intervalo por requisição), então PDFs e vídeos grandes abrem sem baixar tudo antes.
+ * - Só PDF, imagens comuns e vídeo abrem no navegador; o resto é baixado, sempre com nosniff e CSP sandbox.
+ */
+class AttachmentsPanel extends VerticalLayout {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final AttachmentService attachmentService;
+    private final long attendanceId;
+    private final Grid<AttachmentInfo> grid = new Grid<>(AttachmentInfo.class, false);
+    private final Button deleteBtn = new Button("Remover");
+
+    private volatile UI attachedUi;
+
+    AttachmentsPanel(AttachmentService attachmentService, long attendanceId) {
+        this.attachmentService = attachmentService;
+        this.attendanceId = attendanceId;
+        setPadding(false);
+
+        grid.addComponentColumn(a -> link(a,
+                        DownloadHeaders.inlineAllowed(a.contentType()) ? AttachmentType.INLINE : AttachmentType.DOWNLOAD,
+                        a.fileName()))
+                .setHeader("Arquivo")
+                .setFlexGrow(1);
+        grid.addColumn(a -> formatSize(a.size()))
+                .setHeader("Tamanho")
+                .setAutoWidth(true)
+                .setFlexGrow(0);
+        grid.addColumn(a -> a.creationDate().format(DATE_TIME))
+                .setHeader("Enviado em")
+                .setAutoWidth(true)
+                .setFlexGrow(0);
+        grid.addComponentColumn(a -> link(a, AttachmentType.DOWNLOAD, "Baixar"))
+                .setAutoWidth(true)
+                .setFlexGrow(0);
+        grid.setAllRowsVisible(true);
+
+        deleteBtn.addThemeNames("error");
+        deleteBtn.setEnabled(false);
+        grid.asSingleSelect().addValueChangeListener(e -> deleteBtn.setEnabled(e.getValue() != null));
+        deleteBtn.addClickListener(e -> onDelete());
+
+        Upload upload = new Upload(uploadHandler());
+        upload.setMaxFileSize((int) Math.min(Integer.MAX_VALUE, attachmentService.maxBytes()));
+        upload.setDropLabel(new Span("Arraste exames, imagens ou PDFs aqui"));
+
+        add(new H3("Anexos"), grid, upload, deleteBtn);
+    }
+
+    @Override
+    protected void onAttach(AttachEvent event) {
+        super.onAttach(event);
+        attachedUi = event.getUI();
+        reload();
+    }
+
+    @Override
+    protected void onDetach(DetachEvent event) {
+        attachedUi = null;
+        super.onDetach(event);
+    }
+
+    private void reload() {
+        try {
+            grid.setItems(attachmentService.list(attendanceId));
+        } catch (SQLException ex) {
+            Notification.show("Erro ao carregar anexos: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+            grid.setItems(List.of());
+        }
+    }
+
+    // Roda na thread da requisição de upload: o lock da sessão só é pego para validar.
+    private UploadHandler uploadHandler() {
+        return event -> {
+            AttachmentService.PreparedUpload prepared;
+            VaadinSession session = event.getSession();
+            session.lock();
+            try {
+                prepared = attachmentService.prepareUpload(attendanceId);
+            } catch (SQLException | RuntimeException e) {
+                throw new IOException("Upload não autorizado", e);
+            } finally {
+                session.unlock();
+            }
+
+            String message;
+            String theme;
+            try (InputStream in = event.getInputStream()) {
+                AttachmentInfo info = attachmentService.store(prepared, event.getFileName(), event.getContentType(), in);
+                message = "Anexo \"" + info.fileName() + "\" enviado.";
+                theme = "success";
+            } catch (IOException | SQLException | RuntimeException e) {
+                message = "Erro ao enviar anexo: " + e.getMessage();
+                theme = "error";
+            }
+
+            UI ui = attachedUi;
+            if (ui != null) {
+                String text = message;
+                String notificationTheme = theme;
+                ui.access(() -> {
+                    Notification.show(text, 4000, Notification.Position.MIDDLE).addThemeNames(notificationTheme);
+                    reload();
+                });
+            }
+        };
+    }
+
+    private void onDelete() {
+        AttachmentInfo selected = grid.asSingleSelect().getValue();
+        if (selected == null) return;
+        try {
+            attachmentService.delete(selected.id());
+            Notification.show("Anexo removido.", 3000, Notification.Position.MIDDLE)
+                    .addThemeNames("success");
+            reload();
+        } catch (SQLException ex) {
+            Notification.show("Erro ao remover anexo: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+
+    private Anchor link(AttachmentInfo attachment, AttachmentType type, String text) {
+        long attachmentId = attachment.id();
+        DownloadHandler handler = event -> {
+            AttachmentService.PreparedDownload download;
+            VaadinSession session = event.getSession();
+            session.lock();
+            try {
+                download = attachmentService.prepareDownload(attachmentId);
+            } catch (SQLException | RuntimeException e) {
+                event.getResponse().setStatus(403);
+                return;
+            } finally {
+                session.unlock();
+            }
+            serve(event, download);
+        };
+
+        Anchor anchor = new Anchor(handler, type, text);
+        if (type == AttachmentType.INLINE) anchor.setTarget("_blank");
+        return anchor;
+    }
+
+    private static void serve(DownloadEvent event, AttachmentService.PreparedDownload download) throws IOException {
+        VaadinResponse response = event.getResponse();
+        AttachmentInfo info = download.info();
+
+        long length;
+        try {
+            length = Files.size(download.file());
+        } catch (NoSuchFileException e) {
+            response.setStatus(404);
+            return;
+        }
+
+        // O conteúdo nunca muda para o mesmo hash: serve de ETag forte.
+        String etag = "\"" + info.sha256() + "\"";
+        response.setHeader("ETag", etag);
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("Cache-Control", "private, max-age=86400");
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader("Content-Security-Policy", "sandbox");
+        if (DownloadHeaders.ifNoneMatch(event.getRequest().getHeader("If-None-Match"), etag)) {
+            response.setStatus(304);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = event.getRequest().getHeader("Range");
+        String ifRange = event.getRequest().getHeader("If-Range");
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] r = DownloadHeaders.parseRange(range, length);
+            if (r == DownloadHeaders.UNSATISFIABLE) {
+                response.setStatus(416);
+                response.setHeader("Content-Range", "bytes */" + length);
+                return;
+            }
+            if (r != null) {
+                start = r[0];
+                end = r[1];
+                response.setStatus(206);
+                response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        // O tipo veio do navegador de quem enviou: fora da lista, nunca abre na origem da aplicação.
+        event.setFileName(info.fileName());
+        response.setHeader("Content-Disposition",
+                DownloadHeaders.contentDisposition(DownloadHeaders.inlineAllowed(info.contentType()), info.fileName()));
+        event.setContentType(info.contentType());
+        event.setContentLength(end - start + 1);
+
+        try (FileChannel channel = FileChannel.open(download.file(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(event.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    private static String formatSize(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return String.format("%.1f KB", bytes / 1024.0);
+        if (bytes < 1024L * 1024 * 1024) return String.format("%.1f MB", bytes / (1024.0 * 1024));
+        return String.format("%.1f GB", bytes / (1024.0 * 1024 * 1024));
+    }
+}
@@ -2,23 +2,34 @@ package com.example.application.classes.views;
 
 import com.example.application.base.ui.MainLayout;
 import com.example.application.base.ui.component.ViewToolbar;
+import com.example.application.classes.Recurrence;
 import com.example.application.classes.model.Attendance;
+import com.example.application.classes.model.ClinicalNotes;
 import com.example.application.classes.model.Pet;
 import com.example.application.classes.service.*;
 import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.avatar.Avatar;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.datetimepicker.DateTimePicker;
+import com.vaadin.flow.component.dependency.Uses;
 import com.vaadin.flow.component.formlayout.FormLayout;
+import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Main;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.select.Select;
+import com.vaadin.flow.component.textfield.BigDecimalField;
+import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.component.textfield.TextArea;
+import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.router.*;
 
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -27,16 +38,29 @@ import java.util.Optional;
 @PageTitle("Atendimento")
 @Route(value = "attendance/new", layout = MainLayout.class)
 @RouteAlias(value = "attendance/:id/edit", layout = MainLayout.class)
+@Uses(Avatar.class)
 public class AttendanceView extends Main implements BeforeEnterObserver {
 
     private final PetService petService;
     private final AttendanceService attendanceService;
     private final CurrentUserService currentUserService;
     private final CurrentCompanyService currentCompanyService;
+    private final AttachmentService attachmentService;
+    private final AttendanceSeriesService seriesService;
 
     private final DateTimePicker appointmentAtPicker = new DateTimePicker("Atendimento em");
     private final TextArea descriptionArea = new TextArea("Descrição");
     private final ComboBox<Pet> petComboBox = new ComboBox<>("Pet");
+    private final Select<Recurrence.Frequency> repeatSelect = new Select<>();
+    private final IntegerField repeatIntervalField = new IntegerField("A cada");
+    private final DatePicker repeatUntilPicker = new DatePicker("Repetir até");
+    private final TextArea subjectiveArea = new TextArea("Subjetivo (S)");
+    private final TextArea objectiveArea = new TextArea("Objetivo (O)");
+    private final TextArea assessmentArea = new TextArea("Avaliação (A)");
+    private final TextArea planArea = new TextArea("Plano (P)");
+    private final BigDecimalField weightField = new BigDecimalField("Peso (kg)");
+    private final BigDecimalField temperatureField = new BigDecimalField("Temperatura (°C)");
+    private final TextField diagnosesField = new TextField("Diagnósticos");
     private final Button saveBtn = new Button("Salvar");
     private final Button returnBtn = new Button("Voltar");
 
@@ -45,21 +69,26 @@ public class AttendanceView extends Main implements BeforeEnterObserver {
     private boolean editMode;
 
     private List<Pet> cachedPets = Collections.emptyList();
+    private final VerticalLayout content = new VerticalLayout();
+    private AttachmentsPanel attachmentsPanel;
 
     public AttendanceView(PetService petService,
                           AttendanceService attendanceService,
                           CurrentUserService currentUserService,
-                          CurrentCompanyService currentCompanyService) {
+                          CurrentCompanyService currentCompanyService,
+                          AttachmentService attachmentService,
+                          AttendanceSeriesService seriesService) {
         this.petService = petService;
         this.attendanceService = attendanceService;
         this.currentUserService = currentUserService;
         this.currentCompanyService = currentCompanyService;
+        this.attachmentService = attachmentService;
+        this.seriesService = seriesService;
 
         appointmentAtPicker.setLocale(new Locale("pt", "BR"));
 
         add(new ViewToolbar("Atendimento"));
 
-        var content = new VerticalLayout();
         content.setPadding(true);
         content.setSpacing(true);
         content.setWidthFull();
@@ -75,10 +104,28 @@ public class AttendanceView extends Main implements BeforeEnterObserver {
         petComboBox.setRequiredIndicatorVisible(true);
         petComboBox.setHelperText("Obrigatório");
         petComboBox.setItemLabelGenerator(p -> p.getName() + " (ID: " + p.getId() + ")");
+        petComboBox.setRenderer(PetPhotos.avatarWithLabel(petComboBox.getItemLabelGenerator()));
         petComboBox.setWidthFull();
 
+        configureRepeat();
+
         form.add(petComboBox, appointmentAtPicker, descriptionArea);
-        content.add(form);
+        content.add(form, new HorizontalLayout(repeatSelect, repeatIntervalField, repeatUntilPicker));
+
+        var notesForm = new FormLayout();
+        notesForm.setMaxWidth("800px");
+        notesForm.setResponsiveSteps(
+                new FormLayout.ResponsiveStep("0", 1),
+                new FormLayout.ResponsiveStep("600px", 2));
+        for (TextArea area : List.of(subjectiveArea, objectiveArea, assessmentArea, planArea)) {
+            area.setMaxLength(4000);
+            area.setMinHeight("100px");
+        }
+        diagnosesField.setHelperText("Códigos separados por vírgula (ex.: OTITE, DERM-001)");
+        notesForm.add(subjectiveArea, objectiveArea, assessmentArea, planArea,
+                weightField, temperatureField, diagnosesField);
+        notesForm.setColspan(diagnosesField, 2);
+        content.add(new H3("Notas clínicas (SOAP)"), notesForm);
 
         saveBtn.addThemeNames("primary");
         saveBtn.addClickListener(e -> onSave());
@@ -172,6 +219,32 @@ public class AttendanceView extends Main implements BeforeEnterObserver {
         }
     }
 
+    /** Repetição só na criação: gera uma série, cujas ocorrências viram atendimento quando abertas na agenda. */
+    private void configureRepeat() {
+        repeatSelect.setLabel("Repetir");
+        repeatSelect.setEmptySelectionAllowed(true);
+        repeatSelect.setEmptySelectionCaption("Não repetir");
+        repeatSelect.setItems(Recurrence.Frequency.values());
+        repeatSelect.setItemLabelGenerator(f -> f == null ? "Não repetir" : switch (f) {
+            case DAILY -> "Diariamente";
+            case WEEKLY -> "Semanalmente";
+            case MONTHLY -> "Mensalmente";
+        });
+        repeatIntervalField.setValue(1);
+        repeatIntervalField.setMin(1);
+        repeatIntervalField.setMax(52);
+        repeatIntervalField.setStepButtonsVisible(true);
+        repeatIntervalField.setHelperText("dias, semanas ou meses");
+        repeatUntilPicker.setHelperText("Notas clínicas são preenchidas em cada ocorrência");
+        repeatSelect.addValueChangeListener(e -> {
+            boolean repeating = e.getValue() != null;
+            repeatIntervalField.setEnabled(repeating);
+            repeatUntilPicker.setEnabled(repeating);
+        });
+        repeatIntervalField.setEnabled(false);
+        repeatUntilPicker.setEnabled(false);
+    }
+
     private void loadPetsOrDisable() throws SQLException {
         cachedPets = petService.listAllForCompany();
         petComboBox.setItems(cachedPets);
@@ -206,10 +279,21 @@ public class AttendanceView extends Main implements BeforeEnterObserver {
 
         Attendance attendance = opt.get();
 
+        repeatSelect.setVisible(false);
+        repeatIntervalField.setVisible(false);
+        repeatUntilPicker.setVisible(false);
+
         appointmentAtPicker.setValue(attendance.getAppointmentAt());
         descriptionArea.setValue(attendance.getDescription() != null ? attendance.getDescription() : "");
+        showNotes(attendance.getClinicalNotes());
 
         selectPetIfExists(attendance.getAnimalId());
+
+        // Anexos só existem para atendimento já salvo.
+        if (attachmentsPanel == null) {
+            attachmentsPanel = new AttachmentsPanel(attachmentService, id);
+            content.add(attachmentsPanel);
+        }
     }
 
     private void onSave() {
@@ -233,16 +317,34 @@ public class AttendanceView extends Main implements BeforeEnterObserver {
                 attendance.setAnimalId(selectedPet.getId());
                 attendance.setAppointmentAt(appointmentAt);
                 attendance.setDescription(description);
+                attendance.setClinicalNotes(readNotes());
 
                 attendanceService.updateBasics(attendance);
 
                 Notification.show("Atendimento atualizado com sucesso.", 3000, Notification.Position.MIDDLE)
                         .addThemeNames("success");
+            } else if (repeatSelect.getValue() != null) {
+                if (appointmentAt == null || repeatUntilPicker.getValue() == null) {
+                    Notification.show("Para repetir, informe a data do atendimento e até quando repetir.",
+                            4000, Notification.Position.MIDDLE).addThemeNames("warning");
+                    return;
+                }
+                Integer interval = repeatIntervalField.getValue();
+                var rule = new Recurrence(appointmentAt, repeatSelect.getValue(),
+                        interval == null || interval < 1 ? 1 : interval, null,
+                        repeatUntilPicker.getValue().atTime(23, 59));
+                seriesService.create(selectedPet.getId(), rule, description);
+
+                Notification.show("Série de atendimentos criada (" + rule.size() + " ocorrências).",
+                        3000, Notification.Position.MIDDLE).addThemeNames("success");
+                UI.getCurrent().navigate("agenda");
+                return;
             } else {
                 var attendance = new Attendance();
                 attendance.setAnimalId(selectedPet.getId());
                 attendance.setAppointmentAt(appointmentAt);
                 attendance.setDescription(description);
+                attendance.setClinicalNotes(readNotes());
 
                 long id = attendanceService.create(attendance);
 
@@ -265,4 +367,34 @@ public class AttendanceView extends Main implements BeforeEnterObserver {
                     .addThemeNames("error");
         }
     }
-}
\ No newline at end of file
+
+    private void showNotes(ClinicalNotes notes) {
+        if (notes == null) return;
+        subjectiveArea.setValue(nonNull(notes.subjective()));
+        objectiveArea.setValue(nonNull(notes.objective()));
+        assessmentArea.setValue(nonNull(notes.assessment()));
+        planArea.setValue(nonNull(notes.plan()));
+        weightField.setValue(notes.weightKg());
+        temperatureField.setValue(notes.temperatureC());
+        diagnosesField.setValue(String.join(", ", notes.diagnoses()));
+    }
+
+    private ClinicalNotes readNotes() {
+        List<String> diagnoses = Arrays.stream(diagnosesField.getValue().split(","))
+                .map(String::trim)
+                .filter(code -> !code.isEmpty())
+                .toList();
+        return new ClinicalNotes(
+                subjectiveArea.getValue(),
+                objectiveArea.getValue(),
+                assessmentArea.getValue(),
+                planArea.getValue(),
+                weightField.getValue(),
+                temperatureField.getValue(),
+                diagnoses);
+    }
+
+    private static String nonNull(String v) {
+        return v == null ? "" : v;
+    }
+}
@@ -6,6 +6,7 @@ import com.example.application.classes.model.Client;
 import com.example.application.classes.service.ClientService;
 import com.example.application.classes.service.CurrentCompanyService;
 import com.example.application.classes.service.CurrentUserService;
+import com.example.application.classes.service.ExportService;
 import com.example.application.config.ViewGuard;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
@@ -34,14 +35,17 @@ public class ClientListView extends Main implements BeforeEnterObserver {
     private final Button editBtn = new Button("Editar");
     private final Button deleteBtn = new Button("Remover");
 
+    private List<Client> shownItems;
+
     public ClientListView(ClientService clientService,
                           CurrentUserService currentUserService,
-                          CurrentCompanyService currentCompanyService) {
+                          CurrentCompanyService currentCompanyService,
+                          ExportService exportService) {
         this.clientService = Objects.requireNonNull(clientService);
         this.currentUserService = Objects.requireNonNull(currentUserService);
         this.currentCompanyService = Objects.requireNonNull(currentCompanyService);
 
-        add(new ViewToolbar("Clientes"));
+        add(new ViewToolbar("Clientes", ExportLinks.of(exportService, ExportService.Dataset.CLIENTS)));
 
         configureGrid();
         configureActions();
@@ -96,12 +100,17 @@ public class ClientListView extends Main implements BeforeEnterObserver {
     private void reloadGrid() {
         try {
             List<Client> clients = clientService.listAllForCompany();
-            grid.setItems(clients);
+            // mesma instância = carimbo de versão não mudou; mantém grid e seleção
+            if (clients != shownItems) {
+                grid.setItems(clients);
+                shownItems = clients;
+            }
         } catch (SQLException ex) {
             ex.printStackTrace();
             Notification.show("Erro ao carregar clientes: " + ex.getMessage(),
                     5000, Notification.Position.MIDDLE).addThemeNames("error");
             grid.setItems(List.of());
+            shownItems = null;
         }
     }
 
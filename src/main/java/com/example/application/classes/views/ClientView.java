@@ -6,6 +6,7 @@ import com.example.application.base.ui.component.ViewToolbar;
 import com.example.application.classes.model.Client;
 import com.example.application.classes.service.*;
 import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.formlayout.FormLayout;
@@ -19,6 +20,10 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.*;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 @PageTitle("Cliente")
 @Route(value = "clients/new", layout = MainLayout.class)
 @RouteAlias(value = "clients/:id/edit", layout = MainLayout.class)
@@ -55,6 +60,10 @@ public class ClientView extends Main implements BeforeEnterObserver {
     private boolean applyingPhoneMask;
     private boolean applyingCepMask;
 
+    /** Última consulta de CEP disparada; uma nova cancela a anterior. */
+    private CompletableFuture<?> pendingCepLookup;
+    private String pendingCep;
+
     public ClientView(ClientService clientService,
                       CurrentUserService currentUserService,
                       CurrentCompanyService currentCompanyService,
@@ -154,6 +163,12 @@ public class ClientView extends Main implements BeforeEnterObserver {
         }
     }
 
+    @Override
+    protected void onDetach(DetachEvent event) {
+        cancelPendingCepLookup();
+        super.onDetach(event);
+    }
+
     private void configureFields() {
         nameField.setRequiredIndicatorVisible(true);
         nameField.setHelperText("Obrigatório");
@@ -224,6 +239,8 @@ public class ClientView extends Main implements BeforeEnterObserver {
 
                 if (digits.length() == 8) {
                     lookupCepAndFill(digits);
+                } else {
+                    cancelPendingCepLookup();
                 }
             } finally {
                 applyingCepMask = false;
@@ -231,28 +248,47 @@ public class ClientView extends Main implements BeforeEnterObserver {
         });
     }
 
+    /** Consulta fora da thread da interface; o resultado volta por push e só vale se ainda for o CEP atual. */
     private void lookupCepAndFill(String digits) {
-        try {
-            var opt = viaCepService.lookup(digits);
-            if (opt.isEmpty()) {
-                Notification.show("CEP não encontrado ou inválido.", 3000, Notification.Position.TOP_CENTER)
-                        .addThemeNames("warning");
-                return;
-            }
+        cancelPendingCepLookup();
+        pendingCep = digits;
 
-            ViaCepResponse dto = opt.get();
+        UI ui = UI.getCurrent();
+        pendingCepLookup = viaCepService.lookupAsync(digits)
+                .whenComplete((opt, err) -> ui.access(() -> applyCepResult(digits, opt, err)));
+    }
 
-            if (cityField.isEmpty()) cityField.setValue(nonNull(dto.getLocalidade()));
-            if (districtField.isEmpty()) districtField.setValue(nonNull(dto.getBairro()));
-            if (streetField.isEmpty()) streetField.setValue(nonNull(dto.getLogradouro()));
-            if (ufField.isEmpty()) ufField.setValue(nonNull(dto.getUf()).toUpperCase());
-            if (complementField.isEmpty()) complementField.setValue(nonNull(dto.getComplemento()));
+    private void cancelPendingCepLookup() {
+        if (pendingCepLookup != null) pendingCepLookup.cancel(false);
+        pendingCepLookup = null;
+        pendingCep = null;
+    }
 
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            Notification.show("Erro ao consultar CEP.", 3000, Notification.Position.TOP_CENTER)
-                    .addThemeNames("error");
+    private void applyCepResult(String digits, Optional<ViaCepResponse> opt, Throwable err) {
+        if (!digits.equals(pendingCep)) return;
+        pendingCep = null;
+        pendingCepLookup = null;
+
+        if (err != null) {
+            Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+            if (!(cause instanceof CepUnavailableException)) cause.printStackTrace();
+            Notification.show("Consulta de CEP indisponível. Preencha o endereço manualmente.", 3500, Notification.Position.TOP_CENTER)
+                    .addThemeNames("warning");
+            return;
         }
+        if (opt.isEmpty()) {
+            Notification.show("CEP não encontrado ou inválido.", 3000, Notification.Position.TOP_CENTER)
+                    .addThemeNames("warning");
+            return;
+        }
+
+        ViaCepResponse dto = opt.get();
+
+        if (cityField.isEmpty()) cityField.setValue(nonNull(dto.getLocalidade()));
+        if (districtField.isEmpty()) districtField.setValue(nonNull(dto.getBairro()));
+        if (streetField.isEmpty()) streetField.setValue(nonNull(dto.getLogradouro()));
+        if (ufField.isEmpty()) ufField.setValue(nonNull(dto.getUf()).toUpperCase());
+        if (complementField.isEmpty()) complementField.setValue(nonNull(dto.getComplemento()));
     }
 
     private void onSave() {
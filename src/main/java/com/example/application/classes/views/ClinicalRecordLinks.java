@@ -0,0 +1,90 @@
+package com.example.application.classes.views;
+
+import com.example.application.classes.model.Pet;
+import com.example.application.classes.service.BatchBusyException;
+import com.example.application.classes.service.ClinicalRecordService;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.AttachmentType;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.streams.DownloadHandler;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Links de prontuário em PDF: do pet selecionado ou de todos os pets (ZIP).
+ * O PDF é gerado na hora do download, fora do lock da sessão, direto para a resposta.
+ */
+final class ClinicalRecordLinks {
+
+    private ClinicalRecordLinks() {}
+
+    /** selectedPet é lido com o lock da sessão, no momento do clique. */
+    static Anchor selected(ClinicalRecordService service, Supplier<Pet> selectedPet) {
+        DownloadHandler handler = event -> {
+            ClinicalRecordService.PreparedRecord record;
+            VaadinSession session = event.getSession();
+            session.lock();
+            try {
+                Pet pet = selectedPet.get();
+                if (pet == null) {
+                    event.getResponse().setStatus(404);
+                    return;
+                }
+                record = service.prepare(pet.getId());
+            } catch (Exception e) {
+                event.getResponse().setStatus(403);
+                return;
+            } finally {
+                session.unlock();
+            }
+
+            event.setFileName(record.fileName());
+            event.setContentType("application/pdf");
+            try {
+                service.write(record, event.getOutputStream());
+            } catch (Exception e) {
+                handleFailure(event.getResponse(), e);
+            }
+        };
+        return new Anchor(handler, AttachmentType.DOWNLOAD, "Prontuário PDF");
+    }
+
+    static Anchor all(ClinicalRecordService service) {
+        DownloadHandler handler = event -> {
+            ClinicalRecordService.PreparedBatch batch;
+            VaadinSession session = event.getSession();
+            session.lock();
+            try {
+                batch = service.prepareAll();
+            } catch (Exception e) {
+                event.getResponse().setStatus(403);
+                return;
+            } finally {
+                session.unlock();
+            }
+
+            event.setFileName(batch.fileName());
+            event.setContentType("application/zip");
+            try {
+                service.writeZip(batch, event.getOutputStream());
+            } catch (Exception e) {
+                handleFailure(event.getResponse(), e);
+            }
+        };
+        return new Anchor(handler, AttachmentType.DOWNLOAD, "Prontuários (ZIP)");
+    }
+
+    private static void handleFailure(VaadinResponse response, Exception e) throws IOException {
+        if (e instanceof BatchBusyException) {
+            response.setStatus(503);
+        } else if (e instanceof SecurityException) {
+            response.setStatus(403);
+        } else if (e instanceof IOException io) {
+            throw io;
+        } else {
+            throw new IOException("Falha ao gerar prontuário", e);
+        }
+    }
+}
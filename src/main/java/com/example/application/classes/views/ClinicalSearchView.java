@@ -0,0 +1,117 @@
+package com.example.application.classes.views;
+
+import com.example.application.base.ui.MainLayout;
+import com.example.application.base.ui.component.ViewToolbar;
+import com.example.application.classes.service.AttendanceService;
+import com.example.application.classes.service.AttendanceValidationException;
+import com.example.application.classes.service.CurrentCompanyService;
+import com.example.application.classes.service.CurrentUserService;
+import com.example.application.classes.service.DiagnosisMatch;
+import com.vaadin.flow.component.Key;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Main;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.*;
+
+import java.sql.SQLException;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/** Busca de atendimentos por código de diagnóstico das notas clínicas (ex.: "OTITE nos últimos 90 dias"). */
+@PageTitle("Consulta Clínica")
+@Route(value = "clinical/search", layout = MainLayout.class)
+@Menu(title = "Consulta Clínica", icon = "la la-stethoscope", order = 14)
+public class ClinicalSearchView extends Main implements BeforeEnterObserver {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final AttendanceService attendanceService;
+    private final CurrentUserService currentUserService;
+    private final CurrentCompanyService currentCompanyService;
+
+    private final TextField codeField = new TextField("Diagnóstico");
+    private final IntegerField daysField = new IntegerField("Últimos dias");
+    private final Button searchBtn = new Button("Buscar");
+    private final Span summary = new Span();
+    private final Grid<DiagnosisMatch> grid = new Grid<>(DiagnosisMatch.class, false);
+
+    public ClinicalSearchView(AttendanceService attendanceService,
+                              CurrentUserService currentUserService,
+                              CurrentCompanyService currentCompanyService) {
+        this.attendanceService = attendanceService;
+        this.currentUserService = currentUserService;
+        this.currentCompanyService = currentCompanyService;
+
+        add(new ViewToolbar("Consulta Clínica"));
+
+        codeField.setPlaceholder("ex.: OTITE");
+        codeField.setClearButtonVisible(true);
+        daysField.setValue(90);
+        daysField.setMin(1);
+        daysField.setMax(3660);
+        daysField.setStepButtonsVisible(true);
+        searchBtn.addThemeNames("primary");
+        searchBtn.addClickListener(e -> onSearch());
+        codeField.addKeyPressListener(Key.ENTER, e -> onSearch());
+
+        var filters = new HorizontalLayout(codeField, daysField, searchBtn);
+        filters.setAlignItems(FlexComponent.Alignment.BASELINE);
+        filters.setPadding(true);
+
+        grid.addColumn(m -> m.happenedAt().format(DATE_TIME))
+                .setHeader("Data")
+                .setAutoWidth(true)
+                .setFlexGrow(0);
+        grid.addColumn(DiagnosisMatch::petName)
+                .setHeader("Pet")
+                .setAutoWidth(true);
+        grid.addColumn(DiagnosisMatch::clientName)
+                .setHeader("Tutor")
+                .setAutoWidth(true);
+        grid.addColumn(m -> String.join(", ", m.diagnoses()))
+                .setHeader("Diagnósticos")
+                .setFlexGrow(1);
+        grid.addItemDoubleClickListener(e ->
+                UI.getCurrent().navigate("attendance/" + e.getItem().attendanceId() + "/edit"));
+
+        add(filters, summary, grid);
+        setSizeFull();
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        if (!currentUserService.isLoggedIn()) {
+            Notification.show("Faça login para continuar.", 3000, Notification.Position.MIDDLE);
+            event.rerouteTo("home");
+            return;
+        }
+
+        if (!currentCompanyService.hasSelection()) {
+            Notification.show("Selecione uma empresa para continuar.", 3000, Notification.Position.MIDDLE);
+            event.rerouteTo("company/select");
+        }
+    }
+
+    private void onSearch() {
+        Integer days = daysField.getValue();
+        try {
+            List<DiagnosisMatch> matches = attendanceService.findByDiagnosis(codeField.getValue(), days == null ? 0 : days);
+            grid.setItems(matches);
+            summary.setText(matches.size() + " atendimento(s) encontrado(s). Clique duas vezes para abrir.");
+        } catch (AttendanceValidationException ex) {
+            Notification.show(ex.getMessage(), 4000, Notification.Position.MIDDLE)
+                    .addThemeNames("warning");
+        } catch (SQLException ex) {
+            Notification.show("Erro ao buscar atendimentos: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+            grid.setItems(List.of());
+        }
+    }
+}
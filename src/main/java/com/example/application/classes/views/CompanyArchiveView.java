@@ -0,0 +1,245 @@
+package com.example.application.classes.views;
+
+import com.example.application.base.ui.MainLayout;
+import com.example.application.base.ui.component.ViewToolbar;
+import com.example.application.classes.DocumentType;
+import com.example.application.classes.service.*;
+import com.example.application.config.ViewGuard;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.html.*;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.router.*;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.streams.DownloadHandler;
+import com.vaadin.flow.server.streams.UploadHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@PageTitle("Backup da Empresa")
+@Route(value = "company/archive", layout = MainLayout.class)
+@Menu(title = "Backup da Empresa", icon = "la la-archive", order = 13)
+public class CompanyArchiveView extends Main implements BeforeEnterObserver {
+
+    private final TenantArchiveService archiveService;
+    private final CurrentUserService currentUserService;
+    private final CurrentCompanyService currentCompanyService;
+
+    private final Anchor exportLink;
+    private final Upload upload;
+    private final ProgressBar progressBar = new ProgressBar();
+    private final Span status = new Span();
+
+    private volatile UI attachedUi;
+    private boolean running;
+
+    public CompanyArchiveView(TenantArchiveService archiveService,
+                              CurrentUserService currentUserService,
+                              CurrentCompanyService currentCompanyService) {
+        this.archiveService = archiveService;
+        this.currentUserService = currentUserService;
+        this.currentCompanyService = currentCompanyService;
+
+        add(new ViewToolbar("Backup da Empresa"));
+
+        add(new H3("Exportar"));
+        add(new Paragraph("Gera um arquivo com a empresa selecionada, seus usuários, clientes, pets e atendimentos. "
+                + "Disponível para administradores."));
+        exportLink = new Anchor(exportHandler(), AttachmentType.DOWNLOAD, "Baixar arquivo da empresa");
+        add(exportLink);
+
+        add(new H3("Importar"));
+        add(new Paragraph("Cria uma empresa nova a partir de um arquivo exportado (de qualquer ambiente). "
+                + "Quem importa vira o único administrador da empresa criada; os demais usuários "
+                + "precisam ser adicionados de novo. Se a empresa já existir aqui, dá para importar uma cópia "
+                + "com outro nome e documento."));
+
+        // O callback roda na thread da requisição de upload, sem o lock da sessão.
+        upload = new Upload(UploadHandler.toTempFile((metadata, file) -> {
+            UI ui = attachedUi;
+            if (ui == null) {
+                deleteQuietly(file);
+                return;
+            }
+            ui.access(() -> onUploaded(ui, file));
+        }));
+        upload.setAcceptedFileTypes(".cvta");
+        upload.setMaxFiles(1);
+
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(false);
+
+        add(upload, progressBar, status);
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        ViewGuard.requireLogin(event, currentUserService);
+        exportLink.setVisible(currentCompanyService.hasSelection());
+    }
+
+    @Override
+    protected void onAttach(AttachEvent event) {
+        super.onAttach(event);
+        attachedUi = event.getUI();
+    }
+
+    @Override
+    protected void onDetach(DetachEvent event) {
+        attachedUi = null;
+        super.onDetach(event);
+    }
+
+    private DownloadHandler exportHandler() {
+        return event -> {
+            TenantArchiveService.PreparedArchive prepared;
+            VaadinSession session = event.getSession();
+            session.lock();
+            try {
+                prepared = archiveService.prepareExport();
+            } catch (RuntimeException e) {
+                event.getResponse().setStatus(403);
+                return;
+            } finally {
+                session.unlock();
+            }
+
+            event.setFileName(prepared.fileName());
+            event.setContentType("application/octet-stream");
+            try {
+                archiveService.export(prepared, event.getOutputStream());
+            } catch (BatchBusyException e) {
+                event.getResponse().setStatus(503);
+            } catch (SecurityException e) {
+                event.getResponse().setStatus(403);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Falha ao gerar arquivo da empresa", e);
+            }
+        };
+    }
+
+    private void onUploaded(UI ui, File file) {
+        if (running) {
+            deleteQuietly(file);
+            return;
+        }
+
+        startImport(ui, file, null);
+    }
+
+    private void startImport(UI ui, File file, TenantArchiveService.ArchiveTarget target) {
+        long userId;
+        CompletableFuture<TenantArchiveService.ImportedArchive> future;
+        try {
+            userId = archiveService.prepareImport();
+            future = archiveService.importArchive(userId, file.toPath(), target);
+        } catch (RuntimeException ex) {
+            deleteQuietly(file);
+            Notification.show(ex.getMessage(), 5000, Notification.Position.MIDDLE).addThemeNames("error");
+            return;
+        }
+
+        setRunning(true);
+        status.setText("Importando...");
+
+        future.whenComplete((result, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            // Empresa já existe: o arquivo fica guardado para a importação como cópia.
+            if (!(cause instanceof ArchiveCompanyExistsException)) {
+                deleteQuietly(file);
+            }
+            ui.access(() -> {
+                setRunning(false);
+                upload.clearFileList();
+                if (cause instanceof ArchiveCompanyExistsException exists) {
+                    status.setText("Importação cancelada; nada foi gravado.");
+                    askCopyTarget(ui, file, exists);
+                    return;
+                }
+                if (cause != null) {
+                    status.setText("Importação cancelada; nada foi gravado.");
+                    Notification.show("Erro ao importar: " + cause.getMessage(),
+                            5000, Notification.Position.MIDDLE).addThemeNames("error");
+                    return;
+                }
+                status.setText("Empresa \"" + result.companyName() + "\" criada: " + result.clients()
+                        + " clientes, " + result.pets() + " pets, " + result.attendances() + " atendimentos."
+                        + (result.membersNotLinked() > 0
+                            ? " " + result.membersNotLinked() + " usuário(s) do arquivo não foram vinculados." : ""));
+                Notification.show("Importação concluída. Selecione a nova empresa para usá-la.",
+                        4000, Notification.Position.MIDDLE).addThemeNames("success");
+            });
+        });
+    }
+
+    /** Documento já cadastrado aqui: oferece importar como cópia, com outro nome e documento. */
+    private void askCopyTarget(UI ui, File file, ArchiveCompanyExistsException exists) {
+        Dialog dialog = new Dialog();
+        dialog.setHeaderTitle("Importar como cópia");
+        dialog.add(new Paragraph(exists.getMessage() + " Informe nome e documento para a cópia."));
+
+        TextField nameField = new TextField("Nome da empresa");
+        nameField.setWidthFull();
+        nameField.setValue(exists.archivedName() == null ? "" : exists.archivedName() + " (cópia)");
+
+        ComboBox<DocumentType> docTypeField = new ComboBox<>("Tipo de documento");
+        docTypeField.setItems(DocumentType.values());
+        docTypeField.setWidthFull();
+        docTypeField.setRequiredIndicatorVisible(true);
+
+        TextField documentField = new TextField("Documento");
+        documentField.setWidthFull();
+
+        dialog.add(nameField, docTypeField, documentField);
+
+        Button importCopy = new Button("Importar", ev -> {
+            TenantArchiveService.ArchiveTarget target;
+            try {
+                target = archiveService.normalize(new TenantArchiveService.ArchiveTarget(
+                        nameField.getValue(), docTypeField.getValue(), documentField.getValue()));
+            } catch (IllegalArgumentException ex) {
+                Notification.show(ex.getMessage(), 3000, Notification.Position.MIDDLE);
+                return;
+            }
+            dialog.close();
+            startImport(ui, file, target);
+        });
+        importCopy.addThemeNames("primary");
+
+        Button cancel = new Button("Cancelar", ev -> {
+            deleteQuietly(file);
+            dialog.close();
+        });
+        dialog.setCloseOnOutsideClick(false);
+        dialog.setCloseOnEsc(false);
+        dialog.getFooter().add(cancel, importCopy);
+        dialog.open();
+    }
+
+    private void setRunning(boolean running) {
+        this.running = running;
+        progressBar.setVisible(running);
+    }
+
+    private static void deleteQuietly(File file) {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (Exception ignored) {
+            // arquivo temporário; o sistema limpa depois
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.application.classes.views;
+
+import com.example.application.base.ui.MainLayout;
+import com.example.application.base.ui.component.ViewToolbar;
+import com.example.application.classes.service.AttendanceSeriesService;
+import com.example.application.classes.service.AttendanceValidationException;
+import com.example.application.classes.service.ConsolidatedAgenda;
+import com.example.application.classes.service.ConsolidatedAgendaRow;
+import com.example.application.classes.service.ConsolidatedAgendaService;
+import com.example.application.classes.service.CurrentCompanyService;
+import com.example.application.classes.service.CurrentUserService;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.datepicker.DatePicker;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Main;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.router.*;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+
+/**
+ * Agenda de todas as empresas do usuário numa lista só, sem trocar a empresa selecionada.
+ * Abrir um atendimento seleciona a empresa dele.
+ */
+@PageTitle("Agenda Consolidada")
+@Route(value = "agenda/all", layout = MainLayout.class)
+@Menu(title = "Agenda Consolidada", icon = "vaadin:calendar-o")
+public class ConsolidatedAgendaView extends Main implements BeforeEnterObserver {
+
+    private static final DateTimeFormatter FMT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final ConsolidatedAgendaService consolidatedAgendaService;
+    private final AttendanceSeriesService seriesService;
+    private final CurrentCompanyService currentCompanyService;
+    private final CurrentUserService currentUserService;
+
+    private final Grid<ConsolidatedAgendaRow> grid = new Grid<>(ConsolidatedAgendaRow.class, false);
+    private final DatePicker fromPicker = new DatePicker("De");
+    private final DatePicker toPicker = new DatePicker("Até");
+    private final Span summary = new Span();
+
+    public ConsolidatedAgendaView(ConsolidatedAgendaService consolidatedAgendaService,
+                                  AttendanceSeriesService seriesService,
+                                  CurrentCompanyService currentCompanyService,
+                                  CurrentUserService currentUserService) {
+        this.consolidatedAgendaService = consolidatedAgendaService;
+        this.seriesService = seriesService;
+        this.currentCompanyService = currentCompanyService;
+        this.currentUserService = currentUserService;
+
+        add(new ViewToolbar("Agenda Consolidada"));
+
+        fromPicker.setValue(LocalDate.now());
+        toPicker.setValue(LocalDate.now().plusDays(7));
+        fromPicker.addValueChangeListener(e -> { if (e.isFromClient()) loadData(); });
+        toPicker.addValueChangeListener(e -> { if (e.isFromClient()) loadData(); });
+
+        configureGrid();
+
+        var filters = new HorizontalLayout(fromPicker, toPicker, summary);
+        filters.setAlignItems(FlexComponent.Alignment.BASELINE);
+        add(filters, grid);
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        if (!currentUserService.isLoggedIn()) {
+            Notification.show("Faça login para continuar.", 3000, Notification.Position.MIDDLE);
+            event.rerouteTo("home");
+        }
+    }
+
+    @Override
+    protected void onAttach(AttachEvent event) {
+        super.onAttach(event);
+        loadData();
+    }
+
+    private void configureGrid() {
+        grid.setWidthFull();
+
+        grid.addColumn(r -> r.mainDateTime() != null ? r.mainDateTime().format(FMT) : "")
+                .setHeader("Data/Hora")
+                .setAutoWidth(true);
+        grid.addColumn(ConsolidatedAgendaRow::companyName)
+                .setHeader("Clínica")
+                .setAutoWidth(true);
+        grid.addColumn(r -> r.row().done() ? "Realizado" : "Agendado")
+                .setHeader("Status")
+                .setAutoWidth(true);
+        grid.addColumn(r -> r.row().petName())
+                .setHeader("Pet")
+                .setAutoWidth(true);
+        grid.addColumn(r -> r.row().clientName())
+                .setHeader("Tutor")
+                .setAutoWidth(true);
+        grid.addColumn(r -> r.row().vetName())
+                .setHeader("Veterinário")
+                .setAutoWidth(true);
+        grid.addColumn(r -> r.row().description())
+                .setHeader("Descrição")
+                .setFlexGrow(1);
+
+        grid.addItemDoubleClickListener(e -> open(e.getItem()));
+    }
+
+    private void loadData() {
+        LocalDate from = fromPicker.getValue();
+        LocalDate to = toPicker.getValue();
+        if (from == null || to == null) return;
+
+        try {
+            ConsolidatedAgenda agenda = consolidatedAgendaService.listAllCompanies(
+                    from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+            grid.setItems(agenda.rows());
+            summary.setText(agenda.rows().size() + " atendimento(s)");
+            if (!agenda.failedCompanies().isEmpty()) {
+                Notification.show("Não foi possível carregar a agenda de: " + String.join(", ", agenda.failedCompanies()),
+                        6000, Notification.Position.MIDDLE).addThemeNames("warning");
+            }
+        } catch (AttendanceValidationException e) {
+            Notification.show(e.getMessage(), 4000, Notification.Position.MIDDLE)
+                    .addThemeNames("warning");
+        } catch (Exception e) {
+            e.printStackTrace();
+            Notification.show("Erro ao carregar a agenda consolidada: " + e.getMessage(),
+                    5000, Notification.Position.MIDDLE).addThemeNames("error");
+            grid.setItems(Collections.emptyList());
+        }
+    }
+
+    /** Seleciona a empresa do atendimento e abre; ocorrência de série ainda não gravada é materializada. */
+    private void open(ConsolidatedAgendaRow item) {
+        try {
+            long uid = currentUserService.requireUserId();
+            currentCompanyService.selectCompanyForUser(uid, item.companyId());
+            long id = item.row().expanded()
+                    ? seriesService.materialize(item.row().seriesId(), item.row().occurrenceAt())
+                    : item.row().id();
+            UI.getCurrent().navigate("attendance/" + id + "/edit");
+        } catch (AttendanceValidationException ex) {
+            Notification.show(ex.getMessage(), 4000, Notification.Position.MIDDLE)
+                    .addThemeNames("warning");
+        } catch (Exception ex) {
+            Notification.show("Erro ao abrir atendimento: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+}
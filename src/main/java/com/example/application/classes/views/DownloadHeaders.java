@@ -0,0 +1,108 @@
+package com.example.application.classes.views;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Cabeçalhos HTTP dos downloads servidos pelas telas (anexos, fotos).
+ * - Só abre no navegador (inline) o que não roda script: PDF, imagens comuns e vídeo. O resto vai como attachment.
+ * - If-None-Match e Range seguem a RFC 9110 no que o navegador realmente manda.
+ */
+final class DownloadHeaders {
+
+    static final long[] UNSATISFIABLE = new long[0];
+
+    private static final Set<String> INLINE_TYPES = Set.of(
+            "application/pdf", "image/png", "image/jpeg", "image/gif", "image/webp");
+
+    private DownloadHeaders() {}
+
+    /** O tipo pode ser exibido no navegador sem risco de executar conteúdo do usuário. */
+    static boolean inlineAllowed(String contentType) {
+        if (contentType == null) return false;
+        int semicolon = contentType.indexOf(';');
+        String mediaType = (semicolon < 0 ? contentType : contentType.substring(0, semicolon))
+                .strip().toLowerCase(Locale.ROOT);
+        return INLINE_TYPES.contains(mediaType)
+                || (mediaType.startsWith("video/") && mediaType.length() > "video/".length());
+    }
+
+    /** Content-Disposition com o nome em UTF-8 (RFC 6266) e um fallback ASCII. */
+    static String contentDisposition(boolean inline, String fileName) {
+        String ascii = fileName.replaceAll("[^\\x20-\\x7e]|[\"\\\\]", "_");
+        String encoded = URLEncoder.encode(fileName, StandardCharsets.UTF_8).replace("+", "%20");
+        return (inline ? "inline" : "attachment")
+                + "; filename=\"" + ascii + "\"; filename*=UTF-8''" + encoded;
+    }
+
+    /**
+     * If-None-Match casa com a ETag: "*", lista separada por vírgula e validadores fracos (W/)
+     * com comparação fraca, como manda a RFC 9110 para esse cabeçalho.
+     */
+    static boolean ifNoneMatch(String header, String etag) {
+        if (header == null || header.isBlank()) return false;
+        if (header.strip().equals("*")) return true;
+        String wanted = opaqueTag(etag);
+        int i = 0;
+        int n = header.length();
+        while (i < n) {
+            char c = header.charAt(i);
+            if (c == ',' || c == ' ' || c == '\t') {
+                i++;
+                continue;
+            }
+            int start = i;
+            if (header.startsWith("W/", i)) i += 2;
+            if (i >= n || header.charAt(i) != '"') {
+                // Item malformado: pula até a próxima vírgula.
+                while (i < n && header.charAt(i) != ',') i++;
+                continue;
+            }
+            int close = header.indexOf('"', i + 1);
+            if (close < 0) return false;
+            if (opaqueTag(header.substring(start, close + 1)).equals(wanted)) return true;
+            i = close + 1;
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    /**
+     * "bytes=a-b", "bytes=a-" ou "bytes=-n". Devolve {início, fim}, UNSATISFIABLE,
+     * ou null para ignorar o cabeçalho (formato inválido ou vários intervalos) e mandar o arquivo inteiro.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) return null;
+        String spec = header.substring(6).strip();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return null;
+        try {
+            String first = spec.substring(0, dash).strip();
+            String last = spec.substring(dash + 1).strip();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                if (last.isEmpty()) return null;
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) return UNSATISFIABLE;
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                if (start >= length) return UNSATISFIABLE;
+                end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+                if (end < start) return null;
+                end = Math.min(end, length - 1);
+            }
+            if (start >= length) return UNSATISFIABLE;
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.application.classes.views;
+
+import com.example.application.classes.service.BatchBusyException;
+import com.example.application.classes.service.ExportFormat;
+import com.example.application.classes.service.ExportService;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.AttachmentType;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.streams.DownloadHandler;
+
+import java.io.IOException;
+
+/**
+ * Links "Exportar CSV/XLSX". O arquivo é gerado na hora do download, fora do lock da sessão,
+ * então a tela continua respondendo enquanto a exportação roda.
+ */
+final class ExportLinks {
+
+    private ExportLinks() {}
+
+    static Component of(ExportService exportService, ExportService.Dataset dataset) {
+        HorizontalLayout links = new HorizontalLayout(
+                link(exportService, dataset, ExportFormat.CSV, "Exportar CSV"),
+                link(exportService, dataset, ExportFormat.XLSX, "Exportar XLSX"));
+        links.setSpacing(true);
+        return links;
+    }
+
+    private static Anchor link(ExportService exportService, ExportService.Dataset dataset,
+                               ExportFormat format, String text) {
+        DownloadHandler handler = event -> {
+            ExportService.PreparedExport export;
+            VaadinSession session = event.getSession();
+            session.lock();
+            try {
+                export = exportService.prepare(dataset, format);
+            } catch (RuntimeException e) {
+                event.getResponse().setStatus(403);
+                return;
+            } finally {
+                session.unlock();
+            }
+
+            event.setFileName(export.fileName());
+            event.setContentType(export.contentType());
+            try {
+                exportService.write(export, event.getOutputStream());
+            } catch (BatchBusyException e) {
+                event.getResponse().setStatus(503);
+            } catch (SecurityException e) {
+                event.getResponse().setStatus(403);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Falha ao exportar " + dataset.name().toLowerCase(), e);
+            }
+        };
+
+        return new Anchor(handler, AttachmentType.DOWNLOAD, text);
+    }
+}
@@ -6,6 +6,8 @@ import com.example.application.base.ui.component.ViewToolbar;
 import com.example.application.classes.service.AppUserService;
 import com.example.application.classes.service.CurrentCompanyService;
 import com.example.application.classes.service.CurrentUserService;
+import com.example.application.classes.service.PasswordHashingBusyException;
+import com.example.application.classes.service.TooManyAttemptsException;
 import com.vaadin.flow.component.Key;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
@@ -24,6 +26,7 @@ import com.vaadin.flow.router.RouteAlias;
 import com.vaadin.flow.server.auth.AnonymousAllowed;
 
 import java.util.Objects;
+import java.util.concurrent.CompletionException;
 
 @PageTitle("Início")
 @Route(value = "", layout = MainLayout.class)
@@ -158,30 +161,44 @@ public class HomeView extends VerticalLayout {
         }
 
         setLoading(true);
+        // A conferência da senha roda no pool de hash; o resultado volta por push.
+        final UI ui = UI.getCurrent();
         try {
-            var res = appUserService.loginOrConfirm(e, p);
-            switch (res) {
-                case LOGGED_IN -> {
-                    var user = appUserService.findByEmail(e).orElseThrow();
-                    currentUserService.onLogin(user.getId(), user.getEmail());
-
-                    if (currentCompanyService.ensureAutoSelectionIfSingle(user.getId())) {
-                        UI.getCurrent().navigate("users");
-                    } else {
-                        UI.getCurrent().navigate("company/select");
-                    }
-                }
-                case INVALID -> Notification.show("E-mail ou senha inválidos.", 3000, Notification.Position.MIDDLE);
-            }
+            appUserService.verifyCredentialsAsync(e, p)
+                    .whenComplete((attempt, err) -> ui.access(() -> {
+                        try {
+                            if (err != null) {
+                                showLoginFailure(err);
+                                return;
+                            }
+                            var res = appUserService.completeLogin(attempt);
+                            switch (res) {
+                                case LOGGED_IN -> ui.navigate(currentCompanyService.hasSelection() ? "users" : "company/select");
+                                case INVALID -> Notification.show("E-mail ou senha inválidos.", 3000, Notification.Position.MIDDLE);
+                            }
+                        } catch (Exception ex) {
+                            showLoginFailure(ex);
+                        } finally {
+                            setLoading(false);
+                            updateUIState();
+                        }
+                    }));
         } catch (Exception ex) {
-            ex.printStackTrace();
-            Notification.show("Falha ao autenticar.", 3500, Notification.Position.MIDDLE);
-        } finally {
+            showLoginFailure(ex);
             setLoading(false);
-            updateUIState();
         }
     }
 
+    private void showLoginFailure(Throwable err) {
+        Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+        if (cause instanceof PasswordHashingBusyException || cause instanceof TooManyAttemptsException) {
+            Notification.show(cause.getMessage(), 3500, Notification.Position.MIDDLE);
+            return;
+        }
+        cause.printStackTrace();
+        Notification.show("Falha ao autenticar.", 3500, Notification.Position.MIDDLE);
+    }
+
     private void setLoading(boolean loading) {
         loginBtn.setEnabled(!loading);
         loginBtn.setText(loading ? "Entrando..." : "Entrar");
@@ -0,0 +1,177 @@
+package com.example.application.classes.views;
+
+import com.example.application.base.ui.MainLayout;
+import com.example.application.base.ui.component.ViewToolbar;
+import com.example.application.classes.service.*;
+import com.example.application.config.ViewGuard;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Main;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.component.select.Select;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.router.*;
+import com.vaadin.flow.server.streams.UploadHandler;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+@PageTitle("Importar dados")
+@Route(value = "import", layout = MainLayout.class)
+@Menu(title = "Importar dados", icon = "la la-file-import", order = 12)
+public class ImportView extends Main implements BeforeEnterObserver {
+
+    private static final int ERRORS_SHOWN = 1000;
+
+    private final ImportService importService;
+    private final CurrentUserService currentUserService;
+    private final CurrentCompanyService currentCompanyService;
+    private final UserCompanyService userCompanyService;
+
+    private final Select<ImportKind> kindSelect = new Select<>();
+    private final Upload upload;
+    private final ProgressBar progressBar = new ProgressBar(0, 1);
+    private final Span status = new Span();
+    private final Grid<ImportError> errorGrid = new Grid<>(ImportError.class, false);
+
+    private volatile UI attachedUi;
+    private boolean running;
+
+    public ImportView(ImportService importService,
+                      CurrentUserService currentUserService,
+                      CurrentCompanyService currentCompanyService,
+                      UserCompanyService userCompanyService) {
+        this.importService = importService;
+        this.currentUserService = currentUserService;
+        this.currentCompanyService = currentCompanyService;
+        this.userCompanyService = userCompanyService;
+
+        add(new ViewToolbar("Importar dados"));
+        add(new Paragraph("Importe na ordem: clientes, pets e atendimentos. A coluna \"codigo\" identifica "
+                + "o registro no sistema anterior; importar o mesmo arquivo de novo atualiza os registros em vez de duplicar."));
+
+        kindSelect.setLabel("Tipo de dado");
+        kindSelect.setItems(ImportKind.values());
+        kindSelect.setItemLabelGenerator(k -> k.label + " (" + String.join(", ", k.csvHeaders) + ")");
+        kindSelect.setValue(ImportKind.CLIENT);
+        kindSelect.setWidthFull();
+
+        // O callback roda na thread da requisição de upload, sem o lock da sessão.
+        upload = new Upload(UploadHandler.toTempFile((metadata, file) -> {
+            UI ui = attachedUi;
+            if (ui == null) {
+                deleteQuietly(file.toPath());
+                return;
+            }
+            ui.access(() -> onUploaded(ui, metadata.fileName(), file));
+        }));
+        upload.setAcceptedFileTypes(".csv", "text/csv");
+        upload.setMaxFiles(1);
+
+        progressBar.setVisible(false);
+
+        errorGrid.addColumn(ImportError::lineNo).setHeader("Linha").setAutoWidth(true).setFlexGrow(0);
+        errorGrid.addColumn(ImportError::message).setHeader("Erro").setFlexGrow(1);
+        errorGrid.setVisible(false);
+
+        add(kindSelect, upload, progressBar, status, errorGrid);
+        setSizeFull();
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        ViewGuard.requireAdmin(event, currentUserService, currentCompanyService, userCompanyService);
+    }
+
+    @Override
+    protected void onAttach(AttachEvent event) {
+        super.onAttach(event);
+        attachedUi = event.getUI();
+    }
+
+    @Override
+    protected void onDetach(DetachEvent event) {
+        attachedUi = null;
+        super.onDetach(event);
+    }
+
+    private void onUploaded(UI ui, String fileName, File file) {
+        if (running) {
+            deleteQuietly(file.toPath());
+            Notification.show("Aguarde o término da importação em andamento.", 3000, Notification.Position.MIDDLE)
+                    .addThemeNames("warning");
+            return;
+        }
+
+        ImportService.PreparedImport prepared;
+        try {
+            prepared = importService.prepare(kindSelect.getValue(), fileName);
+        } catch (RuntimeException ex) {
+            deleteQuietly(file.toPath());
+            Notification.show(ex.getMessage(), 5000, Notification.Position.MIDDLE).addThemeNames("error");
+            return;
+        }
+
+        setRunning(true);
+        status.setText("Importando " + fileName + "...");
+        errorGrid.setVisible(false);
+
+        importService.run(prepared, file.toPath(), fraction -> ui.access(() -> progressBar.setValue(fraction)))
+                .whenComplete((result, error) -> {
+                    deleteQuietly(file.toPath());
+                    ui.access(() -> {
+                        setRunning(false);
+                        upload.clearFileList();
+                        if (error != null) showFailure(error);
+                        else showResult(result);
+                    });
+                });
+    }
+
+    private void showResult(ImportResult r) {
+        status.setText("Concluído: " + r.totalRows() + " linhas lidas, " + r.insertedRows() + " inseridas, "
+                + r.updatedRows() + " atualizadas, " + r.errorRows() + " com erro.");
+        Notification.show("Importação concluída.", 3000, Notification.Position.MIDDLE).addThemeNames("success");
+
+        if (r.errorRows() == 0) return;
+        try {
+            List<ImportError> errors = importService.errors(r.jobId(), ERRORS_SHOWN);
+            errorGrid.setItems(errors);
+            errorGrid.setVisible(true);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            Notification.show("Erro ao carregar relatório de erros: " + ex.getMessage(),
+                    5000, Notification.Position.MIDDLE).addThemeNames("error");
+        }
+    }
+
+    private void showFailure(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        status.setText("Importação cancelada; nada foi gravado.");
+        Notification.show("Erro na importação: " + cause.getMessage(), 5000, Notification.Position.MIDDLE)
+                .addThemeNames("error");
+    }
+
+    private void setRunning(boolean running) {
+        this.running = running;
+        kindSelect.setEnabled(!running);
+        progressBar.setVisible(running);
+        progressBar.setValue(0);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (Exception ignored) {
+            // arquivo temporário; o sistema limpa depois
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.application.classes.views;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Entrega valores vindos de outra thread a uma tela via ui.access, guardando só o mais recente:
+ * enquanto uma atualização ainda não foi aplicada, as novas apenas a substituem.
+ * Tela lenta ou com conexão ruim recebe menos envios, nunca uma fila deles.
+ */
+final class LatestOnlyPush<T> implements Consumer<T> {
+
+    private final UI ui;
+    private final Consumer<T> render;
+    private final AtomicReference<T> pending = new AtomicReference<>();
+
+    LatestOnlyPush(UI ui, Consumer<T> render) {
+        this.ui = ui;
+        this.render = render;
+    }
+
+    @Override
+    public void accept(T value) {
+        if (pending.getAndSet(value) != null) return;
+        try {
+            ui.access(() -> {
+                T latest = pending.getAndSet(null);
+                if (latest != null) render.accept(latest);
+            });
+        } catch (UIDetachedException e) {
+            pending.set(null);
+        }
+    }
+}
@@ -3,14 +3,20 @@ package com.example.application.classes.views;
 import com.example.application.base.ui.MainLayout;
 import com.example.application.base.ui.component.ViewToolbar;
 import com.example.application.classes.model.Pet;
+import com.example.application.classes.service.ClinicalRecordService;
 import com.example.application.classes.service.CurrentCompanyService;
 import com.example.application.classes.service.CurrentUserService;
+import com.example.application.classes.service.ExportService;
 import com.example.application.classes.service.PetService;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.avatar.Avatar;
 import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.dependency.Uses;
 import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.html.Main;
 import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.router.*;
 
@@ -21,6 +27,7 @@ import java.util.Objects;
 @PageTitle("Pets")
 @Route(value = "pets", layout = MainLayout.class)
 @Menu(title = "Pets", icon = "la la-paw", order = 10)
+@Uses(Avatar.class)
 public class PetListView extends Main implements BeforeEnterObserver {
 
     private final PetService petService;
@@ -33,22 +40,32 @@ public class PetListView extends Main implements BeforeEnterObserver {
     private final Button editBtn = new Button("Editar");
     private final Button deleteBtn = new Button("Remover");
     private final Button attendanceBtn = new Button("Atendimentos");
+    private final Anchor recordLink;
+
+    private List<Pet> shownItems;
 
     public PetListView(PetService petService,
                        CurrentUserService currentUserService,
-                       CurrentCompanyService currentCompanyService) {
+                       CurrentCompanyService currentCompanyService,
+                       ExportService exportService,
+                       ClinicalRecordService clinicalRecordService) {
 
         this.petService = Objects.requireNonNull(petService);
         this.currentUserService = Objects.requireNonNull(currentUserService);
         this.currentCompanyService = Objects.requireNonNull(currentCompanyService);
 
-        add(new ViewToolbar("Pets"));
+        add(new ViewToolbar("Pets",
+                ExportLinks.of(exportService, ExportService.Dataset.PETS),
+                ClinicalRecordLinks.all(clinicalRecordService)));
+
+        recordLink = ClinicalRecordLinks.selected(clinicalRecordService, () -> grid.asSingleSelect().getValue());
 
         configureGrid();
         add(grid);
 
         configureActions();
-        var actionsLayout = new HorizontalLayout(newBtn, editBtn, deleteBtn, attendanceBtn);
+        var actionsLayout = new HorizontalLayout(newBtn, editBtn, deleteBtn, attendanceBtn, recordLink);
+        actionsLayout.setAlignItems(FlexComponent.Alignment.CENTER);
         actionsLayout.setPadding(true);
         add(actionsLayout);
     }
@@ -75,6 +92,11 @@ public class PetListView extends Main implements BeforeEnterObserver {
         grid.setWidthFull();
         grid.setSelectionMode(Grid.SelectionMode.SINGLE);
 
+        grid.addColumn(PetPhotos.avatar())
+                .setHeader("Foto")
+                .setAutoWidth(true)
+                .setFlexGrow(0);
+
         grid.addColumn(Pet::getId)
                 .setHeader("ID")
                 .setAutoWidth(true)
@@ -110,12 +132,14 @@ public class PetListView extends Main implements BeforeEnterObserver {
         editBtn.setEnabled(false);
         deleteBtn.setEnabled(false);
         attendanceBtn.setEnabled(false);
+        recordLink.setEnabled(false);
 
         grid.asSingleSelect().addValueChangeListener(e -> {
             boolean hasSelection = e.getValue() != null;
             editBtn.setEnabled(hasSelection);
             deleteBtn.setEnabled(hasSelection);
             attendanceBtn.setEnabled(hasSelection);
+            recordLink.setEnabled(hasSelection);
         });
 
         newBtn.addClickListener(e -> UI.getCurrent().navigate("pets/new"));
@@ -127,13 +151,18 @@ public class PetListView extends Main implements BeforeEnterObserver {
     private void reloadGrid() {
         try {
             List<Pet> pets = petService.listAllForCompany();
-            grid.setItems(pets);
+            // mesma instância = carimbo de versão não mudou; mantém grid e seleção
+            if (pets != shownItems) {
+                grid.setItems(pets);
+                shownItems = pets;
+            }
         } catch (SQLException ex) {
             ex.printStackTrace();
             Notification.show("Erro ao carregar lista de pets: " + ex.getMessage(),
                             5000, Notification.Position.TOP_CENTER)
                     .addThemeNames("error");
             grid.setItems(List.of());
+            shownItems = null;
         }
     }
 
@@ -165,6 +194,7 @@ public class PetListView extends Main implements BeforeEnterObserver {
             editBtn.setEnabled(false);
             deleteBtn.setEnabled(false);
             attendanceBtn.setEnabled(false);
+            recordLink.setEnabled(false);
 
         } catch (SQLException ex) {
             ex.printStackTrace();
@@ -0,0 +1,130 @@
+package com.example.application.classes.views;
+
+import com.example.application.classes.service.PetPhotoService;
+import com.example.application.classes.service.PetValidationException;
+import com.example.application.classes.service.PhotoSize;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.html.Image;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.streams.UploadHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+
+/**
+ * Foto do pet na tela de edição. O upload vai direto para o PetPhotoService (sem o lock da sessão)
+ * e a prévia usa a miniatura média, nunca o original.
+ */
+class PetPhotoPanel extends HorizontalLayout {
+
+    private final PetPhotoService petPhotoService;
+    private final long petId;
+    private final Image preview = new Image();
+    private final Span empty = new Span("Sem foto");
+    private final Button removeBtn = new Button("Remover foto");
+
+    private volatile UI attachedUi;
+
+    PetPhotoPanel(PetPhotoService petPhotoService, long petId, String photoSha256) {
+        this.petPhotoService = petPhotoService;
+        this.petId = petId;
+        setAlignItems(Alignment.CENTER);
+
+        preview.setWidth("160px");
+        preview.setAlt("Foto do pet");
+        preview.getStyle().set("border-radius", "var(--lumo-border-radius-m)");
+
+        Upload upload = new Upload(uploadHandler());
+        upload.setAcceptedFileTypes("image/jpeg", "image/png", "image/gif", "image/bmp");
+        upload.setMaxFiles(1);
+        upload.setMaxFileSize((int) Math.min(Integer.MAX_VALUE, petPhotoService.maxBytes()));
+
+        removeBtn.addThemeNames("error", "tertiary");
+        removeBtn.addClickListener(e -> onRemove());
+
+        add(preview, empty, new VerticalLayout(upload, removeBtn));
+        show(photoSha256);
+    }
+
+    @Override
+    protected void onAttach(AttachEvent event) {
+        super.onAttach(event);
+        attachedUi = event.getUI();
+    }
+
+    @Override
+    protected void onDetach(DetachEvent event) {
+        attachedUi = null;
+        super.onDetach(event);
+    }
+
+    private void show(String photoSha256) {
+        boolean hasPhoto = photoSha256 != null;
+        if (hasPhoto) preview.setSrc(PetPhotoService.url(photoSha256, PhotoSize.MEDIUM));
+        preview.setVisible(hasPhoto);
+        empty.setVisible(!hasPhoto);
+        removeBtn.setEnabled(hasPhoto);
+    }
+
+    // Roda na thread da requisição de upload: o lock da sessão só é pego para validar.
+    private UploadHandler uploadHandler() {
+        return event -> {
+            PetPhotoService.PreparedUpload prepared;
+            VaadinSession session = event.getSession();
+            session.lock();
+            try {
+                prepared = petPhotoService.prepareUpload(petId);
+            } catch (SQLException | RuntimeException e) {
+                throw new IOException("Upload não autorizado", e);
+            } finally {
+                session.unlock();
+            }
+
+            String sha256 = null;
+            String error = null;
+            try (InputStream in = event.getInputStream()) {
+                sha256 = petPhotoService.store(prepared, in);
+            } catch (PetValidationException e) {
+                error = e.getMessage();
+            } catch (IOException | SQLException | RuntimeException e) {
+                error = "Erro ao enviar foto: " + e.getMessage();
+            }
+
+            UI ui = attachedUi;
+            if (ui != null) {
+                String stored = sha256;
+                String message = error;
+                ui.access(() -> {
+                    if (message != null) {
+                        Notification.show(message, 5000, Notification.Position.MIDDLE).addThemeNames("error");
+                    } else {
+                        show(stored);
+                        Notification.show("Foto atualizada.", 3000, Notification.Position.MIDDLE)
+                                .addThemeNames("success");
+                    }
+                });
+            }
+        };
+    }
+
+    private void onRemove() {
+        try {
+            petPhotoService.removePhoto(petId);
+            show(null);
+            Notification.show("Foto removida.", 3000, Notification.Position.MIDDLE)
+                    .addThemeNames("success");
+        } catch (SQLException ex) {
+            Notification.show("Erro ao remover foto: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+}
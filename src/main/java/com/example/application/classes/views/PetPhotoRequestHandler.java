@@ -0,0 +1,115 @@
+package com.example.application.classes.views;
+
+import com.example.application.classes.repository.PetRepository;
+import com.example.application.classes.service.PetPhotoService;
+import com.example.application.classes.service.PhotoResizeBusyException;
+import com.example.application.classes.service.PhotoResizer;
+import com.example.application.classes.service.PhotoSize;
+import com.example.application.config.ServiceGuard;
+import com.vaadin.flow.server.*;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serve as miniaturas de foto de pet em /pet-photos/&lt;tamanho&gt;/&lt;sha256&gt;.jpg.
+ * A URL muda quando a foto muda, então a resposta é cacheada pelo navegador como imutável;
+ * grids e seletores só baixam cada miniatura uma vez. Exige sessão com empresa selecionada
+ * e que a foto seja de um pet dessa empresa.
+ */
+@Component
+class PetPhotoRequestHandler implements VaadinServiceInitListener, RequestHandler {
+
+    private static final Pattern PATH = Pattern.compile("/" + PetPhotoService.URL_PREFIX + "([a-z]+)/([0-9a-f]{64})\\.jpg");
+    private static final long RESIZE_WAIT_MS = 10_000;
+
+    private final ServiceGuard serviceGuard;
+    private final PetRepository petRepository;
+    private final PhotoResizer photoResizer;
+
+    PetPhotoRequestHandler(ServiceGuard serviceGuard, PetRepository petRepository, PhotoResizer photoResizer) {
+        this.serviceGuard = serviceGuard;
+        this.petRepository = petRepository;
+        this.photoResizer = photoResizer;
+    }
+
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        event.addRequestHandler(this);
+    }
+
+    @Override
+    public boolean handleRequest(VaadinSession session, VaadinRequest request, VaadinResponse response)
+            throws IOException {
+        String pathInfo = request.getPathInfo();
+        if (pathInfo == null || !pathInfo.startsWith("/" + PetPhotoService.URL_PREFIX)) return false;
+
+        Matcher m = PATH.matcher(pathInfo);
+        PhotoSize size = m.matches() ? PhotoSize.fromKey(m.group(1)) : null;
+        if (size == null) {
+            response.sendError(404, "Not found");
+            return true;
+        }
+        String sha256 = m.group(2);
+
+        long companyId;
+        session.lock();
+        try {
+            companyId = serviceGuard.requireCompanyId();
+        } catch (RuntimeException e) {
+            response.sendError(403, "Forbidden");
+            return true;
+        } finally {
+            session.unlock();
+        }
+
+        String etag = "\"" + sha256 + "-" + size.key + "\"";
+        if (DownloadHeaders.ifNoneMatch(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(304);
+            return true;
+        }
+
+        Path file;
+        try {
+            if (!petRepository.isPhotoOfCompany(companyId, sha256)) {
+                response.sendError(404, "Not found");
+                return true;
+            }
+            file = photoResizer.variant(sha256, size, RESIZE_WAIT_MS);
+        } catch (PhotoResizeBusyException | TimeoutException e) {
+            response.setHeader("Retry-After", "5");
+            response.sendError(503, "Busy");
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(503, "Busy");
+            return true;
+        } catch (SQLException e) {
+            throw new IOException("Falha ao verificar foto do pet", e);
+        }
+
+        response.setContentType("image/jpeg");
+        response.setHeader("ETag", etag);
+        response.setHeader("Cache-Control", "private, max-age=31536000, immutable");
+        response.setContentLengthLong(Files.size(file));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            long length = channel.size();
+            while (position < length) {
+                position += channel.transferTo(position, length - position, out);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.application.classes.views;
+
+import com.example.application.classes.model.Pet;
+import com.example.application.classes.service.PetPhotoService;
+import com.example.application.classes.service.PhotoSize;
+import com.vaadin.flow.component.ItemLabelGenerator;
+import com.vaadin.flow.data.renderer.LitRenderer;
+
+/**
+ * Renderers com a miniatura do pet (vaadin-avatar mostra as iniciais quando não há foto).
+ * Só a URL vai para o navegador; a imagem vem do PetPhotoRequestHandler, cacheada.
+ */
+final class PetPhotos {
+
+    private PetPhotos() {}
+
+    /** Só a miniatura, para coluna de grid. */
+    static LitRenderer<Pet> avatar() {
+        return LitRenderer.<Pet>of("<vaadin-avatar img=\"${item.src}\" name=\"${item.name}\" theme=\"small\"></vaadin-avatar>")
+                .withProperty("src", p -> PetPhotoService.url(p.getPhotoSha256(), PhotoSize.THUMB))
+                .withProperty("name", Pet::getName);
+    }
+
+    /** Miniatura + texto, para itens de ComboBox. */
+    static LitRenderer<Pet> avatarWithLabel(ItemLabelGenerator<Pet> label) {
+        return LitRenderer.<Pet>of("""
+                <div style="display:flex;align-items:center;gap:var(--lumo-space-s)">
+                  <vaadin-avatar img="${item.src}" name="${item.name}" theme="xsmall"></vaadin-avatar>
+                  <span>${item.label}</span>
+                </div>
+                """)
+                .withProperty("src", p -> PetPhotoService.url(p.getPhotoSha256(), PhotoSize.THUMB))
+                .withProperty("name", Pet::getName)
+                .withProperty("label", label::apply);
+    }
+}
@@ -33,6 +33,9 @@ public class PetView extends Main implements BeforeEnterObserver {
     private final ClientService clientService;
     private final CurrentUserService currentUserService;
     private final CurrentCompanyService currentCompanyService;
+    private final PetPhotoService petPhotoService;
+    private final VitalService vitalService;
+    private final VaccinationService vaccinationService;
 
     private final ComboBox<Client> clientField = new ComboBox<>("Cliente");
     private final TextField nameField = new TextField("Nome");
@@ -43,27 +46,37 @@ public class PetView extends Main implements BeforeEnterObserver {
     private final Button saveBtn = new Button("Salvar");
     private final Button returnBtn = new Button("Voltar");
 
+    private final VerticalLayout content = new VerticalLayout();
+    private final FormLayout form = new FormLayout();
+    private PetPhotoPanel photoPanel;
+    private VitalsPanel vitalsPanel;
+    private VaccinationsPanel vaccinationsPanel;
+
     private Long petId = null;
 
     public PetView(PetService petService,
                    ClientService clientService,
                    CurrentUserService currentUserService,
-                   CurrentCompanyService currentCompanyService) {
+                   CurrentCompanyService currentCompanyService,
+                   PetPhotoService petPhotoService,
+                   VitalService vitalService,
+                   VaccinationService vaccinationService) {
 
         this.petService = Objects.requireNonNull(petService);
         this.clientService = Objects.requireNonNull(clientService);
         this.currentUserService = Objects.requireNonNull(currentUserService);
         this.currentCompanyService = Objects.requireNonNull(currentCompanyService);
+        this.petPhotoService = Objects.requireNonNull(petPhotoService);
+        this.vitalService = Objects.requireNonNull(vitalService);
+        this.vaccinationService = Objects.requireNonNull(vaccinationService);
 
         add(new ViewToolbar("Pet"));
 
-        var content = new VerticalLayout();
         content.setPadding(true);
         content.setSpacing(true);
         content.setWidthFull();
         add(content);
 
-        var form = new FormLayout();
         form.setMaxWidth("600px");
 
         configureFields();
@@ -239,6 +252,20 @@ public class PetView extends Main implements BeforeEnterObserver {
                     .findFirst()
                     .ifPresent(clientField::setValue);
         }
+
+        // Foto, vacinas e medidas só para pet já salvo.
+        if (photoPanel == null) {
+            photoPanel = new PetPhotoPanel(petPhotoService, petId, pet.getPhotoSha256());
+            content.addComponentAtIndex(content.indexOf(form) + 1, photoPanel);
+        }
+        if (vaccinationsPanel == null) {
+            vaccinationsPanel = new VaccinationsPanel(vaccinationService, petId);
+            content.add(vaccinationsPanel);
+        }
+        if (vitalsPanel == null) {
+            vitalsPanel = new VitalsPanel(vitalService, petId);
+            content.add(vitalsPanel);
+        }
     }
 
     private static String trimOrEmpty(String v) {
@@ -0,0 +1,133 @@
+package com.example.application.classes.views;
+
+import com.example.application.base.ui.MainLayout;
+import com.example.application.base.ui.component.ViewToolbar;
+import com.example.application.classes.service.CurrentCompanyService;
+import com.example.application.classes.service.CurrentUserService;
+import com.example.application.classes.service.VaccinationDue;
+import com.example.application.classes.service.VaccinationService;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Main;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.select.Select;
+import com.vaadin.flow.router.*;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/** Vacinas atrasadas e a vencer; lê direto o índice de vencimentos, sem recalcular calendário por pet. */
+@PageTitle("Vacinas a Vencer")
+@Route(value = "vaccines/due", layout = MainLayout.class)
+@Menu(title = "Vacinas a Vencer", icon = "la la-syringe", order = 15)
+public class VaccinationDueView extends Main implements BeforeEnterObserver {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final VaccinationService vaccinationService;
+    private final CurrentUserService currentUserService;
+    private final CurrentCompanyService currentCompanyService;
+
+    private final Select<Integer> periodSelect = new Select<>();
+    private final Span summary = new Span();
+    private final Grid<VaccinationDue> grid = new Grid<>(VaccinationDue.class, false);
+
+    public VaccinationDueView(VaccinationService vaccinationService,
+                              CurrentUserService currentUserService,
+                              CurrentCompanyService currentCompanyService) {
+        this.vaccinationService = vaccinationService;
+        this.currentUserService = currentUserService;
+        this.currentCompanyService = currentCompanyService;
+
+        add(new ViewToolbar("Vacinas a Vencer"));
+
+        periodSelect.setLabel("Período");
+        periodSelect.setItems(0, 7, 30, 90);
+        periodSelect.setItemLabelGenerator(days -> switch (days) {
+            case 0 -> "Só atrasadas e de hoje";
+            case 7 -> "Atrasadas e próxima semana";
+            default -> "Atrasadas e próximos " + days + " dias";
+        });
+        periodSelect.setValue(7);
+        periodSelect.addValueChangeListener(e -> refresh());
+
+        var filters = new HorizontalLayout(periodSelect, summary);
+        filters.setAlignItems(FlexComponent.Alignment.BASELINE);
+        filters.setPadding(true);
+
+        grid.addComponentColumn(VaccinationDueView::dueLabel)
+                .setHeader("Vencimento")
+                .setAutoWidth(true)
+                .setFlexGrow(0);
+        grid.addColumn(VaccinationDue::protocolName)
+                .setHeader("Vacina")
+                .setAutoWidth(true);
+        grid.addColumn(VaccinationDue::petName)
+                .setHeader("Pet")
+                .setAutoWidth(true);
+        grid.addColumn(VaccinationDue::clientName)
+                .setHeader("Tutor")
+                .setAutoWidth(true);
+        grid.addColumn(VaccinationDue::clientPhone)
+                .setHeader("Telefone")
+                .setAutoWidth(true);
+        grid.addColumn(d -> d.appliedAt().format(DATE))
+                .setHeader("Última aplicação")
+                .setAutoWidth(true)
+                .setFlexGrow(0);
+        grid.addItemDoubleClickListener(e ->
+                UI.getCurrent().navigate("pets/" + e.getItem().petId() + "/edit"));
+
+        add(filters, grid);
+        setSizeFull();
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        if (!currentUserService.isLoggedIn()) {
+            Notification.show("Faça login para continuar.", 3000, Notification.Position.MIDDLE);
+            event.rerouteTo("home");
+            return;
+        }
+
+        if (!currentCompanyService.hasSelection()) {
+            Notification.show("Selecione uma empresa para continuar.", 3000, Notification.Position.MIDDLE);
+            event.rerouteTo("company/select");
+            return;
+        }
+
+        refresh();
+    }
+
+    private void refresh() {
+        Integer days = periodSelect.getValue();
+        try {
+            List<VaccinationDue> due = vaccinationService.listDue(days == null ? 7 : days);
+            grid.setItems(due);
+            long overdue = due.stream().filter(d -> d.nextDueAt().isBefore(LocalDate.now())).count();
+            summary.setText(due.size() + " vacina(s), " + overdue + " atrasada(s). Clique duas vezes para abrir o pet.");
+        } catch (SQLException ex) {
+            Notification.show("Erro ao carregar vencimentos: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+            grid.setItems(List.of());
+        }
+    }
+
+    private static Span dueLabel(VaccinationDue due) {
+        LocalDate today = LocalDate.now();
+        Span span = new Span(due.nextDueAt().format(DATE));
+        if (due.nextDueAt().isBefore(today)) {
+            span.setText(span.getText() + " (atrasada)");
+            span.getStyle().set("color", "var(--lumo-error-text-color)");
+        } else if (due.nextDueAt().isEqual(today)) {
+            span.setText(span.getText() + " (hoje)");
+            span.getStyle().set("font-weight", "600");
+        }
+        return span;
+    }
+}
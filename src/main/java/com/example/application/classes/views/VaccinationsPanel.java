@@ -0,0 +1,134 @@
+package com.example.application.classes.views;
+
+import com.example.application.classes.model.VaccineProtocol;
+import com.example.application.classes.service.VaccinationRecord;
+import com.example.application.classes.service.VaccinationService;
+import com.example.application.classes.service.VaccinationValidationException;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.datepicker.DatePicker;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.TextField;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/** Vacinas do pet na tela de edição: histórico com o próximo reforço e registro de nova aplicação. */
+class VaccinationsPanel extends VerticalLayout {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final VaccinationService vaccinationService;
+    private final long petId;
+    private final ComboBox<VaccineProtocol> protocolField = new ComboBox<>("Vacina");
+    private final DatePicker appliedAtPicker = new DatePicker("Aplicada em");
+    private final TextField lotField = new TextField("Lote");
+    private final Grid<VaccinationRecord> grid = new Grid<>(VaccinationRecord.class, false);
+    private final Button deleteBtn = new Button("Remover");
+
+    VaccinationsPanel(VaccinationService vaccinationService, long petId) {
+        this.vaccinationService = vaccinationService;
+        this.petId = petId;
+        setPadding(false);
+
+        protocolField.setItemLabelGenerator(VaccineProtocol::getName);
+        appliedAtPicker.setValue(LocalDate.now());
+        appliedAtPicker.setMax(LocalDate.now());
+        lotField.setMaxLength(60);
+
+        Button registerBtn = new Button("Registrar");
+        registerBtn.addThemeNames("primary");
+        registerBtn.addClickListener(e -> onRegister());
+
+        HorizontalLayout entry = new HorizontalLayout(protocolField, appliedAtPicker, lotField, registerBtn);
+        entry.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.BASELINE);
+        entry.setWrap(true);
+
+        grid.addColumn(VaccinationRecord::protocolName)
+                .setHeader("Vacina")
+                .setFlexGrow(1);
+        grid.addColumn(v -> v.appliedAt().format(DATE))
+                .setHeader("Aplicada em")
+                .setAutoWidth(true)
+                .setFlexGrow(0);
+        grid.addColumn(VaccinationRecord::lot)
+                .setHeader("Lote")
+                .setAutoWidth(true)
+                .setFlexGrow(0);
+        grid.addColumn(VaccinationsPanel::nextDue)
+                .setHeader("Próximo reforço")
+                .setAutoWidth(true)
+                .setFlexGrow(0);
+        grid.setAllRowsVisible(true);
+        grid.asSingleSelect().addValueChangeListener(e -> deleteBtn.setEnabled(e.getValue() != null));
+
+        deleteBtn.addThemeNames("error", "tertiary");
+        deleteBtn.setEnabled(false);
+        deleteBtn.addClickListener(e -> onDelete());
+
+        add(new H3("Vacinas"), entry, grid, deleteBtn);
+        loadProtocols();
+        refresh();
+    }
+
+    private static String nextDue(VaccinationRecord v) {
+        if (!v.current()) return "";
+        return v.nextDueAt() == null ? "Dose única" : v.nextDueAt().format(DATE);
+    }
+
+    private void loadProtocols() {
+        try {
+            protocolField.setItems(vaccinationService.listProtocols());
+        } catch (SQLException ex) {
+            Notification.show("Erro ao carregar protocolos: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+
+    private void refresh() {
+        try {
+            grid.setItems(vaccinationService.listByPet(petId));
+        } catch (SQLException ex) {
+            Notification.show("Erro ao carregar vacinas: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+
+    private void onRegister() {
+        VaccineProtocol protocol = protocolField.getValue();
+        try {
+            vaccinationService.registerVaccination(petId, protocol == null ? null : protocol.getId(),
+                    appliedAtPicker.getValue(), lotField.getValue());
+            lotField.clear();
+            refresh();
+            Notification.show("Vacina registrada.", 3000, Notification.Position.MIDDLE)
+                    .addThemeNames("success");
+        } catch (VaccinationValidationException ex) {
+            Notification.show(ex.getMessage(), 4000, Notification.Position.MIDDLE)
+                    .addThemeNames("warning");
+        } catch (SQLException | RuntimeException ex) {
+            Notification.show("Erro ao registrar vacina: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+
+    private void onDelete() {
+        VaccinationRecord selected = grid.asSingleSelect().getValue();
+        if (selected == null) return;
+        try {
+            vaccinationService.deleteVaccination(petId, selected.id());
+            refresh();
+            Notification.show("Aplicação removida.", 3000, Notification.Position.MIDDLE)
+                    .addThemeNames("success");
+        } catch (SQLException | RuntimeException ex) {
+            Notification.show("Erro ao remover aplicação: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.application.classes.views;
+
+import com.example.application.base.ui.MainLayout;
+import com.example.application.base.ui.component.ViewToolbar;
+import com.example.application.classes.model.VaccineProtocol;
+import com.example.application.classes.service.CurrentCompanyService;
+import com.example.application.classes.service.CurrentUserService;
+import com.example.application.classes.service.VaccinationService;
+import com.example.application.classes.service.VaccinationValidationException;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.formlayout.FormLayout;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Main;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
+import com.vaadin.flow.component.textfield.TextArea;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.*;
+
+import java.sql.SQLException;
+
+/** Cadastro dos protocolos de vacina da empresa (nome e intervalo de reforço). */
+@PageTitle("Protocolos de Vacina")
+@Route(value = "vaccines/protocols", layout = MainLayout.class)
+@Menu(title = "Protocolos de Vacina", icon = "la la-prescription-bottle", order = 16)
+public class VaccineProtocolView extends Main implements BeforeEnterObserver {
+
+    private final VaccinationService vaccinationService;
+    private final CurrentUserService currentUserService;
+    private final CurrentCompanyService currentCompanyService;
+
+    private final Grid<VaccineProtocol> grid = new Grid<>(VaccineProtocol.class, false);
+    private final TextField nameField = new TextField("Nome");
+    private final IntegerField intervalField = new IntegerField("Reforço a cada (dias)");
+    private final TextArea notesArea = new TextArea("Observações");
+    private final Button saveBtn = new Button("Salvar");
+    private final Button newBtn = new Button("Novo");
+
+    private VaccineProtocol editing;
+
+    public VaccineProtocolView(VaccinationService vaccinationService,
+                               CurrentUserService currentUserService,
+                               CurrentCompanyService currentCompanyService) {
+        this.vaccinationService = vaccinationService;
+        this.currentUserService = currentUserService;
+        this.currentCompanyService = currentCompanyService;
+
+        add(new ViewToolbar("Protocolos de Vacina"));
+
+        grid.addColumn(VaccineProtocol::getName)
+                .setHeader("Nome")
+                .setFlexGrow(1);
+        grid.addColumn(p -> p.getBoosterIntervalDays() == null ? "Dose única" : p.getBoosterIntervalDays() + " dias")
+                .setHeader("Reforço")
+                .setAutoWidth(true)
+                .setFlexGrow(0);
+        grid.asSingleSelect().addValueChangeListener(e -> edit(e.getValue()));
+        grid.setAllRowsVisible(true);
+
+        nameField.setRequiredIndicatorVisible(true);
+        nameField.setMaxLength(120);
+        intervalField.setMin(1);
+        intervalField.setMax(3660);
+        intervalField.setHelperText("Vazio para dose única. Alterar recalcula os vencimentos já registrados.");
+
+        FormLayout form = new FormLayout(nameField, intervalField, notesArea);
+        form.setMaxWidth("600px");
+
+        saveBtn.addThemeNames("primary");
+        saveBtn.addClickListener(e -> onSave());
+        newBtn.addThemeNames("tertiary");
+        newBtn.addClickListener(e -> grid.asSingleSelect().clear());
+
+        VerticalLayout content = new VerticalLayout(grid, form, new HorizontalLayout(saveBtn, newBtn));
+        content.setPadding(true);
+        add(content);
+        edit(null);
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        if (!currentUserService.isLoggedIn()) {
+            Notification.show("Faça login para continuar.", 3000, Notification.Position.MIDDLE);
+            event.rerouteTo("home");
+            return;
+        }
+
+        if (!currentCompanyService.hasSelection()) {
+            Notification.show("Selecione uma empresa para continuar.", 3000, Notification.Position.MIDDLE);
+            event.rerouteTo("company/select");
+            return;
+        }
+
+        refresh();
+    }
+
+    private void refresh() {
+        try {
+            grid.setItems(vaccinationService.listProtocols());
+        } catch (SQLException ex) {
+            Notification.show("Erro ao carregar protocolos: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+
+    private void edit(VaccineProtocol protocol) {
+        editing = protocol;
+        nameField.setValue(protocol == null ? "" : protocol.getName());
+        intervalField.setValue(protocol == null ? null : protocol.getBoosterIntervalDays());
+        notesArea.setValue(protocol == null || protocol.getNotes() == null ? "" : protocol.getNotes());
+    }
+
+    private void onSave() {
+        VaccineProtocol protocol = editing != null ? editing : new VaccineProtocol();
+        protocol.setName(nameField.getValue());
+        protocol.setBoosterIntervalDays(intervalField.getValue());
+        protocol.setNotes(notesArea.getValue());
+
+        try {
+            if (editing != null) {
+                vaccinationService.updateProtocol(protocol);
+            } else {
+                vaccinationService.createProtocol(protocol);
+            }
+            Notification.show("Protocolo salvo.", 3000, Notification.Position.MIDDLE)
+                    .addThemeNames("success");
+            grid.asSingleSelect().clear();
+            refresh();
+        } catch (VaccinationValidationException | SecurityException ex) {
+            Notification.show(ex.getMessage(), 4000, Notification.Position.MIDDLE)
+                    .addThemeNames("warning");
+        } catch (SQLException ex) {
+            Notification.show("Erro ao salvar protocolo: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+            refresh();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.application.classes.views;
+
+import com.example.application.classes.service.VitalKind;
+import com.example.application.classes.service.VitalPoint;
+import com.example.application.classes.service.VitalSeries;
+import com.vaadin.flow.component.Svg;
+
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Gráfico de linha de uma série de medidas, desenhado no servidor como SVG.
+ * A série já chega reduzida pelo VitalService, então o SVG tem no máximo algumas centenas de pontos.
+ */
+final class VitalChart {
+
+    private static final Locale PT_BR = Locale.forLanguageTag("pt-BR");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private static final int WIDTH = 640;
+    private static final int HEIGHT = 200;
+    private static final int LEFT = 56;
+    private static final int RIGHT = 16;
+    private static final int TOP = 12;
+    private static final int BOTTOM = 28;
+
+    /** Até quantos pontos cada medida ganha um marcador com dica. */
+    private static final int MAX_MARKERS = 60;
+
+    private VitalChart() {}
+
+    static Svg of(VitalSeries series) {
+        Svg svg = new Svg(render(series));
+        svg.getElement().getStyle()
+                .set("display", "block")
+                .set("width", "100%")
+                .set("max-width", WIDTH + "px");
+        return svg;
+    }
+
+    static String format(VitalKind kind, double value) {
+        int decimals = switch (kind) {
+            case WEIGHT -> 2;
+            case TEMPERATURE -> 1;
+            case HEART_RATE -> 0;
+        };
+        return String.format(PT_BR, "%." + decimals + "f", value);
+    }
+
+    private static String render(VitalSeries series) {
+        List<VitalPoint> points = series.points();
+        VitalKind kind = series.kind();
+
+        double minY = Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (VitalPoint p : points) {
+            minY = Math.min(minY, p.value());
+            maxY = Math.max(maxY, p.value());
+        }
+        double pad = maxY > minY ? (maxY - minY) * 0.08 : Math.max(1, Math.abs(maxY) * 0.05);
+        minY -= pad;
+        maxY += pad;
+
+        long minX = epoch(points.get(0));
+        long maxX = epoch(points.get(points.size() - 1));
+
+        double plotW = WIDTH - LEFT - RIGHT;
+        double plotH = HEIGHT - TOP - BOTTOM;
+
+        StringBuilder sb = new StringBuilder(points.size() * 24 + 1024);
+        sb.append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ")
+                .append(WIDTH).append(' ').append(HEIGHT)
+                .append("\" style=\"width:100%;height:auto;font-size:11px;")
+                .append("fill:var(--lumo-secondary-text-color)\">");
+
+        // Eixos e valores de referência.
+        sb.append("<g style=\"stroke:var(--lumo-contrast-20pct)\">")
+                .append(line(LEFT, TOP, LEFT, TOP + plotH))
+                .append(line(LEFT, TOP + plotH, LEFT + plotW, TOP + plotH))
+                .append(line(LEFT, TOP + plotH / 2, LEFT + plotW, TOP + plotH / 2))
+                .append("</g>");
+        sb.append(text(LEFT - 6, TOP + 4, "end", format(kind, maxY)));
+        sb.append(text(LEFT - 6, TOP + plotH / 2 + 4, "end", format(kind, (minY + maxY) / 2)));
+        sb.append(text(LEFT - 6, TOP + plotH + 4, "end", format(kind, minY)));
+        sb.append(text(LEFT, HEIGHT - 8, "start", points.get(0).measuredAt().format(DATE)));
+        if (maxX > minX) {
+            sb.append(text(LEFT + plotW, HEIGHT - 8, "end", points.get(points.size() - 1).measuredAt().format(DATE)));
+        }
+
+        double[] xs = new double[points.size()];
+        double[] ys = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            VitalPoint p = points.get(i);
+            xs[i] = maxX > minX ? LEFT + plotW * (epoch(p) - minX) / (maxX - minX) : LEFT + plotW / 2;
+            ys[i] = TOP + plotH * (maxY - p.value()) / (maxY - minY);
+        }
+
+        sb.append("<polyline style=\"fill:none;stroke:var(--lumo-primary-color);stroke-width:2\" points=\"");
+        for (int i = 0; i < xs.length; i++) {
+            if (i > 0) sb.append(' ');
+            sb.append(num(xs[i])).append(',').append(num(ys[i]));
+        }
+        sb.append("\"/>");
+
+        if (points.size() <= MAX_MARKERS) {
+            sb.append("<g style=\"fill:var(--lumo-primary-color)\">");
+            for (int i = 0; i < xs.length; i++) {
+                VitalPoint p = points.get(i);
+                sb.append("<circle cx=\"").append(num(xs[i])).append("\" cy=\"").append(num(ys[i]))
+                        .append("\" r=\"3\"><title>")
+                        .append(p.measuredAt().format(DATE_TIME)).append(": ")
+                        .append(format(kind, p.value())).append(' ').append(escape(kind.unit))
+                        .append("</title></circle>");
+            }
+            sb.append("</g>");
+        }
+
+        return sb.append("</svg>").toString();
+    }
+
+    private static long epoch(VitalPoint p) {
+        return p.measuredAt().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static String line(double x1, double y1, double x2, double y2) {
+        return "<line x1=\"" + num(x1) + "\" y1=\"" + num(y1) + "\" x2=\"" + num(x2) + "\" y2=\"" + num(y2) + "\"/>";
+    }
+
+    private static String text(double x, double y, String anchor, String value) {
+        return "<text x=\"" + num(x) + "\" y=\"" + num(y) + "\" text-anchor=\"" + anchor + "\">"
+                + escape(value) + "</text>";
+    }
+
+    private static String num(double v) {
+        return String.format(Locale.ROOT, "%.1f", v);
+    }
+
+    private static String escape(String s) {
+        return s.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+}
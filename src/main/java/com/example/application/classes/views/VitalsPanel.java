@@ -0,0 +1,110 @@
+package com.example.application.classes.views;
+
+import com.example.application.classes.service.PetValidationException;
+import com.example.application.classes.service.VitalKind;
+import com.example.application.classes.service.VitalPoint;
+import com.example.application.classes.service.VitalSeries;
+import com.example.application.classes.service.VitalService;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.datetimepicker.DateTimePicker;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.H4;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.select.Select;
+import com.vaadin.flow.component.textfield.BigDecimalField;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/** Medidas do pet na tela de edição: registro de uma nova medida e um gráfico por tipo. */
+class VitalsPanel extends VerticalLayout {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final VitalService vitalService;
+    private final long petId;
+    private final Select<VitalKind> kindSelect = new Select<>();
+    private final BigDecimalField valueField = new BigDecimalField("Valor");
+    private final DateTimePicker measuredAtPicker = new DateTimePicker("Medido em");
+    private final VerticalLayout charts = new VerticalLayout();
+
+    VitalsPanel(VitalService vitalService, long petId) {
+        this.vitalService = vitalService;
+        this.petId = petId;
+        setPadding(false);
+
+        kindSelect.setLabel("Medida");
+        kindSelect.setItems(VitalKind.values());
+        kindSelect.setItemLabelGenerator(k -> k.label + " (" + k.unit + ")");
+        kindSelect.setValue(VitalKind.WEIGHT);
+        measuredAtPicker.setValue(LocalDateTime.now().withSecond(0).withNano(0));
+
+        Button recordBtn = new Button("Registrar");
+        recordBtn.addThemeNames("primary");
+        recordBtn.addClickListener(e -> onRecord());
+
+        HorizontalLayout entry = new HorizontalLayout(kindSelect, valueField, measuredAtPicker, recordBtn);
+        entry.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.BASELINE);
+        entry.setWrap(true);
+
+        charts.setPadding(false);
+        add(new H3("Medidas"), entry, charts);
+        refresh();
+    }
+
+    private void onRecord() {
+        BigDecimal value = valueField.getValue();
+        try {
+            vitalService.record(petId, kindSelect.getValue(), measuredAtPicker.getValue(),
+                    value == null ? null : value.doubleValue());
+            valueField.clear();
+            measuredAtPicker.setValue(LocalDateTime.now().withSecond(0).withNano(0));
+            refresh();
+            Notification.show("Medida registrada.", 3000, Notification.Position.MIDDLE)
+                    .addThemeNames("success");
+        } catch (PetValidationException ex) {
+            Notification.show(ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        } catch (SQLException | RuntimeException ex) {
+            Notification.show("Erro ao registrar medida: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+
+    private void refresh() {
+        charts.removeAll();
+        try {
+            for (VitalKind kind : VitalKind.values()) {
+                VitalSeries series = vitalService.series(petId, kind);
+                charts.add(new H4(kind.label + " (" + kind.unit + ")"));
+                if (series.isEmpty()) {
+                    charts.add(new Span("Sem medidas."));
+                    continue;
+                }
+                charts.add(summary(series), VitalChart.of(series));
+            }
+        } catch (SQLException | RuntimeException ex) {
+            Notification.show("Erro ao carregar medidas: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+
+    private static Span summary(VitalSeries series) {
+        VitalPoint last = series.last();
+        String text = "Última: " + VitalChart.format(series.kind(), last.value()) + " " + series.kind().unit
+                + " em " + last.measuredAt().format(DATE_TIME)
+                + " · " + series.total() + (series.total() == 1 ? " medida" : " medidas");
+        if (series.total() > series.points().size()) {
+            text += " (gráfico com " + series.points().size() + " pontos)";
+        }
+        Span span = new Span(text);
+        span.getStyle().set("color", "var(--lumo-secondary-text-color)");
+        return span;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.application.classes.views;
+
+import com.example.application.classes.service.CurrentCompanyService;
+import com.example.application.classes.service.CurrentUserService;
+import com.example.application.classes.service.WaitlistEntry;
+import com.example.application.classes.service.WaitlistPriority;
+import com.example.application.classes.service.WaitlistService;
+import com.example.application.classes.service.WaitlistSnapshot;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.Main;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.router.*;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Painel da recepção (TV da sala de espera), em tela cheia e sem menu.
+ * Só recebe atualizações por push; a mesma foto da fila é compartilhada por todos os painéis abertos.
+ */
+@PageTitle("Fila de Espera - Painel")
+@Route("waitlist/display")
+public class WaitlistDisplayView extends Main implements BeforeEnterObserver {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+    private static final int CALLED_SHOWN = 5;
+    private static final int WAITING_SHOWN = 12;
+
+    private final WaitlistService waitlistService;
+    private final CurrentUserService currentUserService;
+    private final CurrentCompanyService currentCompanyService;
+
+    private final Div calledBox = new Div();
+    private final Div waitingBox = new Div();
+    private final Span footer = new Span();
+
+    private Runnable unsubscribe;
+    private long renderedRevision = -1;
+
+    public WaitlistDisplayView(WaitlistService waitlistService,
+                               CurrentUserService currentUserService,
+                               CurrentCompanyService currentCompanyService) {
+        this.waitlistService = waitlistService;
+        this.currentUserService = currentUserService;
+        this.currentCompanyService = currentCompanyService;
+
+        getStyle().set("display", "flex").set("flex-direction", "column").set("gap", "2rem")
+                .set("min-height", "100vh").set("box-sizing", "border-box").set("padding", "2rem 3rem")
+                .set("background", "#102030").set("color", "white");
+
+        var called = new Div(new H2("Chamando"), calledBox);
+        var waiting = new Div(new H2("Aguardando"), waitingBox);
+        called.getStyle().set("flex", "3");
+        waiting.getStyle().set("flex", "2");
+        var columns = new Div(called, waiting);
+        columns.getStyle().set("display", "flex").set("gap", "3rem").set("flex", "1");
+
+        footer.getStyle().set("opacity", "0.6");
+        add(columns, footer);
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        if (!currentUserService.isLoggedIn()) {
+            Notification.show("Faça login para continuar.", 3000, Notification.Position.MIDDLE);
+            event.rerouteTo("home");
+            return;
+        }
+        if (!currentCompanyService.hasSelection()) {
+            Notification.show("Selecione uma empresa para continuar.", 3000, Notification.Position.MIDDLE);
+            event.rerouteTo("company/select");
+        }
+    }
+
+    @Override
+    protected void onAttach(AttachEvent event) {
+        super.onAttach(event);
+        try {
+            unsubscribe = waitlistService.subscribe(new LatestOnlyPush<>(event.getUI(), this::render));
+        } catch (Exception ex) {
+            Notification.show("Erro ao carregar a fila: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+
+    @Override
+    protected void onDetach(DetachEvent event) {
+        if (unsubscribe != null) unsubscribe.run();
+        unsubscribe = null;
+        super.onDetach(event);
+    }
+
+    private void render(WaitlistSnapshot snapshot) {
+        if (snapshot.revision() == renderedRevision) return;
+        renderedRevision = snapshot.revision();
+
+        calledBox.removeAll();
+        List<WaitlistEntry> called = snapshot.called();
+        for (int i = 0; i < Math.min(CALLED_SHOWN, called.size()); i++) {
+            WaitlistEntry e = called.get(i);
+            var name = new Span(e.displayName());
+            var room = new Span(e.room() == null ? "" : e.room());
+            room.getStyle().set("color", "#ffd54f");
+            var line = new Div(name, room);
+            line.getStyle().set("display", "flex").set("justify-content", "space-between")
+                    .set("font-size", i == 0 ? "3.5rem" : "2rem").set("font-weight", i == 0 ? "700" : "400")
+                    .set("padding", "0.5rem 0").set("border-bottom", "1px solid rgba(255,255,255,0.15)");
+            calledBox.add(line);
+        }
+
+        waitingBox.removeAll();
+        List<WaitlistEntry> waiting = snapshot.waiting();
+        for (int i = 0; i < Math.min(WAITING_SHOWN, waiting.size()); i++) {
+            WaitlistEntry e = waiting.get(i);
+            var line = new Div(new Span((i + 1) + ". " + e.displayName()));
+            line.getStyle().set("font-size", "1.75rem").set("padding", "0.25rem 0");
+            if (e.priority() != WaitlistPriority.NORMAL) {
+                var tag = new Span(" " + e.priority().label);
+                tag.getStyle().set("color", e.priority() == WaitlistPriority.EMERGENCY ? "#ef5350" : "#ffa726")
+                        .set("font-size", "1.25rem");
+                line.add(tag);
+            }
+            waitingBox.add(line);
+        }
+        if (waiting.size() > WAITING_SHOWN) {
+            waitingBox.add(new Div(new Span("+ " + (waiting.size() - WAITING_SHOWN) + " na fila")));
+        }
+
+        footer.setText("Atualizado às " + LocalTime.now().format(TIME));
+    }
+}
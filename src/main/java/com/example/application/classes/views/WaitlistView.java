@@ -0,0 +1,241 @@
+package com.example.application.classes.views;
+
+import com.example.application.base.ui.MainLayout;
+import com.example.application.base.ui.component.ViewToolbar;
+import com.example.application.classes.service.CurrentCompanyService;
+import com.example.application.classes.service.CurrentUserService;
+import com.example.application.classes.service.WaitlistEntry;
+import com.example.application.classes.service.WaitlistPriority;
+import com.example.application.classes.service.WaitlistService;
+import com.example.application.classes.service.WaitlistSnapshot;
+import com.example.application.classes.service.WaitlistStatus;
+import com.example.application.classes.service.WaitlistValidationException;
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.AnchorTarget;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Main;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.FlexComponent;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.select.Select;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.*;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/** Recepção: chegada, triagem, chamada e saída da fila de espera. Atualiza sozinha (push). */
+@PageTitle("Fila de Espera")
+@Route(value = "waitlist", layout = MainLayout.class)
+@Menu(title = "Fila de Espera", icon = "la la-hourglass-half", order = 17)
+public class WaitlistView extends Main implements BeforeEnterObserver {
+
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final WaitlistService waitlistService;
+    private final CurrentUserService currentUserService;
+    private final CurrentCompanyService currentCompanyService;
+
+    private final TextField nameField = new TextField("Paciente");
+    private final TextField noteField = new TextField("Observação");
+    private final Select<WaitlistPriority> prioritySelect = new Select<>();
+    private final Button checkInBtn = new Button("Registrar chegada");
+
+    private final Grid<WaitlistEntry> waitingGrid = new Grid<>(WaitlistEntry.class, false);
+    private final Grid<WaitlistEntry> calledGrid = new Grid<>(WaitlistEntry.class, false);
+    private final Select<WaitlistPriority> triageSelect = new Select<>();
+    private final TextField roomField = new TextField("Sala");
+    private final Button triageBtn = new Button("Alterar prioridade");
+    private final Button callBtn = new Button("Chamar");
+    private final Button doneBtn = new Button("Atendido");
+    private final Button leftBtn = new Button("Desistiu");
+    private final Span summary = new Span();
+
+    private Runnable unsubscribe;
+    private long renderedRevision = -1;
+
+    public WaitlistView(WaitlistService waitlistService,
+                        CurrentUserService currentUserService,
+                        CurrentCompanyService currentCompanyService) {
+        this.waitlistService = waitlistService;
+        this.currentUserService = currentUserService;
+        this.currentCompanyService = currentCompanyService;
+
+        var displayLink = new Anchor("waitlist/display", "Abrir painel da recepção");
+        displayLink.setTarget(AnchorTarget.BLANK);
+        add(new ViewToolbar("Fila de Espera", displayLink));
+
+        configureForm();
+        configureGrids();
+        configureActions();
+
+        var form = new HorizontalLayout(nameField, prioritySelect, noteField, checkInBtn);
+        form.setAlignItems(FlexComponent.Alignment.BASELINE);
+        var actions = new HorizontalLayout(triageSelect, triageBtn, roomField, callBtn, doneBtn, leftBtn);
+        actions.setAlignItems(FlexComponent.Alignment.BASELINE);
+
+        add(form, summary, new H3("Aguardando"), waitingGrid, actions, new H3("Chamados"), calledGrid);
+    }
+
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        if (!currentUserService.isLoggedIn()) {
+            Notification.show("Faça login para continuar.", 3000, Notification.Position.MIDDLE);
+            event.rerouteTo("home");
+            return;
+        }
+        if (!currentCompanyService.hasSelection()) {
+            Notification.show("Selecione uma empresa para continuar.", 3000, Notification.Position.MIDDLE);
+            event.rerouteTo("company/select");
+        }
+    }
+
+    @Override
+    protected void onAttach(AttachEvent event) {
+        super.onAttach(event);
+        try {
+            unsubscribe = waitlistService.subscribe(new LatestOnlyPush<>(event.getUI(), this::render));
+        } catch (Exception ex) {
+            Notification.show("Erro ao carregar a fila: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+
+    @Override
+    protected void onDetach(DetachEvent event) {
+        if (unsubscribe != null) unsubscribe.run();
+        unsubscribe = null;
+        super.onDetach(event);
+    }
+
+    private void configureForm() {
+        nameField.setPlaceholder("Pet / tutor");
+        nameField.setMaxLength(80);
+        noteField.setMaxLength(200);
+        prioritySelect.setLabel("Prioridade");
+        prioritySelect.setItems(WaitlistPriority.values());
+        prioritySelect.setItemLabelGenerator(p -> p.label);
+        prioritySelect.setValue(WaitlistPriority.NORMAL);
+
+        checkInBtn.addThemeNames("primary");
+        checkInBtn.addClickListener(e -> run("Chegada registrada.", () -> {
+            waitlistService.checkIn(null, nameField.getValue(), noteField.getValue(), prioritySelect.getValue());
+            nameField.clear();
+            noteField.clear();
+            prioritySelect.setValue(WaitlistPriority.NORMAL);
+        }));
+    }
+
+    private void configureGrids() {
+        waitingGrid.setAllRowsVisible(true);
+        waitingGrid.addColumn(e -> e.checkedInAt().format(TIME)).setHeader("Chegada").setAutoWidth(true);
+        waitingGrid.addColumn(e -> Duration.between(e.checkedInAt(), LocalDateTime.now()).toMinutes() + " min")
+                .setHeader("Espera").setAutoWidth(true);
+        waitingGrid.addColumn(WaitlistEntry::displayName).setHeader("Paciente").setAutoWidth(true);
+        waitingGrid.addColumn(e -> e.priority().label).setHeader("Prioridade").setAutoWidth(true);
+        waitingGrid.addColumn(WaitlistEntry::note).setHeader("Observação").setFlexGrow(1);
+
+        calledGrid.setAllRowsVisible(true);
+        calledGrid.addColumn(e -> e.calledAt() == null ? "" : e.calledAt().format(TIME))
+                .setHeader("Chamado às").setAutoWidth(true);
+        calledGrid.addColumn(WaitlistEntry::displayName).setHeader("Paciente").setAutoWidth(true);
+        calledGrid.addColumn(WaitlistEntry::room).setHeader("Sala").setAutoWidth(true);
+        calledGrid.addColumn(WaitlistEntry::note).setHeader("Observação").setFlexGrow(1);
+
+        // Uma seleção por vez, em qualquer das duas listas.
+        waitingGrid.asSingleSelect().addValueChangeListener(e -> {
+            if (e.getValue() != null) calledGrid.deselectAll();
+            updateActions();
+        });
+        calledGrid.asSingleSelect().addValueChangeListener(e -> {
+            if (e.getValue() != null) waitingGrid.deselectAll();
+            updateActions();
+        });
+    }
+
+    private void configureActions() {
+        triageSelect.setLabel("Nova prioridade");
+        triageSelect.setItems(WaitlistPriority.values());
+        triageSelect.setItemLabelGenerator(p -> p.label);
+        roomField.setMaxLength(40);
+        callBtn.addThemeNames("primary");
+        leftBtn.addThemeNames("error", "tertiary");
+
+        triageBtn.addClickListener(e -> run("Prioridade alterada.",
+                () -> waitlistService.triage(selected(), triageSelect.getValue())));
+        callBtn.addClickListener(e -> run("Paciente chamado.",
+                () -> waitlistService.call(selected(), roomField.getValue())));
+        doneBtn.addClickListener(e -> run("Atendimento concluído.",
+                () -> waitlistService.finish(selected(), WaitlistStatus.DONE)));
+        leftBtn.addClickListener(e -> run("Saída registrada.",
+                () -> waitlistService.finish(selected(), WaitlistStatus.LEFT)));
+        updateActions();
+    }
+
+    private WaitlistEntry selected() {
+        WaitlistEntry waiting = waitingGrid.asSingleSelect().getValue();
+        return waiting != null ? waiting : calledGrid.asSingleSelect().getValue();
+    }
+
+    private void updateActions() {
+        WaitlistEntry selected = selected();
+        boolean waiting = selected != null && selected.status() == WaitlistStatus.WAITING;
+        triageBtn.setEnabled(waiting);
+        callBtn.setEnabled(selected != null);
+        callBtn.setText(selected != null && selected.status() == WaitlistStatus.CALLED ? "Chamar de novo" : "Chamar");
+        doneBtn.setEnabled(selected != null);
+        leftBtn.setEnabled(selected != null);
+        if (waiting) triageSelect.setValue(selected.priority());
+        if (selected != null && selected.room() != null) roomField.setValue(selected.room());
+    }
+
+    private void render(WaitlistSnapshot snapshot) {
+        if (snapshot.revision() == renderedRevision) return;
+        renderedRevision = snapshot.revision();
+
+        // A entrada selecionada volta com outra versão: reseleciona pelo id.
+        WaitlistEntry before = selected();
+        waitingGrid.setItems(snapshot.waiting());
+        calledGrid.setItems(snapshot.called());
+        if (before != null) {
+            reselect(waitingGrid, snapshot.waiting(), before.id());
+            reselect(calledGrid, snapshot.called(), before.id());
+        }
+        updateActions();
+
+        summary.setText(snapshot.waiting().size() + " aguardando, " + snapshot.called().size()
+                + " chamado(s), " + snapshot.doneToday() + " atendido(s) hoje.");
+    }
+
+    private static void reselect(Grid<WaitlistEntry> grid, List<WaitlistEntry> items, long id) {
+        items.stream().filter(e -> e.id() == id).findFirst().ifPresent(grid::select);
+    }
+
+    private interface Action {
+        void run() throws SQLException;
+    }
+
+    private void run(String successMessage, Action action) {
+        try {
+            action.run();
+            // Mostra já o próprio resultado, sem esperar o próximo push.
+            render(waitlistService.snapshot());
+            Notification.show(successMessage, 2000, Notification.Position.BOTTOM_END)
+                    .addThemeNames("success");
+        } catch (WaitlistValidationException ex) {
+            Notification.show(ex.getMessage(), 4000, Notification.Position.MIDDLE)
+                    .addThemeNames("warning");
+        } catch (SQLException | RuntimeException ex) {
+            Notification.show("Erro na fila de espera: " + ex.getMessage(), 5000, Notification.Position.MIDDLE)
+                    .addThemeNames("error");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.application.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Algoritmo e custo de hash de senha vindos da configuração (app.password.*).
+ * Os valores devem ser calibrados com o benchmark em src/jmh (perfil "benchmark").
+ * - Hashes novos saem no formato "{id}hash" do algoritmo alvo.
+ * - Hashes antigos sem prefixo são tratados como BCrypt.
+ * - needsRehash indica hash fora do alvo (algoritmo diferente, custo menor ou maior).
+ */
+@Component
+public class PasswordHashPolicy {
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$");
+    private static final Pattern ARGON2 = Pattern.compile("^\\$argon2id?\\$v=\\d+\\$m=(\\d+),t=(\\d+),p=(\\d+)\\$");
+
+    private final String algorithm;
+    private final int bcryptStrength;
+    private final int argon2Memory;
+    private final int argon2Iterations;
+    private final int argon2Parallelism;
+    private final int pbkdf2Iterations;
+
+    public PasswordHashPolicy(@Value("${app.password.algorithm:bcrypt}") String algorithm,
+                              @Value("${app.password.bcrypt.strength:10}") int bcryptStrength,
+                              @Value("${app.password.argon2.memory-kib:19456}") int argon2Memory,
+                              @Value("${app.password.argon2.iterations:2}") int argon2Iterations,
+                              @Value("${app.password.argon2.parallelism:1}") int argon2Parallelism,
+                              @Value("${app.password.pbkdf2.iterations:310000}") int pbkdf2Iterations) {
+        this.algorithm = algorithm.trim().toLowerCase();
+        this.bcryptStrength = bcryptStrength;
+        this.argon2Memory = argon2Memory;
+        this.argon2Iterations = argon2Iterations;
+        this.argon2Parallelism = argon2Parallelism;
+        this.pbkdf2Iterations = pbkdf2Iterations;
+
+        if (!encoders().containsKey(this.algorithm)) {
+            throw new IllegalArgumentException("Algoritmo de senha não suportado: " + algorithm);
+        }
+    }
+
+    public PasswordEncoder createEncoder() {
+        Map<String, PasswordEncoder> encoders = encoders();
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+        return delegating;
+    }
+
+    public boolean needsRehash(String encoded) {
+        if (encoded == null || encoded.isBlank()) return false;
+
+        String id = "bcrypt";
+        String hash = encoded;
+        boolean prefixed = encoded.startsWith("{") && encoded.indexOf('}') > 0;
+        if (prefixed) {
+            id = encoded.substring(1, encoded.indexOf('}'));
+            hash = encoded.substring(encoded.indexOf('}') + 1);
+        }
+
+        if (!prefixed || !id.equals(algorithm)) return true;
+
+        return switch (id) {
+            case "bcrypt" -> {
+                Matcher m = BCRYPT.matcher(hash);
+                yield !m.find() || Integer.parseInt(m.group(1)) != bcryptStrength;
+            }
+            case "argon2" -> {
+                Matcher m = ARGON2.matcher(hash);
+                yield !m.find()
+                        || Integer.parseInt(m.group(1)) != argon2Memory
+                        || Integer.parseInt(m.group(2)) != argon2Iterations
+                        || Integer.parseInt(m.group(3)) != argon2Parallelism;
+            }
+            // O formato do Pbkdf2PasswordEncoder não guarda as iterações; só a troca de algoritmo é detectável.
+            default -> false;
+        };
+    }
+
+    public String algorithm() {
+        return algorithm;
+    }
+
+    private Map<String, PasswordEncoder> encoders() {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptStrength));
+        encoders.put("argon2", new Argon2PasswordEncoder(16, 32, argon2Parallelism, argon2Memory, argon2Iterations));
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        return encoders;
+    }
+}
@@ -1,8 +1,8 @@
 package com.example.application.config;
 
-import com.example.application.classes.repository.UserCompanyRepository;
 import com.example.application.classes.service.CurrentCompanyService;
 import com.example.application.classes.service.CurrentUserService;
+import com.example.application.classes.service.MembershipCache;
 import org.springframework.stereotype.Component;
 
 import java.sql.SQLException;
@@ -12,13 +12,13 @@ public class ServiceGuard {
 
     private final CurrentUserService currentUserService;
     private final CurrentCompanyService currentCompanyService;
-    private final UserCompanyRepository userCompanyRepository;
+    private final MembershipCache membershipCache;
 
     public ServiceGuard(CurrentUserService currentUserService,
-                        CurrentCompanyService currentCompanyService, UserCompanyRepository userCompanyRepository) {
+                        CurrentCompanyService currentCompanyService, MembershipCache membershipCache) {
         this.currentUserService = currentUserService;
         this.currentCompanyService = currentCompanyService;
-        this.userCompanyRepository = userCompanyRepository;
+        this.membershipCache = membershipCache;
     }
 
     public long requireUserId() {
@@ -31,16 +31,22 @@ public class ServiceGuard {
     }
 
     public void requireAdmin() {
-        requireCompanyId();
-        if (!currentCompanyService.isAdmin()) {
-            throw new SecurityException("Usuário não possui privilégios de administrador na empresa selecionada.");
+        long userId = requireUserId();
+        long companyId = requireCompanyId();
+        // Consulta o cache de vínculos e não a flag da sessão, para que uma revogação valha de imediato.
+        try {
+            if (!membershipCache.isAdmin(userId, companyId)) {
+                throw new SecurityException("Usuário não possui privilégios de administrador na empresa selecionada.");
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Falha ao validar admin para companyId=" + companyId, e);
         }
     }
 
     public void requireAdminOfCompany(long companyId) {
         long userId = requireUserId();
         try {
-            boolean isAdmin = userCompanyRepository.isUserAdmin(userId, companyId);
+            boolean isAdmin = membershipCache.isAdmin(userId, companyId);
             if (!isAdmin) {
                 throw new SecurityException("Usuário não possui privilégios de administrador nesta empresa.");
             }
@@ -0,0 +1,156 @@
+-- V19__company_data_version.sql
+-- Carimbos de versão por empresa para client, pet e attendance.
+-- Cada escrita incrementa o contador da entidade, permitindo que telas e
+-- caches validem seus dados com uma única leitura por chave primária.
+
+CREATE TABLE IF NOT EXISTS company_data_version (
+    company_id          BIGINT    NOT NULL PRIMARY KEY REFERENCES company (id) ON DELETE CASCADE,
+    client_version      BIGINT    NOT NULL DEFAULT 0,
+    pet_version         BIGINT    NOT NULL DEFAULT 0,
+    attendance_version  BIGINT    NOT NULL DEFAULT 0,
+    update_date         TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+INSERT INTO company_data_version (company_id)
+SELECT id
+  FROM company
+ON CONFLICT (company_id) DO NOTHING;
+
+
+-- =========================================================
+--  Funções de incremento (triggers por statement, com transition tables,
+--  para que cargas em lote façam um único UPSERT por empresa)
+-- =========================================================
+
+CREATE OR REPLACE FUNCTION bump_client_data_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO company_data_version AS v (company_id, client_version)
+        SELECT DISTINCT company_id, 1 FROM old_rows
+        ON CONFLICT (company_id) DO UPDATE
+            SET client_version = v.client_version + 1,
+                update_date    = NOW();
+    ELSE
+        INSERT INTO company_data_version AS v (company_id, client_version)
+        SELECT DISTINCT company_id, 1 FROM new_rows
+        ON CONFLICT (company_id) DO UPDATE
+            SET client_version = v.client_version + 1,
+                update_date    = NOW();
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION bump_pet_data_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO company_data_version AS v (company_id, pet_version)
+        SELECT DISTINCT company_id, 1 FROM old_rows
+        ON CONFLICT (company_id) DO UPDATE
+            SET pet_version = v.pet_version + 1,
+                update_date = NOW();
+    ELSE
+        INSERT INTO company_data_version AS v (company_id, pet_version)
+        SELECT DISTINCT company_id, 1 FROM new_rows
+        ON CONFLICT (company_id) DO UPDATE
+            SET pet_version = v.pet_version + 1,
+                update_date = NOW();
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- attendance não possui company_id: a empresa vem do pet.
+CREATE OR REPLACE FUNCTION bump_attendance_data_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO company_data_version AS v (company_id, attendance_version)
+        SELECT DISTINCT p.company_id, 1
+          FROM old_rows r
+          JOIN pet p ON p.id = r.animal_id
+        ON CONFLICT (company_id) DO UPDATE
+            SET attendance_version = v.attendance_version + 1,
+                update_date        = NOW();
+    ELSE
+        INSERT INTO company_data_version AS v (company_id, attendance_version)
+        SELECT DISTINCT p.company_id, 1
+          FROM new_rows r
+          JOIN pet p ON p.id = r.animal_id
+        ON CONFLICT (company_id) DO UPDATE
+            SET attendance_version = v.attendance_version + 1,
+                update_date        = NOW();
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+
+-- =========================================================
+--  Triggers (um por evento, exigência das transition tables)
+-- =========================================================
+
+DROP TRIGGER IF EXISTS bump_client_version_ins ON client;
+CREATE TRIGGER bump_client_version_ins
+AFTER INSERT ON client
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION bump_client_data_version();
+
+DROP TRIGGER IF EXISTS bump_client_version_upd ON client;
+CREATE TRIGGER bump_client_version_upd
+AFTER UPDATE ON client
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION bump_client_data_version();
+
+DROP TRIGGER IF EXISTS bump_client_version_del ON client;
+CREATE TRIGGER bump_client_version_del
+AFTER DELETE ON client
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION bump_client_data_version();
+
+DROP TRIGGER IF EXISTS bump_pet_version_ins ON pet;
+CREATE TRIGGER bump_pet_version_ins
+AFTER INSERT ON pet
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION bump_pet_data_version();
+
+DROP TRIGGER IF EXISTS bump_pet_version_upd ON pet;
+CREATE TRIGGER bump_pet_version_upd
+AFTER UPDATE ON pet
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION bump_pet_data_version();
+
+DROP TRIGGER IF EXISTS bump_pet_version_del ON pet;
+CREATE TRIGGER bump_pet_version_del
+AFTER DELETE ON pet
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION bump_pet_data_version();
+
+DROP TRIGGER IF EXISTS bump_attendance_version_ins ON attendance;
+CREATE TRIGGER bump_attendance_version_ins
+AFTER INSERT ON attendance
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION bump_attendance_data_version();
+
+DROP TRIGGER IF EXISTS bump_attendance_version_upd ON attendance;
+CREATE TRIGGER bump_attendance_version_upd
+AFTER UPDATE ON attendance
+REFERENCING NEW TABLE AS new_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION bump_attendance_data_version();
+
+DROP TRIGGER IF EXISTS bump_attendance_version_del ON attendance;
+CREATE TRIGGER bump_attendance_version_del
+AFTER DELETE ON attendance
+REFERENCING OLD TABLE AS old_rows
+FOR EACH STATEMENT
+EXECUTE FUNCTION bump_attendance_data_version();
@@ -0,0 +1,7 @@
+-- V20__password_hash_width.sql
+-- Hashes agora levam o prefixo do algoritmo ("{bcrypt}", "{argon2}", ...)
+-- e o Argon2 é maior que o BCrypt; 100 caracteres não bastam.
+
+ALTER TABLE app_user
+    ALTER COLUMN password_hash TYPE VARCHAR(255),
+    ALTER COLUMN prov_pw_hash  TYPE VARCHAR(255);
@@ -0,0 +1,30 @@
+-- V21__mail_outbox.sql
+-- Fila de e-mails gravada na mesma transação da alteração que os origina.
+-- Um dispatcher em segundo plano reivindica lotes com FOR UPDATE SKIP LOCKED,
+-- então as réplicas nunca enviam a mesma linha.
+
+CREATE TABLE IF NOT EXISTS mail_outbox (
+    id               BIGSERIAL    PRIMARY KEY,
+    creation_date    TIMESTAMP    NOT NULL DEFAULT NOW(),
+    template         VARCHAR(50)  NOT NULL,
+    recipient        VARCHAR(255) NOT NULL,
+    params           JSONB        NOT NULL DEFAULT '{}'::jsonb,
+    status           VARCHAR(20)  NOT NULL DEFAULT 'PENDING',
+    attempts         INT          NOT NULL DEFAULT 0,
+    next_attempt_at  TIMESTAMP    NOT NULL DEFAULT NOW(),
+    claimed_at       TIMESTAMP    NULL,
+    sent_at          TIMESTAMP    NULL,
+    last_error       TEXT         NULL,
+
+    CONSTRAINT ck_mail_outbox_status
+        CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED'))
+);
+
+-- Só as linhas ainda a enviar interessam ao dispatcher.
+CREATE INDEX IF NOT EXISTS ix_mail_outbox_pending
+    ON mail_outbox (next_attempt_at)
+    WHERE status = 'PENDING';
+
+CREATE INDEX IF NOT EXISTS ix_mail_outbox_sending
+    ON mail_outbox (claimed_at)
+    WHERE status = 'SENDING';
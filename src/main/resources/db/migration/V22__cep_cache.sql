@@ -0,0 +1,15 @@
+-- V22__cep_cache.sql
+-- Cache persistente das consultas ao ViaCEP, compartilhado entre réplicas.
+-- found = FALSE guarda CEPs inexistentes (cache negativo, com validade menor).
+
+CREATE TABLE IF NOT EXISTS cep_cache (
+    cep          CHAR(8)      NOT NULL PRIMARY KEY,
+    found        BOOLEAN      NOT NULL,
+    logradouro   VARCHAR(200) NULL,
+    complemento  VARCHAR(200) NULL,
+    bairro       VARCHAR(120) NULL,
+    localidade   VARCHAR(120) NULL,
+    uf           CHAR(2)      NULL,
+    fetched_at   TIMESTAMP    NOT NULL DEFAULT NOW(),
+    expires_at   TIMESTAMP    NOT NULL
+);
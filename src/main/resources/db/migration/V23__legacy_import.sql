@@ -0,0 +1,107 @@
+-- V23__legacy_import.sql
+-- Importação de dados de sistemas anteriores (clientes, pets, atendimentos).
+-- As linhas válidas do CSV entram por COPY nas tabelas de staging (UNLOGGED,
+-- descartáveis) e dali vão para as tabelas reais com SQL em conjunto.
+-- import_key_map liga o código do sistema antigo ao id criado aqui, o que
+-- torna a reimportação do mesmo arquivo idempotente (atualiza em vez de duplicar).
+
+CREATE TABLE IF NOT EXISTS import_job (
+    id                  BIGSERIAL    PRIMARY KEY,
+    company_id          BIGINT       NOT NULL REFERENCES company (id) ON DELETE CASCADE,
+    created_by_user_id  BIGINT       NULL REFERENCES app_user (id) ON DELETE SET NULL,
+    kind                VARCHAR(20)  NOT NULL,
+    file_name           VARCHAR(255) NOT NULL,
+    status              VARCHAR(20)  NOT NULL DEFAULT 'RUNNING',
+    total_rows          INT          NOT NULL DEFAULT 0,
+    error_rows          INT          NOT NULL DEFAULT 0,
+    inserted_rows       INT          NOT NULL DEFAULT 0,
+    updated_rows        INT          NOT NULL DEFAULT 0,
+    message             TEXT         NULL,
+    creation_date       TIMESTAMP    NOT NULL DEFAULT NOW(),
+    finished_at         TIMESTAMP    NULL,
+
+    CONSTRAINT ck_import_job_kind   CHECK (kind IN ('CLIENT', 'PET', 'ATTENDANCE')),
+    CONSTRAINT ck_import_job_status CHECK (status IN ('RUNNING', 'DONE', 'FAILED'))
+);
+
+CREATE INDEX IF NOT EXISTS ix_import_job_company
+    ON import_job (company_id, creation_date DESC);
+
+CREATE TABLE IF NOT EXISTS import_error (
+    job_id   BIGINT  NOT NULL REFERENCES import_job (id) ON DELETE CASCADE,
+    line_no  BIGINT  NOT NULL,
+    message  TEXT    NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS ix_import_error_job
+    ON import_error (job_id, line_no);
+
+CREATE TABLE IF NOT EXISTS import_key_map (
+    company_id  BIGINT       NOT NULL REFERENCES company (id) ON DELETE CASCADE,
+    entity      VARCHAR(20)  NOT NULL,
+    legacy_key  VARCHAR(100) NOT NULL,
+    target_id   BIGINT       NOT NULL,
+    PRIMARY KEY (company_id, entity, legacy_key)
+);
+
+
+-- =========================================================
+--  Staging (sem WAL; o conteúdo só vive durante a importação)
+-- =========================================================
+
+CREATE UNLOGGED TABLE IF NOT EXISTS import_client_stage (
+    job_id      BIGINT       NOT NULL,
+    line_no     BIGINT       NOT NULL,
+    legacy_key  VARCHAR(100) NOT NULL,
+    name        VARCHAR(200) NOT NULL,
+    email       VARCHAR(320),
+    phone       VARCHAR(32),
+    doc_type    VARCHAR(20),
+    document    VARCHAR(50),
+    cep         VARCHAR(20),
+    uf          VARCHAR(2),
+    city        VARCHAR(100),
+    district    VARCHAR(100),
+    street      VARCHAR(150),
+    number      VARCHAR(20),
+    complement  VARCHAR(150),
+    notes       TEXT,
+    target_id   BIGINT,
+    is_new      BOOLEAN      NOT NULL DEFAULT FALSE
+);
+
+CREATE INDEX IF NOT EXISTS ix_import_client_stage_job
+    ON import_client_stage (job_id, legacy_key);
+
+CREATE UNLOGGED TABLE IF NOT EXISTS import_pet_stage (
+    job_id      BIGINT       NOT NULL,
+    line_no     BIGINT       NOT NULL,
+    legacy_key  VARCHAR(100) NOT NULL,
+    client_key  VARCHAR(100) NOT NULL,
+    name        VARCHAR(200) NOT NULL,
+    species     VARCHAR(50),
+    breed       VARCHAR(100),
+    birth_date  DATE,
+    notes       TEXT,
+    client_id   BIGINT,
+    target_id   BIGINT,
+    is_new      BOOLEAN      NOT NULL DEFAULT FALSE
+);
+
+CREATE INDEX IF NOT EXISTS ix_import_pet_stage_job
+    ON import_pet_stage (job_id, legacy_key);
+
+CREATE UNLOGGED TABLE IF NOT EXISTS import_attendance_stage (
+    job_id          BIGINT       NOT NULL,
+    line_no         BIGINT       NOT NULL,
+    legacy_key      VARCHAR(100) NOT NULL,
+    pet_key         VARCHAR(100) NOT NULL,
+    appointment_at  TIMESTAMP,
+    description     TEXT,
+    animal_id       BIGINT,
+    target_id       BIGINT,
+    is_new          BOOLEAN      NOT NULL DEFAULT FALSE
+);
+
+CREATE INDEX IF NOT EXISTS ix_import_attendance_stage_job
+    ON import_attendance_stage (job_id, legacy_key);
@@ -0,0 +1,31 @@
+-- V24__attendance_attachment.sql
+-- Anexos de atendimento (exames, raio-X, PDFs, vídeos).
+-- O conteúdo fica fora do banco, num diretório endereçado pelo SHA-256 (blob_object);
+-- arquivos iguais são guardados uma única vez. attendance_attachment liga o blob
+-- ao atendimento, com company_id para escopo por empresa.
+
+CREATE TABLE IF NOT EXISTS blob_object (
+    sha256        CHAR(64)     NOT NULL PRIMARY KEY,
+    size          BIGINT       NOT NULL,
+    creation_date TIMESTAMP    NOT NULL DEFAULT NOW(),
+    last_used_at  TIMESTAMP    NOT NULL DEFAULT NOW()
+);
+
+CREATE TABLE IF NOT EXISTS attendance_attachment (
+    id                  BIGSERIAL    PRIMARY KEY,
+    company_id          BIGINT       NOT NULL REFERENCES company (id) ON DELETE CASCADE,
+    attendance_id       BIGINT       NOT NULL REFERENCES attendance (id) ON DELETE CASCADE,
+    sha256              CHAR(64)     NOT NULL REFERENCES blob_object (sha256),
+    file_name           VARCHAR(255) NOT NULL,
+    content_type        VARCHAR(150) NOT NULL,
+    size                BIGINT       NOT NULL,
+    created_by_user_id  BIGINT       NULL REFERENCES app_user (id) ON DELETE SET NULL,
+    creation_date       TIMESTAMP    NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX IF NOT EXISTS ix_attendance_attachment_attendance
+    ON attendance_attachment (company_id, attendance_id);
+
+-- Usado pela coleta de blobs sem referência.
+CREATE INDEX IF NOT EXISTS ix_attendance_attachment_sha256
+    ON attendance_attachment (sha256);
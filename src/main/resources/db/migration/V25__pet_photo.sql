@@ -0,0 +1,11 @@
+-- V25__pet_photo.sql
+-- Foto do pet: o original fica no mesmo armazenamento por hash dos anexos (blob_object);
+-- as miniaturas são geradas a partir dele e não ficam no banco.
+
+ALTER TABLE pet
+    ADD COLUMN IF NOT EXISTS photo_sha256 CHAR(64) NULL REFERENCES blob_object (sha256);
+
+-- Usado na checagem de acesso às fotos e na coleta de blobs sem referência.
+CREATE INDEX IF NOT EXISTS ix_pet_photo_sha256
+    ON pet (photo_sha256)
+    WHERE photo_sha256 IS NOT NULL;
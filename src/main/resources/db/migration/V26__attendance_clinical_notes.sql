@@ -0,0 +1,12 @@
+-- V26__attendance_clinical_notes.sql
+-- Notas clínicas estruturadas (SOAP + peso, temperatura e códigos de diagnóstico) em JSONB.
+-- Formato: {"subjective": "...", "objective": "...", "assessment": "...", "plan": "...",
+--           "weightKg": 12.4, "temperatureC": 38.6, "diagnoses": ["DERM-001", "OTITE"]}
+
+ALTER TABLE attendance
+    ADD COLUMN IF NOT EXISTS clinical_notes JSONB NULL;
+
+-- jsonb_path_ops: índice menor e mais rápido, suficiente para consultas de contenção (@>),
+-- ex.: clinical_notes @> '{"diagnoses": ["OTITE"]}'.
+CREATE INDEX IF NOT EXISTS ix_attendance_clinical_notes
+    ON attendance USING GIN (clinical_notes jsonb_path_ops);
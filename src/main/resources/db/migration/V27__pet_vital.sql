@@ -0,0 +1,16 @@
+-- V27__pet_vital.sql
+-- Medidas do pet ao longo do tempo (peso, temperatura, frequência cardíaca), só inserção.
+-- Linha compacta, sem id próprio: colunas de 8 bytes primeiro para não haver preenchimento.
+-- kind: 1 = peso (kg), 2 = temperatura (°C), 3 = frequência cardíaca (bpm).
+
+CREATE TABLE IF NOT EXISTS pet_vital (
+    measured_at         TIMESTAMP NOT NULL,
+    pet_id              BIGINT    NOT NULL REFERENCES pet (id) ON DELETE CASCADE,
+    created_by_user_id  BIGINT    NULL REFERENCES app_user (id) ON DELETE SET NULL,
+    value               REAL      NOT NULL,
+    kind                SMALLINT  NOT NULL CHECK (kind BETWEEN 1 AND 3)
+);
+
+-- Série de um pet/tipo em ordem de tempo direto do índice (index-only scan com o valor incluído).
+CREATE INDEX IF NOT EXISTS ix_pet_vital_series
+    ON pet_vital (pet_id, kind, measured_at) INCLUDE (value);
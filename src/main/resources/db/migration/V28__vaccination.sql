@@ -0,0 +1,46 @@
+-- V28__vaccination.sql
+-- Protocolos de vacina por empresa e vacinas aplicadas nos pets.
+-- next_due_at é calculado (aplicação + intervalo de reforço do protocolo) e gravado só na aplicação
+-- mais recente de cada pet/protocolo (is_current); as anteriores ficam com NULL.
+-- Assim "vence esta semana / atrasadas" é uma leitura de índice, sem recalcular calendário por pet.
+
+CREATE TABLE IF NOT EXISTS vaccine_protocol (
+    id                     BIGSERIAL    PRIMARY KEY,
+    version                INT          NOT NULL DEFAULT 0,
+    creation_date          TIMESTAMP    NOT NULL DEFAULT NOW(),
+    update_date            TIMESTAMP    NOT NULL DEFAULT NOW(),
+    company_id             BIGINT       NOT NULL REFERENCES company (id) ON DELETE CASCADE,
+    name                   VARCHAR(120) NOT NULL,
+    booster_interval_days  INT          NULL CHECK (booster_interval_days > 0),
+    notes                  TEXT         NULL
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_vaccine_protocol_name
+    ON vaccine_protocol (company_id, lower(name));
+
+CREATE TABLE IF NOT EXISTS pet_vaccination (
+    id                  BIGSERIAL    PRIMARY KEY,
+    company_id          BIGINT       NOT NULL REFERENCES company (id) ON DELETE CASCADE,
+    pet_id              BIGINT       NOT NULL REFERENCES pet (id) ON DELETE CASCADE,
+    protocol_id         BIGINT       NOT NULL REFERENCES vaccine_protocol (id),
+    applied_at          DATE         NOT NULL,
+    lot                 VARCHAR(60)  NULL,
+    is_current          BOOLEAN      NOT NULL DEFAULT FALSE,
+    next_due_at         DATE         NULL,
+    created_by_user_id  BIGINT       NULL REFERENCES app_user (id) ON DELETE SET NULL,
+    creation_date       TIMESTAMP    NOT NULL DEFAULT NOW()
+);
+
+-- Histórico do pet e recálculo da aplicação vigente de um pet/protocolo.
+CREATE INDEX IF NOT EXISTS ix_pet_vaccination_pet
+    ON pet_vaccination (pet_id, protocol_id, applied_at DESC, id DESC);
+
+-- Vencimentos por empresa: só aplicações vigentes que têm reforço.
+CREATE INDEX IF NOT EXISTS ix_pet_vaccination_due
+    ON pet_vaccination (company_id, next_due_at)
+    WHERE is_current AND next_due_at IS NOT NULL;
+
+-- Recálculo em lotes depois de mudar o intervalo de um protocolo (keyset por id).
+CREATE INDEX IF NOT EXISTS ix_pet_vaccination_protocol_current
+    ON pet_vaccination (protocol_id, id)
+    WHERE is_current;
@@ -0,0 +1,29 @@
+-- V29__attendance_reminder.sql
+-- Lembretes por e-mail antes da consulta (24 h e 2 h).
+-- Um agendador percorre attendance por appointment_at em janelas curtas, a partir de uma marca
+-- d'água por tipo de lembrete, e grava o lembrete e o e-mail (mail_outbox) na mesma transação.
+-- attendance_reminder é a marca de idempotência: o mesmo lembrete da mesma consulta
+-- (mesmo horário) nunca é enfileirado duas vezes, mesmo com várias réplicas.
+
+-- Varredura por faixa de horário, sem passar pelos atendimentos sem horário marcado.
+CREATE INDEX IF NOT EXISTS ix_attendance_appointment_at
+    ON attendance (appointment_at)
+    WHERE appointment_at IS NOT NULL;
+
+-- kind: 1 = 24 h antes, 2 = 2 h antes.
+-- appointment_at faz parte da chave: consulta remarcada ganha lembretes novos para o novo horário.
+CREATE TABLE IF NOT EXISTS attendance_reminder (
+    attendance_id   BIGINT    NOT NULL REFERENCES attendance (id) ON DELETE CASCADE,
+    kind            SMALLINT  NOT NULL,
+    appointment_at  TIMESTAMP NOT NULL,
+    creation_date   TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (attendance_id, kind, appointment_at)
+);
+
+-- Até onde (appointment_at) cada tipo de lembrete já foi varrido.
+-- A linha é travada com SKIP LOCKED durante uma janela: só uma réplica varre por vez.
+CREATE TABLE IF NOT EXISTS reminder_watermark (
+    kind           SMALLINT  PRIMARY KEY,
+    scanned_until  TIMESTAMP NOT NULL,
+    update_date    TIMESTAMP NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,61 @@
+-- V30__attendance_series.sql
+-- Atendimentos recorrentes ("a cada 2 semanas por 6 meses") guardados como regra, não como linhas.
+-- As ocorrências são expandidas só para a janela exibida na agenda; vira linha apenas o que foge
+-- da regra: ocorrência cancelada ou editada (attendance_series_exception).
+
+CREATE TABLE IF NOT EXISTS attendance_series (
+    id                  BIGSERIAL    PRIMARY KEY,
+    version             INT          NOT NULL DEFAULT 0,
+    creation_date       TIMESTAMP    NOT NULL DEFAULT NOW(),
+    update_date         TIMESTAMP    NOT NULL DEFAULT NOW(),
+    company_id          BIGINT       NOT NULL REFERENCES company (id) ON DELETE CASCADE,
+    pet_id              BIGINT       NOT NULL REFERENCES pet (id) ON DELETE CASCADE,
+    created_by_user_id  BIGINT       NULL REFERENCES app_user (id) ON DELETE SET NULL,
+    starts_at           TIMESTAMP    NOT NULL,
+    frequency           VARCHAR(10)  NOT NULL,
+    interval_n          INT          NOT NULL CHECK (interval_n >= 1),
+    occurrences         INT          NULL CHECK (occurrences >= 1),
+    until_at            TIMESTAMP    NULL,
+    -- Última ocorrência, calculada pela regra; permite filtrar a janela sem expandir.
+    ends_at             TIMESTAMP    NOT NULL,
+    description         TEXT         NULL,
+
+    CONSTRAINT ck_attendance_series_frequency CHECK (frequency IN ('DAILY', 'WEEKLY', 'MONTHLY')),
+    CONSTRAINT ck_attendance_series_end CHECK (occurrences IS NOT NULL OR until_at IS NOT NULL),
+    CONSTRAINT ck_attendance_series_range CHECK (ends_at >= starts_at)
+);
+
+-- Séries que cruzam a janela da agenda de uma empresa.
+CREATE INDEX IF NOT EXISTS ix_attendance_series_company_window
+    ON attendance_series (company_id, ends_at, starts_at);
+
+-- Séries ainda ativas, para a varredura de lembretes (todas as empresas).
+CREATE INDEX IF NOT EXISTS ix_attendance_series_ends_at
+    ON attendance_series (ends_at);
+
+-- Ocorrência que saiu da regra: attendance_id NULL = cancelada; preenchido = virou esse atendimento
+-- (que pode ter sido remarcado). Excluir o atendimento cancela a ocorrência.
+CREATE TABLE IF NOT EXISTS attendance_series_exception (
+    series_id      BIGINT    NOT NULL REFERENCES attendance_series (id) ON DELETE CASCADE,
+    occurrence_at  TIMESTAMP NOT NULL,
+    attendance_id  BIGINT    NULL REFERENCES attendance (id) ON DELETE SET NULL,
+    creation_date  TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (series_id, occurrence_at)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_attendance_series_exception_attendance
+    ON attendance_series_exception (attendance_id)
+    WHERE attendance_id IS NOT NULL;
+
+-- Janela da agenda sobre atendimentos gravados (mesma expressão das consultas).
+CREATE INDEX IF NOT EXISTS ix_attendance_main_time
+    ON attendance ((COALESCE(appointment_at, scheduled_at)));
+
+-- Lembretes de ocorrências ainda não materializadas (idempotência, como attendance_reminder).
+CREATE TABLE IF NOT EXISTS series_reminder (
+    series_id      BIGINT    NOT NULL REFERENCES attendance_series (id) ON DELETE CASCADE,
+    occurrence_at  TIMESTAMP NOT NULL,
+    kind           SMALLINT  NOT NULL,
+    creation_date  TIMESTAMP NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (series_id, occurrence_at, kind)
+);
@@ -0,0 +1,6 @@
+-- V31__attendance_vet.sql
+-- Veterinário responsável pelo atendimento. NULL = quem criou o atendimento (created_by_user_id).
+-- Preenchido pela remarcação em lote da agenda, ao passar os atendimentos para outro veterinário.
+
+ALTER TABLE attendance
+    ADD COLUMN IF NOT EXISTS vet_user_id BIGINT NULL REFERENCES app_user (id) ON DELETE SET NULL;
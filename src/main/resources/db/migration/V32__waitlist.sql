@@ -0,0 +1,30 @@
+-- V32__waitlist.sql
+-- Fila de espera de atendimentos sem hora marcada (chegada, triagem, chamada, conclusão).
+-- A fila viva fica em memória no servidor; esta tabela é a cópia durável, relida ao iniciar
+-- e periodicamente (outras réplicas). Linhas nunca são apagadas: terminam em status 3 ou 4.
+-- priority: 1 = emergência, 2 = urgente, 3 = normal.
+-- status: 1 = aguardando, 2 = chamado, 3 = atendido, 4 = desistiu.
+
+CREATE TABLE IF NOT EXISTS waitlist_entry (
+    id                  BIGSERIAL    PRIMARY KEY,
+    version             INT          NOT NULL DEFAULT 0,
+    update_date         TIMESTAMP    NOT NULL DEFAULT NOW(),
+    company_id          BIGINT       NOT NULL REFERENCES company (id) ON DELETE CASCADE,
+    pet_id              BIGINT       NULL REFERENCES pet (id) ON DELETE SET NULL,
+    created_by_user_id  BIGINT       NULL REFERENCES app_user (id) ON DELETE SET NULL,
+    display_name        VARCHAR(80)  NOT NULL,
+    note                VARCHAR(200) NULL,
+    priority            SMALLINT     NOT NULL CHECK (priority BETWEEN 1 AND 3),
+    status              SMALLINT     NOT NULL DEFAULT 1 CHECK (status BETWEEN 1 AND 4),
+    room                VARCHAR(40)  NULL,
+    checked_in_at       TIMESTAMP    NOT NULL DEFAULT NOW(),
+    called_at           TIMESTAMP    NULL
+);
+
+-- Recarga da fila: o que ainda está aberto e o que mudou desde o início do dia.
+CREATE INDEX IF NOT EXISTS ix_waitlist_entry_open
+    ON waitlist_entry (company_id)
+    WHERE status IN (1, 2);
+
+CREATE INDEX IF NOT EXISTS ix_waitlist_entry_recent
+    ON waitlist_entry (company_id, update_date);
@@ -0,0 +1,26 @@
+-- V33__attendance_version_on_pet_delete.sql
+-- Excluir um pet apaga os atendimentos dele em cascata. Nesse caso o trigger de attendance
+-- não acha mais o pet (já removido) para descobrir a empresa e o carimbo de atendimentos
+-- não mudava. O trigger de exclusão de pet passa a incrementar também attendance_version,
+-- com a empresa tirada do próprio pet removido.
+
+CREATE OR REPLACE FUNCTION bump_pet_data_version()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO company_data_version AS v (company_id, pet_version, attendance_version)
+        SELECT DISTINCT company_id, 1, 1 FROM old_rows
+        ON CONFLICT (company_id) DO UPDATE
+            SET pet_version        = v.pet_version + 1,
+                attendance_version = v.attendance_version + 1,
+                update_date        = NOW();
+    ELSE
+        INSERT INTO company_data_version AS v (company_id, pet_version)
+        SELECT DISTINCT company_id, 1 FROM new_rows
+        ON CONFLICT (company_id) DO UPDATE
+            SET pet_version = v.pet_version + 1,
+                update_date = NOW();
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
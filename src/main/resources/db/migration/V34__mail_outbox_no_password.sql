@@ -0,0 +1,18 @@
+-- V34__mail_outbox_no_password.sql
+-- E-mails de senha provisória deixam de guardar a senha em mail_outbox.params:
+-- a fila passa a ter só o id do usuário e a senha é gerada no envio.
+-- Linhas ainda não enviadas são convertidas; qualquer senha restante é apagada.
+
+UPDATE mail_outbox o
+   SET params = jsonb_build_object('userId', u.id::text)
+  FROM app_user u
+ WHERE o.params ? 'password'
+   AND o.status IN ('PENDING', 'SENDING')
+   AND u.email = o.recipient;
+
+UPDATE mail_outbox
+   SET params     = params - 'password',
+       status     = CASE WHEN status IN ('PENDING', 'SENDING') THEN 'FAILED' ELSE status END,
+       claimed_at = NULL,
+       last_error = COALESCE(last_error, 'Destinatário sem usuário na migração V34')
+ WHERE params ? 'password';
@@ -0,0 +1,60 @@
+package com.example.application.classes;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvTabularWriterTest {
+
+    @Test
+    void prefixesTextThatWouldBeReadAsAFormula() throws Exception {
+        assertThat(write("=HYPERLINK(\"x\")", "+1", "-2+3", "@SUM(A1)", "a=b"))
+                .isEqualTo("\"'=HYPERLINK(\"\"x\"\")\";'+1;'-2+3;'@SUM(A1);a=b\r\n");
+    }
+
+    @Test
+    void leavesNumbersAndEmptyTextAlone() throws Exception {
+        assertThat(write(-5, "", null, 1.5)).isEqualTo("-5;;;1.5\r\n");
+    }
+
+    @Test
+    void quotesSeparatorsAndLineBreaks() throws Exception {
+        assertThat(write("a;b", "linha 1\nlinha 2", "x\"y"))
+                .isEqualTo("\"a;b\";\"linha 1\nlinha 2\";\"x\"\"y\"\r\n");
+    }
+
+    @Test
+    void formatsDatesAndBooleansForPtBr() throws Exception {
+        assertThat(write(LocalDate.of(2024, 3, 7), LocalDateTime.of(2024, 3, 7, 9, 5), true, false))
+                .isEqualTo("07/03/2024;07/03/2024 09:05;Sim;Não\r\n");
+    }
+
+    @Test
+    void startsWithBomAndDoesNotCloseTheTarget() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                throw new AssertionError("o stream de destino não deve ser fechado");
+            }
+        };
+        try (CsvTabularWriter writer = new CsvTabularWriter(out)) {
+            writer.header("Nome", "Espécie");
+        }
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("﻿Nome;Espécie\r\n");
+    }
+
+    private static String write(Object... values) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvTabularWriter writer = new CsvTabularWriter(out)) {
+            writer.row(values);
+        }
+        String csv = out.toString(StandardCharsets.UTF_8);
+        assertThat(csv).startsWith("﻿");
+        return csv.substring(1);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.application.classes;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LttbTest {
+
+    @Test
+    void keepsEveryPointWhenAtOrUnderTheThreshold() {
+        double[] x = {0, 1, 2, 3, 4};
+        double[] y = {5, 3, 8, 1, 2};
+
+        assertThat(Lttb.downsample(x, y, 5, 5)).containsExactly(0, 1, 2, 3, 4);
+        assertThat(Lttb.downsample(x, y, 5, 50)).containsExactly(0, 1, 2, 3, 4);
+        // Só os n primeiros contam, mesmo com arrays maiores.
+        assertThat(Lttb.downsample(x, y, 3, 10)).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void returnsExactlyThresholdIndicesInOrderKeepingTheEnds() {
+        int n = 1000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = i;
+            y[i] = Math.sin(i / 20.0);
+        }
+
+        int[] selected = Lttb.downsample(x, y, n, 50);
+
+        assertThat(selected).hasSize(50);
+        assertThat(selected[0]).isZero();
+        assertThat(selected[49]).isEqualTo(n - 1);
+        assertThat(selected).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void keepsASpikeInsideABucket() {
+        int n = 100;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) x[i] = i;
+        y[37] = 100;
+        y[71] = -80;
+
+        int[] selected = Lttb.downsample(x, y, n, 10);
+
+        assertThat(selected).hasSize(10).contains(37, 71);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.application.classes;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XlsxTabularWriterTest {
+
+    @Test
+    void writesAWellFormedPackageWithTheExpectedParts() throws Exception {
+        Map<String, byte[]> parts = write("Pets <ativos>", w -> w.header("Nome"));
+
+        assertThat(parts).containsOnlyKeys("[Content_Types].xml", "_rels/.rels", "xl/workbook.xml",
+                "xl/_rels/workbook.xml.rels", "xl/styles.xml", "xl/worksheets/sheet1.xml");
+        for (byte[] part : parts.values()) parse(part);
+        Element sheet = (Element) parse(parts.get("xl/workbook.xml")).getElementsByTagName("sheet").item(0);
+        assertThat(sheet.getAttribute("name")).isEqualTo("Pets <ativos>");
+    }
+
+    @Test
+    void typesEachCell() throws Exception {
+        Map<String, byte[]> parts = write("Planilha", w -> {
+            w.header("A", "B", "C", "D", "E", "F");
+            w.row("Tom & Jerry", 42, LocalDate.of(1900, 1, 1), LocalDateTime.of(1900, 1, 1, 12, 0), true, null);
+        });
+
+        NodeList rows = parse(parts.get("xl/worksheets/sheet1.xml")).getElementsByTagName("row");
+        assertThat(rows.getLength()).isEqualTo(2);
+        NodeList header = ((Element) rows.item(0)).getElementsByTagName("c");
+        assertThat(((Element) header.item(0)).getAttribute("s")).isEqualTo("3");
+
+        NodeList cells = ((Element) rows.item(1)).getElementsByTagName("c");
+        assertThat(cells.getLength()).isEqualTo(6);
+        assertThat(((Element) cells.item(0)).getAttribute("t")).isEqualTo("inlineStr");
+        assertThat(cells.item(0).getTextContent()).isEqualTo("Tom & Jerry");
+        assertThat(cells.item(1).getTextContent()).isEqualTo("42");
+        // 1899-12-30 é o dia zero do Excel.
+        assertThat(((Element) cells.item(2)).getAttribute("s")).isEqualTo("1");
+        assertThat(cells.item(2).getTextContent()).isEqualTo("2");
+        assertThat(((Element) cells.item(3)).getAttribute("s")).isEqualTo("2");
+        assertThat(cells.item(3).getTextContent()).isEqualTo("2.5");
+        assertThat(((Element) cells.item(4)).getAttribute("t")).isEqualTo("b");
+        assertThat(cells.item(4).getTextContent()).isEqualTo("1");
+        assertThat(cells.item(5).getTextContent()).isEmpty();
+    }
+
+    @Test
+    void dropsControlCharactersThatXmlRejects() throws Exception {
+        Map<String, byte[]> parts = write("Planilha", w -> w.row("a\u0001b\tc"));
+
+        Document sheet = parse(parts.get("xl/worksheets/sheet1.xml"));
+        assertThat(sheet.getElementsByTagName("t").item(0).getTextContent()).isEqualTo("ab\tc");
+    }
+
+    private interface Body {
+        void write(XlsxTabularWriter writer) throws Exception;
+    }
+
+    private static Map<String, byte[]> write(String sheetName, Body body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (XlsxTabularWriter writer = new XlsxTabularWriter(out, sheetName)) {
+            body.write(writer);
+        }
+        Map<String, byte[]> parts = new HashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            for (ZipEntry e; (e = zip.getNextEntry()) != null; ) parts.put(e.getName(), zip.readAllBytes());
+        }
+        return parts;
+    }
+
+    private static Document parse(byte[] xml) throws Exception {
+        return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+    }
+}
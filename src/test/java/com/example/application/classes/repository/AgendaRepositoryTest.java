@@ -0,0 +1,87 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.service.AgendaRow;
+import com.example.application.support.Fixtures;
+import com.example.application.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AgendaRepositoryTest {
+
+    private static final LocalDateTime APPOINTMENT = LocalDateTime.of(2026, 5, 4, 9, 0);
+
+    private final DataSource dataSource = TestDatabase.dataSource();
+    private final AgendaRepository repository = new AgendaRepository(dataSource);
+
+    private long companyId;
+    private long dated;
+    private long undated;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            companyId = Fixtures.company(con);
+            long petId = Fixtures.pet(con, companyId, Fixtures.client(con, companyId));
+            dated = Fixtures.attendance(con, petId, APPOINTMENT);
+            undated = Fixtures.attendance(con, petId, null);
+        }
+    }
+
+    @Test
+    void undatedAttendancesHaveTheirOwnSource() throws Exception {
+        assertThat(repository.listWindow(companyId, APPOINTMENT.minusDays(1), APPOINTMENT.plusDays(1)))
+                .extracting(AgendaRow::id)
+                .containsExactly(dated);
+
+        assertThat(repository.listUndated(companyId, 10))
+                .singleElement()
+                .satisfies(row -> {
+                    assertThat(row.id()).isEqualTo(undated);
+                    assertThat(row.mainDateTime()).isNull();
+                    assertThat(row.expanded()).isFalse();
+                });
+    }
+
+    @Test
+    void deletedPetsStayOutOfEverySource() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            long deletedPet = Fixtures.pet(con, companyId, Fixtures.client(con, companyId));
+            Fixtures.attendance(con, deletedPet, APPOINTMENT.plusHours(1));
+            Fixtures.attendance(con, deletedPet, null);
+            Fixtures.scalar(con, "UPDATE pet SET deleted_at = NOW() WHERE id = ? RETURNING id", deletedPet);
+        }
+
+        assertThat(repository.listWindow(companyId, APPOINTMENT.minusDays(1), APPOINTMENT.plusDays(1)))
+                .extracting(AgendaRow::id)
+                .containsExactly(dated);
+        assertThat(repository.listUndated(companyId, 10))
+                .extracting(AgendaRow::id)
+                .containsExactly(undated);
+    }
+
+    @Test
+    void queryTimeoutCancelsABlockedWindowQuery() throws Exception {
+        try (Connection locker = dataSource.getConnection()) {
+            locker.setAutoCommit(false);
+            locker.createStatement().execute("LOCK TABLE attendance IN ACCESS EXCLUSIVE MODE");
+            try {
+                long start = System.nanoTime();
+                assertThatThrownBy(() -> repository.listWindow(companyId, APPOINTMENT.minusDays(1),
+                        APPOINTMENT.plusDays(1), 1))
+                        .isInstanceOf(SQLException.class);
+                assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+            } finally {
+                locker.rollback();
+            }
+        }
+    }
+}
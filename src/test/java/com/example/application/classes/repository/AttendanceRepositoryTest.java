@@ -0,0 +1,124 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.service.BulkRescheduleResult;
+import com.example.application.classes.service.DiagnosisMatch;
+import com.example.application.support.Fixtures;
+import com.example.application.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AttendanceRepositoryTest {
+
+    private static final LocalDateTime SINCE = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final DataSource dataSource = TestDatabase.dataSource();
+    private final AttendanceRepository repository = new AttendanceRepository(dataSource);
+
+    private long companyId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            companyId = Fixtures.company(con);
+        }
+    }
+
+    @Test
+    void diagnosisSearchSkipsDeletedPets() throws Exception {
+        long kept;
+        try (Connection con = dataSource.getConnection()) {
+            long clientId = Fixtures.client(con, companyId);
+            long petId = Fixtures.pet(con, companyId, clientId);
+            long deletedPetId = Fixtures.pet(con, companyId, clientId);
+            kept = diagnosed(con, petId, "OTITE");
+            diagnosed(con, deletedPetId, "OTITE");
+            Fixtures.scalar(con, "UPDATE pet SET deleted_at = NOW() WHERE id = ? RETURNING id", deletedPetId);
+        }
+
+        assertThat(repository.findByDiagnosis(companyId, "OTITE", SINCE, 10))
+                .extracting(DiagnosisMatch::attendanceId)
+                .containsExactly(kept);
+    }
+
+    @Test
+    void bulkRescheduleMovesWhatTheAgendaShowsAndReportsRealConflicts() throws Exception {
+        LocalDateTime at = LocalDateTime.of(2026, 6, 1, 14, 30);
+        long appointed;
+        long scheduledOnly;
+        long undated;
+        long stale;
+        try (Connection con = dataSource.getConnection()) {
+            long petId = Fixtures.pet(con, companyId, Fixtures.client(con, companyId));
+            appointed = Fixtures.attendance(con, petId, at);
+            scheduledOnly = scheduled(con, petId, at);
+            undated = Fixtures.attendance(con, petId, null);
+            stale = Fixtures.attendance(con, petId, at);
+        }
+        LocalDate day = LocalDate.of(2026, 6, 3);
+
+        BulkRescheduleResult result = repository.bulkReschedule(companyId,
+                new long[]{appointed, scheduledOnly, undated, stale}, new int[]{0, 0, 0, 7}, day, 15, null);
+
+        assertThat(result.updated()).isEqualTo(2);
+        assertThat(result.conflicts()).containsExactly(undated, stale);
+        assertThat(appointmentAt(appointed)).isEqualTo(day.atTime(14, 45));
+        assertThat(appointmentAt(scheduledOnly)).isEqualTo(day.atTime(14, 45));
+        assertThat(appointmentAt(stale)).isEqualTo(at);
+    }
+
+    @Test
+    void bulkVetChangeKeepsTimesAndAcceptsUndated() throws Exception {
+        LocalDateTime at = LocalDateTime.of(2026, 6, 1, 14, 30);
+        long scheduledOnly;
+        long undated;
+        long vetId;
+        try (Connection con = dataSource.getConnection()) {
+            long petId = Fixtures.pet(con, companyId, Fixtures.client(con, companyId));
+            scheduledOnly = scheduled(con, petId, at);
+            undated = Fixtures.attendance(con, petId, null);
+            vetId = Fixtures.user(con);
+        }
+
+        BulkRescheduleResult result = repository.bulkReschedule(companyId,
+                new long[]{scheduledOnly, undated}, new int[]{0, 0}, null, 0, vetId);
+
+        assertThat(result.hasConflicts()).isFalse();
+        assertThat(appointmentAt(scheduledOnly)).isNull();
+        assertThat(appointmentAt(undated)).isNull();
+    }
+
+    private static long scheduled(Connection con, long petId, LocalDateTime scheduledAt) throws Exception {
+        return Fixtures.scalar(con, """
+                INSERT INTO attendance (animal_id, scheduled_at, description)
+                VALUES (?, ?, 'Retorno') RETURNING id
+                """, petId, Timestamp.valueOf(scheduledAt));
+    }
+
+    private LocalDateTime appointmentAt(long attendanceId) throws Exception {
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT appointment_at FROM attendance WHERE id = ?")) {
+            ps.setLong(1, attendanceId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                Timestamp ts = rs.getTimestamp(1);
+                return ts == null ? null : ts.toLocalDateTime();
+            }
+        }
+    }
+
+    private static long diagnosed(Connection con, long petId, String code) throws Exception {
+        long id = Fixtures.attendance(con, petId, SINCE.plusDays(10));
+        return Fixtures.scalar(con, "UPDATE attendance SET clinical_notes = ?::jsonb WHERE id = ? RETURNING id",
+                "{\"diagnoses\": [\"" + code + "\"]}", id);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.application.classes.repository;
+
+import com.example.application.support.Fixtures;
+import com.example.application.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompanyDataVersionRepositoryTest {
+
+    private final DataSource dataSource = TestDatabase.dataSource();
+    private final CompanyDataVersionRepository repository = new CompanyDataVersionRepository(dataSource);
+
+    private long companyId;
+    private long petId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            companyId = Fixtures.company(con);
+            petId = Fixtures.pet(con, companyId, Fixtures.client(con, companyId));
+        }
+    }
+
+    @Test
+    void attendanceWriteBumpsAttendanceVersion() throws Exception {
+        long before = repository.findByCompany(companyId).attendanceVersion();
+        try (Connection con = dataSource.getConnection()) {
+            Fixtures.attendance(con, petId, LocalDateTime.now());
+        }
+        assertThat(repository.findByCompany(companyId).attendanceVersion()).isGreaterThan(before);
+    }
+
+    @Test
+    void petDeleteCascadingToAttendancesBumpsAttendanceVersion() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            Fixtures.attendance(con, petId, LocalDateTime.now());
+        }
+        long before = repository.findByCompany(companyId).attendanceVersion();
+
+        try (Connection con = dataSource.getConnection();
+             var ps = con.prepareStatement("DELETE FROM pet WHERE id = ?")) {
+            ps.setLong(1, petId);
+            ps.executeUpdate();
+        }
+
+        assertThat(repository.findByCompany(companyId).attendanceVersion()).isGreaterThan(before);
+    }
+}
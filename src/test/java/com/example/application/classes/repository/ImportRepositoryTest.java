@@ -0,0 +1,77 @@
+package com.example.application.classes.repository;
+
+import com.example.application.classes.service.ImportError;
+import com.example.application.classes.service.ImportKind;
+import com.example.application.support.Fixtures;
+import com.example.application.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImportRepositoryTest {
+
+    private final DataSource dataSource = TestDatabase.dataSource();
+    private final ImportRepository repository = new ImportRepository(dataSource);
+
+    private long userId;
+    private long companyId;
+    private long otherCompanyId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            userId = Fixtures.user(con);
+            companyId = Fixtures.company(con);
+            otherCompanyId = Fixtures.company(con);
+            existingClient(con, otherCompanyId, "12345678909");
+            existingClient(con, companyId, "98765432100");
+        }
+    }
+
+    @Test
+    void documentConflictIsCheckedOnlyInsideTheCompany() throws Exception {
+        long jobId = repository.createJob(companyId, userId, ImportKind.CLIENT, "clientes.csv");
+        try (Connection con = dataSource.getConnection()) {
+            stage(con, jobId, 1, "A1", "12345678909"); // só existe na outra empresa
+            stage(con, jobId, 2, "A2", "98765432100"); // já existe nesta empresa
+        }
+
+        List<ImportError> rejected = new ArrayList<>();
+        int[] result = repository.merge(ImportKind.CLIENT, jobId, companyId, userId, rejected, 100);
+
+        assertThat(result[0]).isEqualTo(1);
+        assertThat(result[1]).isEqualTo(1);
+        assertThat(rejected).extracting(ImportError::lineNo).containsExactly(2L);
+        repository.clearStage(ImportKind.CLIENT, jobId);
+    }
+
+    private static void existingClient(Connection con, long companyId, String document) throws Exception {
+        try (PreparedStatement ps = con.prepareStatement("""
+                INSERT INTO client (company_id, name, doc_type, document) VALUES (?, 'Existente', 'CPF', ?)
+                """)) {
+            ps.setLong(1, companyId);
+            ps.setString(2, document);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void stage(Connection con, long jobId, long lineNo, String key, String document) throws Exception {
+        try (PreparedStatement ps = con.prepareStatement("""
+                INSERT INTO import_client_stage (job_id, line_no, legacy_key, name, doc_type, document)
+                VALUES (?, ?, ?, 'Importado', 'CPF', ?)
+                """)) {
+            ps.setLong(1, jobId);
+            ps.setLong(2, lineNo);
+            ps.setString(3, key);
+            ps.setString(4, document);
+            ps.executeUpdate();
+        }
+    }
+}
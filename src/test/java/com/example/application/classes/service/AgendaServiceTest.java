@@ -0,0 +1,106 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.Recurrence;
+import com.example.application.classes.repository.AgendaRepository;
+import com.example.application.classes.repository.AttendanceRepository;
+import com.example.application.classes.repository.AttendanceSeriesRepository;
+import com.example.application.config.ServiceGuard;
+import com.example.application.support.Fixtures;
+import com.example.application.support.TestDatabase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AgendaServiceTest {
+
+    private final DataSource dataSource = TestDatabase.dataSource();
+    private final DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+    private final ServiceGuard serviceGuard = mock(ServiceGuard.class);
+    private final AgendaRepository agendaRepository = new AgendaRepository(dataSource);
+    private final AttendanceSeriesService seriesService =
+            new AttendanceSeriesService(new AttendanceSeriesRepository(dataSource), serviceGuard, transactionManager);
+
+    private long companyId;
+    private LocalDateTime start;
+    private long seriesId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        long userId;
+        long petId;
+        try (Connection con = dataSource.getConnection()) {
+            companyId = Fixtures.company(con);
+            userId = Fixtures.user(con);
+            petId = Fixtures.pet(con, companyId, Fixtures.client(con, companyId));
+        }
+        when(serviceGuard.requireCompanyId()).thenReturn(companyId);
+        when(serviceGuard.requireUserId()).thenReturn(userId);
+
+        start = LocalDate.now().plusDays(1).atTime(10, 0);
+        seriesId = seriesService.create(petId,
+                new Recurrence(start, Recurrence.Frequency.WEEKLY, 1, 4, null), "Fisioterapia");
+    }
+
+    @Test
+    void occurrenceIsMaterializedAndMovedTogether() throws Exception {
+        AgendaService service = service(new AttendanceRepository(dataSource));
+        AgendaRow occurrence = agendaRow();
+
+        BulkRescheduleResult result = service.reschedule(List.of(occurrence), null, 60, null);
+
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.hasConflicts()).isFalse();
+        assertThat(agendaRepository.listWindow(companyId, start.minusDays(1), start.plusDays(1)))
+                .singleElement()
+                .satisfies(row -> {
+                    assertThat(row.expanded()).isFalse();
+                    assertThat(row.mainDateTime()).isEqualTo(start.plusHours(1));
+                });
+    }
+
+    @Test
+    void failedRescheduleLeavesNoMaterializedOccurrence() throws Exception {
+        AttendanceRepository failing = mock(AttendanceRepository.class);
+        when(failing.bulkReschedule(anyLong(), any(), any(), any(), anyInt(), any()))
+                .thenThrow(new SQLException("falha simulada"));
+        AgendaService service = service(failing);
+
+        assertThatThrownBy(() -> service.reschedule(List.of(agendaRow()), null, 60, null))
+                .isInstanceOf(SQLException.class);
+
+        // A ocorrência continua só na regra da série.
+        assertThat(agendaRepository.listWindow(companyId, start.minusDays(1), start.plusDays(1)))
+                .singleElement()
+                .satisfies(row -> {
+                    assertThat(row.expanded()).isTrue();
+                    assertThat(row.mainDateTime()).isEqualTo(start);
+                });
+    }
+
+    private AgendaService service(AttendanceRepository attendanceRepository) {
+        return new AgendaService(agendaRepository, attendanceRepository, seriesService,
+                mock(MembershipCache.class), serviceGuard, transactionManager);
+    }
+
+    private AgendaRow agendaRow() throws Exception {
+        List<AgendaRow> rows = agendaRepository.listWindow(companyId, start.minusDays(1), start.plusDays(1));
+        assertThat(rows).singleElement().matches(AgendaRow::expanded);
+        assertThat(rows.getFirst().seriesId()).isEqualTo(seriesId);
+        return rows.getFirst();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.ReminderRepository;
+import com.example.application.support.Fixtures;
+import com.example.application.support.TestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AppointmentReminderSchedulerTest {
+
+    private final DataSource dataSource = TestDatabase.dataSource();
+    private final AppointmentReminderScheduler scheduler = new AppointmentReminderScheduler(
+            new ReminderRepository(dataSource), new DataSourceTransactionManager(dataSource),
+            new SimpleMeterRegistry(), true, 5, 48);
+
+    private long attendanceId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            long companyId = Fixtures.company(con);
+            long petId = Fixtures.pet(con, companyId, Fixtures.client(con, companyId));
+            attendanceId = Fixtures.scalar(con, """
+                    INSERT INTO attendance (animal_id, appointment_at, description)
+                    VALUES (?, LOCALTIMESTAMP + INTERVAL '1 hour', 'Consulta') RETURNING id
+                    """, petId);
+        }
+        // A primeira varredura só cria as marcas (em agora + antecedência); voltar para agora põe a consulta na faixa.
+        scheduler.scan();
+        rewindWatermarks();
+    }
+
+    @Test
+    void rescanningTheSameWindowDoesNotEnqueueAgain() throws Exception {
+        scheduler.scan();
+        assertThat(reminders()).isEqualTo(2);
+        assertThat(outboxMails()).isEqualTo(2);
+
+        // Réplica que caiu antes de avançar a marca, ou outra que varre a mesma faixa depois.
+        rewindWatermarks();
+        scheduler.scan();
+
+        assertThat(reminders()).isEqualTo(2);
+        assertThat(outboxMails()).isEqualTo(2);
+    }
+
+    @Test
+    void rescheduledAppointmentGetsNewReminders() throws Exception {
+        scheduler.scan();
+
+        try (Connection con = dataSource.getConnection()) {
+            Fixtures.scalar(con, """
+                    UPDATE attendance SET appointment_at = appointment_at + INTERVAL '30 minutes'
+                     WHERE id = ? RETURNING id
+                    """, attendanceId);
+        }
+        rewindWatermarks();
+        scheduler.scan();
+
+        assertThat(reminders()).isEqualTo(4);
+        assertThat(outboxMails()).isEqualTo(4);
+    }
+
+    private void rewindWatermarks() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            con.createStatement().executeUpdate("UPDATE reminder_watermark SET scanned_until = LOCALTIMESTAMP");
+        }
+    }
+
+    private long reminders() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            return count(con, "SELECT COUNT(*) FROM attendance_reminder WHERE attendance_id = ?");
+        }
+    }
+
+    private long outboxMails() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            return count(con, """
+                    SELECT COUNT(*)
+                      FROM mail_outbox o
+                      JOIN client c ON c.email = o.recipient
+                      JOIN pet p    ON p.client_id = c.id
+                      JOIN attendance a ON a.animal_id = p.id
+                     WHERE a.id = ?
+                       AND o.template = 'appointment-reminder'
+                    """);
+        }
+    }
+
+    private long count(Connection con, String sql) throws Exception {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ps.setLong(1, attendanceId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
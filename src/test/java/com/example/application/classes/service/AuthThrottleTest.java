@@ -0,0 +1,48 @@
+package com.example.application.classes.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AuthThrottleTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Counter ipRejected = registry.counter("ip");
+    private final Counter emailRejected = registry.counter("email");
+
+    @Test
+    void emailRejectionRefundsIpPermit() {
+        RateLimiter byIp = new RateLimiter(2, Duration.ofMinutes(1), 2, 100);
+        RateLimiter byEmail = new RateLimiter(1, Duration.ofMinutes(1), 1, 100);
+
+        AuthThrottle.check(byIp, "10.0.0.1", ipRejected, byEmail, "a@x.com", emailRejected);
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> AuthThrottle.check(byIp, "10.0.0.1", ipRejected, byEmail, "a@x.com", emailRejected))
+                    .isInstanceOf(TooManyAttemptsException.class);
+        }
+
+        // As rejeições do e-mail não gastaram o IP: ainda sobra uma tentativa para outro e-mail.
+        AuthThrottle.check(byIp, "10.0.0.1", ipRejected, byEmail, "b@x.com", emailRejected);
+        assertThat(emailRejected.count()).isEqualTo(5);
+        assertThat(ipRejected.count()).isZero();
+    }
+
+    @Test
+    void ipRejectionDoesNotConsumeEmail() {
+        RateLimiter byIp = new RateLimiter(1, Duration.ofMinutes(1), 1, 100);
+        RateLimiter byEmail = new RateLimiter(1, Duration.ofMinutes(1), 1, 100);
+
+        AuthThrottle.check(byIp, "10.0.0.1", ipRejected, byEmail, "a@x.com", emailRejected);
+        assertThatThrownBy(() -> AuthThrottle.check(byIp, "10.0.0.1", ipRejected, byEmail, "victim@x.com", emailRejected))
+                .isInstanceOf(TooManyAttemptsException.class);
+
+        // O dono do e-mail, de outro IP, continua entrando.
+        AuthThrottle.check(byIp, "10.0.0.2", ipRejected, byEmail, "victim@x.com", emailRejected);
+        assertThat(ipRejected.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.application.classes.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CepDatasetTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path csv = dir.resolve("ceps.csv");
+        Files.writeString(csv, """
+                cep;logradouro;complemento;bairro;localidade;uf
+                01001-000;Praça da Sé;lado ímpar;Sé;São Paulo;SP
+                20040-002;Rua da Assembleia;;Centro;Rio de Janeiro;RJ
+                """);
+        file = dir.resolve("ceps.bin");
+        CepDatasetBuilder.build(csv, file);
+    }
+
+    @Test
+    void findsBuiltEntries() throws IOException {
+        CepDataset dataset = CepDataset.open(file);
+
+        assertThat(dataset.size()).isEqualTo(2);
+        ViaCepResponse r = dataset.find("01001000").orElseThrow();
+        assertThat(r.getCep()).isEqualTo("01001-000");
+        assertThat(r.getLogradouro()).isEqualTo("Praça da Sé");
+        assertThat(r.getUf()).isEqualTo("SP");
+        assertThat(dataset.find("99999999")).isEmpty();
+    }
+
+    @Test
+    void truncatedPoolIsRejectedAtLoad() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 3));
+
+        assertThatThrownBy(() -> CepDataset.open(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("corrompida");
+    }
+
+    @Test
+    void truncatedIndexIsRejectedAtLoad() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, CepDataset.HEADER_BYTES + CepDataset.ENTRY_BYTES));
+
+        assertThatThrownBy(() -> CepDataset.open(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("truncada");
+    }
+
+    @Test
+    void offsetOutsidePoolIsRejectedAtLoad() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(CepDataset.HEADER_BYTES + 4, Integer.MAX_VALUE);
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> CepDataset.open(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("corrompida");
+    }
+
+    @Test
+    void negativeCountIsRejectedAtLoad() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(8, -1);
+        Files.write(file, bytes);
+
+        assertThatThrownBy(() -> CepDataset.open(file)).isInstanceOf(IOException.class);
+    }
+}
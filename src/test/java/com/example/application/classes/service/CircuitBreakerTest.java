@@ -0,0 +1,64 @@
+package com.example.application.classes.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterThresholdAndRefusesCalls() {
+        CircuitBreaker breaker = new CircuitBreaker(2, Duration.ofMinutes(1));
+
+        breaker.onFailure();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void lateFailuresWhileOpenDoNotExtendTheOpenPeriod() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(100));
+        breaker.onFailure();
+
+        // Chamadas que já estavam em andamento falham depois da abertura.
+        Thread.sleep(60);
+        breaker.onFailure();
+        breaker.onFailure();
+        Thread.sleep(60);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void failedTrialReopens() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(50));
+        breaker.onFailure();
+        Thread.sleep(60);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void successfulTrialCloses() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(1, Duration.ofMillis(50));
+        breaker.onFailure();
+        Thread.sleep(60);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+}
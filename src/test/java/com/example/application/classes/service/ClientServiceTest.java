@@ -0,0 +1,46 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.model.Client;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ClientServiceTest {
+
+    @Test
+    void importedClientNeedsName() {
+        Client c = new Client();
+        c.setName("  ");
+
+        assertThatThrownBy(() -> ClientService.validateImported(c))
+                .isInstanceOf(ClientValidationException.class)
+                .hasMessageContaining("Nome");
+    }
+
+    @Test
+    void importedClientWithDocumentNeedsDocType() {
+        Client c = new Client();
+        c.setName("Ana");
+        c.setDocument("12345678909");
+
+        assertThatThrownBy(() -> ClientService.validateImported(c))
+                .isInstanceOf(ClientValidationException.class)
+                .hasMessageContaining("tipo do documento");
+
+        c.setDocType("CPF");
+        assertThatCode(() -> ClientService.validateImported(c)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void importedClientEmailAndLengthsAreChecked() {
+        Client c = new Client();
+        c.setName("Ana");
+        c.setEmail("sem-arroba");
+        assertThatThrownBy(() -> ClientService.validateImported(c)).hasMessageContaining("Email");
+
+        c.setEmail("ana@example.com");
+        c.setUf("SPX");
+        assertThatThrownBy(() -> ClientService.validateImported(c)).hasMessageContaining("UF");
+    }
+}
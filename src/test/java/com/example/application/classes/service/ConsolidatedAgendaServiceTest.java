@@ -0,0 +1,61 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.AgendaRepository;
+import com.example.application.config.ServiceGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConsolidatedAgendaServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2026, 5, 4, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(7);
+
+    @Test
+    void slowCompanyIsReportedAndItsQueriesCarryTheDeadline() throws Exception {
+        AgendaRepository repository = mock(AgendaRepository.class);
+        MembershipCache membershipCache = mock(MembershipCache.class);
+        ServiceGuard serviceGuard = mock(ServiceGuard.class);
+        when(serviceGuard.requireUserId()).thenReturn(7L);
+        when(membershipCache.choicesFor(7L)).thenReturn(List.of(
+                new CompanyChoice(1L, "Rápida", false), new CompanyChoice(2L, "Lenta", false)));
+        when(membershipCache.isMember(anyLong(), anyLong())).thenReturn(true);
+        when(repository.listWindow(eq(1L), any(), any(), anyInt())).thenReturn(List.of());
+        when(repository.listWindow(eq(2L), any(), any(), anyInt())).thenAnswer(inv -> {
+            Thread.sleep(5_000);
+            return List.of();
+        });
+
+        ConsolidatedAgendaService service = new ConsolidatedAgendaService(repository, membershipCache, serviceGuard,
+                new SimpleMeterRegistry(), 4, 1_500);
+        ConsolidatedAgenda agenda = service.listAllCompanies(FROM, TO);
+
+        assertThat(agenda.failedCompanies()).containsExactly("Lenta");
+        // 1,5 s de prazo: o banco recebe 2 s, o arredondamento para cima do que restava.
+        verify(repository).listWindow(1L, FROM, TO, 2);
+        verify(repository).listWindow(2L, FROM, TO, 2);
+        service.shutdown();
+    }
+
+    @Test
+    void expiredDeadlineDoesNotReachTheDatabase() throws Exception {
+        assertThatThrownBy(() -> ConsolidatedAgendaService.queryTimeoutSeconds(System.nanoTime() - 1))
+                .isInstanceOf(TimeoutException.class);
+        assertThat(ConsolidatedAgendaService.queryTimeoutSeconds(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10)))
+                .isEqualTo(1);
+    }
+}
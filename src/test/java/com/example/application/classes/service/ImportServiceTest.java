@@ -0,0 +1,101 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.ImportRepository;
+import com.example.application.config.ServiceGuard;
+import com.example.application.support.Fixtures;
+import com.example.application.support.TestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.when;
+
+class ImportServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private final DataSource dataSource = TestDatabase.dataSource();
+    private final ImportRepository repository = spy(new ImportRepository(dataSource));
+    private final MembershipCache membershipCache = mock(MembershipCache.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ImportService service = new ImportService(repository, mock(ServiceGuard.class), membershipCache,
+            new BatchExecutor(registry, 1, 4), new DataSourceTransactionManager(dataSource), registry, 100);
+
+    private long userId;
+    private long companyId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            userId = Fixtures.user(con);
+            companyId = Fixtures.company(con);
+        }
+        when(membershipCache.isAdmin(userId, companyId)).thenReturn(true);
+    }
+
+    @Test
+    void failedLoadKeepsThePerRowErrorReport() throws Exception {
+        Path csv = dir.resolve("clientes.csv");
+        Files.writeString(csv, """
+                codigo,nome
+                A1,Ana
+                A1,Ana Maria
+                A2,
+                """);
+        doThrow(new SQLException("falha simulada")).when(repository).clearStage(any(), anyLong());
+
+        var prepared = new ImportService.PreparedImport(ImportKind.CLIENT, "clientes.csv", userId, companyId);
+        assertThatThrownBy(() -> service.run(prepared, csv, x -> { }).join())
+                .isInstanceOf(CompletionException.class)
+                .hasRootCauseMessage("falha simulada");
+
+        long jobId = lastJob();
+        assertThat(jobStatus(jobId)).isEqualTo("FAILED");
+        // Erro de validação (nome vazio) e recusa do merge (código repetido) sobrevivem ao rollback.
+        assertThat(repository.listErrors(companyId, jobId, 10))
+                .extracting(ImportError::message)
+                .hasSize(2)
+                .anySatisfy(m -> assertThat(m).contains("Nome"))
+                .anySatisfy(m -> assertThat(m).contains("repetido"));
+        try (Connection con = dataSource.getConnection()) {
+            assertThat(Fixtures.scalar(con, "SELECT COUNT(*) FROM client WHERE company_id = ?", companyId))
+                    .isZero();
+        }
+    }
+
+    private long lastJob() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            return Fixtures.scalar(con, "SELECT MAX(id) FROM import_job WHERE company_id = ?", companyId);
+        }
+    }
+
+    private String jobStatus(long jobId) throws Exception {
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT status FROM import_job WHERE id = ?")) {
+            ps.setLong(1, jobId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.OutboxResetMailer;
+import com.example.application.classes.SmtpResetMailer;
+import com.example.application.classes.repository.MailOutboxRepository;
+import com.example.application.support.LocalSmtp;
+import com.example.application.support.Fixtures;
+import com.example.application.support.TestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MailOutboxDispatcherTest {
+
+    private static final int BACKOFF_BASE_SECONDS = 15;
+
+    private final DataSource dataSource = TestDatabase.dataSource();
+    private final MailOutboxRepository outboxRepository = new MailOutboxRepository(dataSource);
+    private final OutboxResetMailer resetMailer = new OutboxResetMailer(outboxRepository);
+    private final LocalSmtp smtp = new LocalSmtp();
+    private final ProvisionalPasswords provisionalPasswords = mock(ProvisionalPasswords.class);
+
+    private long userId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            con.createStatement().execute("DELETE FROM mail_outbox");
+            userId = Fixtures.user(con);
+        }
+        when(provisionalPasswords.issue(anyLong())).thenReturn("Xk4pQ7mZ2a");
+    }
+
+    @AfterEach
+    void tearDown() {
+        smtp.close();
+    }
+
+    @Test
+    void enqueuedMailIsSentWithPasswordIssuedAtSendTime() throws Exception {
+        resetMailer.sendProvisionalPassword(userId, "ana@example.com", "forgot");
+
+        long id = lastOutboxId();
+        assertThat(column(id, "params::text")).doesNotContain("password").contains(Long.toString(userId));
+
+        smtp.start();
+        dispatcher(8).dispatch();
+
+        assertThat(smtp.received()).hasSize(1);
+        assertThat(smtp.received()[0].getAllRecipients()[0].toString()).isEqualTo("ana@example.com");
+        assertThat(smtp.body(0)).contains("Xk4pQ7mZ2a");
+        verify(provisionalPasswords).issue(userId);
+        assertThat(column(id, "status")).isEqualTo("SENT");
+        assertThat(column(id, "params::text")).isEqualTo("{}");
+    }
+
+    @Test
+    void batchGoesOutOverOneSmtpConnection() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            resetMailer.sendProvisionalPassword(userId, "cliente" + i + "@example.com", "forgot");
+        }
+        smtp.start();
+
+        dispatcher(8).dispatch();
+
+        assertThat(smtp.received()).hasSize(5);
+        assertThat(smtp.connections()).isEqualTo(1);
+    }
+
+    @Test
+    void smtpFailureGoesBackToQueueWithBackoff() throws Exception {
+        resetMailer.sendProvisionalPassword(userId, "ana@example.com", "signup");
+        long id = lastOutboxId();
+
+        // Servidor fora do ar: a conexão é recusada.
+        dispatcher(8).dispatch();
+
+        assertThat(column(id, "status")).isEqualTo("PENDING");
+        assertThat(column(id, "attempts")).isEqualTo("1");
+        assertThat(column(id, "last_error")).isNotBlank();
+        long delay = Long.parseLong(column(id, "EXTRACT(EPOCH FROM next_attempt_at - NOW())::bigint"));
+        assertThat(delay).isBetween(BACKOFF_BASE_SECONDS - 2L, BACKOFF_BASE_SECONDS * 6 / 5 + 1L);
+
+        // Ainda não venceu: o próximo ciclo nem abre conexão.
+        smtp.start();
+        dispatcher(8).dispatch();
+        assertThat(smtp.received()).isEmpty();
+        assertThat(smtp.connections()).isEqualTo(1);
+
+        makeDue(id);
+        dispatcher(8).dispatch();
+        assertThat(smtp.received()).hasSize(1);
+        assertThat(column(id, "status")).isEqualTo("SENT");
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() throws Exception {
+        resetMailer.sendProvisionalPassword(userId, "ana@example.com", "forgot");
+        long id = lastOutboxId();
+
+        MailOutboxDispatcher dispatcher = dispatcher(2);
+        dispatcher.dispatch();
+        assertThat(column(id, "status")).isEqualTo("PENDING");
+
+        makeDue(id);
+        dispatcher.dispatch();
+        assertThat(column(id, "status")).isEqualTo("FAILED");
+        assertThat(column(id, "attempts")).isEqualTo("2");
+        assertThat(column(id, "params::text")).isEqualTo("{}");
+
+        makeDue(id);
+        smtp.start();
+        dispatcher.dispatch();
+        assertThat(smtp.received()).isEmpty();
+    }
+
+    @Test
+    void mailWithoutUserIsNotSent() throws Exception {
+        outboxRepository.enqueue("forgot", "ana@example.com", Map.of());
+        long id = lastOutboxId();
+        smtp.start();
+
+        dispatcher(1).dispatch();
+
+        assertThat(smtp.received()).isEmpty();
+        assertThat(smtp.connections()).isZero();
+        assertThat(column(id, "status")).isEqualTo("FAILED");
+        verify(provisionalPasswords, never()).issue(anyLong());
+    }
+
+    private MailOutboxDispatcher dispatcher(int maxAttempts) {
+        SmtpResetMailer mailer = new SmtpResetMailer(smtp.sender(), "noreply@example.com", "Clínica Vet");
+        return new MailOutboxDispatcher(outboxRepository, mailer, provisionalPasswords, new SimpleMeterRegistry(),
+                20, 300, maxAttempts, BACKOFF_BASE_SECONDS, 3600);
+    }
+
+    private long lastOutboxId() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            return Fixtures.scalar(con, "SELECT MAX(id) FROM mail_outbox");
+        }
+    }
+
+    private void makeDue(long id) throws Exception {
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement(
+                     "UPDATE mail_outbox SET next_attempt_at = NOW() - INTERVAL '1 second' WHERE id = ?")) {
+            ps.setLong(1, id);
+            ps.executeUpdate();
+        }
+    }
+
+    private String column(long id, String expression) throws Exception {
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT " + expression + " FROM mail_outbox WHERE id = ?")) {
+            ps.setLong(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.UserCompanyRepository;
+import com.example.application.support.Fixtures;
+import com.example.application.support.TestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MembershipCacheTest {
+
+    private final DataSource dataSource = TestDatabase.dataSource();
+    private final UserCompanyRepository repository = new UserCompanyRepository(dataSource);
+    private final MembershipCache cache = new MembershipCache(repository, new SimpleMeterRegistry(), 1000, 30);
+
+    private long userId;
+    private long companyId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            userId = Fixtures.user(con);
+            companyId = Fixtures.company(con);
+            Fixtures.member(con, userId, companyId, true);
+        }
+    }
+
+    @Test
+    void invalidateDropsCachedMembership() throws Exception {
+        assertThat(cache.isAdmin(userId, companyId)).isTrue();
+
+        repository.softDelete(userId, companyId);
+        cache.invalidate(userId, companyId);
+
+        assertThat(cache.isMember(userId, companyId)).isFalse();
+        assertThat(cache.choicesFor(userId)).isEmpty();
+    }
+
+    @Test
+    void primeWithoutInvalidationIsServedFromCache() throws Exception {
+        long readAt = cache.generation();
+        List<CompanyChoice> loaded = repository.listActiveCompanyChoicesByUser(userId);
+        cache.prime(userId, loaded, readAt);
+
+        // Mudança no banco sem invalidação: a lista pré-carregada continua valendo.
+        long other;
+        try (Connection con = dataSource.getConnection()) {
+            other = Fixtures.company(con);
+            Fixtures.member(con, userId, other, false);
+        }
+        assertThat(cache.choicesFor(userId)).extracting(c -> c.id).containsExactly(companyId);
+    }
+
+    @Test
+    void revocationBetweenLoginReadAndPrimeIsNotResurrected() throws Exception {
+        long readAt = cache.generation();
+        List<CompanyChoice> loaded = repository.listActiveCompanyChoicesByUser(userId);
+
+        // Revogado enquanto a senha era conferida.
+        repository.softDelete(userId, companyId);
+        cache.invalidate(userId, companyId);
+
+        cache.prime(userId, loaded, readAt);
+
+        assertThat(cache.choicesFor(userId)).isEmpty();
+        assertThat(cache.isMember(userId, companyId)).isFalse();
+    }
+
+    @Test
+    void primeDoesNotGrantMembership() throws Exception {
+        long readAt = cache.generation();
+        List<CompanyChoice> loaded = repository.listActiveCompanyChoicesByUser(userId);
+        repository.softDelete(userId, companyId);
+
+        // Sem invalidação (ex.: outra réplica): só a lista de escolhas pode ficar velha, nunca a permissão.
+        cache.prime(userId, loaded, readAt);
+
+        assertThat(cache.isMember(userId, companyId)).isFalse();
+        assertThat(cache.isAdmin(userId, companyId)).isFalse();
+    }
+}
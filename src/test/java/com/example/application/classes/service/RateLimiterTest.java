@@ -0,0 +1,67 @@
+package com.example.application.classes.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimiterTest {
+
+    @Test
+    void allowsBurstThenRejects() {
+        RateLimiter limiter = new RateLimiter(3, Duration.ofMinutes(1), 3, 100);
+
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        assertThat(limiter.tryAcquire("a")).isFalse();
+    }
+
+    @Test
+    void keysHaveIndependentBuckets() {
+        RateLimiter limiter = new RateLimiter(1, Duration.ofMinutes(1), 1, 100);
+
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        assertThat(limiter.tryAcquire("a")).isFalse();
+        assertThat(limiter.tryAcquire("b")).isTrue();
+    }
+
+    @Test
+    void fullMapDoesNotLockOutNewKeys() {
+        RateLimiter limiter = new RateLimiter(1, Duration.ofMinutes(1), 1, 10);
+
+        // Atacante esgota muitas chaves próprias.
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquire("attacker-" + i);
+            limiter.tryAcquire("attacker-" + i);
+        }
+
+        assertThat(limiter.tryAcquire("victim@example.com")).isTrue();
+        assertThat(limiter.tryAcquire("other@example.com")).isTrue();
+    }
+
+    @Test
+    void trackedKeysStayBounded() throws Exception {
+        RateLimiter limiter = new RateLimiter(1, Duration.ofMinutes(1), 1, 10);
+        for (int i = 0; i < 1_000; i++) {
+            limiter.tryAcquire("k-" + i);
+        }
+        // Caffeine aplica o limite de forma assíncrona.
+        for (int i = 0; i < 50 && limiter.trackedKeys() > 10; i++) {
+            Thread.sleep(20);
+            limiter.tryAcquire("k-0");
+        }
+        assertThat(limiter.trackedKeys()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    void releaseReturnsThePermit() {
+        RateLimiter limiter = new RateLimiter(1, Duration.ofMinutes(1), 1, 100);
+
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        limiter.release("a");
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        assertThat(limiter.tryAcquire("a")).isFalse();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.DocumentType;
+import com.example.application.classes.repository.TenantArchiveRepository;
+import com.example.application.classes.repository.UserCompanyRepository;
+import com.example.application.config.ServiceGuard;
+import com.example.application.support.Fixtures;
+import com.example.application.support.TestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class TenantArchiveServiceTest {
+
+    private static final LocalDateTime APPOINTMENT = LocalDateTime.of(2026, 3, 1, 10, 15, 30, 123_456_000);
+
+    @TempDir
+    Path dir;
+
+    private final DataSource dataSource = TestDatabase.dataSource();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MembershipCache membershipCache =
+            new MembershipCache(new UserCompanyRepository(dataSource), registry, 1000, 30);
+    private final TenantArchiveService service = new TenantArchiveService(
+            new TenantArchiveRepository(dataSource), mock(ServiceGuard.class), membershipCache,
+            new BatchExecutor(registry, 1, 4), new DataSourceTransactionManager(dataSource), registry, 100);
+
+    private long companyId;
+    private long adminId;
+    private long importerId;
+    private Path archive;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            companyId = Fixtures.company(con);
+            adminId = Fixtures.user(con);
+            Fixtures.member(con, adminId, companyId, true);
+            Fixtures.member(con, Fixtures.user(con), companyId, false);
+            long petId = Fixtures.pet(con, companyId, Fixtures.client(con, companyId));
+            Fixtures.attendance(con, petId, APPOINTMENT);
+            importerId = Fixtures.user(con);
+        }
+
+        archive = dir.resolve("empresa.cvta");
+        try (OutputStream out = Files.newOutputStream(archive)) {
+            service.export(new TenantArchiveService.PreparedArchive(adminId, companyId), out);
+        }
+    }
+
+    @Test
+    void restoringInTheSameEnvironmentReportsExistingCompany() {
+        assertThatThrownBy(() -> service.importArchive(importerId, archive, null).join())
+                .isInstanceOf(CompletionException.class)
+                .cause()
+                .isInstanceOf(ArchiveCompanyExistsException.class);
+    }
+
+    @Test
+    void importAsCopyLinksOnlyTheImporterAndKeepsMicroseconds() throws Exception {
+        var target = new TenantArchiveService.ArchiveTarget("Cópia", DocumentType.CNPJ, randomCnpj());
+
+        TenantArchiveService.ImportedArchive result = service.importArchive(importerId, archive, target).join();
+
+        assertThat(result.companyName()).isEqualTo("Cópia");
+        assertThat(result.attendances()).isEqualTo(1);
+        assertThat(result.membersNotLinked()).isEqualTo(2);
+        assertThat(membershipCache.isAdmin(importerId, result.companyId())).isTrue();
+        assertThat(membershipCache.isMember(adminId, result.companyId())).isFalse();
+
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement("""
+                     SELECT a.appointment_at
+                       FROM attendance a
+                       JOIN pet p ON p.id = a.animal_id
+                      WHERE p.company_id = ?
+                     """)) {
+            ps.setLong(1, result.companyId());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                assertThat(rs.getObject(1, Timestamp.class).toLocalDateTime()).isEqualTo(APPOINTMENT);
+            }
+        }
+    }
+
+    @Test
+    void invalidCopyTargetIsRejectedBeforeImport() {
+        var target = new TenantArchiveService.ArchiveTarget("Cópia", DocumentType.CNPJ, "123");
+
+        assertThatThrownBy(() -> service.importArchive(importerId, archive, target))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("CNPJ");
+    }
+
+    private static String randomCnpj() {
+        return String.format("%014d", ThreadLocalRandom.current().nextLong(100_000_000_000_000L));
+    }
+}
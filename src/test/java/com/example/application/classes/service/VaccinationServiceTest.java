@@ -0,0 +1,105 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.model.VaccineProtocol;
+import com.example.application.classes.repository.VaccinationRepository;
+import com.example.application.config.ServiceGuard;
+import com.example.application.support.Fixtures;
+import com.example.application.support.TestDatabase;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class VaccinationServiceTest {
+
+    private static final LocalDate APPLIED = LocalDate.of(2026, 2, 1);
+
+    private final DataSource dataSource = TestDatabase.dataSource();
+    private final VaccinationRepository repository = new VaccinationRepository(dataSource);
+    private final ServiceGuard serviceGuard = mock(ServiceGuard.class);
+    // Lote de 1 linha: o recálculo passa por várias transações.
+    private final VaccinationService service = new VaccinationService(repository, serviceGuard,
+            new DataSourceTransactionManager(dataSource), new SimpleMeterRegistry(), 1);
+
+    private long companyId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        try (Connection con = dataSource.getConnection()) {
+            companyId = Fixtures.company(con);
+        }
+        when(serviceGuard.requireCompanyId()).thenReturn(companyId);
+    }
+
+    @Test
+    void savingWithSameIntervalFinishesAnInterruptedRecompute() throws Exception {
+        VaccineProtocol protocol = protocol("V10", 365);
+        service.createProtocol(protocol);
+        // Vencimentos de um recálculo que parou no meio (intervalo antigo de 30 dias).
+        long first = vaccination(protocol.getId(), APPLIED.plusDays(30));
+        long second = vaccination(protocol.getId(), APPLIED.plusDays(30));
+
+        service.updateProtocol(protocol);
+
+        assertThat(nextDue(first)).isEqualTo(APPLIED.plusDays(365));
+        assertThat(nextDue(second)).isEqualTo(APPLIED.plusDays(365));
+    }
+
+    @Test
+    void protocolChangesRequireAdmin() throws Exception {
+        VaccineProtocol existing = protocol("Antirrábica", 365);
+        service.createProtocol(existing);
+        doThrow(new SecurityException("Usuário não possui privilégios de administrador na empresa selecionada."))
+                .when(serviceGuard).requireAdmin();
+
+        assertThatThrownBy(() -> service.createProtocol(protocol("Giárdia", 180)))
+                .isInstanceOf(SecurityException.class);
+        existing.setBoosterIntervalDays(30);
+        assertThatThrownBy(() -> service.updateProtocol(existing))
+                .isInstanceOf(SecurityException.class);
+        assertThat(repository.findProtocol(companyId, existing.getId()).orElseThrow().getBoosterIntervalDays())
+                .isEqualTo(365);
+    }
+
+    private static VaccineProtocol protocol(String name, int interval) {
+        VaccineProtocol protocol = new VaccineProtocol();
+        protocol.setName(name);
+        protocol.setBoosterIntervalDays(interval);
+        return protocol;
+    }
+
+    private long vaccination(long protocolId, LocalDate nextDue) throws Exception {
+        // Um pet por aplicação: cada uma é a vigente do seu pet/protocolo.
+        try (Connection con = dataSource.getConnection()) {
+            long pet = Fixtures.pet(con, companyId, Fixtures.client(con, companyId));
+            return Fixtures.scalar(con, """
+                    INSERT INTO pet_vaccination (company_id, pet_id, protocol_id, applied_at, is_current, next_due_at)
+                    VALUES (?, ?, ?, ?, TRUE, ?) RETURNING id
+                    """, companyId, pet, protocolId, Date.valueOf(APPLIED), Date.valueOf(nextDue));
+        }
+    }
+
+    private LocalDate nextDue(long vaccinationId) throws Exception {
+        try (Connection con = dataSource.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT next_due_at FROM pet_vaccination WHERE id = ?")) {
+            ps.setLong(1, vaccinationId);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getDate(1).toLocalDate();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.application.classes.service;
+
+import com.example.application.classes.repository.WaitlistRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WaitlistBoardTest {
+
+    private static final long COMPANY = 1L;
+
+    @Test
+    void changesBetweenTicksArePublishedOnceToEverySubscriber() throws Exception {
+        WaitlistRepository repository = mock(WaitlistRepository.class);
+        when(repository.listRecent(anyLong(), any())).thenReturn(List.of());
+        WaitlistBoard board = new WaitlistBoard(repository, new SimpleMeterRegistry());
+
+        List<WaitlistSnapshot> first = new ArrayList<>();
+        List<WaitlistSnapshot> second = new ArrayList<>();
+        board.subscribe(COMPANY, first::add);
+        board.subscribe(COMPANY, second::add);
+
+        board.apply(COMPANY, entry(10, 0, WaitlistStatus.WAITING));
+        board.apply(COMPANY, entry(11, 0, WaitlistStatus.WAITING));
+        board.apply(COMPANY, entry(10, 1, WaitlistStatus.CALLED));
+        // Versão antiga chegando atrasada não desfaz a chamada.
+        board.apply(COMPANY, entry(10, 0, WaitlistStatus.WAITING));
+        board.publish();
+        board.publish();
+
+        assertThat(first).hasSize(2);
+        assertThat(second).hasSize(2);
+        WaitlistSnapshot pushed = first.get(1);
+        assertThat(second.get(1)).isSameAs(pushed);
+        assertThat(pushed.waiting()).extracting(WaitlistEntry::id).containsExactly(11L);
+        assertThat(pushed.called()).extracting(WaitlistEntry::id).containsExactly(10L);
+    }
+
+    private static WaitlistEntry entry(long id, int version, WaitlistStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        return new WaitlistEntry(id, version, null, "Rex", null, WaitlistPriority.NORMAL, status, null,
+                now.minusMinutes(id), status == WaitlistStatus.CALLED ? now : null, now);
+    }
+}
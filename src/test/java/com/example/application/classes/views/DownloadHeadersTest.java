@@ -0,0 +1,56 @@
+package com.example.application.classes.views;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DownloadHeadersTest {
+
+    private static final String ETAG = "\"abc123\"";
+
+    @Test
+    void onlyPassiveTypesOpenInline() {
+        assertThat(DownloadHeaders.inlineAllowed("application/pdf")).isTrue();
+        assertThat(DownloadHeaders.inlineAllowed("IMAGE/PNG")).isTrue();
+        assertThat(DownloadHeaders.inlineAllowed("image/jpeg; q=1")).isTrue();
+        assertThat(DownloadHeaders.inlineAllowed("video/mp4")).isTrue();
+
+        assertThat(DownloadHeaders.inlineAllowed("text/html")).isFalse();
+        assertThat(DownloadHeaders.inlineAllowed("image/svg+xml")).isFalse();
+        assertThat(DownloadHeaders.inlineAllowed("application/xhtml+xml")).isFalse();
+        assertThat(DownloadHeaders.inlineAllowed("video/")).isFalse();
+        assertThat(DownloadHeaders.inlineAllowed(null)).isFalse();
+    }
+
+    @Test
+    void contentDispositionKeepsNameSafe() {
+        assertThat(DownloadHeaders.contentDisposition(false, "exame \"final\".html"))
+                .isEqualTo("attachment; filename=\"exame _final_.html\"; filename*=UTF-8''exame%20%22final%22.html");
+        assertThat(DownloadHeaders.contentDisposition(true, "raio-x ção.pdf"))
+                .startsWith("inline; filename=\"raio-x __o.pdf\"")
+                .endsWith("filename*=UTF-8''raio-x%20%C3%A7%C3%A3o.pdf");
+    }
+
+    @Test
+    void ifNoneMatchHandlesListsWeakValidatorsAndWildcard() {
+        assertThat(DownloadHeaders.ifNoneMatch(ETAG, ETAG)).isTrue();
+        assertThat(DownloadHeaders.ifNoneMatch("W/\"abc123\"", ETAG)).isTrue();
+        assertThat(DownloadHeaders.ifNoneMatch("\"other\", W/\"abc123\"", ETAG)).isTrue();
+        assertThat(DownloadHeaders.ifNoneMatch("\"x,y\",\"abc123\"", ETAG)).isTrue();
+        assertThat(DownloadHeaders.ifNoneMatch(" * ", ETAG)).isTrue();
+
+        assertThat(DownloadHeaders.ifNoneMatch("\"abc1234\"", ETAG)).isFalse();
+        assertThat(DownloadHeaders.ifNoneMatch("abc123", ETAG)).isFalse();
+        assertThat(DownloadHeaders.ifNoneMatch("\"abc123", ETAG)).isFalse();
+        assertThat(DownloadHeaders.ifNoneMatch(null, ETAG)).isFalse();
+    }
+
+    @Test
+    void rangeParsing() {
+        assertThat(DownloadHeaders.parseRange("bytes=0-9", 100)).containsExactly(0, 9);
+        assertThat(DownloadHeaders.parseRange("bytes=90-", 100)).containsExactly(90, 99);
+        assertThat(DownloadHeaders.parseRange("bytes=-10", 100)).containsExactly(90, 99);
+        assertThat(DownloadHeaders.parseRange("bytes=100-", 100)).isSameAs(DownloadHeaders.UNSATISFIABLE);
+        assertThat(DownloadHeaders.parseRange("bytes=0-1,5-6", 100)).isNull();
+    }
+}
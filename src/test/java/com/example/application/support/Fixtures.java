@@ -0,0 +1,78 @@
+package com.example.application.support;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** Linhas mínimas para montar um cenário de teste (empresa, usuário, tutor, pet, atendimento). */
+public final class Fixtures {
+
+    private Fixtures() {}
+
+    public static long company(Connection con) throws SQLException {
+        return insert(con, """
+                INSERT INTO company (name, document_type, document)
+                VALUES (?, 'CNPJ', ?) RETURNING id
+                """, "Clínica " + suffix(), suffix());
+    }
+
+    public static long user(Connection con) throws SQLException {
+        String s = suffix();
+        return insert(con, """
+                INSERT INTO app_user (name, email, password_hash)
+                VALUES (?, ?, 'x') RETURNING id
+                """, "Usuário " + s, s + "@teste.local");
+    }
+
+    public static long member(Connection con, long userId, long companyId, boolean admin) throws SQLException {
+        return insert(con, """
+                INSERT INTO user_company (user_id, company_id, admin)
+                VALUES (?, ?, ?) RETURNING id
+                """, userId, companyId, admin);
+    }
+
+    public static long client(Connection con, long companyId) throws SQLException {
+        return insert(con, """
+                INSERT INTO client (company_id, name, email)
+                VALUES (?, ?, ?) RETURNING id
+                """, companyId, "Tutor " + suffix(), suffix() + "@tutor.local");
+    }
+
+    public static long pet(Connection con, long companyId, long clientId) throws SQLException {
+        return insert(con, """
+                INSERT INTO pet (company_id, client_id, name)
+                VALUES (?, ?, ?) RETURNING id
+                """, companyId, clientId, "Pet " + suffix());
+    }
+
+    public static long attendance(Connection con, long petId, LocalDateTime appointmentAt) throws SQLException {
+        return insert(con, """
+                INSERT INTO attendance (animal_id, appointment_at, description)
+                VALUES (?, ?, 'Consulta') RETURNING id
+                """, petId, appointmentAt == null ? null : Timestamp.valueOf(appointmentAt));
+    }
+
+    public static long scalar(Connection con, String sql, Object... params) throws SQLException {
+        return insert(con, sql, params);
+    }
+
+    private static long insert(Connection con, String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static String suffix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.application.support;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP em processo (GreenMail) atrás de um JavaMailSenderImpl de verdade.
+ * A porta é reservada na criação; com o servidor parado, o envio falha na conexão como falharia em produção.
+ */
+public class LocalSmtp implements AutoCloseable {
+
+    private final ServerSetup setup;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final JavaMailSenderImpl sender;
+    private GreenMail server;
+
+    public LocalSmtp() {
+        this.setup = new ServerSetup(freePort(), "127.0.0.1", ServerSetup.PROTOCOL_SMTP);
+        this.sender = new JavaMailSenderImpl() {
+            @Override
+            protected Transport connectTransport() throws MessagingException {
+                connections.incrementAndGet();
+                return super.connectTransport();
+            }
+        };
+        sender.setHost(setup.getBindAddress());
+        sender.setPort(setup.getPort());
+        Properties props = new Properties();
+        props.put("mail.smtp.connectiontimeout", "2000");
+        props.put("mail.smtp.timeout", "2000");
+        sender.setJavaMailProperties(props);
+    }
+
+    public void start() {
+        server = new GreenMail(setup);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) server.stop();
+        server = null;
+    }
+
+    public JavaMailSenderImpl sender() {
+        return sender;
+    }
+
+    /** Conexões SMTP abertas pelo sender, com ou sem sucesso. */
+    public int connections() {
+        return connections.get();
+    }
+
+    public MimeMessage[] received() {
+        return server == null ? new MimeMessage[0] : server.getReceivedMessages();
+    }
+
+    public String body(int index) throws IOException, MessagingException {
+        return received()[index].getContent().toString();
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.application.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * PostgreSQL embarcado para testes de repositório: as consultas usam recursos do PostgreSQL
+ * (SKIP LOCKED, unnest, jsonb, COPY) que o H2 não tem. Um banco por JVM, migrado pelo Flyway
+ * com as mesmas migrações da aplicação; cada teste limpa o que criou.
+ */
+public final class TestDatabase {
+
+    private static DataSource dataSource;
+
+    private TestDatabase() {}
+
+    public static synchronized DataSource dataSource() {
+        if (dataSource == null) {
+            try {
+                EmbeddedPostgres pg = EmbeddedPostgres.builder().start();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        pg.close();
+                    } catch (IOException ignored) {
+                    }
+                }));
+                dataSource = pg.getPostgresDatabase();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            Flyway.configure()
+                    .dataSource(dataSource)
+                    .locations("classpath:db/migration")
+                    .load()
+                    .migrate();
+        }
+        return dataSource;
+    }
+}